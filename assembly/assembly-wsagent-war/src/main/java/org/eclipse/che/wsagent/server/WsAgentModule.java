@@ -42,6 +42,7 @@ import org.eclipse.che.api.core.websocket.WebSocketMessageTransmitter;
 import org.eclipse.che.api.core.websocket.impl.BasicWebSocketTransmissionValidator;
 import org.eclipse.che.api.core.websocket.impl.GuiceInjectorEndpointConfigurator;
 import org.eclipse.che.api.core.websocket.impl.BasicWebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.WebSocketAcknowledgementReceiver;
 import org.eclipse.che.api.core.websocket.impl.WebSocketTransmissionValidator;
 import org.eclipse.che.api.git.GitConnectionFactory;
 import org.eclipse.che.api.git.GitUserResolver;
@@ -67,6 +68,7 @@ public class WsAgentModule extends AbstractModule {
     @Override
     protected void configure() {
         bind(ApiInfoService.class);
+        bind(org.eclipse.che.everrest.CborResponseFilter.class);
 
         bind(PreferenceDao.class).to(org.eclipse.che.RemotePreferenceDao.class);
 
@@ -129,6 +131,7 @@ public class WsAgentModule extends AbstractModule {
                 MapBinder.newMapBinder(binder(), String.class, WebSocketMessageReceiver.class);
 
         receivers.addBinding("jsonrpc-2.0").to(WebSocketJsonRpcDispatcher.class);
+        receivers.addBinding(WebSocketAcknowledgementReceiver.PROTOCOL).to(WebSocketAcknowledgementReceiver.class);
     }
 
     private void configureJsonRpc() {
@@ -10,23 +10,30 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.notification;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
 /**
  * Dispatchers events to listeners. Usage example:
@@ -40,6 +47,14 @@ import java.util.concurrent.CopyOnWriteArraySet;
  *     });
  *     bus.publish(new MyEvent());
  * </pre>
+ * Subscribers registered with {@link #subscribe(EventSubscriber)} are notified in the thread that publishes event. Subscribers
+ * registered with {@link #subscribeAsync(EventSubscriber)} are notified in the separate executor, every such subscriber has its own
+ * bounded queue of events and receives events one by one in the order in which they were published. Publisher is blocked while
+ * queue of asynchronous subscriber is full. Events that can't be delivered because executor is shut down are dropped, so
+ * publishers never wait for subscribers that are not notified anymore.
+ * <p>
+ * For every published type of event service keeps list of subscribers that must be notified, this list is calculated once after
+ * subscribers are changed.
  *
  * @author andrew00x
  */
@@ -47,41 +62,36 @@ import java.util.concurrent.CopyOnWriteArraySet;
 public class EventService {
     private static final Logger LOG = LoggerFactory.getLogger(EventService.class);
 
-    private static final int CACHE_NUM  = 1 << 2;
-    private static final int CACHE_MASK = CACHE_NUM - 1;
-    private static final int SEG_SIZE   = 32;
+    static final int DEFAULT_ASYNC_QUEUE_CAPACITY = 1000;
 
-    private final LoadingCache<Class<?>, Set<Class<?>>>[]       typeCache;
-    private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+    private final Map<Class<?>, Set<Subscription>> subscribersByEventType;
+    private final int                              asyncQueueCapacity;
+    private final boolean                          ownAsyncExecutor;
+
+    private volatile Map<Class<?>, Subscription[]> dispatchTable;
+    private          ExecutorService               asyncExecutor;
+    private          boolean                       stopped;
 
-    @SuppressWarnings("unchecked")
     public EventService() {
-        subscribersByEventType = new ConcurrentHashMap<>();
-        typeCache = new LoadingCache[CACHE_NUM];
-        for (int i = 0; i < CACHE_NUM; i++) {
-            typeCache[i] = CacheBuilder.newBuilder().concurrencyLevel(SEG_SIZE).build(
-                    new CacheLoader<Class<?>, Set<Class<?>>>() {
-                        @Override
-                        public Set<Class<?>> load(Class<?> eventClass) {
-                            LinkedList<Class<?>> parents = new LinkedList<>();
-                            Set<Class<?>> classes = new HashSet<>();
-                            parents.add(eventClass);
-                            while (!parents.isEmpty()) {
-                                Class<?> clazz = parents.pop();
-                                classes.add(clazz);
-                                Class<?> parent = clazz.getSuperclass();
-                                if (parent != null) {
-                                    parents.add(parent);
-                                }
-                                Class<?>[] interfaces = clazz.getInterfaces();
-                                if (interfaces.length > 0) {
-                                    Collections.addAll(parents, interfaces);
-                                }
-                            }
-                            return classes;
-                        }
-                    });
+        this(null, DEFAULT_ASYNC_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param asyncExecutor
+     *         executor that notifies asynchronous subscribers, if {@code null} then executor is created at first asynchronous
+     *         notification and shut down in {@link #stop()}
+     * @param asyncQueueCapacity
+     *         capacity of queue of events of each asynchronous subscriber
+     */
+    public EventService(ExecutorService asyncExecutor, int asyncQueueCapacity) {
+        if (asyncQueueCapacity < 1) {
+            throw new IllegalArgumentException("Capacity of queue must be positive.");
         }
+        this.asyncExecutor = asyncExecutor;
+        this.ownAsyncExecutor = asyncExecutor == null;
+        this.asyncQueueCapacity = asyncQueueCapacity;
+        subscribersByEventType = new HashMap<>();
+        dispatchTable = Collections.emptyMap();
     }
 
     /**
@@ -90,24 +100,17 @@ public class EventService {
      * @param event
      *         event
      */
-    @SuppressWarnings("unchecked")
     public void publish(Object event) {
         if (event == null) {
             throw new IllegalArgumentException("Null event.");
         }
         final Class<?> eventClass = event.getClass();
-        for (Class<?> clazz : typeCache[eventClass.hashCode() & CACHE_MASK].getUnchecked(eventClass)) {
-            final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
-            if (eventSubscribers != null && !eventSubscribers.isEmpty()) {
-                for (EventSubscriber eventSubscriber : eventSubscribers) {
-                    try {
-                        LOG.debug("Publish event {} for {}", event, eventSubscriber);
-                        eventSubscriber.onEvent(event);
-                    } catch (RuntimeException e) {
-                        LOG.error(e.getMessage(), e);
-                    }
-                }
-            }
+        Subscription[] subscriptions = dispatchTable.get(eventClass);
+        if (subscriptions == null) {
+            subscriptions = addToDispatchTable(eventClass);
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.deliver(event);
         }
     }
 
@@ -120,7 +123,7 @@ public class EventService {
      */
     public void subscribe(EventSubscriber<?> subscriber) {
         final Class<?> eventType = getEventType(subscriber);
-        doSubscribe(subscriber, eventType);
+        doSubscribe(new Subscription(subscriber), eventType);
     }
 
     /**
@@ -131,19 +134,54 @@ public class EventService {
      * @param eventType The event to subscribe to.
      */
     public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType) {
-        doSubscribe(subscriber, eventType);
+        doSubscribe(new Subscription(subscriber), eventType);
+    }
+
+    /**
+     * Subscribe event listener that is notified asynchronously. The event to subscribe to is inferred by checking the generic type
+     * arguments of the given subscriber.
+     *
+     * @param subscriber
+     *         event subscriber
+     */
+    public void subscribeAsync(EventSubscriber<?> subscriber) {
+        final Class<?> eventType = getEventType(subscriber);
+        doSubscribe(new AsyncSubscription(subscriber, null), eventType);
     }
 
-    private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
-        Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
+    /**
+     * Subscribe to an event. The given subscriber will be called asynchronously whenever an instance of the specified event is
+     * published.
+     *
+     * @param subscriber The subscriber to call when an event is published.
+     * @param eventType The event to subscribe to.
+     */
+    public <T> void subscribeAsync(EventSubscriber<? extends T> subscriber, Class<T> eventType) {
+        doSubscribe(new AsyncSubscription(subscriber, null), eventType);
+    }
+
+    /**
+     * Subscribe to an event. The given subscriber will be called asynchronously whenever an instance of the specified event that
+     * is accepted by the filter is published. Filter is applied in the thread that publishes event, so rejected events never take
+     * place in the queue of subscriber.
+     *
+     * @param subscriber The subscriber to call when an event is published.
+     * @param eventType The event to subscribe to.
+     * @param filter Accepts events that subscriber must be notified about, must be fast and thread-safe.
+     */
+    public <T> void subscribeAsync(EventSubscriber<? extends T> subscriber, Class<T> eventType, Predicate<? super T> filter) {
+        doSubscribe(new AsyncSubscription(subscriber, filter), eventType);
+    }
+
+    private synchronized void doSubscribe(Subscription subscription, Class<?> eventType) {
+        Set<Subscription> entries = subscribersByEventType.get(eventType);
         if (entries == null) {
-            Set<EventSubscriber> newEntries = new CopyOnWriteArraySet<>();
-            entries = subscribersByEventType.putIfAbsent(eventType, newEntries);
-            if (entries == null) {
-                entries = newEntries;
-            }
+            entries = new LinkedHashSet<>();
+            subscribersByEventType.put(eventType, entries);
+        }
+        if (entries.add(subscription)) {
+            dispatchTable = Collections.emptyMap();
         }
-        entries.add(subscriber);
     }
 
     /**
@@ -152,19 +190,83 @@ public class EventService {
      * @param subscriber
      *         event subscriber
      */
-    public void unsubscribe(EventSubscriber<?> subscriber) {
+    public synchronized void unsubscribe(EventSubscriber<?> subscriber) {
         final Class<?> eventType = getEventType(subscriber);
-        final Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
+        final Set<Subscription> entries = subscribersByEventType.get(eventType);
         if (entries != null && !entries.isEmpty()) {
-            boolean changed = entries.remove(subscriber);
+            boolean changed = entries.remove(new Subscription(subscriber));
             if (changed) {
                 if (entries.isEmpty()) {
                     subscribersByEventType.remove(eventType);
                 }
+                dispatchTable = Collections.emptyMap();
             }
         }
     }
 
+    /**
+     * Shuts down executor of asynchronous subscribers if it was created by this service. Executor is never created again, so
+     * asynchronous subscribers are not notified after that.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        stopped = true;
+        if (ownAsyncExecutor && asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
+    }
+
+    /** Finds subscribers of all super types of {@code eventClass} and adds them in the dispatch table. */
+    private synchronized Subscription[] addToDispatchTable(Class<?> eventClass) {
+        Subscription[] subscriptions = dispatchTable.get(eventClass);
+        if (subscriptions != null) {
+            return subscriptions;
+        }
+        final List<Subscription> found = new ArrayList<>();
+        for (Class<?> clazz : getSuperTypes(eventClass)) {
+            final Set<Subscription> entries = subscribersByEventType.get(clazz);
+            if (entries != null) {
+                found.addAll(entries);
+            }
+        }
+        subscriptions = found.toArray(new Subscription[found.size()]);
+        final Map<Class<?>, Subscription[]> newDispatchTable = new HashMap<>(dispatchTable);
+        newDispatchTable.put(eventClass, subscriptions);
+        dispatchTable = Collections.unmodifiableMap(newDispatchTable);
+        return subscriptions;
+    }
+
+    private synchronized ExecutorService getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            if (stopped) {
+                throw new RejectedExecutionException("Event service is stopped");
+            }
+            asyncExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("EventService-%d")
+                                                                                    .setDaemon(true)
+                                                                                    .build());
+        }
+        return asyncExecutor;
+    }
+
+    private static Set<Class<?>> getSuperTypes(Class<?> eventClass) {
+        final LinkedList<Class<?>> parents = new LinkedList<>();
+        final Set<Class<?>> classes = new LinkedHashSet<>();
+        parents.add(eventClass);
+        while (!parents.isEmpty()) {
+            Class<?> clazz = parents.pop();
+            classes.add(clazz);
+            Class<?> parent = clazz.getSuperclass();
+            if (parent != null) {
+                parents.add(parent);
+            }
+            Class<?>[] interfaces = clazz.getInterfaces();
+            if (interfaces.length > 0) {
+                Collections.addAll(parents, interfaces);
+            }
+        }
+        return classes;
+    }
+
     private Class<?> getEventType(EventSubscriber<?> subscriber) {
         Class<?> eventType = null;
         Class<?> clazz = subscriber.getClass();
@@ -190,4 +292,118 @@ public class EventService {
         }
         return eventType;
     }
+
+    /** Subscriber notified in the thread that publishes event. Subscriptions are equal if their subscribers are equal. */
+    private static class Subscription {
+        final EventSubscriber subscriber;
+
+        Subscription(EventSubscriber<?> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void deliver(Object event) {
+            notifySubscriber(event);
+        }
+
+        @SuppressWarnings("unchecked")
+        void notifySubscriber(Object event) {
+            try {
+                LOG.debug("Publish event {} for {}", event, subscriber);
+                subscriber.onEvent(event);
+            } catch (RuntimeException e) {
+                LOG.error(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Subscription && subscriber.equals(((Subscription)o).subscriber);
+        }
+
+        @Override
+        public int hashCode() {
+            return subscriber.hashCode();
+        }
+    }
+
+    /**
+     * Subscriber notified in the executor of asynchronous subscribers. At most one task drains queue of subscriber at the same
+     * time, so subscriber receives events in the order in which they were published.
+     */
+    private class AsyncSubscription extends Subscription {
+        final BlockingQueue<Object> queue;
+        final AtomicBoolean         scheduled;
+        final Predicate             filter;
+
+        volatile Thread drainingThread;
+
+        AsyncSubscription(EventSubscriber<?> subscriber, Predicate<?> filter) {
+            super(subscriber);
+            this.filter = filter;
+            queue = new ArrayBlockingQueue<>(asyncQueueCapacity);
+            scheduled = new AtomicBoolean();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void deliver(Object event) {
+            if (filter != null && !filter.test(event)) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                if (drainingThread == Thread.currentThread()) {
+                    // subscriber publishes event itself while its queue is full, waiting for free space would never end
+                    LOG.warn("Queue of events of {} is full, event {} is delivered out of order", subscriber, event);
+                    notifySubscriber(event);
+                    return;
+                }
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    LOG.warn("Interrupted while waiting for free space in queue of events of {}, event {} is lost", subscriber, event);
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    getAsyncExecutor().execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // nobody drains the queue anymore, don't let publishers wait for free space in it
+                    final int dropped = clear();
+                    scheduled.set(false);
+                    LOG.warn("Unable notify {}, executor of asynchronous subscribers is shut down, {} events are dropped",
+                             subscriber, dropped);
+                }
+            }
+        }
+
+        void drain() {
+            drainingThread = Thread.currentThread();
+            try {
+                Object event;
+                while ((event = queue.poll()) != null) {
+                    notifySubscriber(event);
+                }
+            } finally {
+                drainingThread = null;
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        int clear() {
+            int dropped = 0;
+            while (queue.poll() != null) {
+                dropped++;
+            }
+            return dropped;
+        }
+    }
 }
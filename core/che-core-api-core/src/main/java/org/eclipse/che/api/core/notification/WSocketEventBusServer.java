@@ -61,12 +61,13 @@ public final class WSocketEventBusServer {
     void start() {
         if (start.compareAndSet(false, true)) {
             if (policy != null) {
-                eventService.subscribe(new EventSubscriber<Object>() {
+                // events are filtered by the publisher, so queue of subscriber holds only events that are sent to clients
+                eventService.subscribeAsync(new EventSubscriber<Object>() {
                     @Override
                     public void onEvent(Object event) {
                         propagate(event);
                     }
-                });
+                }, Object.class, policy::shouldPropagated);
             }
         }
     }
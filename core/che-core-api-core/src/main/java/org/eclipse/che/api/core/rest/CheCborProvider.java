@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.eclipse.che.dto.server.CborWriter;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonSerializable;
+import org.eclipse.che.dto.shared.DTO;
+
+import javax.inject.Singleton;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation of {@link MessageBodyReader} and {@link MessageBodyWriter} for binding DTOs and lists of DTOs to and from binary
+ * CBOR content. CBOR keeps the structure of JSON but it is shorter and cheaper to parse, names of fields repeated in every element of
+ * list are written once, see {@link CborWriter}.
+ * <p>
+ * Client receives CBOR if it prefers {@link #MEDIA_TYPE} over JSON in {@code Accept} header, see
+ * {@link org.eclipse.che.everrest.CborResponseFilter}.
+ *
+ * @see CheJsonProvider
+ */
+@Singleton
+@Provider
+@Produces({CheCborProvider.MEDIA_TYPE})
+@Consumes({CheCborProvider.MEDIA_TYPE})
+public class CheCborProvider<T> implements MessageBodyReader<T>, MessageBodyWriter<T> {
+    public static final String MEDIA_TYPE = "application/cbor";
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return JsonSerializable.class.isAssignableFrom(type)
+               || type.isAnnotationPresent(DTO.class)
+               || (Collection.class.isAssignableFrom(type) && getDtoElementType(genericType) != null);
+    }
+
+    @Override
+    public long getSize(T t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(T t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
+        // Add Cache-Control before start write body.
+        httpHeaders.putSingle(HttpHeaders.CACHE_CONTROL, "public, no-cache, no-store, no-transform");
+        try (OutputStream out = new BufferedOutputStream(entityStream)) {
+            if (t instanceof JsonSerializable) {
+                DtoFactory.getInstance().toCbor(t, out);
+            } else {
+                DtoFactory.getInstance().toCborArray((Collection<?>)t, out);
+            }
+        }
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type.isAnnotationPresent(DTO.class) || (type.isAssignableFrom(List.class) && getDtoElementType(genericType) != null);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T readFrom(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                      MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException, WebApplicationException {
+        if (type.isAnnotationPresent(DTO.class)) {
+            return DtoFactory.getInstance().createDtoFromCbor(entityStream, type);
+        }
+        return (T)DtoFactory.getInstance().createListDtoFromCbor(entityStream, getDtoElementType(genericType));
+    }
+
+    /** Returns type of elements if {@code genericType} is parameterized with DTO interface, e.g. {@code List<WorkspaceDto>}. */
+    private Class<?> getDtoElementType(Type genericType) {
+        if (genericType instanceof ParameterizedType) {
+            final Type[] typeArguments = ((ParameterizedType)genericType).getActualTypeArguments();
+            if (typeArguments.length == 1
+                && typeArguments[0] instanceof Class
+                && ((Class<?>)typeArguments[0]).isAnnotationPresent(DTO.class)) {
+                return (Class<?>)typeArguments[0];
+            }
+        }
+        return null;
+    }
+}
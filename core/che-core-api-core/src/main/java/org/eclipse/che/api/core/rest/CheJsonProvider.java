@@ -28,6 +28,7 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -37,6 +38,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -80,8 +82,12 @@ public class CheJsonProvider<T> implements MessageBodyReader<T>, MessageBodyWrit
         // Add Cache-Control before start write body.
         httpHeaders.putSingle(HttpHeaders.CACHE_CONTROL, "public, no-cache, no-store, no-transform");
         if (t instanceof JsonSerializable) {
-            try (Writer w = new OutputStreamWriter(entityStream, Charset.forName("UTF-8"))) {
-                w.write(((JsonSerializable)t).toJson());
+            try (Writer w = new BufferedWriter(new OutputStreamWriter(entityStream, Charset.forName("UTF-8")))) {
+                DtoFactory.getInstance().toJson(t, w);
+            }
+        } else if (t instanceof Collection && isDtoCollection((Collection<?>)t, genericType)) {
+            try (Writer w = new BufferedWriter(new OutputStreamWriter(entityStream, Charset.forName("UTF-8")))) {
+                DtoFactory.getInstance().toJsonArray((Collection<?>)t, w);
             }
         } else {
             delegate.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, entityStream);
@@ -114,6 +120,28 @@ public class CheJsonProvider<T> implements MessageBodyReader<T>, MessageBodyWrit
         return (T)delegate.readFrom(type, genericType, annotations, mediaType, httpHeaders, entityStream);
     }
 
+    /**
+     * Checks whether collection contains DTOs only. Such collections are written directly to the stream element by element, in
+     * the same format as they are read with {@link DtoFactory#createListDtoFromJson(InputStream, Class)}.
+     */
+    private boolean isDtoCollection(Collection<?> collection, Type genericType) {
+        if (!(genericType instanceof ParameterizedType)) {
+            return false;
+        }
+        final Type[] typeArguments = ((ParameterizedType)genericType).getActualTypeArguments();
+        if (typeArguments.length != 1
+            || !(typeArguments[0] instanceof Class)
+            || !((Class<?>)typeArguments[0]).isAnnotationPresent(DTO.class)) {
+            return false;
+        }
+        for (Object element : collection) {
+            if (element != null && !(element instanceof JsonSerializable)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Get Set of classes that we never try to serialize or deserialize. Returned Set is mutable and new classes may be added in ignored
      * Set.
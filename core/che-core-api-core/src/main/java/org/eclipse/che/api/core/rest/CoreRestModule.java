@@ -21,6 +21,7 @@ public class CoreRestModule extends AbstractModule {
     @Override
     protected void configure() {
         bind(CheJsonProvider.class);
+        bind(CheCborProvider.class);
         bind(ApiExceptionMapper.class);
         Multibinder.newSetBinder(binder(), Class.class, Names.named("che.json.ignored_classes"));
     }
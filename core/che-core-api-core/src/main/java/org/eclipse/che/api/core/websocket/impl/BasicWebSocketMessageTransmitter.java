@@ -17,15 +17,18 @@ import org.slf4j.Logger;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.websocket.Session;
-import java.util.Optional;
 
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Transmits messages over WEB SOCKET to a specific endpoint or broadcasts them.
- * If WEB SOCKET session is not opened adds messages to re-sender to try to send
- * them when session will be opened again.
+ * Message to a specific endpoint is passed to re-sender, which numbers it, sends
+ * it if WEB SOCKET session is open and keeps it until client acknowledges it, so
+ * it is sent again when session will be opened again.
+ * <p>
+ * Broadcast message is serialized once and the same text is sent to every open
+ * session through {@link WebSocketSessionSender}, one at a time per session.
  *
  * @author Dmitry Kuleshov
  */
@@ -36,14 +39,17 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
     private final WebSocketSessionRegistry       registry;
     private final PendingMessagesReSender        resender;
     private final WebSocketTransmissionValidator validator;
+    private final WebSocketSessionSender         sender;
 
     @Inject
     public BasicWebSocketMessageTransmitter(WebSocketSessionRegistry registry,
                                             PendingMessagesReSender resender,
-                                            WebSocketTransmissionValidator validator) {
+                                            WebSocketTransmissionValidator validator,
+                                            WebSocketSessionSender sender) {
         this.registry = registry;
         this.resender = resender;
         this.validator = validator;
+        this.sender = sender;
     }
 
     @Override
@@ -51,17 +57,9 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
         final WebSocketTransmission transmission = newDto(WebSocketTransmission.class).withProtocol(protocol).withMessage(message);
         validator.validate(transmission);
 
-        final Optional<Session> sessionOptional = registry.get(endpointId);
+        LOG.debug("Passing message for endpoint {} to re-sender", endpointId);
 
-        if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
-            LOG.debug("Session is not registered or closed, adding message to pending");
-
-            resender.add(endpointId, transmission);
-        } else {
-            LOG.debug("Session registered and open, sending message");
-
-            sessionOptional.get().getAsyncRemote().sendText(transmission.toString());
-        }
+        resender.add(endpointId, transmission);
     }
 
     @Override
@@ -69,13 +67,13 @@ public class BasicWebSocketMessageTransmitter implements WebSocketMessageTransmi
         final WebSocketTransmission transmission = newDto(WebSocketTransmission.class).withProtocol(protocol).withMessage(message);
         validator.validate(transmission);
 
-        LOG.debug("Broadcasting a web socket transmission: ", transmission.toString());
+        final String text = transmission.toString();
+
+        LOG.debug("Broadcasting a web socket transmission: {}", text);
 
         registry.getSessions()
                 .stream()
                 .filter(Session::isOpen)
-                .map(Session::getAsyncRemote)
-                .forEach(it -> it.sendText(transmission.toString()));
+                .forEach(session -> sender.send(session, text, null));
     }
-
 }
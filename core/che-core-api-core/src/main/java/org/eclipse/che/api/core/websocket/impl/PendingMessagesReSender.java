@@ -11,77 +11,283 @@
 package org.eclipse.che.api.core.websocket.impl;
 
 import org.eclipse.che.api.core.websocket.shared.WebSocketTransmission;
+import org.slf4j.Logger;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.websocket.Session;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
- * Instance is responsible for re-sending messages that were not sent during the period
- * when WEB SOCKET session was closed. If session is closed during re-send process it
- * stops and left messages will be re-sent as WEB SOCKET session becomes open again.
+ * Instance is responsible for delivering messages to a specific endpoint, including
+ * messages that were not sent or not received during the period when WEB SOCKET session
+ * was closed.
+ * <p>
+ * Every message gets a sequence number, which is sent in the transmission. Numbers grow
+ * across endpoints and start from the current time multiplied by 1000, so they keep
+ * growing after restart of the server. Message is kept until client acknowledges its
+ * number (see {@link WebSocketAcknowledgementReceiver}). If the session of endpoint is open,
+ * message is sent right away. When a new session of endpoint is opened, all the messages
+ * that are not acknowledged yet are sent to it. Messages are sent through the queue of
+ * session in the order of their numbers, client ignores the numbers it has already
+ * received, so re-sent message is processed once.
+ * <p>
+ * Each endpoint keeps at most {@link #MAX_MESSAGES_PER_ENDPOINT} latest messages, older
+ * messages are dropped when the limit is reached. Messages older than {@link #MESSAGE_TTL_MILLIS}
+ * are expired, endpoints which have no messages left and no open session are forgotten, so
+ * endpoints that never reconnect don't hold memory. Total number of pending messages is limited
+ * by {@link #MAX_MESSAGES}.
  *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class PendingMessagesReSender {
-    private static final int MAX_MESSAGES = 100;
+    private static final Logger LOG = getLogger(PendingMessagesReSender.class);
+
+    static final int  MAX_MESSAGES_PER_ENDPOINT = 100;
+    static final int  MAX_MESSAGES              = 10_000;
+    static final long MESSAGE_TTL_MILLIS        = MINUTES.toMillis(5);
+
+    private static final long EXPIRATION_CHECK_PERIOD_MILLIS = SECONDS.toMillis(30);
 
     private final WebSocketSessionRegistry registry;
+    private final WebSocketSessionSender   sender;
+
+    private final ConcurrentMap<Integer, EndpointMessages> messagesMap = new ConcurrentHashMap<>();
 
-    private final Map<Integer, List<WebSocketTransmission>> messagesMap = new HashMap<>();
+    private final AtomicInteger totalMessages    = new AtomicInteger();
+    private final AtomicLong    droppedMessages  = new AtomicLong();
+    private final AtomicLong    expiredMessages  = new AtomicLong();
+    private final AtomicLong    replayedMessages = new AtomicLong();
+    private final AtomicLong    lastExpirationCheck;
+    private final AtomicLong    nextSequenceNumber;
 
     @Inject
-    public PendingMessagesReSender(WebSocketSessionRegistry registry) {
+    public PendingMessagesReSender(WebSocketSessionRegistry registry, WebSocketSessionSender sender) {
         this.registry = registry;
+        this.sender = sender;
+        this.lastExpirationCheck = new AtomicLong(currentTimeMillis());
+        this.nextSequenceNumber = new AtomicLong(currentTimeMillis() * 1000);
     }
 
+    /**
+     * Numbers the message and keeps it until it is acknowledged, sends it right away if
+     * session of endpoint is open and all the previous messages are already passed to it.
+     */
     public void add(Integer endpointId, WebSocketTransmission message) {
-        List<WebSocketTransmission> messages = messagesMap.get(endpointId);
+        final long now = currentTimeMillis();
+        expireAllIfNeeded(now);
 
-        if (messages == null) {
-            messages = new LinkedList<>();
-            messagesMap.put(endpointId, messages);
+        while (true) {
+            final EndpointMessages messages = messagesMap.computeIfAbsent(endpointId, id -> new EndpointMessages());
+            synchronized (messages) {
+                if (messages.removed) {
+                    continue;
+                }
+                messages.expire(now);
+                if (messages.size() >= MAX_MESSAGES_PER_ENDPOINT || totalMessages.get() >= MAX_MESSAGES) {
+                    if (messages.size() == 0) {
+                        // entry might be just created for this message, don't keep it until expiration check
+                        messages.removeIfEmpty(endpointId);
+                        droppedMessages.incrementAndGet();
+                        LOG.debug("Limit of pending messages is reached, dropping message for endpoint {}", endpointId);
+                        return;
+                    }
+                    messages.removeFirst();
+                    droppedMessages.incrementAndGet();
+                    LOG.debug("Limit of pending messages is reached, dropping the oldest message for endpoint {}", endpointId);
+                }
+                messages.add(message, now);
+                messages.sendNew();
+                return;
+            }
         }
+    }
+
+    /** Sends messages that are not acknowledged yet to the session of endpoint which is just opened. */
+    public void resend(Integer endpointId) {
+        final Optional<Session> sessionOptional = registry.get(endpointId);
 
-        if (messages.size() <= MAX_MESSAGES) {
-            messages.add(message);
+        if (!sessionOptional.isPresent()) {
+            return;
+        }
+
+        final Session session = sessionOptional.get();
+
+        if (!session.isOpen()) {
+            return;
+        }
+
+        while (true) {
+            final EndpointMessages messages = messagesMap.computeIfAbsent(endpointId, id -> new EndpointMessages());
+            synchronized (messages) {
+                if (messages.removed) {
+                    continue;
+                }
+                messages.expire(currentTimeMillis());
+                messages.attach(session);
+                return;
+            }
         }
     }
 
-    public void resend(Integer endpointId) {
-        final List<WebSocketTransmission> messages = messagesMap.remove(endpointId);
+    /** Removes messages of endpoint which numbers are not greater than acknowledged number. */
+    public void acknowledge(Integer endpointId, long sequenceNumber) {
+        final EndpointMessages messages = messagesMap.get(endpointId);
 
-        if (messages == null || messages.isEmpty()) {
+        if (messages == null) {
             return;
         }
 
-        final Optional<Session> sessionOptional = registry.get(endpointId);
+        synchronized (messages) {
+            PendingMessage message;
+            while ((message = messages.peekFirst()) != null && message.sequenceNumber <= sequenceNumber) {
+                messages.removeFirst();
+            }
+            messages.removeIfEmpty(endpointId);
+        }
+    }
 
-        if (!sessionOptional.isPresent()) {
+    /** Number of messages which are not acknowledged yet. */
+    public int getPendingCount() {
+        return totalMessages.get();
+    }
+
+    /** Number of endpoints which have messages waiting for re-sending. */
+    int getPendingEndpointsCount() {
+        return messagesMap.size();
+    }
+
+    /** Number of messages dropped because of limits of pending messages. */
+    public long getDroppedCount() {
+        return droppedMessages.get();
+    }
+
+    /** Number of messages dropped because they were not re-sent during {@link #MESSAGE_TTL_MILLIS}. */
+    public long getExpiredCount() {
+        return expiredMessages.get();
+    }
+
+    /** Number of messages which are sent again to the new session of endpoint. */
+    public long getReplayedCount() {
+        return replayedMessages.get();
+    }
+
+    private void expireAllIfNeeded(long now) {
+        final long lastCheck = lastExpirationCheck.get();
+        if (now - lastCheck < EXPIRATION_CHECK_PERIOD_MILLIS || !lastExpirationCheck.compareAndSet(lastCheck, now)) {
             return;
         }
+        for (Map.Entry<Integer, EndpointMessages> entry : messagesMap.entrySet()) {
+            final EndpointMessages messages = entry.getValue();
+            synchronized (messages) {
+                messages.expire(now);
+                messages.removeIfEmpty(entry.getKey());
+            }
+        }
+        LOG.debug("Pending messages: {}, dropped: {}, expired: {}, re-sent: {}",
+                  totalMessages.get(), droppedMessages.get(), expiredMessages.get(), replayedMessages.get());
+    }
 
-        final Session session = sessionOptional.get();
+    /** Messages of single endpoint, all methods must be called while holding the monitor of instance. */
+    private class EndpointMessages {
+        final Deque<PendingMessage> messages = new ArrayDeque<>();
+
+        boolean removed;
+        /** Session which messages are passed to, {@code null} if there was no open session since the endpoint is created. */
+        Session session;
+        /** The greatest number of message that is passed to the session. */
+        long    sentSequenceNumber = -1;
+
+        int size() {
+            return messages.size();
+        }
+
+        void add(WebSocketTransmission transmission, long time) {
+            final long sequenceNumber = nextSequenceNumber.getAndIncrement();
+            transmission.withSequenceNumber(sequenceNumber);
+            messages.addLast(new PendingMessage(sequenceNumber, time, transmission.toString()));
+            totalMessages.incrementAndGet();
+        }
 
-        final List<WebSocketTransmission> backing = new ArrayList<>(messages);
-        messages.clear();
+        /** Passes all the messages to the new session, or the messages which are not passed yet to the same session. */
+        void attach(Session newSession) {
+            if (session != newSession) {
+                session = newSession;
+                sentSequenceNumber = -1;
+                if (!messages.isEmpty()) {
+                    LOG.debug("Re-sending {} messages to endpoint", messages.size());
+                    replayedMessages.addAndGet(messages.size());
+                }
+            }
+            sendNew();
+        }
+
+        /** Passes messages which are not passed yet to the session, if it is open. */
+        void sendNew() {
+            if (session == null || !session.isOpen()) {
+                return;
+            }
+            for (PendingMessage message : messages) {
+                if (message.sequenceNumber > sentSequenceNumber) {
+                    LOG.debug("Sending message {}", message.sequenceNumber);
+                    // message that is not sent stays here until the next session
+                    sender.send(session, message.text, null);
+                    sentSequenceNumber = message.sequenceNumber;
+                }
+            }
+        }
 
-        for (WebSocketTransmission message : backing) {
+        PendingMessage peekFirst() {
+            return messages.peekFirst();
+        }
 
-            if (session.isOpen()) {
-                session.getAsyncRemote().sendText(message.toString());
-            } else {
-                messages.add(message);
+        void removeFirst() {
+            messages.removeFirst();
+            totalMessages.decrementAndGet();
+        }
+
+        void expire(long now) {
+            for (Iterator<PendingMessage> iterator = messages.iterator(); iterator.hasNext(); ) {
+                if (now - iterator.next().time < MESSAGE_TTL_MILLIS) {
+                    break;
+                }
+                iterator.remove();
+                totalMessages.decrementAndGet();
+                expiredMessages.incrementAndGet();
             }
         }
 
-        messagesMap.put(endpointId, messages);
+        void removeIfEmpty(Integer endpointId) {
+            if (messages.isEmpty() && (session == null || !session.isOpen())) {
+                removed = true;
+                messagesMap.remove(endpointId, this);
+            }
+        }
+    }
+
+    private static class PendingMessage {
+        final long   sequenceNumber;
+        final long   time;
+        final String text;
+
+        PendingMessage(long sequenceNumber, long time, String text) {
+            this.sequenceNumber = sequenceNumber;
+            this.time = time;
+            this.text = text;
+        }
     }
 }
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.websocket.impl;
+
+import org.eclipse.che.api.core.websocket.WebSocketMessageReceiver;
+import org.slf4j.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Receives acknowledgements of transmissions sent to a specific endpoint, message
+ * is the greatest sequence number which client has received, transmissions with
+ * numbers that are not greater than it are not re-sent anymore.
+ */
+@Singleton
+public class WebSocketAcknowledgementReceiver implements WebSocketMessageReceiver {
+    public static final String PROTOCOL = "acknowledgement";
+
+    private static final Logger LOG = getLogger(WebSocketAcknowledgementReceiver.class);
+
+    private final PendingMessagesReSender resender;
+
+    @Inject
+    public WebSocketAcknowledgementReceiver(PendingMessagesReSender resender) {
+        this.resender = resender;
+    }
+
+    @Override
+    public void receive(String message, Integer endpointId) {
+        final long sequenceNumber;
+        try {
+            sequenceNumber = Long.parseLong(message.trim());
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid acknowledgement from endpoint {}: {}", endpointId, message);
+            return;
+        }
+        resender.acknowledge(endpointId, sequenceNumber);
+    }
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.websocket.impl;
+
+import com.google.common.collect.MapMaker;
+
+import org.slf4j.Logger;
+
+import javax.inject.Singleton;
+import javax.websocket.CloseReason;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Sends text messages to WEB SOCKET sessions asynchronously.
+ * <p>
+ * Container doesn't allow to start asynchronous send while the previous one is in flight,
+ * so every session has its own queue of messages and the next message is sent when sending
+ * of the previous one is completed. If a session has more than {@link #MAX_PENDING_MESSAGES}
+ * messages that are not sent yet then the session is considered as a slow consumer and it
+ * is closed, client is expected to reconnect.
+ */
+@Singleton
+public class WebSocketSessionSender {
+    private static final Logger LOG = getLogger(WebSocketSessionSender.class);
+
+    static final int MAX_PENDING_MESSAGES = 1000;
+
+    /** Queues of messages which are passed to session but not sent yet. Sessions are compared by identity. */
+    private final ConcurrentMap<Session, SessionQueue> queues;
+
+    public WebSocketSessionSender() {
+        this.queues = new MapMaker().weakKeys().makeMap();
+    }
+
+    /**
+     * Adds text to the queue of the session, text is sent after all the texts that are
+     * already in the queue.
+     *
+     * @param onFailure
+     *         called if the text is not sent because session is closed as a slow consumer or sending failed,
+     *         may be {@code null} if nothing should be done in this case
+     */
+    public void send(Session session, String text, Runnable onFailure) {
+        if (!queues.computeIfAbsent(session, SessionQueue::new).add(new OutgoingMessage(text, onFailure))) {
+            // session is just closed as a slow consumer
+            onFailed(onFailure);
+        }
+    }
+
+    private static void onFailed(Runnable onFailure) {
+        if (onFailure != null) {
+            onFailure.run();
+        }
+    }
+
+    private static class OutgoingMessage {
+        final String   text;
+        final Runnable onFailure;
+
+        OutgoingMessage(String text, Runnable onFailure) {
+            this.text = text;
+            this.onFailure = onFailure;
+        }
+    }
+
+    /** Queue of messages of single session, at most one message is in flight. */
+    private class SessionQueue {
+        final Session                session;
+        final Deque<OutgoingMessage> messages;
+
+        boolean sending;
+        boolean closed;
+
+        SessionQueue(Session session) {
+            this.session = session;
+            this.messages = new ArrayDeque<>();
+        }
+
+        /** Returns {@code false} if the queue is closed and message is not added. */
+        boolean add(OutgoingMessage message) {
+            final List<OutgoingMessage> failed;
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                messages.addLast(message);
+                if (messages.size() + (sending ? 1 : 0) <= MAX_PENDING_MESSAGES) {
+                    if (sending) {
+                        return true;
+                    }
+                    sending = true;
+                    failed = null;
+                } else {
+                    failed = close();
+                }
+            }
+            if (failed == null) {
+                sendNext();
+            } else {
+                LOG.warn("Session {} has more than {} pending messages, closing it as a slow consumer",
+                         session.getId(), MAX_PENDING_MESSAGES);
+                try {
+                    session.close(new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "Slow consumer"));
+                } catch (IOException e) {
+                    LOG.debug("Unable close session {}: {}", session.getId(), e.getMessage());
+                }
+                failed.forEach(failedMessage -> onFailed(failedMessage.onFailure));
+            }
+            return true;
+        }
+
+        void sendNext() {
+            final OutgoingMessage message;
+            synchronized (this) {
+                message = messages.pollFirst();
+                if (message == null) {
+                    sending = false;
+                    return;
+                }
+            }
+            try {
+                session.getAsyncRemote().sendText(message.text, result -> onSent(message, result));
+            } catch (RuntimeException e) {
+                // session is closed or broken, the rest of messages can't be sent as well
+                LOG.warn("Unable send message to session {}: {}", session.getId(), e.getMessage());
+                final List<OutgoingMessage> failed;
+                synchronized (this) {
+                    failed = close();
+                }
+                onFailed(message.onFailure);
+                failed.forEach(failedMessage -> onFailed(failedMessage.onFailure));
+            }
+        }
+
+        void onSent(OutgoingMessage message, SendResult result) {
+            if (!result.isOK()) {
+                LOG.warn("Unable send message to session {}: {}", session.getId(), result.getException().getMessage());
+                onFailed(message.onFailure);
+            }
+            sendNext();
+        }
+
+        /** Closes the queue and returns messages that are not sent. Must be called while holding the monitor of instance. */
+        List<OutgoingMessage> close() {
+            closed = true;
+            sending = false;
+            queues.remove(session, this);
+            final List<OutgoingMessage> notSent = new ArrayList<>(messages);
+            messages.clear();
+            return notSent;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.everrest;
+
+import org.eclipse.che.api.core.rest.CheCborProvider;
+import org.eclipse.che.commons.lang.reflect.ParameterizedTypeImpl;
+import org.eclipse.che.dto.server.JsonSerializable;
+import org.eclipse.che.dto.shared.DTO;
+import org.everrest.core.ApplicationContext;
+import org.everrest.core.Filter;
+import org.everrest.core.GenericContainerResponse;
+import org.everrest.core.ResponseFilter;
+
+import javax.ws.rs.core.GenericEntity;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.List;
+
+/**
+ * Filter implementing {@link org.everrest.core.ResponseFilter} in order to send DTOs in binary CBOR format to clients that prefer it,
+ * see {@link CheCborProvider}.
+ * <p>
+ * Resources declare JSON content type only, filter replaces it with {@value CheCborProvider#MEDIA_TYPE} if entity of response is DTO
+ * or not empty list of DTOs and {@code Accept} header of request lists {@value CheCborProvider#MEDIA_TYPE} before JSON and before
+ * any wildcard type.
+ */
+@Filter
+public class CborResponseFilter implements ResponseFilter {
+    private static final MediaType CBOR_TYPE = MediaType.valueOf(CheCborProvider.MEDIA_TYPE);
+
+    @Override
+    public void doFilter(GenericContainerResponse containerResponse) {
+        final Object entity = containerResponse.getEntity();
+        if (entity == null || !MediaType.APPLICATION_JSON_TYPE.equals(containerResponse.getContentType())) {
+            return;
+        }
+        final HttpHeaders headers = ApplicationContext.getCurrent().getHttpHeaders();
+        if (headers == null || !isCborPreferred(headers.getAcceptableMediaTypes())) {
+            return;
+        }
+        final Object cborEntity;
+        if (entity instanceof JsonSerializable) {
+            cborEntity = entity;
+        } else if (entity instanceof List) {
+            final Class<?> dtoInterface = getDtoInterface((List<?>)entity);
+            if (dtoInterface == null) {
+                return;
+            }
+            // keep type of elements, provider writes only lists of DTOs
+            cborEntity = new GenericEntity<>(entity, new ParameterizedTypeImpl(List.class, dtoInterface));
+        } else {
+            return;
+        }
+        containerResponse.setResponse(Response.fromResponse(containerResponse.getResponse())
+                                              .entity(cborEntity)
+                                              .type(CBOR_TYPE)
+                                              .build());
+    }
+
+    /** Acceptable types are sorted by preference, checks whether CBOR goes before any other type that allows JSON. */
+    private boolean isCborPreferred(List<MediaType> acceptableMediaTypes) {
+        for (MediaType mediaType : acceptableMediaTypes) {
+            if (CBOR_TYPE.isCompatible(mediaType) && !mediaType.isWildcardType() && !mediaType.isWildcardSubtype()) {
+                return true;
+            }
+            if (MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /** Returns DTO interface implemented by all elements of the list or {@code null} if there is no such interface. */
+    private Class<?> getDtoInterface(List<?> entities) {
+        if (entities.isEmpty() || !(entities.get(0) instanceof JsonSerializable)) {
+            return null;
+        }
+        Class<?> dtoInterface = null;
+        for (Class<?> candidate : entities.get(0).getClass().getInterfaces()) {
+            if (candidate.isAnnotationPresent(DTO.class)) {
+                dtoInterface = candidate;
+                break;
+            }
+        }
+        if (dtoInterface == null) {
+            return null;
+        }
+        for (Object element : entities) {
+            if (!dtoInterface.isInstance(element)) {
+                return null;
+            }
+        }
+        return dtoInterface;
+    }
+}
@@ -11,12 +11,16 @@
 package org.eclipse.che.api.core.notification;
 
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author andrew00x
@@ -29,6 +33,11 @@ public class EventServiceTest {
         bus = new EventService();
     }
 
+    @AfterMethod
+    public void tearDown() {
+        bus.stop();
+    }
+
     @Test
     public void testSimpleEvent() {
         final List<Object> events = new ArrayList<>();
@@ -157,4 +166,130 @@ public class EventServiceTest {
         bus.publish(new Event());
         Assert.assertEquals(events.size(), 0);
     }
+
+    @Test
+    public void testAsyncSubscriberReceivesEventsInPublishOrder() throws Exception {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch received = new CountDownLatch(100);
+        bus.subscribeAsync(new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                events.add(event);
+                received.countDown();
+            }
+        });
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add("event" + i);
+            bus.publish("event" + i);
+        }
+        Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(events, expected);
+    }
+
+    @Test
+    public void testSlowAsyncSubscriberDoesNotBlockPublisher() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch received = new CountDownLatch(1);
+        final List<String> syncEvents = new ArrayList<>();
+        bus.subscribeAsync(new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.countDown();
+            }
+        });
+        bus.subscribe(new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                syncEvents.add(event);
+            }
+        });
+
+        bus.publish("hello");
+
+        Assert.assertEquals(syncEvents.size(), 1);
+        Assert.assertEquals(received.getCount(), 1);
+        release.countDown();
+        Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUnsubscribeAsyncSubscriber() throws Exception {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        EventSubscriber<String> l = new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                events.add(event);
+            }
+        };
+        bus.subscribeAsync(l);
+        bus.unsubscribe(l);
+        bus.publish("hello");
+        Thread.sleep(200);
+        Assert.assertEquals(events.size(), 0);
+    }
+
+    @Test(timeOut = 10000)
+    public void testEventsRejectedByFilterAreNotQueued() throws Exception {
+        final EventService service = new EventService(null, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final List<String> events = new CopyOnWriteArrayList<>();
+        service.subscribeAsync(new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                events.add(event);
+            }
+        }, String.class, event -> !event.startsWith("skip"));
+        try {
+            service.publish("first");
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            service.publish("second");
+
+            // queue is full, publisher would be blocked if these events were queued
+            for (int i = 0; i < 10; i++) {
+                service.publish("skip" + i);
+            }
+
+            release.countDown();
+            while (events.size() < 2) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(100);
+            Assert.assertEquals(events.toString(), "[first, second]");
+        } finally {
+            service.stop();
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testAsyncSubscriberIsNotNotifiedAndDoesNotBlockPublisherAfterStop() throws Exception {
+        final EventService service = new EventService(null, 1);
+        final List<String> events = new CopyOnWriteArrayList<>();
+        service.subscribeAsync(new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                events.add(event);
+            }
+        });
+        service.stop();
+
+        for (int i = 0; i < 10; i++) {
+            service.publish("event" + i);
+        }
+
+        Thread.sleep(200);
+        Assert.assertEquals(events.size(), 0);
+    }
 }
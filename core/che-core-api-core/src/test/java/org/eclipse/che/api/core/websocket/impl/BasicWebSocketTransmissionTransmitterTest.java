@@ -12,21 +12,31 @@ package org.eclipse.che.api.core.websocket.impl;
 
 import org.eclipse.che.api.core.websocket.shared.WebSocketTransmission;
 import org.eclipse.che.dto.server.DtoFactory;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
+import javax.websocket.CloseReason;
 import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import static com.google.common.collect.Sets.newHashSet;
 import static java.util.Collections.emptySet;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -47,7 +57,7 @@ public class BasicWebSocketTransmissionTransmitterTest {
     private PendingMessagesReSender          reSender;
     @Mock
     private WebSocketTransmissionValidator   validator;
-    @InjectMocks
+
     private BasicWebSocketMessageTransmitter transmitter;
 
     @Mock
@@ -56,10 +66,20 @@ public class BasicWebSocketTransmissionTransmitterTest {
     private RemoteEndpoint.Async remote;
 
     private WebSocketTransmission transmission;
+    /** Handlers of sends in flight, container allows one send in flight per session. */
+    private List<SendHandler>     inFlight;
 
 
     @BeforeMethod
     public void setUp() throws Exception {
+        inFlight = new ArrayList<>();
+        doAnswer(invocation -> {
+            if (!inFlight.isEmpty()) {
+                throw new IllegalStateException("The remote endpoint was in state [TEXT_FULL_WRITING] which is an invalid state");
+            }
+            inFlight.add((SendHandler)invocation.getArguments()[1]);
+            return null;
+        }).when(remote).sendText(anyString(), any(SendHandler.class));
         when(session.getAsyncRemote()).thenReturn(remote);
         when(session.isOpen()).thenReturn(true);
 
@@ -67,6 +87,8 @@ public class BasicWebSocketTransmissionTransmitterTest {
         when(registry.getSessions()).thenReturn(emptySet());
 
         transmission = DtoFactory.newDto(WebSocketTransmission.class).withProtocol(PROTOCOL).withMessage(MESSAGE);
+
+        transmitter = new BasicWebSocketMessageTransmitter(registry, reSender, validator, new WebSocketSessionSender());
     }
 
     @Test
@@ -84,12 +106,11 @@ public class BasicWebSocketTransmissionTransmitterTest {
     }
 
     @Test
-    public void shouldSendDirectMessageIfSessionIsOpenAndEndpointIsSet() {
+    public void shouldPassDirectMessageToReSenderIfSessionIsOpenAndEndpointIsSet() {
         transmitter.transmit(PROTOCOL, MESSAGE, ENDPOINT_ID);
 
-        verify(session).getAsyncRemote();
-        verify(remote).sendText(transmission.toString());
-        verify(reSender, never()).add(eq(ENDPOINT_ID), any(WebSocketTransmission.class));
+        verify(remote, never()).sendText(anyString(), any(SendHandler.class));
+        verify(reSender).add(eq(ENDPOINT_ID), any(WebSocketTransmission.class));
     }
 
     @Test
@@ -97,7 +118,7 @@ public class BasicWebSocketTransmissionTransmitterTest {
         transmitter.transmit(PROTOCOL, MESSAGE);
 
         verify(session, never()).getAsyncRemote();
-        verify(remote, never()).sendText(transmission.toString());
+        verify(remote, never()).sendText(eq(transmission.toString()), any(SendHandler.class));
         verify(reSender, never()).add(any(), any(WebSocketTransmission.class));
 
         verify(registry).getSessions();
@@ -110,7 +131,63 @@ public class BasicWebSocketTransmissionTransmitterTest {
         transmitter.transmit(PROTOCOL, MESSAGE, ENDPOINT_ID);
 
         verify(session, never()).getAsyncRemote();
-        verify(remote, never()).sendText(transmission.toString());
+        verify(remote, never()).sendText(eq(transmission.toString()), any(SendHandler.class));
         verify(reSender).add(eq(ENDPOINT_ID), any(WebSocketTransmission.class));
     }
+
+    @Test
+    public void shouldSendSameTextToAllOpenSessionsWhenBroadcasting() {
+        Session other = mock(Session.class);
+        RemoteEndpoint.Async otherRemote = mock(RemoteEndpoint.Async.class);
+        when(other.getAsyncRemote()).thenReturn(otherRemote);
+        when(other.isOpen()).thenReturn(true);
+        when(registry.getSessions()).thenReturn(newHashSet(session, other));
+
+        transmitter.transmit(PROTOCOL, MESSAGE);
+
+        verify(remote).sendText(eq(transmission.toString()), any(SendHandler.class));
+        verify(otherRemote).sendText(eq(transmission.toString()), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldSendNextMessageToSessionWhenPreviousIsSent() {
+        when(registry.getSessions()).thenReturn(newHashSet(session));
+
+        transmitter.transmit(PROTOCOL, MESSAGE);
+        transmitter.transmit(PROTOCOL, MESSAGE);
+        transmitter.transmit(PROTOCOL, MESSAGE);
+
+        verify(remote, times(1)).sendText(anyString(), any(SendHandler.class));
+
+        completeSend(new SendResult());
+        completeSend(new SendResult());
+
+        verify(remote, times(3)).sendText(anyString(), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldCloseSessionThatDoesNotConsumeMessages() throws Exception {
+        when(registry.getSessions()).thenReturn(newHashSet(session));
+
+        for (int i = 0; i <= WebSocketSessionSender.MAX_PENDING_MESSAGES; i++) {
+            transmitter.transmit(PROTOCOL, MESSAGE);
+        }
+
+        verify(remote, times(1)).sendText(anyString(), any(SendHandler.class));
+        verify(session).close(any(CloseReason.class));
+    }
+
+    @Test
+    public void shouldNotAddBroadcastingMessageToPendingIfSendingFails() {
+        when(registry.getSessions()).thenReturn(newHashSet(session));
+        doThrow(new IllegalStateException("closed")).when(remote).sendText(anyString(), any(SendHandler.class));
+
+        transmitter.transmit(PROTOCOL, MESSAGE);
+
+        verify(reSender, never()).add(any(), any(WebSocketTransmission.class));
+    }
+
+    private void completeSend(SendResult result) {
+        inFlight.remove(0).onResult(result);
+    }
 }
@@ -11,7 +11,8 @@
 package org.eclipse.che.api.core.websocket.impl;
 
 import org.eclipse.che.api.core.websocket.shared.WebSocketTransmission;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -19,15 +20,23 @@ import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
 import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
 import java.util.Optional;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Tests for {@link PendingMessagesReSender}
@@ -41,8 +50,8 @@ public class PendingMessagesReSenderTest {
 
     @Mock
     private WebSocketSessionRegistry sessionRegistry;
-    @InjectMocks
-    private PendingMessagesReSender  resender;
+
+    private PendingMessagesReSender resender;
 
     @Mock
     private Session               session;
@@ -57,11 +66,12 @@ public class PendingMessagesReSenderTest {
         when(session.getAsyncRemote()).thenReturn(endpoint);
         when(session.isOpen()).thenReturn(true);
         when(transmission.toString()).thenReturn(MESSAGE);
-    }
+        doAnswer(invocation -> {
+            ((SendHandler)invocation.getArguments()[1]).onResult(new SendResult());
+            return null;
+        }).when(endpoint).sendText(anyString(), any(SendHandler.class));
 
-    @BeforeMethod
-    public void before() {
-        resender = new PendingMessagesReSender(sessionRegistry);
+        resender = new PendingMessagesReSender(sessionRegistry, new WebSocketSessionSender());
     }
 
     @Test
@@ -74,7 +84,7 @@ public class PendingMessagesReSenderTest {
 
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
         verify(session, never()).getAsyncRemote();
-        verify(endpoint, never()).sendText(eq(MESSAGE));
+        verify(endpoint, never()).sendText(eq(MESSAGE), any(SendHandler.class));
     }
 
     @Test
@@ -85,13 +95,13 @@ public class PendingMessagesReSenderTest {
         resender.resend(ENDPOINT_ID);
 
         verify(session, never()).getAsyncRemote();
-        verify(endpoint, never()).sendText(eq(MESSAGE));
+        verify(endpoint, never()).sendText(eq(MESSAGE), any(SendHandler.class));
 
         when(session.isOpen()).thenReturn(true);
         resender.resend(ENDPOINT_ID);
 
         verify(session).getAsyncRemote();
-        verify(endpoint).sendText(eq(MESSAGE));
+        verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
     }
 
     @Test
@@ -102,7 +112,7 @@ public class PendingMessagesReSenderTest {
 
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
         verify(session).getAsyncRemote();
-        verify(endpoint).sendText(eq(MESSAGE));
+        verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
     }
 
     @Test
@@ -116,7 +126,7 @@ public class PendingMessagesReSenderTest {
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
         verify(sessionRegistry).get(eq(1));
         verify(session, times(2)).getAsyncRemote();
-        verify(endpoint, times(2)).sendText(eq(MESSAGE));
+        verify(endpoint, times(2)).sendText(eq(MESSAGE), any(SendHandler.class));
     }
 
     @Test
@@ -126,12 +136,12 @@ public class PendingMessagesReSenderTest {
         resender.resend(ENDPOINT_ID);
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
         verify(session).getAsyncRemote();
-        verify(endpoint).sendText(eq(MESSAGE));
+        verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
 
         resender.resend(ENDPOINT_ID);
-        verify(sessionRegistry).get(eq(ENDPOINT_ID));
+        verify(sessionRegistry, times(2)).get(eq(ENDPOINT_ID));
         verify(session).getAsyncRemote();
-        verify(endpoint).sendText(eq(MESSAGE));
+        verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
     }
 
     @Test
@@ -145,14 +155,152 @@ public class PendingMessagesReSenderTest {
         verify(sessionRegistry).get(eq(ENDPOINT_ID));
         verify(sessionRegistry).get(eq(1));
         verify(session, times(2)).getAsyncRemote();
-        verify(endpoint, times(2)).sendText(eq(MESSAGE));
+        verify(endpoint, times(2)).sendText(eq(MESSAGE), any(SendHandler.class));
 
         resender.resend(ENDPOINT_ID);
         resender.resend(1);
 
-        verify(sessionRegistry).get(eq(ENDPOINT_ID));
-        verify(sessionRegistry).get(eq(1));
+        verify(sessionRegistry, times(2)).get(eq(ENDPOINT_ID));
+        verify(sessionRegistry, times(2)).get(eq(1));
         verify(session, times(2)).getAsyncRemote();
-        verify(endpoint, times(2)).sendText(eq(MESSAGE));
+        verify(endpoint, times(2)).sendText(eq(MESSAGE), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldDropOldestMessagesWhenLimitIsReached() {
+        for (int i = 0; i < PendingMessagesReSender.MAX_MESSAGES_PER_ENDPOINT + 2; i++) {
+            WebSocketTransmission message = mock(WebSocketTransmission.class);
+            when(message.toString()).thenReturn(MESSAGE + i);
+            resender.add(ENDPOINT_ID, message);
+        }
+
+        resender.resend(ENDPOINT_ID);
+
+        verify(endpoint, never()).sendText(eq(MESSAGE + 0), any(SendHandler.class));
+        verify(endpoint, never()).sendText(eq(MESSAGE + 1), any(SendHandler.class));
+        verify(endpoint).sendText(eq(MESSAGE + 2), any(SendHandler.class));
+        verify(endpoint).sendText(eq(MESSAGE + (PendingMessagesReSender.MAX_MESSAGES_PER_ENDPOINT + 1)), any(SendHandler.class));
+        assertEquals(resender.getDroppedCount(), 2);
+        assertEquals(resender.getReplayedCount(), PendingMessagesReSender.MAX_MESSAGES_PER_ENDPOINT);
+        assertEquals(resender.getPendingCount(), PendingMessagesReSender.MAX_MESSAGES_PER_ENDPOINT);
+
+        resender.acknowledge(ENDPOINT_ID, Long.MAX_VALUE);
+
+        assertEquals(resender.getPendingCount(), 0);
+    }
+
+    @Test
+    public void shouldResendMessagesInOrderOfAdding() {
+        WebSocketTransmission first = mock(WebSocketTransmission.class);
+        when(first.toString()).thenReturn("first");
+        WebSocketTransmission second = mock(WebSocketTransmission.class);
+        when(second.toString()).thenReturn("second");
+        resender.add(ENDPOINT_ID, first);
+        resender.add(ENDPOINT_ID, second);
+
+        resender.resend(ENDPOINT_ID);
+
+        InOrder inOrder = inOrder(endpoint);
+        inOrder.verify(endpoint).sendText(eq("first"), any(SendHandler.class));
+        inOrder.verify(endpoint).sendText(eq("second"), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldNotKeepEndpointWhenMessageIsDroppedByTotalLimit() {
+        final int endpoints = PendingMessagesReSender.MAX_MESSAGES / PendingMessagesReSender.MAX_MESSAGES_PER_ENDPOINT;
+        for (int endpointId = 1; endpointId <= endpoints; endpointId++) {
+            for (int i = 0; i < PendingMessagesReSender.MAX_MESSAGES_PER_ENDPOINT; i++) {
+                resender.add(endpointId, transmission);
+            }
+        }
+
+        resender.add(endpoints + 1, transmission);
+
+        assertEquals(resender.getDroppedCount(), 1);
+        assertEquals(resender.getPendingCount(), PendingMessagesReSender.MAX_MESSAGES);
+        assertEquals(resender.getPendingEndpointsCount(), endpoints);
+    }
+    @Test
+    public void shouldNumberMessages() {
+        WebSocketTransmission first = mock(WebSocketTransmission.class);
+        WebSocketTransmission second = mock(WebSocketTransmission.class);
+
+        resender.add(ENDPOINT_ID, first);
+        resender.add(ENDPOINT_ID, second);
+
+        assertTrue(sequenceNumberOf(second) > sequenceNumberOf(first));
+    }
+
+    @Test
+    public void shouldSendMessageRightAwayIfSessionIsAttached() {
+        resender.resend(ENDPOINT_ID);
+
+        resender.add(ENDPOINT_ID, transmission);
+
+        verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
+        assertEquals(resender.getReplayedCount(), 0);
+    }
+
+    @Test
+    public void shouldKeepSentMessagesUntilTheyAreAcknowledged() {
+        resender.resend(ENDPOINT_ID);
+        resender.add(ENDPOINT_ID, transmission);
+
+        assertEquals(resender.getPendingCount(), 1);
+
+        resender.acknowledge(ENDPOINT_ID, sequenceNumberOf(transmission));
+
+        assertEquals(resender.getPendingCount(), 0);
+    }
+
+    @Test
+    public void shouldRemoveOnlyAcknowledgedMessages() {
+        WebSocketTransmission first = mock(WebSocketTransmission.class);
+        when(first.toString()).thenReturn("first");
+        WebSocketTransmission second = mock(WebSocketTransmission.class);
+        when(second.toString()).thenReturn("second");
+        resender.add(ENDPOINT_ID, first);
+        resender.add(ENDPOINT_ID, second);
+
+        resender.acknowledge(ENDPOINT_ID, sequenceNumberOf(first));
+        resender.resend(ENDPOINT_ID);
+
+        assertEquals(resender.getPendingCount(), 1);
+        verify(endpoint, never()).sendText(eq("first"), any(SendHandler.class));
+        verify(endpoint).sendText(eq("second"), any(SendHandler.class));
+    }
+
+    @Test
+    public void shouldResendNotAcknowledgedMessagesToNewSession() {
+        resender.resend(ENDPOINT_ID);
+        resender.add(ENDPOINT_ID, transmission);
+
+        Session newSession = mock(Session.class);
+        RemoteEndpoint.Async newEndpoint = mock(RemoteEndpoint.Async.class);
+        when(newSession.getAsyncRemote()).thenReturn(newEndpoint);
+        when(newSession.isOpen()).thenReturn(true);
+        when(sessionRegistry.get(eq(ENDPOINT_ID))).thenReturn(Optional.of(newSession));
+        resender.resend(ENDPOINT_ID);
+
+        verify(endpoint).sendText(eq(MESSAGE), any(SendHandler.class));
+        verify(newEndpoint).sendText(eq(MESSAGE), any(SendHandler.class));
+        assertEquals(resender.getReplayedCount(), 1);
+    }
+
+    @Test
+    public void shouldForgetEndpointWithoutMessagesAndOpenSession() {
+        resender.resend(ENDPOINT_ID);
+        resender.add(ENDPOINT_ID, transmission);
+        when(session.isOpen()).thenReturn(false);
+
+        resender.acknowledge(ENDPOINT_ID, Long.MAX_VALUE);
+
+        assertEquals(resender.getPendingEndpointsCount(), 0);
+    }
+
+    private long sequenceNumberOf(WebSocketTransmission transmission) {
+        ArgumentCaptor<Long> sequenceNumber = ArgumentCaptor.forClass(Long.class);
+        verify(transmission).withSequenceNumber(sequenceNumber.capture());
+        return sequenceNumber.getValue();
     }
 }
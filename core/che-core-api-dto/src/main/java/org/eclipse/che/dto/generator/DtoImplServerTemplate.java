@@ -72,6 +72,7 @@ public class DtoImplServerTemplate extends DtoImpl {
         emitSerializer(methods, builder);
         emitDeserializer(methods, builder);
         emitDeserializerShortcut(builder);
+        emitStreamingDeserializer(methods, builder);
         emitCopyConstructor(methods, builder);
         // Delegation DTO methods.
         emitDelegateMethods(builder);
@@ -300,9 +301,36 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("    }\n");
         builder.append("\n");
         builder.append("    @Override\n");
+        builder.append("    public void write(JsonWriter writer) throws java.io.IOException {\n");
+        if (isCompactJson()) {
+            builder.append("      writer.beginArray();\n");
+            for (Method method : getters) {
+                emitWriteFieldForMethodCompact(method, builder);
+            }
+            builder.append("      writer.endArray();\n");
+        } else {
+            builder.append("      writer.beginObject();\n");
+            for (Method getter : getters) {
+                emitWriteFieldForMethod(getter, builder);
+            }
+            builder.append("      writer.endObject();\n");
+        }
+        builder.append("    }\n");
+        builder.append("\n");
+        builder.append("    @Override\n");
         builder.append("    public String toJson() {\n");
-        // The default toJson() creates its own JSON for internal printing, thus keeping JSONs values is safe
-        builder.append("      return gson.toJson(toJsonElementInt(false));\n");
+        // Writes JSON directly without building of JsonElement tree, writer is configured in the same way as gson does it
+        builder.append("      java.io.StringWriter out = new java.io.StringWriter();\n");
+        builder.append("      JsonWriter writer = new JsonWriter(out);\n");
+        builder.append("      writer.setSerializeNulls(false);\n");
+        builder.append("      writer.setLenient(true);\n");
+        builder.append("      try {\n");
+        builder.append("        write(writer);\n");
+        builder.append("        writer.flush();\n");
+        builder.append("      } catch (java.io.IOException e) {\n");
+        builder.append("        throw new IllegalStateException(e.getMessage(), e);\n");
+        builder.append("      }\n");
+        builder.append("      return out.toString();\n");
         builder.append("    }\n");
         builder.append("\n");
         builder.append("    @Override\n");
@@ -451,6 +479,132 @@ public class DtoImplServerTemplate extends DtoImpl {
         }
     }
 
+    private void emitWriteFieldForMethod(Method getter, StringBuilder builder) {
+        builder.append("\n");
+        builder.append("      writer.name(").append(quoteStringLiteral(getJsonFieldName(getter))).append(");\n");
+        emitWriterImpl(expandType(getter.getGenericReturnType()), 0, builder, getJavaFieldName(getter.getName()), "      ");
+    }
+
+    private void emitWriteFieldForMethodCompact(Method getter, StringBuilder builder) {
+        if (getter == null) {
+            builder.append("      writer.nullValue();\n");
+            return;
+        }
+        final String javaFieldName = getJavaFieldName(getter.getName());
+        final List<Type> expandedTypes = expandType(getter.getGenericReturnType());
+        builder.append("\n");
+        if (isLastMethod(getter) && isList(getRawClass(expandedTypes.get(0)))) {
+            // the same as for JsonElement serialization, empty list in the end of array is omitted
+            builder.append("      if (this.").append(javaFieldName).append(" != null && !this.").append(javaFieldName)
+                   .append(".isEmpty()) {\n");
+            emitWriterImpl(expandedTypes, 0, builder, javaFieldName, "        ");
+            builder.append("      }\n");
+            return;
+        }
+        emitWriterImpl(expandedTypes, 0, builder, javaFieldName, "      ");
+    }
+
+    /**
+     * Produces code to write the type with the given variable name directly to the {@code JsonWriter}. Output of the produced code is
+     * the same as output of code produced with {@link #emitSerializerImpl(List, int, StringBuilder, String, String, String)}.
+     *
+     * @param expandedTypes
+     *         the type and its generic (and its generic (..)) expanded into a list, @see {@link #expandType(java.lang.reflect.Type)}
+     * @param depth
+     *         the depth (in the generics) for this recursive call. This can be used to index into {@code expandedTypes}
+     * @param inVar
+     *         the java type that will be the input for serialization
+     * @param i
+     *         indentation string
+     */
+    private void emitWriterImpl(List<Type> expandedTypes, int depth, StringBuilder builder, String inVar, String i) {
+        final Type type = expandedTypes.get(depth);
+        final String childInVar = inVar + "_";
+        final String entryVar = "entry" + depth;
+        final String value = depth == 0 ? "this." + inVar : inVar;
+        final Class<?> rawClass = getRawClass(type);
+        if (isList(rawClass)) {
+            String childInTypeName = getImplName(expandedTypes.get(depth + 1), false);
+            if (depth == 0) {
+                builder.append(i).append("this.").append(getEnsureName(inVar)).append("();\n");
+            }
+            builder.append(i).append("writer.beginArray();\n");
+            builder.append(i).append("for (").append(childInTypeName).append(" ").append(childInVar).append(" : ").append(value)
+                   .append(") {\n");
+            emitWriterImpl(expandedTypes, depth + 1, builder, childInVar, i + "  ");
+            builder.append(i).append("}\n");
+            builder.append(i).append("writer.endArray();\n");
+        } else if (isMap(rawClass)) {
+            String childInTypeName = getImplName(expandedTypes.get(depth + 1), false);
+            if (depth == 0) {
+                builder.append(i).append("this.").append(getEnsureName(inVar)).append("();\n");
+            }
+            builder.append(i).append("writer.beginObject();\n");
+            builder.append(i).append("for (java.util.Map.Entry<String, ").append(childInTypeName).append("> ").append(entryVar)
+                   .append(" : ").append(value).append(".entrySet()) {\n");
+            builder.append(i).append("  writer.name(").append(entryVar).append(".getKey());\n");
+            builder.append(i).append("  ").append(childInTypeName).append(" ").append(childInVar).append(" = ").append(entryVar)
+                   .append(".getValue();\n");
+            emitWriterImpl(expandedTypes, depth + 1, builder, childInVar, i + "  ");
+            builder.append(i).append("}\n");
+            builder.append(i).append("writer.endObject();\n");
+        } else if (rawClass.isEnum()) {
+            builder.append(i).append("writer.value(").append(value).append(" == null ? null : ").append(value).append(".name());\n");
+        } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
+            builder.append(i).append("if (").append(value).append(" == null) {\n");
+            builder.append(i).append("  writer.nullValue();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  ((").append(getImplNameForDto((Class<?>)expandedTypes.get(depth))).append(")").append(value)
+                   .append(").write(writer);\n");
+            builder.append(i).append("}\n");
+        } else if (rawClass.equals(String.class)) {
+            builder.append(i).append("writer.value(").append(value).append(");\n");
+        } else if (rawClass == boolean.class
+                   || rawClass == int.class
+                   || rawClass == long.class
+                   || rawClass == short.class
+                   || rawClass == byte.class) {
+            builder.append(i).append("writer.value(").append(value).append(");\n");
+        } else if (rawClass == double.class || rawClass == float.class) {
+            // Number keeps string representation of float and doesn't reject NaN in lenient mode, the same as JsonPrimitive does
+            builder.append(i).append("writer.value((Number)").append(value).append(");\n");
+        } else if (rawClass == Boolean.class) {
+            builder.append(i).append("if (").append(value).append(" == null) {\n");
+            builder.append(i).append("  writer.nullValue();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  writer.value(").append(value).append(".booleanValue());\n");
+            builder.append(i).append("}\n");
+        } else if (rawClass == Integer.class
+                   || rawClass == Long.class
+                   || rawClass == Double.class
+                   || rawClass == Float.class
+                   || rawClass == Short.class
+                   || rawClass == Byte.class) {
+            builder.append(i).append("writer.value((Number)").append(value).append(");\n");
+        } else if (isAny(rawClass)) {
+            // JSONs are written as is, no need to copy them
+            builder.append(i).append("if (").append(value).append(" instanceof JsonElement) {\n");
+            builder.append(i).append("  gson.toJson((JsonElement)").append(value).append(", writer);\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  writer.nullValue();\n");
+            builder.append(i).append("}\n");
+        } else {
+            final Class<?> dtoImplementation = getEnclosingTemplate().getDtoImplementation(rawClass);
+            if (dtoImplementation != null) {
+                builder.append(i).append("if (").append(value).append(" == null) {\n");
+                builder.append(i).append("  writer.nullValue();\n");
+                builder.append(i).append("} else {\n");
+                builder.append(i).append("  gson.toJson(((").append(dtoImplementation.getCanonicalName()).append(")").append(value)
+                       .append(").toJsonElementInt(false), writer);\n");
+                builder.append(i).append("}\n");
+            } else {
+                throw new IllegalArgumentException("Unable to generate server implementation for DTO interface " +
+                                                   getDtoInterface().getCanonicalName() + ". Type " + rawClass +
+                                                   " is not allowed to use in DTO interface.");
+            }
+        }
+    }
+
     /** Generates a static factory method that creates a new instance based on a JsonElement. */
     private void emitDeserializer(List<Method> getters, StringBuilder builder) {
         // The default fromJsonElement(json) works in unsafe mode and clones the JSON's for 'any' properties
@@ -489,6 +643,123 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("    }\n\n");
     }
 
+    /** Generates a static factory method that creates a new instance reading JSON directly from a JsonReader. */
+    private void emitStreamingDeserializer(List<Method> getters, StringBuilder builder) {
+        builder.append("    public static ").append(getImplClassName()).append(" read(JsonReader reader) throws java.io.IOException {\n");
+        if (isCompactJson()) {
+            // Compact JSON is small and depends on positions of elements, read it as JsonElement
+            builder.append("      return fromJsonElement(new JsonParser().parse(reader), false);\n");
+            builder.append("    }\n\n");
+            return;
+        }
+        builder.append("      if (reader.peek() == JsonToken.NULL) {\n");
+        builder.append("        reader.nextNull();\n");
+        builder.append("        return null;\n");
+        builder.append("      }\n\n");
+        builder.append("      ").append(getImplClassName()).append(" dto = new ").append(getImplClassName()).append("();\n");
+        builder.append("      reader.beginObject();\n");
+        builder.append("      while (reader.hasNext()) {\n");
+        builder.append("        switch (reader.nextName()) {\n");
+        final Set<String> jsonFieldNames = new HashSet<>();
+        for (Method getter : getters) {
+            if (jsonFieldNames.add(getJsonFieldName(getter))) {
+                emitReadFieldForMethod(getter, builder);
+            }
+        }
+        builder.append("          default:\n");
+        builder.append("            reader.skipValue();\n");
+        builder.append("        }\n");
+        builder.append("      }\n");
+        builder.append("      reader.endObject();\n");
+        builder.append("      return dto;\n");
+        builder.append("    }\n\n");
+    }
+
+    private void emitReadFieldForMethod(Method method, StringBuilder builder) {
+        final String fieldName = getFieldNameFromGetterName(method.getName());
+        final String fieldNameOut = fieldName + "Out";
+        builder.append("          case ").append(quoteStringLiteral(getJsonFieldName(method))).append(": {\n");
+        emitReaderImpl(expandType(method.getGenericReturnType()), 0, builder, fieldNameOut, "            ");
+        builder.append("            dto.").append(getSetterName(fieldName)).append("(").append(fieldNameOut).append(");\n");
+        builder.append("            break;\n");
+        builder.append("          }\n");
+    }
+
+    /**
+     * Produces code to read the type with the given variable name directly from the {@code JsonReader}. Produced code accepts the same
+     * JSON as code produced with {@link #emitDeserializerImpl(List, int, StringBuilder, String, String, String)}.
+     *
+     * @param expandedTypes
+     *         the type and its generic (and its generic (..)) expanded into a list, @see {@link #expandType(java.lang.reflect.Type)}
+     * @param depth
+     *         the depth (in the generics) for this recursive call. This can be used to index into {@code expandedTypes}
+     * @param outVar
+     *         the java variable that will be the output of deserialization
+     * @param i
+     *         indentation string
+     */
+    private void emitReaderImpl(List<Type> expandedTypes, int depth, StringBuilder builder, String outVar, String i) {
+        final Type type = expandedTypes.get(depth);
+        final String childOutVar = outVar + "_";
+        final Class<?> rawClass = getRawClass(type);
+        if (isList(rawClass) || isMap(rawClass)) {
+            final boolean list = isList(rawClass);
+            final String keyVar = "key" + depth;
+            builder.append(i).append(getImplName(type, false)).append(" ").append(outVar).append(" = null;\n");
+            builder.append(i).append("if (reader.peek() == JsonToken.NULL) {\n");
+            builder.append(i).append("  reader.nextNull();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  ").append(outVar).append(" = new ").append(getImplName(type, true)).append("();\n");
+            builder.append(i).append("  reader.").append(list ? "beginArray" : "beginObject").append("();\n");
+            builder.append(i).append("  while (reader.hasNext()) {\n");
+            if (!list) {
+                builder.append(i).append("    String ").append(keyVar).append(" = reader.nextName();\n");
+            }
+            emitReaderImpl(expandedTypes, depth + 1, builder, childOutVar, i + "    ");
+            if (list) {
+                builder.append(i).append("    ").append(outVar).append(".add(").append(childOutVar).append(");\n");
+            } else {
+                builder.append(i).append("    ").append(outVar).append(".put(").append(keyVar).append(", ").append(childOutVar)
+                       .append(");\n");
+            }
+            builder.append(i).append("  }\n");
+            builder.append(i).append("  reader.").append(list ? "endArray" : "endObject").append("();\n");
+            builder.append(i).append("}\n");
+        } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
+            builder.append(i).append(getImplName(rawClass, false)).append(" ").append(outVar).append(" = ")
+                   .append(getImplNameForDto(rawClass)).append(".read(reader);\n");
+        } else if (rawClass.isPrimitive()) {
+            final String primitiveName = rawClass.getSimpleName();
+            builder.append(i).append(primitiveName).append(" ").append(outVar).append(" = ");
+            if (rawClass == boolean.class) {
+                builder.append("reader.nextBoolean();\n");
+            } else if (rawClass == int.class) {
+                builder.append("reader.nextInt();\n");
+            } else if (rawClass == long.class) {
+                builder.append("reader.nextLong();\n");
+            } else if (rawClass == double.class) {
+                builder.append("reader.nextDouble();\n");
+            } else if (rawClass == char.class) {
+                builder.append("reader.nextString().charAt(0);\n");
+            } else {
+                builder.append("(").append(primitiveName).append(")reader.nextDouble();\n");
+            }
+        } else if (isAny(rawClass)) {
+            builder.append(i).append("JsonElement ").append(outVar).append(" = new JsonParser().parse(reader);\n");
+        } else {
+            final Class<?> dtoImplementation = getEnclosingTemplate().getDtoImplementation(rawClass);
+            if (dtoImplementation != null) {
+                builder.append(i).append(getImplName(rawClass, false)).append(" ").append(outVar).append(" = ")
+                       .append(dtoImplementation.getCanonicalName()).append(".fromJsonElement(new JsonParser().parse(reader), false);\n");
+            } else {
+                // Use gson to handle all other types.
+                String rawClassName = rawClass.getName().replace('$', '.');
+                builder.append(i).append(rawClassName).append(" ").append(outVar).append(" = gson.fromJson(reader, ")
+                       .append(rawClassName).append(".class);\n");
+            }
+        }
+    }
+
     private void emitDeserializeFieldForMethod(Method method, StringBuilder builder) {
         final String fieldName = getFieldNameFromGetterName(method.getName());
         final String fieldNameIn = fieldName + "In";
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+/**
+ * Constants of CBOR binary format (RFC 7049) used by {@link CborWriter} and {@link CborReader}.
+ * <p>
+ * Repeated strings are encoded as references to the first occurrence of the string, see
+ * <a href="http://cbor.schmorp.de/stringref">stringref extension</a>. Names of fields repeated in every element of list of DTOs take
+ * one or two bytes in such encoding.
+ */
+final class Cbor {
+    static final int MAJOR_TYPE_UNSIGNED_INTEGER = 0;
+    static final int MAJOR_TYPE_NEGATIVE_INTEGER = 1;
+    static final int MAJOR_TYPE_BYTE_STRING      = 2;
+    static final int MAJOR_TYPE_TEXT_STRING      = 3;
+    static final int MAJOR_TYPE_ARRAY            = 4;
+    static final int MAJOR_TYPE_MAP              = 5;
+    static final int MAJOR_TYPE_TAG              = 6;
+    static final int MAJOR_TYPE_SIMPLE           = 7;
+
+    static final int INDEFINITE_LENGTH = 31;
+
+    static final int FALSE     = 0xF4;
+    static final int TRUE      = 0xF5;
+    static final int NULL      = 0xF6;
+    static final int UNDEFINED = 0xF7;
+    static final int FLOAT16   = 0xF9;
+    static final int FLOAT32   = 0xFA;
+    static final int FLOAT64   = 0xFB;
+    static final int BREAK     = 0xFF;
+
+    static final int TAG_STRING_REFERENCE           = 25;
+    static final int TAG_STRING_REFERENCE_NAMESPACE = 256;
+
+    /** Minimal length in bytes of string that is added in the table of references when table already contains {@code index} strings. */
+    static int minReferencedStringLength(int index) {
+        if (index < 24) {
+            return 3;
+        }
+        if (index < 256) {
+            return 4;
+        }
+        if (index < 65536) {
+            return 5;
+        }
+        return 7;
+    }
+
+    private Cbor() {
+    }
+}
@@ -0,0 +1,505 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.che.dto.server.Cbor.BREAK;
+import static org.eclipse.che.dto.server.Cbor.FALSE;
+import static org.eclipse.che.dto.server.Cbor.FLOAT16;
+import static org.eclipse.che.dto.server.Cbor.FLOAT32;
+import static org.eclipse.che.dto.server.Cbor.FLOAT64;
+import static org.eclipse.che.dto.server.Cbor.INDEFINITE_LENGTH;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_ARRAY;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_MAP;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_NEGATIVE_INTEGER;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_SIMPLE;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_TAG;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_TEXT_STRING;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_UNSIGNED_INTEGER;
+import static org.eclipse.che.dto.server.Cbor.NULL;
+import static org.eclipse.che.dto.server.Cbor.TAG_STRING_REFERENCE;
+import static org.eclipse.che.dto.server.Cbor.TAG_STRING_REFERENCE_NAMESPACE;
+import static org.eclipse.che.dto.server.Cbor.TRUE;
+import static org.eclipse.che.dto.server.Cbor.UNDEFINED;
+import static org.eclipse.che.dto.server.Cbor.minReferencedStringLength;
+
+/**
+ * Reads CBOR content as JSON structure. Since it is {@link JsonReader} DTOs read themselves from CBOR with the same code that reads
+ * JSON, see {@link DtoProvider#fromJson(JsonReader)}.
+ * <p>
+ * Reader accepts arrays and maps of definite and indefinite length, text strings and string references. Keys of maps must be text
+ * strings. Byte strings are not supported since there is no such type in JSON. Reader doesn't buffer input, stream passed to the
+ * reader should be buffered.
+ *
+ * @see CborWriter
+ */
+public class CborReader extends JsonReader {
+    private static final Reader UNREADABLE_READER = new Reader() {
+        @Override
+        public int read(char[] buffer, int offset, int count) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+            throw new AssertionError();
+        }
+    };
+
+    /** Array or map which is being read. */
+    private static class Container {
+        final boolean object;
+        /** Number of items left in container of definite length or {@code -1} for container of indefinite length. */
+        long    remaining;
+        boolean expectName;
+
+        Container(boolean object, long remaining) {
+            this.object = object;
+            this.remaining = remaining;
+            this.expectName = object;
+        }
+    }
+
+    private final InputStream      in;
+    private final Deque<Container> containers;
+    private final List<String>     stringReferences;
+    private final byte[]           buffer;
+
+    private JsonToken peeked;
+    /** String value of peeked string, name or number. */
+    private String    peekedString;
+    private long      peekedLong;
+    private double    peekedDouble;
+    private boolean   peekedIntegral;
+    /** Size of peeked array or map, {@code -1} if size is indefinite. */
+    private long      peekedLength;
+    private boolean   valueRead;
+
+    public CborReader(InputStream in) {
+        super(UNREADABLE_READER);
+        if (in == null) {
+            throw new NullPointerException("in == null");
+        }
+        this.in = in;
+        this.containers = new ArrayDeque<>();
+        this.stringReferences = new ArrayList<>();
+        this.buffer = new byte[8];
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expect(JsonToken.BEGIN_ARRAY);
+        containers.push(new Container(false, peekedLength));
+        peeked = null;
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        expect(JsonToken.END_ARRAY);
+        containers.pop();
+        peeked = null;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expect(JsonToken.BEGIN_OBJECT);
+        containers.push(new Container(true, peekedLength < 0 ? -1 : peekedLength * 2));
+        peeked = null;
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        expect(JsonToken.END_OBJECT);
+        containers.pop();
+        peeked = null;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        final JsonToken token = peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        final Container container = containers.peek();
+        if (container == null) {
+            final int initialByte = read(valueRead);
+            if (initialByte == -1) {
+                return peeked = JsonToken.END_DOCUMENT;
+            }
+            if (valueRead && !isLenient()) {
+                throw new MalformedJsonException("Multiple top-level values");
+            }
+            valueRead = true;
+            return peeked = readItem(initialByte, false);
+        }
+        if (container.remaining == 0) {
+            return peeked = container.object ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+        }
+        final int initialByte = read(false);
+        if (initialByte == BREAK) {
+            if (container.remaining != -1) {
+                throw new MalformedJsonException("Unexpected break in container of definite length");
+            }
+            if (container.object && !container.expectName) {
+                throw new MalformedJsonException("Missing value of map entry");
+            }
+            return peeked = container.object ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+        }
+        if (container.remaining > 0) {
+            container.remaining--;
+        }
+        final boolean name = container.object && container.expectName;
+        if (container.object) {
+            container.expectName = !container.expectName;
+        }
+        return peeked = readItem(initialByte, name);
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        expect(JsonToken.NAME);
+        peeked = null;
+        return peekedString;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        final JsonToken token = peek();
+        if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+            throw new IllegalStateException("Expected a string but was " + token);
+        }
+        peeked = null;
+        return peekedString;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        expect(JsonToken.BOOLEAN);
+        peeked = null;
+        return peekedIntegral;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        expect(JsonToken.NULL);
+        peeked = null;
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        final JsonToken token = peek();
+        final double result;
+        if (token == JsonToken.NUMBER) {
+            result = peekedIntegral ? peekedLong : peekedDouble;
+        } else if (token == JsonToken.STRING) {
+            result = Double.parseDouble(peekedString);
+        } else {
+            throw new IllegalStateException("Expected a double but was " + token);
+        }
+        if (!isLenient() && (Double.isNaN(result) || Double.isInfinite(result))) {
+            throw new MalformedJsonException("JSON forbids NaN and infinities: " + result);
+        }
+        peeked = null;
+        return result;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        final JsonToken token = peek();
+        final long result;
+        if (token == JsonToken.NUMBER && peekedIntegral) {
+            result = peekedLong;
+        } else if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            result = toLong(token == JsonToken.NUMBER ? peekedDouble : Double.parseDouble(peekedString), Long.MIN_VALUE, Long.MAX_VALUE);
+        } else {
+            throw new IllegalStateException("Expected a long but was " + token);
+        }
+        peeked = null;
+        return result;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        final JsonToken token = peek();
+        final long result;
+        if (token == JsonToken.NUMBER && peekedIntegral) {
+            result = toLong(peekedLong, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        } else if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            result = toLong(token == JsonToken.NUMBER ? peekedDouble : Double.parseDouble(peekedString), Integer.MIN_VALUE, Integer.MAX_VALUE);
+        } else {
+            throw new IllegalStateException("Expected an int but was " + token);
+        }
+        peeked = null;
+        return (int)result;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        final JsonToken token = peek();
+        if (token == JsonToken.BEGIN_ARRAY) {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else if (token == JsonToken.BEGIN_OBJECT) {
+            beginObject();
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        } else if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT || token == JsonToken.END_DOCUMENT) {
+            throw new IllegalStateException("Expected a value but was " + token);
+        } else {
+            peeked = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = null;
+        containers.clear();
+        in.close();
+    }
+
+    @Override
+    public String getPath() {
+        return "$";
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+
+    private void expect(JsonToken expected) throws IOException {
+        final JsonToken token = peek();
+        if (token != expected) {
+            throw new IllegalStateException("Expected " + expected + " but was " + token);
+        }
+    }
+
+    private JsonToken readItem(int initialByte, boolean name) throws IOException {
+        final int majorType = initialByte >>> 5;
+        final int additionalInfo = initialByte & 0x1F;
+        if (name && majorType != MAJOR_TYPE_TEXT_STRING && majorType != MAJOR_TYPE_TAG) {
+            throw new MalformedJsonException("Name of field must be text string");
+        }
+        switch (majorType) {
+            case MAJOR_TYPE_UNSIGNED_INTEGER:
+            case MAJOR_TYPE_NEGATIVE_INTEGER:
+                final long argument = readArgument(additionalInfo);
+                if (argument < 0) {
+                    // unsigned value out of range of long
+                    peekedIntegral = false;
+                    peekedDouble = majorType == MAJOR_TYPE_UNSIGNED_INTEGER ? 0x1p64 + argument : -0x1p64 - argument - 1;
+                    peekedString = Double.toString(peekedDouble);
+                } else {
+                    peekedIntegral = true;
+                    peekedLong = majorType == MAJOR_TYPE_UNSIGNED_INTEGER ? argument : -1 - argument;
+                    peekedString = Long.toString(peekedLong);
+                }
+                return JsonToken.NUMBER;
+            case MAJOR_TYPE_TEXT_STRING:
+                peekedString = readTextString(additionalInfo);
+                return name ? JsonToken.NAME : JsonToken.STRING;
+            case MAJOR_TYPE_ARRAY:
+                peekedLength = additionalInfo == INDEFINITE_LENGTH ? -1 : checkLength(readArgument(additionalInfo));
+                return JsonToken.BEGIN_ARRAY;
+            case MAJOR_TYPE_MAP:
+                peekedLength = additionalInfo == INDEFINITE_LENGTH ? -1 : checkLength(readArgument(additionalInfo));
+                return JsonToken.BEGIN_OBJECT;
+            case MAJOR_TYPE_TAG:
+                final long tag = readArgument(additionalInfo);
+                if (tag == TAG_STRING_REFERENCE) {
+                    final int referenceByte = read(false);
+                    if (referenceByte >>> 5 != MAJOR_TYPE_UNSIGNED_INTEGER) {
+                        throw new MalformedJsonException("Index of string reference must be unsigned integer");
+                    }
+                    final int index = (int)checkLength(readArgument(referenceByte & 0x1F));
+                    if (index >= stringReferences.size()) {
+                        throw new MalformedJsonException("Unknown string reference " + index);
+                    }
+                    peekedString = stringReferences.get(index);
+                    return name ? JsonToken.NAME : JsonToken.STRING;
+                }
+                if (tag == TAG_STRING_REFERENCE_NAMESPACE) {
+                    if (!containers.isEmpty()) {
+                        throw new MalformedJsonException("Nested namespaces of string references are not supported");
+                    }
+                    stringReferences.clear();
+                }
+                // other tags are ignored, tagged item is read as is
+                return readItem(read(false), name);
+            case MAJOR_TYPE_SIMPLE:
+                switch (initialByte) {
+                    case FALSE:
+                    case TRUE:
+                        peekedIntegral = initialByte == TRUE;
+                        return JsonToken.BOOLEAN;
+                    case NULL:
+                    case UNDEFINED:
+                        return JsonToken.NULL;
+                    case FLOAT16:
+                        readFully(2);
+                        setPeekedDouble(halfToFloat((buffer[0] & 0xFF) << 8 | buffer[1] & 0xFF), false);
+                        return JsonToken.NUMBER;
+                    case FLOAT32:
+                        setPeekedDouble(Float.intBitsToFloat((int)readBigEndian(4)), false);
+                        return JsonToken.NUMBER;
+                    case FLOAT64:
+                        setPeekedDouble(Double.longBitsToDouble(readBigEndian(8)), true);
+                        return JsonToken.NUMBER;
+                    default:
+                        throw new MalformedJsonException("Unsupported simple value " + initialByte);
+                }
+            default:
+                throw new MalformedJsonException("Unsupported major type " + majorType);
+        }
+    }
+
+    private void setPeekedDouble(double value, boolean doublePrecision) {
+        peekedIntegral = false;
+        peekedDouble = value;
+        peekedString = doublePrecision ? Double.toString(value) : Float.toString((float)value);
+    }
+
+    private String readTextString(int additionalInfo) throws IOException {
+        final String string;
+        if (additionalInfo == INDEFINITE_LENGTH) {
+            // chunks are not added in the table of references, only the whole string
+            final StringBuilder chunks = new StringBuilder();
+            int initialByte;
+            while ((initialByte = read(false)) != BREAK) {
+                if (initialByte >>> 5 != MAJOR_TYPE_TEXT_STRING || (initialByte & 0x1F) == INDEFINITE_LENGTH) {
+                    throw new MalformedJsonException("Invalid chunk of text string");
+                }
+                chunks.append(readChunk(checkLength(readArgument(initialByte & 0x1F))));
+            }
+            string = chunks.toString();
+        } else {
+            final long length = checkLength(readArgument(additionalInfo));
+            string = readChunk(length);
+            if (length >= minReferencedStringLength(stringReferences.size())) {
+                stringReferences.add(string);
+            }
+        }
+        return string;
+    }
+
+    private String readChunk(long length) throws IOException {
+        final byte[] bytes = new byte[(int)length];
+        int offset = 0;
+        while (offset < bytes.length) {
+            final int n = in.read(bytes, offset, bytes.length - offset);
+            if (n < 0) {
+                throw new EOFException("End of input");
+            }
+            offset += n;
+        }
+        return new String(bytes, UTF_8);
+    }
+
+    private long readArgument(int additionalInfo) throws IOException {
+        if (additionalInfo < 24) {
+            return additionalInfo;
+        }
+        switch (additionalInfo) {
+            case 24:
+                return readBigEndian(1);
+            case 25:
+                return readBigEndian(2);
+            case 26:
+                return readBigEndian(4);
+            case 27:
+                return readBigEndian(8);
+            default:
+                throw new MalformedJsonException("Invalid additional information " + additionalInfo);
+        }
+    }
+
+    private long readBigEndian(int bytes) throws IOException {
+        readFully(bytes);
+        long result = 0;
+        for (int i = 0; i < bytes; i++) {
+            result = result << 8 | buffer[i] & 0xFF;
+        }
+        return result;
+    }
+
+    private void readFully(int bytes) throws IOException {
+        for (int i = 0; i < bytes; i++) {
+            buffer[i] = (byte)read(false);
+        }
+    }
+
+    /**
+     * Reads next byte.
+     *
+     * @param eofAllowed
+     *         if {@code false} end of stream is reported with {@code EOFException}, otherwise {@code -1} is returned
+     */
+    private int read(boolean eofAllowed) throws IOException {
+        final int b = in.read();
+        if (b == -1 && !eofAllowed) {
+            throw new EOFException("End of input");
+        }
+        return b;
+    }
+
+    private static long checkLength(long length) throws MalformedJsonException {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new MalformedJsonException("Length is too big " + length);
+        }
+        return length;
+    }
+
+    private static long toLong(double value, long min, long max) {
+        final long result = (long)value;
+        if (result != value || result < min || result > max) {
+            throw new NumberFormatException("Expected an integer but was " + value);
+        }
+        return result;
+    }
+
+    private static float halfToFloat(int half) {
+        final int exponent = (half >>> 10) & 0x1F;
+        final int mantissa = half & 0x3FF;
+        final float value;
+        if (exponent == 0) {
+            value = (float)Math.scalb(mantissa, -24);
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+        } else {
+            value = (float)Math.scalb(mantissa + 1024, exponent - 25);
+        }
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+}
@@ -0,0 +1,312 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.che.dto.server.Cbor.BREAK;
+import static org.eclipse.che.dto.server.Cbor.FALSE;
+import static org.eclipse.che.dto.server.Cbor.FLOAT32;
+import static org.eclipse.che.dto.server.Cbor.FLOAT64;
+import static org.eclipse.che.dto.server.Cbor.INDEFINITE_LENGTH;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_ARRAY;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_MAP;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_NEGATIVE_INTEGER;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_TAG;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_TEXT_STRING;
+import static org.eclipse.che.dto.server.Cbor.MAJOR_TYPE_UNSIGNED_INTEGER;
+import static org.eclipse.che.dto.server.Cbor.NULL;
+import static org.eclipse.che.dto.server.Cbor.TAG_STRING_REFERENCE;
+import static org.eclipse.che.dto.server.Cbor.TAG_STRING_REFERENCE_NAMESPACE;
+import static org.eclipse.che.dto.server.Cbor.TRUE;
+import static org.eclipse.che.dto.server.Cbor.minReferencedStringLength;
+
+/**
+ * Writes JSON structure in binary CBOR format. Since it is {@link JsonWriter} DTOs write themselves in CBOR format with the same code
+ * that writes JSON, see {@link JsonSerializable#write(JsonWriter)}.
+ * <p>
+ * Objects and arrays are written as items of indefinite length, every top level value is written in its own namespace of string
+ * references. Writer doesn't buffer output, stream passed to the writer should be buffered.
+ *
+ * @see CborReader
+ */
+public class CborWriter extends JsonWriter {
+    private static final Writer UNWRITABLE_WRITER = new Writer() {
+        @Override
+        public void write(char[] buffer, int offset, int counter) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void flush() {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+            throw new AssertionError();
+        }
+    };
+
+    private enum Scope {
+        ARRAY,
+        OBJECT
+    }
+
+    private final OutputStream         out;
+    private final Deque<Scope>         scopes;
+    private final Map<String, Integer> stringReferences;
+    private final byte[]               buffer;
+
+    private String  deferredName;
+    private boolean topLevelValueWritten;
+
+    public CborWriter(OutputStream out) {
+        super(UNWRITABLE_WRITER);
+        if (out == null) {
+            throw new NullPointerException("out == null");
+        }
+        this.out = out;
+        this.scopes = new ArrayDeque<>();
+        this.stringReferences = new HashMap<>();
+        this.buffer = new byte[9];
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        out.write(MAJOR_TYPE_ARRAY << 5 | INDEFINITE_LENGTH);
+        scopes.push(Scope.ARRAY);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        close(Scope.ARRAY);
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        out.write(MAJOR_TYPE_MAP << 5 | INDEFINITE_LENGTH);
+        scopes.push(Scope.OBJECT);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        close(Scope.OBJECT);
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (name == null) {
+            throw new NullPointerException("name == null");
+        }
+        if (scopes.peek() != Scope.OBJECT || deferredName != null) {
+            throw new IllegalStateException("Nesting problem.");
+        }
+        deferredName = name;
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    /** Not supported, CBOR can't contain raw JSON. */
+    public JsonWriter jsonValue(String value) throws IOException {
+        throw new UnsupportedOperationException("Raw JSON is not supported in CBOR");
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        if (deferredName != null && !getSerializeNulls()) {
+            // skip the name and the value
+            deferredName = null;
+            return this;
+        }
+        beforeValue();
+        out.write(NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? TRUE : FALSE);
+        return this;
+    }
+
+    public JsonWriter value(Boolean value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.booleanValue());
+    }
+
+    public JsonWriter value(float value) throws IOException {
+        checkFinite(value);
+        beforeValue();
+        out.write(FLOAT32);
+        writeBigEndian(Float.floatToIntBits(value), 4);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        checkFinite(value);
+        beforeValue();
+        // double is written as float64 even if it fits in float32, reader restores string representation of number from the item type
+        out.write(FLOAT64);
+        writeBigEndian(Double.doubleToLongBits(value), 8);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        if (value < 0) {
+            writeHeader(MAJOR_TYPE_NEGATIVE_INTEGER, -1 - value);
+        } else {
+            writeHeader(MAJOR_TYPE_UNSIGNED_INTEGER, value);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return value(value.longValue());
+        }
+        if (value instanceof Float) {
+            return value(value.floatValue());
+        }
+        if (value instanceof Double) {
+            return value(value.doubleValue());
+        }
+        // BigInteger, BigDecimal or number parsed from JSON text, e.g. com.google.gson.internal.LazilyParsedNumber
+        final String string = value.toString();
+        try {
+            return value(Long.parseLong(string));
+        } catch (NumberFormatException ignored) {
+            // not integer or integer out of range of long
+        }
+        return value(Double.parseDouble(string));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+        if (!scopes.isEmpty()) {
+            throw new IOException("Incomplete document");
+        }
+    }
+
+    private void close(Scope scope) throws IOException {
+        if (scopes.peek() != scope || deferredName != null) {
+            throw new IllegalStateException("Nesting problem.");
+        }
+        scopes.pop();
+        out.write(BREAK);
+    }
+
+    private void beforeValue() throws IOException {
+        final Scope scope = scopes.peek();
+        if (scope == null) {
+            if (topLevelValueWritten && !isLenient()) {
+                throw new IllegalStateException("JSON must have only one top-level value.");
+            }
+            topLevelValueWritten = true;
+            stringReferences.clear();
+            writeHeader(MAJOR_TYPE_TAG, TAG_STRING_REFERENCE_NAMESPACE);
+        } else if (scope == Scope.OBJECT) {
+            if (deferredName == null) {
+                throw new IllegalStateException("Nesting problem.");
+            }
+            final String name = deferredName;
+            deferredName = null;
+            writeString(name);
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        final Integer reference = stringReferences.get(value);
+        if (reference != null) {
+            writeHeader(MAJOR_TYPE_TAG, TAG_STRING_REFERENCE);
+            writeHeader(MAJOR_TYPE_UNSIGNED_INTEGER, reference);
+            return;
+        }
+        final byte[] bytes = value.getBytes(UTF_8);
+        if (bytes.length >= minReferencedStringLength(stringReferences.size())) {
+            stringReferences.put(value, stringReferences.size());
+        }
+        writeHeader(MAJOR_TYPE_TEXT_STRING, bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeHeader(int majorType, long argument) throws IOException {
+        final int type = majorType << 5;
+        if (argument < 24) {
+            out.write(type | (int)argument);
+        } else if (argument <= 0xFFL) {
+            out.write(type | 24);
+            writeBigEndian(argument, 1);
+        } else if (argument <= 0xFFFFL) {
+            out.write(type | 25);
+            writeBigEndian(argument, 2);
+        } else if (argument <= 0xFFFFFFFFL) {
+            out.write(type | 26);
+            writeBigEndian(argument, 4);
+        } else {
+            out.write(type | 27);
+            writeBigEndian(argument, 8);
+        }
+    }
+
+    private void writeBigEndian(long value, int bytes) throws IOException {
+        for (int i = 0; i < bytes; i++) {
+            buffer[i] = (byte)(value >>> ((bytes - 1 - i) * 8));
+        }
+        out.write(buffer, 0, bytes);
+    }
+
+    private void checkFinite(double value) {
+        if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value))) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+    }
+}
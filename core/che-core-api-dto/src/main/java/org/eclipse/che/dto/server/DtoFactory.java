@@ -17,20 +17,27 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 
 import org.eclipse.che.commons.lang.reflect.ParameterizedTypeImpl;
 import org.eclipse.che.dto.shared.DTO;
 import org.eclipse.che.dto.shared.JsonArray;
 import org.eclipse.che.dto.shared.JsonStringMap;
 
-import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -143,6 +150,73 @@ public final class DtoFactory {
         throw new IllegalArgumentException("JsonSerializable instance required. ");
     }
 
+    /**
+     * Writes DTO in JSON format to the specified writer. JSON is written directly to the stream without creation of intermediate
+     * JSON object. Writer is flushed but not closed.
+     *
+     * @param dto
+     *         DTO, must be instance of {@link JsonSerializable}
+     * @param out
+     *         writer
+     * @throws IllegalArgumentException
+     *         if {@code dto} isn't instance of {@link JsonSerializable}
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public <T> void toJson(T dto, Writer out) throws IOException {
+        write(dto, newJsonWriter(out));
+    }
+
+    /**
+     * Writes collection of DTOs as JSON array to the specified writer. JSON is written directly to the stream without creation of
+     * intermediate JSON objects. Writer is flushed but not closed.
+     *
+     * @param dtos
+     *         DTOs, every not {@code null} element must be instance of {@link JsonSerializable}
+     * @param out
+     *         writer
+     * @throws IllegalArgumentException
+     *         if any element of {@code dtos} isn't instance of {@link JsonSerializable}
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public void toJsonArray(Collection<?> dtos, Writer out) throws IOException {
+        writeArray(dtos, newJsonWriter(out));
+    }
+
+    /**
+     * Writes DTO in binary CBOR format to the specified stream, see {@link CborWriter}. Stream is flushed but not closed.
+     *
+     * @param dto
+     *         DTO, must be instance of {@link JsonSerializable}
+     * @param out
+     *         stream
+     * @throws IllegalArgumentException
+     *         if {@code dto} isn't instance of {@link JsonSerializable}
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public <T> void toCbor(T dto, OutputStream out) throws IOException {
+        write(dto, newCborWriter(out));
+    }
+
+    /**
+     * Writes collection of DTOs as array in binary CBOR format to the specified stream, see {@link CborWriter}. Stream is flushed but
+     * not closed.
+     *
+     * @param dtos
+     *         DTOs, every not {@code null} element must be instance of {@link JsonSerializable}
+     * @param out
+     *         stream
+     * @throws IllegalArgumentException
+     *         if any element of {@code dtos} isn't instance of {@link JsonSerializable}
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public void toCborArray(Collection<?> dtos, OutputStream out) throws IOException {
+        writeArray(dtos, newCborWriter(out));
+    }
+
     public <T> JsonElement toJsonElement(T dto) {
         if (dto instanceof JsonSerializable) {
             return ((JsonSerializable)dto).toJsonElement();
@@ -208,14 +282,8 @@ public final class DtoFactory {
      *         if an i/o error occurs
      */
     public <T> T createDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
-        DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        StringBuilder sb = new StringBuilder();
-        BufferedReader br = new BufferedReader(json);
-        String line;
-        while ((line = br.readLine()) != null) {
-            sb.append(line);
-        }
-        return dtoProvider.fromJson(sb.toString());
+        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
+        return readJson(new JsonReader(json), dtoProvider::fromJson);
     }
 
     /**
@@ -271,22 +339,7 @@ public final class DtoFactory {
      *         if can't provide any implementation for specified interface
      */
     public <T> JsonArray<T> createListDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
-        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final List<JsonElement> list;
-        try {
-            list = gson.fromJson(json, listTypeCache.getUnchecked(JsonElement.class));
-        } catch (JsonSyntaxException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof IOException) {
-                throw (IOException)cause;
-            }
-            throw e;
-        }
-        final List<T> result = new ArrayList<>(list.size());
-        for (JsonElement e : list) {
-            result.add(dtoProvider.fromJson(e));
-        }
-        return new JsonArrayImpl<>(result);
+        return readArray(new JsonReader(json), getDtoProvider(dtoInterface));
     }
 
     /**
@@ -343,24 +396,19 @@ public final class DtoFactory {
      * @throws IOException
      *         if an i/o error occurs
      */
-    @SuppressWarnings("unchecked")
     public <T> JsonStringMap<T> createMapDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
         final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final Map<String, JsonElement> map;
-        try {
-            map = gson.fromJson(json, mapTypeCache.getUnchecked(JsonElement.class));
-        } catch (JsonSyntaxException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof IOException) {
-                throw (IOException)cause;
+        final Map<String, T> result = readJson(new JsonReader(json), reader -> {
+            final Map<String, T> map = new LinkedHashMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String key = reader.nextName();
+                map.put(key, dtoProvider.fromJson(reader));
             }
-            throw e;
-        }
-        final Map<String, T> result = new LinkedHashMap<>(map.size());
-        for (Map.Entry<String, JsonElement> e : map.entrySet()) {
-            result.put(e.getKey(), dtoProvider.fromJson(e.getValue()));
-        }
-        return new JsonStringMapImpl<>(result);
+            reader.endObject();
+            return map;
+        });
+        return new JsonStringMapImpl<>(result == null ? new LinkedHashMap<String, T>() : result);
     }
 
     /**
@@ -380,8 +428,124 @@ public final class DtoFactory {
         return createMapDtoFromJson(new InputStreamReader(json), dtoInterface);
     }
 
+    /**
+     * Creates new instance of class which implements specified DTO interface, reads specified data in binary CBOR format and uses it
+     * for initializing fields of DTO object, see {@link CborReader}.
+     *
+     * @param cbor
+     *         CBOR data
+     * @param dtoInterface
+     *         DTO interface
+     * @throws IllegalArgumentException
+     *         if can't provide any implementation for specified interface
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public <T> T createDtoFromCbor(InputStream cbor, Class<T> dtoInterface) throws IOException {
+        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
+        return readJson(new CborReader(cbor), dtoProvider::fromJson);
+    }
+
+    /**
+     * Reads array in binary CBOR format from the specified stream into list of objects of the specified type, see {@link CborReader}.
+     *
+     * @param cbor
+     *         CBOR data
+     * @param dtoInterface
+     *         DTO interface
+     * @return list of DTO
+     * @throws IllegalArgumentException
+     *         if can't provide any implementation for specified interface
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public <T> JsonArray<T> createListDtoFromCbor(InputStream cbor, Class<T> dtoInterface) throws IOException {
+        return readArray(new CborReader(cbor), getDtoProvider(dtoInterface));
+    }
+
     //
 
+    /** Reads value from {@code JsonReader}. */
+    private interface JsonReaderFunction<R> {
+        R read(JsonReader reader) throws IOException;
+    }
+
+    private static JsonWriter newJsonWriter(Writer out) {
+        return configure(new JsonWriter(out));
+    }
+
+    private static JsonWriter newCborWriter(OutputStream out) {
+        return configure(new CborWriter(out));
+    }
+
+    private static JsonWriter configure(JsonWriter writer) {
+        // the same configuration as gson uses for writing of JSON produced by DTOs
+        writer.setSerializeNulls(false);
+        writer.setLenient(true);
+        return writer;
+    }
+
+    private static void write(Object dto, JsonWriter writer) throws IOException {
+        if (!(dto instanceof JsonSerializable)) {
+            throw new IllegalArgumentException("JsonSerializable instance required. ");
+        }
+        ((JsonSerializable)dto).write(writer);
+        writer.flush();
+    }
+
+    private static void writeArray(Collection<?> dtos, JsonWriter writer) throws IOException {
+        for (Object dto : dtos) {
+            if (dto != null && !(dto instanceof JsonSerializable)) {
+                throw new IllegalArgumentException("JsonSerializable instance required. ");
+            }
+        }
+        writer.beginArray();
+        for (Object dto : dtos) {
+            if (dto == null) {
+                writer.nullValue();
+            } else {
+                ((JsonSerializable)dto).write(writer);
+            }
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+    private static <T> JsonArray<T> readArray(JsonReader reader, DtoProvider<T> dtoProvider) throws IOException {
+        final List<T> result = readJson(reader, r -> {
+            final List<T> list = new ArrayList<>();
+            r.beginArray();
+            while (r.hasNext()) {
+                list.add(dtoProvider.fromJson(r));
+            }
+            r.endArray();
+            return list;
+        });
+        return new JsonArrayImpl<>(result == null ? new ArrayList<T>() : result);
+    }
+
+    /**
+     * Reads the whole document with specified function. Errors in document are reported with {@code JsonSyntaxException} in the same
+     * way as gson does it. Empty document is read as {@code null}.
+     */
+    private static <R> R readJson(JsonReader reader, JsonReaderFunction<R> function) throws IOException {
+        reader.setLenient(true);
+        try {
+            try {
+                reader.peek();
+            } catch (EOFException e) {
+                return null;
+            }
+            final R result = function.read(reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Did not consume the entire document.");
+            }
+            return result;
+        } catch (MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T> DtoProvider<T> getDtoProvider(Class<T> dtoInterface) {
         DtoProvider<?> dtoProvider = dtoInterface2Providers.get(dtoInterface);
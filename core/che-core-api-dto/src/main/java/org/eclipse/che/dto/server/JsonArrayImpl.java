@@ -14,7 +14,9 @@ import org.eclipse.che.dto.shared.JsonArray;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -159,6 +161,11 @@ public class JsonArrayImpl<T> implements JsonArray<T> {
         return gson.toJsonTree(this);
     }
 
+    @Override
+    public void write(JsonWriter writer) throws IOException {
+        gson.toJson(this, getClass(), writer);
+    }
+
     @Override
     public String toString() {
         return delegate.toString();
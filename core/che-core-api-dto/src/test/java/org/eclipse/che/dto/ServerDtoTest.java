@@ -10,11 +10,14 @@
  *******************************************************************************/
 package org.eclipse.che.dto;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
 
 import org.eclipse.che.dto.definitions.ComplicatedDto;
 import org.eclipse.che.dto.definitions.DTOHierarchy;
@@ -26,9 +29,14 @@ import org.eclipse.che.dto.definitions.model.Model;
 import org.eclipse.che.dto.definitions.model.ModelComponentDto;
 import org.eclipse.che.dto.definitions.model.ModelDto;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonSerializable;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -364,4 +372,99 @@ public class ServerDtoTest {
         assertEquals(childDto.getChildField(), "child-field");
         assertEquals(childDto.getParentField(), "parent-field");
     }
+
+    @Test
+    public void shouldWriteTheSameJsonAsJsonElementSerializer() throws Exception {
+        final SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withId(1).withName("<name>\n\"quoted\"");
+        final Map<String, SimpleDto> map = new HashMap<>();
+        map.put("key", simpleDto);
+        map.put("null", null);
+        final ComplicatedDto complicatedDto = dtoFactory.createDto(ComplicatedDto.class)
+                                                        .withStrings(asList("a", null, "b"))
+                                                        .withSimpleEnum(ComplicatedDto.SimpleEnum.TWO)
+                                                        .withMap(map)
+                                                        .withSimpleDtos(asList(simpleDto, null))
+                                                        .withArrayOfArrayOfEnum(asList(asList(ComplicatedDto.SimpleEnum.ONE),
+                                                                                       new ArrayList<>()));
+        final DtoWithAny dtoWithAny = dtoFactory.createDto(DtoWithAny.class)
+                                                .withStuff(new JsonParser().parse("{\"a\":[1,2.5,null,{\"b\":null}]}"))
+                                                .withObjects(asList(new JsonPrimitive(1.5f), null));
+        final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+        for (JsonSerializable dto : asList((JsonSerializable)simpleDto, (JsonSerializable)complicatedDto, (JsonSerializable)dtoWithAny)) {
+            final StringWriter writer = new StringWriter();
+            dtoFactory.toJson(dto, writer);
+
+            assertEquals(dto.toJson(), gson.toJson(dto.toJsonElement()));
+            assertEquals(writer.toString(), gson.toJson(dto.toJsonElement()));
+        }
+    }
+
+    @Test
+    public void shouldReadDtoFromStream() throws Exception {
+        final String json = "{\"name\":\"name\",\"unknown\":{\"x\":[1,{}]},\"id\":2,\"default\":null}";
+
+        final SimpleDto dto = dtoFactory.createDtoFromJson(new StringReader(json), SimpleDto.class);
+
+        assertEquals(dto, dtoFactory.createDtoFromJson(json, SimpleDto.class));
+        assertEquals(dto, dtoFactory.createDto(SimpleDto.class).withId(2).withName("name"));
+    }
+
+    @Test
+    public void shouldReadListOfDtoFromStream() throws Exception {
+        final String json = "[{\"name\":\"name1\",\"id\":1},{\"name\":\"name2\",\"id\":2}]";
+
+        final List<SimpleDto> dtos = dtoFactory.createListDtoFromJson(new StringReader(json), SimpleDto.class);
+
+        assertEquals(dtos, asList(dtoFactory.createDto(SimpleDto.class).withId(1).withName("name1"),
+                                  dtoFactory.createDto(SimpleDto.class).withId(2).withName("name2")));
+    }
+
+    @Test(expectedExceptions = JsonSyntaxException.class)
+    public void shouldFailReadingDtoFromStreamWhenDocumentIsNotConsumed() throws Exception {
+        dtoFactory.createDtoFromJson(new StringReader("{\"id\":2} {}"), SimpleDto.class);
+    }
+
+    @Test
+    public void shouldReadTheSameDtoFromCborAsWasWritten() throws Exception {
+        final SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withId(-100000).withName("<name>\n\u0444");
+        final Map<String, SimpleDto> map = new HashMap<>();
+        map.put("key", simpleDto);
+        final ComplicatedDto complicatedDto = dtoFactory.createDto(ComplicatedDto.class)
+                                                        .withStrings(asList("a", "long string", "long string"))
+                                                        .withSimpleEnum(ComplicatedDto.SimpleEnum.TWO)
+                                                        .withMap(map)
+                                                        .withSimpleDtos(asList(simpleDto, simpleDto))
+                                                        .withArrayOfArrayOfEnum(asList(asList(ComplicatedDto.SimpleEnum.ONE),
+                                                                                       new ArrayList<>()));
+        final DtoWithAny dtoWithAny = dtoFactory.createDto(DtoWithAny.class)
+                                                .withStuff(new JsonParser().parse("{\"a\":[1,2.5,-3,true,{\"b\":\"c\"}]}"))
+                                                .withObjects(asList(new JsonPrimitive(1.5f), new JsonPrimitive(0.1)));
+
+        for (JsonSerializable dto : asList((JsonSerializable)simpleDto, (JsonSerializable)complicatedDto, (JsonSerializable)dtoWithAny)) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            dtoFactory.toCbor(dto, out);
+
+            final Object read = dtoFactory.createDtoFromCbor(new ByteArrayInputStream(out.toByteArray()), dto.getClass().getInterfaces()[0]);
+
+            assertEquals(((JsonSerializable)read).toJson(), dto.toJson());
+        }
+    }
+
+    @Test
+    public void shouldWriteListOfDtoInCborShorterThanInJson() throws Exception {
+        final List<SimpleDto> dtos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            dtos.add(dtoFactory.createDto(SimpleDto.class).withId(i).withName("name").withDefault("default"));
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dtoFactory.toCborArray(dtos, out);
+        final StringWriter json = new StringWriter();
+        dtoFactory.toJsonArray(dtos, json);
+
+        final List<SimpleDto> read = dtoFactory.createListDtoFromCbor(new ByteArrayInputStream(out.toByteArray()), SimpleDto.class);
+
+        assertEquals(read, dtos);
+        assertTrue(out.size() * 2 < json.toString().length());
+    }
 }
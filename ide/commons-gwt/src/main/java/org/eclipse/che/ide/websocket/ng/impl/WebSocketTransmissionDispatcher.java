@@ -25,29 +25,51 @@ import java.util.Objects;
  * Dispatches a {@link WebSocketTransmission} messages among registered receivers
  * ({@link WebSocketMessageReceiver}) according to WEB SOCKET transmission protocol
  * field value.
+ * <p>
+ * Transmission that has a sequence number is acknowledged, server re-sends it after
+ * reconnection until it is acknowledged. Numbers only grow, so transmission with
+ * number that is not greater than the last received one is a duplicate and it is
+ * not dispatched.
  *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class WebSocketTransmissionDispatcher {
+    /** Protocol of acknowledgements, message is the sequence number of received transmission. */
+    private static final String ACKNOWLEDGEMENT_PROTOCOL = "acknowledgement";
+
     private final Map<String, WebSocketMessageReceiver> receivers;
     private final WebSocketTransmissionValidator        validator;
     private final DtoFactory                            dtoFactory;
+    private final WebSocketConnection                   connection;
 
+    private long lastSequenceNumber = -1;
 
     @Inject
     public WebSocketTransmissionDispatcher(Map<String, WebSocketMessageReceiver> receivers,
                                            WebSocketTransmissionValidator validator,
-                                           DtoFactory dtoFactory) {
+                                           DtoFactory dtoFactory,
+                                           WebSocketConnection connection) {
         this.receivers = receivers;
         this.dtoFactory = dtoFactory;
         this.validator = validator;
+        this.connection = connection;
     }
 
     public void dispatch(String rawTransmission) {
         final WebSocketTransmission transmission = dtoFactory.createDtoFromJson(rawTransmission, WebSocketTransmission.class);
         validator.validate(transmission);
 
+        final Long sequenceNumber = transmission.getSequenceNumber();
+        if (sequenceNumber != null) {
+            acknowledge(sequenceNumber);
+            if (sequenceNumber <= lastSequenceNumber) {
+                Log.debug(getClass(), "Skipping already received web socket transmission " + sequenceNumber);
+                return;
+            }
+            lastSequenceNumber = sequenceNumber;
+        }
+
         final String protocol = transmission.getProtocol();
         final String message = transmission.getMessage();
 
@@ -64,4 +86,12 @@ public class WebSocketTransmissionDispatcher {
             }
         }
     }
+
+    private void acknowledge(long sequenceNumber) {
+        if (connection.isOpen()) {
+            connection.send(dtoFactory.createDto(WebSocketTransmission.class)
+                                      .withProtocol(ACKNOWLEDGEMENT_PROTOCOL)
+                                      .withMessage(Long.toString(sequenceNumber)));
+        }
+    }
 }
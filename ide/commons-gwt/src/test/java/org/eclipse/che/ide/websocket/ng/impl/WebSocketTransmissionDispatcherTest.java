@@ -26,6 +26,7 @@ import static java.util.Collections.singletonMap;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,6 +47,8 @@ public class WebSocketTransmissionDispatcherTest {
     private WebSocketTransmissionValidator        validator;
     @Mock
     private DtoFactory                            dtoFactory;
+    @Mock
+    private WebSocketConnection                   connection;
     @InjectMocks
     private WebSocketTransmissionDispatcher       dispatcher;
 
@@ -53,6 +56,8 @@ public class WebSocketTransmissionDispatcherTest {
     private WebSocketTransmission    transmission;
     @Mock
     private WebSocketMessageReceiver receiver;
+    @Mock
+    private WebSocketTransmission    acknowledgement;
 
     @Before
     public void before() {
@@ -62,6 +67,11 @@ public class WebSocketTransmissionDispatcherTest {
         when(transmission.getMessage()).thenReturn(MESSAGE);
 
         when(receivers.entrySet()).thenReturn(singletonMap(REGISTERED_PROTOCOL, receiver).entrySet());
+
+        when(dtoFactory.createDto(WebSocketTransmission.class)).thenReturn(acknowledgement);
+        when(acknowledgement.withProtocol(any())).thenReturn(acknowledgement);
+        when(acknowledgement.withMessage(any())).thenReturn(acknowledgement);
+        when(connection.isOpen()).thenReturn(true);
     }
 
     @Test
@@ -93,4 +103,34 @@ public class WebSocketTransmissionDispatcherTest {
 
         verify(receiver, never()).receive(MESSAGE);
     }
+
+    @Test
+    public void shouldNotAcknowledgeTransmissionWithoutSequenceNumber() {
+        dispatcher.dispatch(RAW_TRANSMISSION);
+
+        verify(connection, never()).send(any());
+    }
+
+    @Test
+    public void shouldAcknowledgeTransmissionWithSequenceNumber() {
+        when(transmission.getSequenceNumber()).thenReturn(5L);
+
+        dispatcher.dispatch(RAW_TRANSMISSION);
+
+        verify(acknowledgement).withMessage("5");
+        verify(connection).send(acknowledgement);
+        verify(receiver).receive(MESSAGE);
+    }
+
+    @Test
+    public void shouldAcknowledgeButNotRunReceiverForAlreadyReceivedTransmission() {
+        when(transmission.getSequenceNumber()).thenReturn(5L, 6L, 5L, 6L, 7L);
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(RAW_TRANSMISSION);
+        }
+
+        verify(connection, times(5)).send(acknowledgement);
+        verify(receiver, times(3)).receive(MESSAGE);
+    }
 }
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Pool of keep-alive sockets to docker API.
+ *
+ * <p>Sockets are grouped by route, i.e. docker daemon address. Number of sockets leased for every route is limited, thread that
+ * requests socket when limit is reached waits until some socket is released. Idle sockets are reused most recently released first,
+ * sockets that are idle longer than idle timeout are closed.
+ */
+public class DockerConnectionPool {
+    private final int                          maxConnectionsPerRoute;
+    private final long                         idleTimeoutNanos;
+    private final long                         leaseTimeoutMs;
+    private final ConcurrentMap<String, Route> routes;
+    private final ScheduledExecutorService     evictor;
+
+    /**
+     * @param maxConnectionsPerRoute
+     *         max number of sockets leased to the same docker daemon at the same time
+     * @param idleTimeoutMs
+     *         time after which idle socket is closed
+     * @param leaseTimeoutMs
+     *         max time to wait for socket when all sockets of route are leased
+     */
+    public DockerConnectionPool(int maxConnectionsPerRoute, long idleTimeoutMs, long leaseTimeoutMs) {
+        if (maxConnectionsPerRoute < 1) {
+            throw new IllegalArgumentException("Max number of connections per route must be positive");
+        }
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.idleTimeoutNanos = MILLISECONDS.toNanos(idleTimeoutMs);
+        this.leaseTimeoutMs = leaseTimeoutMs;
+        this.routes = new ConcurrentHashMap<>();
+        this.evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("DockerConnectionPoolEvictor")
+                                                                                             .setDaemon(true)
+                                                                                             .build());
+        evictor.scheduleWithFixedDelay(this::evictIdle, idleTimeoutMs, idleTimeoutMs, MILLISECONDS);
+    }
+
+    /**
+     * Leases socket of the route, idle socket is reused if there is any, otherwise new socket is opened with {@code opener}.
+     * Leased socket must be returned with {@link #release(String, DockerSocket, boolean)}.
+     *
+     * @throws IOException
+     *         if socket can't be opened or time of waiting for free socket is expired
+     */
+    DockerSocket lease(String route, SocketOpener opener) throws IOException {
+        final Route r = routes.computeIfAbsent(route, key -> new Route(maxConnectionsPerRoute));
+        try {
+            if (!r.permits.tryAcquire(leaseTimeoutMs, MILLISECONDS)) {
+                throw new IOException(String.format("Timeout waiting for free connection to docker API '%s'", route));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Interrupted while waiting for connection to docker API '%s'", route));
+        }
+        try {
+            final DockerSocket idle = pollIdle(r);
+            return idle != null ? idle : opener.open();
+        } catch (IOException | RuntimeException e) {
+            r.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns leased socket to the pool.
+     *
+     * @param reusable
+     *         {@code true} if socket may be used for the next request, otherwise socket is closed
+     */
+    void release(String route, DockerSocket socket, boolean reusable) {
+        final Route r = routes.get(route);
+        if (reusable) {
+            socket.released();
+            synchronized (r.idle) {
+                r.idle.addFirst(socket);
+            }
+        } else {
+            socket.close();
+        }
+        r.permits.release();
+    }
+
+    /** Returns number of idle sockets of the route. */
+    int getIdleCount(String route) {
+        final Route r = routes.get(route);
+        if (r == null) {
+            return 0;
+        }
+        synchronized (r.idle) {
+            return r.idle.size();
+        }
+    }
+
+    /** Closes all idle sockets and stops eviction of idle sockets. Leased sockets are closed when they are released. */
+    public void shutdown() {
+        evictor.shutdownNow();
+        for (Route r : routes.values()) {
+            final List<DockerSocket> toClose;
+            synchronized (r.idle) {
+                toClose = new ArrayList<>(r.idle);
+                r.idle.clear();
+            }
+            toClose.forEach(DockerSocket::close);
+        }
+    }
+
+    private DockerSocket pollIdle(Route r) {
+        final long now = System.nanoTime();
+        final List<DockerSocket> expired = new ArrayList<>();
+        DockerSocket socket;
+        synchronized (r.idle) {
+            while ((socket = r.idle.pollFirst()) != null && now - socket.getReleaseTime() >= idleTimeoutNanos) {
+                expired.add(socket);
+            }
+        }
+        expired.forEach(DockerSocket::close);
+        return socket;
+    }
+
+    private void evictIdle() {
+        final long now = System.nanoTime();
+        for (Route r : routes.values()) {
+            final List<DockerSocket> expired = new ArrayList<>();
+            synchronized (r.idle) {
+                // the least recently released sockets are at the end of queue
+                while (!r.idle.isEmpty() && now - r.idle.peekLast().getReleaseTime() >= idleTimeoutNanos) {
+                    expired.add(r.idle.pollLast());
+                }
+            }
+            expired.forEach(DockerSocket::close);
+        }
+    }
+
+    interface SocketOpener {
+        DockerSocket open() throws IOException;
+    }
+
+    private static class Route {
+        final Semaphore           permits;
+        final Deque<DockerSocket> idle;
+
+        Route(int maxConnections) {
+            this.permits = new Semaphore(maxConnections, true);
+            this.idle = new ArrayDeque<>();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Socket to docker API. Streams of socket are buffered and live as long as socket, so socket may be used for sequence of HTTP
+ * exchanges while it is kept in {@link DockerConnectionPool}.
+ */
+abstract class DockerSocket {
+    private final InputStream  input;
+    private final OutputStream output;
+
+    private long    releaseTime;
+    private boolean reused;
+
+    DockerSocket(InputStream input, OutputStream output) {
+        this.input = new BufferedInputStream(input);
+        this.output = new BufferedOutputStream(output);
+    }
+
+    InputStream getInputStream() {
+        return input;
+    }
+
+    OutputStream getOutputStream() {
+        return output;
+    }
+
+    /** Returns {@code true} if socket was taken from pool, such socket might be closed by docker while it was idle. */
+    boolean isReused() {
+        return reused;
+    }
+
+    /** Returns value of {@link System#nanoTime()} at the moment when socket was returned to pool. */
+    long getReleaseTime() {
+        return releaseTime;
+    }
+
+    void released() {
+        releaseTime = System.nanoTime();
+        reused = true;
+    }
+
+    abstract void close();
+}
@@ -10,15 +10,18 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client.connection;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
-* @author andrew00x
-*/
-public class UnixSocketDockerResponse implements DockerResponse {
+ * HTTP/1.1 response of docker API read directly from socket.
+ *
+ * @author andrew00x
+ */
+public class HttpDockerResponse implements DockerResponse {
     private static final InputStream EMPTY = new InputStream() {
         @Override
         public int read() throws IOException {
@@ -32,7 +35,7 @@ public class UnixSocketDockerResponse implements DockerResponse {
     private String[]    headersFields;
     private int         status;
 
-    UnixSocketDockerResponse(InputStream input) {
+    HttpDockerResponse(InputStream input) {
         rawData = input;
         status = -1;
     }
@@ -120,6 +123,10 @@ public class UnixSocketDockerResponse implements DockerResponse {
         for (int i = 0; i < 8; i++) {
             int c = rawData.read();
             if (c == -1) {
+                if (i == 0) {
+                    // connection is closed without any byte of response
+                    throw new EOFException("Docker API closed connection without response");
+                }
                 break;
             }
             lineBuf.append((char)c);
@@ -143,8 +150,9 @@ public class UnixSocketDockerResponse implements DockerResponse {
             }
         }
         this.headersFields = headerFields.toArray(new String[headerFields.size()]);
+        final int status = getStatus();
         final int contentLength = getContentLength();
-        if (contentLength == 0) {
+        if (contentLength == 0 || status == 204 || status == 304) {
             return data = EMPTY;
         }
         if (contentLength > 0) {
@@ -152,4 +160,28 @@ public class UnixSocketDockerResponse implements DockerResponse {
         }
         return data = "chunked".equals(getHeader("Transfer-Encoding")) ? new ChunkedInputStream(rawData) : rawData;
     }
+
+    /**
+     * Reads the rest of response body, if it isn't longer than {@code maxBytes}, and checks whether socket may be used for the
+     * next request. That is possible only when the end of body is known from its length or chunked encoding and the whole
+     * body is read.
+     */
+    synchronized boolean consume(int maxBytes) throws IOException {
+        if (headersFields == null
+            || getStatus() == 101
+            || "close".equalsIgnoreCase(getHeader("Connection"))
+            || !(data == EMPTY || data instanceof LimitedInputStream || data instanceof ChunkedInputStream)) {
+            return false;
+        }
+        final byte[] buffer = new byte[1024];
+        int read = 0;
+        int n;
+        while ((n = data.read(buffer)) != -1) {
+            read += n;
+            if (read > maxBytes) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+
+import org.eclipse.che.commons.lang.Pair;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Connection that sends HTTP/1.1 requests to docker API over keep-alive sockets of {@link DockerConnectionPool}.
+ *
+ * <p>Requests to streaming endpoints (attach, events, logs, exec start, etc.) may hold socket for a long time or switch socket
+ * to raw stream, so they get dedicated socket which is closed together with connection.
+ */
+public abstract class PooledDockerConnection extends DockerConnection {
+    private static final Pattern     STREAMING_PATH        = Pattern.compile(".*/(attach|events|logs|stats|wait|build|push|images/create" +
+                                                                                 "|exec/[^/]+/start)");
+    /** Max size of unread part of response body that is skipped to return socket to pool. */
+    private static final int         MAX_SKIPPED_BODY_SIZE = 8 * 1024;
+    private static final Set<String> IDEMPOTENT_METHODS    = ImmutableSet.of("GET", "HEAD", "DELETE");
+
+    private final DockerConnectionPool pool;
+    private final String               route;
+
+    private DockerSocket       socket;
+    private HttpDockerResponse response;
+    private boolean            dedicated;
+
+    protected PooledDockerConnection(DockerConnectionPool pool, String route) {
+        this.pool = pool;
+        this.route = route;
+    }
+
+    @Override
+    protected DockerResponse request(String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
+            throws IOException {
+        dedicated = STREAMING_PATH.matcher(path).matches() || entity != null && !hasContentLength(headers);
+        if (dedicated) {
+            socket = openSocket();
+            return response = send(method, path, query, headers, entity);
+        }
+        socket = pool.lease(route, this::openSocket);
+        boolean sent = false;
+        try {
+            response = send(method, path, query, headers, entity);
+            sent = true;
+            // read status line and headers to detect socket closed by docker while it was idle in pool
+            response.getStatus();
+        } catch (IOException e) {
+            // docker may have handled the request if it was sent and the socket was not closed before the response,
+            // so only idempotent requests are repeated then
+            if (!socket.isReused()
+                || entity instanceof StreamEntity
+                || sent && !(e instanceof EOFException) && !IDEMPOTENT_METHODS.contains(method)) {
+                throw e;
+            }
+            socket.close();
+            socket = openSocket();
+            response = send(method, path, query, headers, entity);
+        }
+        return response;
+    }
+
+    @Override
+    public void close() {
+        if (socket == null) {
+            return;
+        }
+        if (dedicated) {
+            socket.close();
+        } else {
+            boolean reusable;
+            try {
+                reusable = response != null && response.consume(MAX_SKIPPED_BODY_SIZE);
+            } catch (IOException e) {
+                reusable = false;
+            }
+            pool.release(route, socket, reusable);
+        }
+        socket = null;
+        response = null;
+    }
+
+    /** Opens new socket to docker API. */
+    protected abstract DockerSocket openSocket() throws IOException;
+
+    /** Returns value of mandatory HTTP 1.1 Host header. */
+    protected abstract String getHost();
+
+    private HttpDockerResponse send(String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
+            throws IOException {
+        final OutputStream output = socket.getOutputStream();
+        writeHttpHeaders(output, method, path, query, headers);
+        if (entity != null) {
+            entity.writeTo(output);
+        }
+        output.flush();
+        return new HttpDockerResponse(socket.getInputStream());
+    }
+
+    private void writeHttpHeaders(OutputStream output, String method, String path, String query, List<Pair<String, ?>> headers)
+            throws IOException {
+        final Writer writer = new OutputStreamWriter(output);
+        writer.write(method);
+        writer.write(' ');
+        writer.write(path);
+        if (!Strings.isNullOrEmpty(query)) {
+            writer.write("?");
+            writer.write(query);
+        }
+        writer.write(" HTTP/1.1\r\n");
+        for (Pair<String, ?> header : headers) {
+            writer.write(header.first);
+            writer.write(": ");
+            writer.write(String.valueOf(header.second));
+            writer.write("\r\n");
+        }
+        if (dedicated) {
+            // needed to fix bug https://github.com/docker/docker/issues/12845
+            writer.write("Connection: close\r\n");
+        }
+        // Host header is mandatory in HTTP 1.1
+        writer.write("Host: ");
+        writer.write(getHost());
+        writer.write("\r\n\r\n");
+        writer.flush();
+    }
+
+    private static boolean hasContentLength(List<Pair<String, ?>> headers) {
+        return headers.stream().anyMatch(header -> "Content-Length".equalsIgnoreCase(header.first));
+    }
+}
@@ -10,32 +10,31 @@
  *******************************************************************************/
 package org.eclipse.che.plugin.docker.client.connection;
 
-import com.google.common.base.Strings;
-
-import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.plugin.docker.client.DockerCertificates;
 
-import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.URI;
-import java.net.URL;
-import java.util.List;
 
 /**
  * @author andrew00x
  * @author Alexander Garagatyi
  */
-public class TcpConnection extends DockerConnection {
+public class TcpConnection extends PooledDockerConnection {
     private final URI                baseUri;
     private final DockerCertificates certificates;
     private final int                connectionTimeout;
     private final int                readTimeout;
 
-    private HttpURLConnection connection;
-
-    public TcpConnection(URI baseUri, DockerCertificates certificates, int connectionTimeoutMs, int readTimeoutMs) {
+    public TcpConnection(URI baseUri,
+                         DockerCertificates certificates,
+                         int connectionTimeoutMs,
+                         int readTimeoutMs,
+                         DockerConnectionPool pool) {
+        super(pool, baseUri.getScheme() + "://" + baseUri.getHost() + ':' + getPort(baseUri));
         if ("https".equals(baseUri.getScheme())) {
             if (certificates == null) {
                 throw new IllegalArgumentException("Certificates are required for https connection.");
@@ -50,42 +49,52 @@ public class TcpConnection extends DockerConnection {
     }
 
     @Override
-    protected DockerResponse request(String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
-            throws IOException {
-        final String requestUri = path + (Strings.isNullOrEmpty(query) ? "" : "?" + query);
-        final URL url = baseUri.resolve(requestUri).toURL();
-        final String protocol = url.getProtocol();
-        connection = (HttpURLConnection)url.openConnection();
-        connection.setConnectTimeout(connectionTimeout);
-        connection.setReadTimeout(readTimeout);
-        if ("https".equals(protocol)) {
-            ((HttpsURLConnection)connection).setSSLSocketFactory(certificates.getSslContext().getSocketFactory());
-        }
-        connection.setRequestMethod(method);
-        // needed to fix bug https://github.com/docker/docker/issues/12845
-        connection.setRequestProperty("Connection", "close");
-        for (Pair<String, ?> header : headers) {
-            connection.setRequestProperty(header.first, String.valueOf(header.second));
-        }
-        String host = url.getHost();
-        if (url.getPort() != -1) {
-            host += ":" + Integer.toString(url.getPort());
-        }
-        // Host header is mandatory in HTTP 1.1
-        connection.setRequestProperty("Host", host);
-        if (entity != null) {
-            connection.setDoOutput(true);
-            try (OutputStream output = connection.getOutputStream()) {
-                entity.writeTo(output);
+    protected DockerSocket openSocket() throws IOException {
+        final String host = baseUri.getHost();
+        final int port = getPort(baseUri);
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), connectionTimeout);
+            socket.setSoTimeout(readTimeout);
+            socket.setTcpNoDelay(true);
+            if ("https".equals(baseUri.getScheme())) {
+                final SSLSocket sslSocket = (SSLSocket)certificates.getSslContext().getSocketFactory().createSocket(socket, host, port, true);
+                socket = sslSocket;
+                // verify host name as it is done for https URL connections
+                final SSLParameters sslParameters = sslSocket.getSSLParameters();
+                sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+                sslSocket.setSSLParameters(sslParameters);
+                sslSocket.startHandshake();
             }
+        } catch (IOException e) {
+            socket.close();
+            throw e;
         }
-        return new TcpDockerResponse(connection);
+        final Socket opened = socket;
+        return new DockerSocket(opened.getInputStream(), opened.getOutputStream()) {
+            @Override
+            void close() {
+                try {
+                    opened.close();
+                } catch (IOException ignored) {
+                }
+            }
+        };
     }
 
     @Override
-    public void close() {
-        if (connection != null) {
-            connection.disconnect();
+    protected String getHost() {
+        String host = baseUri.getHost();
+        if (baseUri.getPort() != -1) {
+            host += ":" + Integer.toString(baseUri.getPort());
+        }
+        return host;
+    }
+
+    private static int getPort(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
         }
+        return "https".equals(uri.getScheme()) ? 443 : 80;
     }
 }
@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.io.CharStreams;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests {@link TcpConnection} and {@link DockerConnectionPool} against local stub of docker API.
+ */
+public class TcpConnectionTest {
+    private static final Logger LOG = LoggerFactory.getLogger(TcpConnectionTest.class);
+
+    private StubDockerApi        dockerApi;
+    private DockerConnectionPool pool;
+    private URI                  dockerUri;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dockerApi = new StubDockerApi();
+        dockerUri = new URI("http://127.0.0.1:" + dockerApi.getPort());
+        pool = new DockerConnectionPool(2, 60000, 100);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        pool.shutdown();
+        dockerApi.close();
+    }
+
+    @Test
+    public void shouldReuseSocketForSequentialRequests() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(get("/containers/" + i + "/json"), "{\"path\":\"/containers/" + i + "/json\"}");
+        }
+
+        assertEquals(dockerApi.getAcceptedConnections(), 1);
+        assertEquals(pool.getIdleCount(getRoute()), 1);
+        assertFalse(dockerApi.getRequestHeaders().contains("Connection: close"));
+    }
+
+    @Test
+    public void shouldReuseSocketAfterRequestWithEntity() throws Exception {
+        final byte[] entity = "{\"Image\":\"test\"}".getBytes(UTF_8);
+        for (int i = 0; i < 3; i++) {
+            try (DockerConnection connection = open().method("POST")
+                                                     .path("/containers/create")
+                                                     .header("Content-Length", entity.length)
+                                                     .entity(entity)) {
+                final DockerResponse response = connection.request();
+                assertEquals(response.getStatus(), 200);
+                assertEquals(read(response), "{\"path\":\"/containers/create\"}");
+            }
+        }
+
+        assertEquals(dockerApi.getAcceptedConnections(), 1);
+    }
+
+    @Test
+    public void shouldReuseSocketWhenResponseBodyIsNotRead() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            try (DockerConnection connection = open().method("POST").path("/containers/test/start")) {
+                assertEquals(connection.request().getStatus(), 200);
+            }
+        }
+
+        assertEquals(dockerApi.getAcceptedConnections(), 1);
+    }
+
+    @Test
+    public void shouldUseDedicatedSocketForStreamingRequest() throws Exception {
+        assertEquals(get("/events"), "event 0\nevent 1\n");
+        assertEquals(get("/events"), "event 0\nevent 1\n");
+
+        assertEquals(dockerApi.getAcceptedConnections(), 2);
+        assertEquals(pool.getIdleCount(getRoute()), 0);
+        assertTrue(dockerApi.getRequestHeaders().contains("Connection: close"));
+    }
+
+    @Test
+    public void shouldRetryRequestWhenIdleSocketIsClosedByDocker() throws Exception {
+        get("/info");
+        dockerApi.closeIdleConnections();
+
+        assertEquals(get("/version"), "{\"path\":\"/version\"}");
+        assertEquals(dockerApi.getAcceptedConnections(), 2);
+    }
+
+    @Test
+    public void shouldNotRepeatNotIdempotentRequestWhenResponseIsBrokenOnReusedSocket() throws Exception {
+        get("/info");
+
+        try (DockerConnection connection = open().method("POST").path("/containers/broken/start")) {
+            connection.request();
+            fail("IOException expected");
+        } catch (IOException expected) {
+        }
+
+        assertEquals(dockerApi.getRequestPaths().stream().filter("/containers/broken/start"::equals).count(), 1);
+    }
+
+    @Test
+    public void shouldCloseIdleSocketAfterIdleTimeout() throws Exception {
+        pool.shutdown();
+        pool = new DockerConnectionPool(2, 50, 100);
+        get("/info");
+
+        Thread.sleep(200);
+
+        assertEquals(pool.getIdleCount(getRoute()), 0);
+        get("/info");
+        assertEquals(dockerApi.getAcceptedConnections(), 2);
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Timeout waiting for free connection .*")
+    public void shouldNotOpenMoreSocketsThanLimit() throws Exception {
+        try (DockerConnection first = open().method("GET").path("/info");
+             DockerConnection second = open().method("GET").path("/info")) {
+            first.request();
+            second.request();
+            try (DockerConnection third = open().method("GET").path("/info")) {
+                third.request();
+            }
+        }
+    }
+
+    @Test
+    public void shouldReportLatencyOfPooledAndNotPooledRequests() throws Exception {
+        final int requests = 500;
+        // warm up
+        for (int i = 0; i < requests; i++) {
+            get("/info");
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            get("/containers/test/json");
+        }
+        final long pooled = (System.nanoTime() - start) / requests;
+
+        start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            get("/containers/test/json");
+            // closes idle socket, so the next request opens new one
+            pool.shutdown();
+        }
+        final long notPooled = (System.nanoTime() - start) / requests;
+
+        LOG.info("Average latency of inspect request: {} us with pooled connections, {} us with new connection for every request",
+                 pooled / 1000, notPooled / 1000);
+        // pooled requests use single socket, the first not pooled request reuses it too
+        assertEquals(dockerApi.getAcceptedConnections(), requests);
+    }
+
+    private String get(String path) throws IOException {
+        try (DockerConnection connection = open().method("GET").path(path)) {
+            final DockerResponse response = connection.request();
+            assertEquals(response.getStatus(), 200);
+            return read(response);
+        }
+    }
+
+    private String read(DockerResponse response) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(response.getInputStream(), UTF_8)) {
+            return CharStreams.toString(reader);
+        }
+    }
+
+    private DockerConnection open() {
+        return new TcpConnection(dockerUri, null, 1000, 1000, pool);
+    }
+
+    private String getRoute() {
+        return "http://127.0.0.1:" + dockerApi.getPort();
+    }
+
+    /**
+     * Minimal HTTP/1.1 server which keeps connections alive. Requests to {@code /events} get chunked response and connection
+     * is closed after it, connection is closed in the middle of response to {@code /broken/start} requests, any other request
+     * gets JSON with path of request.
+     */
+    private static class StubDockerApi {
+        private final ServerSocket  serverSocket;
+        private final AtomicInteger accepted;
+        private final List<Socket>  sockets;
+        private final List<String>  requestHeaders;
+        private final List<String>  requestPaths;
+
+        StubDockerApi() throws IOException {
+            serverSocket = new ServerSocket(0);
+            accepted = new AtomicInteger();
+            sockets = new CopyOnWriteArrayList<>();
+            requestHeaders = new CopyOnWriteArrayList<>();
+            requestPaths = new CopyOnWriteArrayList<>();
+            final Thread acceptor = new Thread(() -> {
+                try {
+                    while (true) {
+                        final Socket socket = serverSocket.accept();
+                        accepted.incrementAndGet();
+                        sockets.add(socket);
+                        final Thread handler = new Thread(() -> serve(socket));
+                        handler.setDaemon(true);
+                        handler.start();
+                    }
+                } catch (IOException ignored) {
+                    // server is closed
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getAcceptedConnections() {
+            return accepted.get();
+        }
+
+        List<String> getRequestHeaders() {
+            return requestHeaders;
+        }
+
+        List<String> getRequestPaths() {
+            return requestPaths;
+        }
+
+        void closeIdleConnections() throws IOException {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+            closeIdleConnections();
+        }
+
+        private void serve(Socket socket) {
+            try (Socket ignored = socket) {
+                final InputStream input = socket.getInputStream();
+                final OutputStream output = socket.getOutputStream();
+                String requestLine;
+                while ((requestLine = readLine(input)) != null) {
+                    final String path = requestLine.split(" ")[1];
+                    requestPaths.add(path);
+                    int contentLength = 0;
+                    String header;
+                    while ((header = readLine(input)) != null && !header.isEmpty()) {
+                        requestHeaders.add(header);
+                        if (header.startsWith("Content-Length: ")) {
+                            contentLength = Integer.parseInt(header.substring("Content-Length: ".length()));
+                        }
+                    }
+                    for (int i = 0; i < contentLength; i++) {
+                        input.read();
+                    }
+                    if (path.endsWith("/events")) {
+                        output.write(("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\nConnection: close\r\n\r\n" +
+                                      "8\r\nevent 0\n\r\n8\r\nevent 1\n\r\n0\r\n\r\n").getBytes(UTF_8));
+                        output.flush();
+                        return;
+                    }
+                    if (path.endsWith("/broken/start")) {
+                        // connection is lost in the middle of the response
+                        output.write("HTTP/1.1 200 OK\r\n".getBytes(UTF_8));
+                        output.flush();
+                        return;
+                    }
+                    final String body = "{\"path\":\"" + path + "\"}";
+                    // response is written at once as docker does, otherwise Nagle's algorithm delays the body
+                    output.write(("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: " + body.length() + "\r\n\r\n" +
+                                  body).getBytes(UTF_8));
+                    output.flush();
+                }
+            } catch (SocketException ignored) {
+                // socket is closed by test
+            } catch (IOException e) {
+                LOG.error(e.getMessage(), e);
+            }
+        }
+
+        private static String readLine(InputStream input) throws IOException {
+            final StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = input.read()) != '\n') {
+                if (c == -1) {
+                    return null;
+                }
+                if (c != '\r') {
+                    line.append((char)c);
+                }
+            }
+            return line.toString();
+        }
+    }
+}
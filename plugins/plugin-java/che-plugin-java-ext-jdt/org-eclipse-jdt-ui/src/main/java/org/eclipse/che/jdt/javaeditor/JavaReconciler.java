@@ -14,13 +14,19 @@ package org.eclipse.che.jdt.javaeditor;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
+import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.che.ide.ext.java.shared.dto.HighlightedPosition;
 import org.eclipse.che.ide.ext.java.shared.dto.Problem;
 import org.eclipse.che.ide.ext.java.shared.dto.ReconcileResult;
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaModelStatusConstants;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IProblemRequestor;
 import org.eclipse.jdt.core.IType;
@@ -29,13 +35,18 @@ import org.eclipse.jdt.core.WorkingCopyOwner;
 import org.eclipse.jdt.core.compiler.IProblem;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.internal.core.ClassFileWorkingCopy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author Evgen Vidolob
@@ -45,6 +56,11 @@ public class JavaReconciler {
     private static final Logger LOG = LoggerFactory.getLogger(JavaReconciler.class);
 
 
+    /** Maximum number of working copies kept open, the least recently used one is discarded first. */
+    private static final int MAX_SESSIONS = 32;
+
+    private final Map<String, ReconcileSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
     private SemanticHighlightingReconciler semanticHighlighting;
 
     @Inject
@@ -52,61 +68,140 @@ public class JavaReconciler {
         this.semanticHighlighting = semanticHighlighting;
     }
 
+    /**
+     * Reconciles the compilation unit of the given type against its content on disk.
+     * <p>
+     * The working copy of the unit is kept open between calls, so only the changed unit is parsed and resolved again.
+     * Before reconciling the working copy is synchronized with the file on disk.
+     * <p>
+     * A reconcile that is still running or waiting when a new request for the same unit arrives is cancelled,
+     * in that case {@code null} is returned for the cancelled request.
+     * <p>
+     * If the working copy can't be synchronized or reconciled, e.g. the file is removed or moved, the working copy is
+     * discarded and the next call opens a new one from the file on disk.
+     *
+     * @param javaProject
+     *         project that contains the type
+     * @param fqn
+     *         fully qualified name of the type
+     * @return reconcile result or {@code null} if the type can't be found or reconcile was cancelled
+     */
     public ReconcileResult reconcile(IJavaProject javaProject, String fqn) throws JavaModelException {
-        final ProblemRequestor requestor = new ProblemRequestor();
-        WorkingCopyOwner wcOwner = new WorkingCopyOwner() {
-            public IProblemRequestor getProblemRequestor(ICompilationUnit unit) {
-                return requestor;
-            }
+        String key = sessionKey(javaProject, fqn);
+        ReconcileSession session = getSession(javaProject, key, fqn);
+        if (session == null) {
+            return null;
+        }
 
-            @Override
-            public IBuffer createBuffer(ICompilationUnit workingCopy) {
-//                return BufferManager.createBuffer(workingCopy);
-//                ?????
-                return new org.eclipse.jdt.internal.ui.javaeditor.DocumentAdapter(workingCopy, (IFile)workingCopy.getResource());
-            }
-        };
-        List<HighlightedPosition> positions = null;
-        ICompilationUnit compilationUnit = null;
-        try {
-            IType type = javaProject.findType(fqn);
-            if (type == null) {
-                return null;
-            }
-            if (type.isBinary()) {
-                throw new IllegalArgumentException("Can't reconcile binary type: " + fqn);
-            } else {
-                compilationUnit = type.getCompilationUnit().getWorkingCopy(wcOwner, null);
-            }
-            requestor.reset();
-            CompilationUnit unit = compilationUnit.reconcile(AST.JLS8, true, wcOwner, null);
-            positions = semanticHighlighting.reconcileSemanticHighlight(unit);
-            if (compilationUnit instanceof ClassFileWorkingCopy) {
-                //we don't wont to show any errors from ".class" files
-                requestor.reset();
-            }
+        final IProgressMonitor monitor = new NullProgressMonitor();
+        IProgressMonitor previous = session.monitor.getAndSet(monitor);
+        if (previous != null) {
+            previous.setCanceled(true);
+        }
 
-        } catch (JavaModelException e) {
-            LOG.error("Can't reconcile class: " + fqn + " in project:" + javaProject.getPath().toOSString(), e);
-            throw e;
-        } finally {
-            if(compilationUnit!= null && compilationUnit.isWorkingCopy()){
-                try {
-                    //todo close buffer
-                    compilationUnit.getBuffer().close();
-                    compilationUnit.discardWorkingCopy();
-                } catch (JavaModelException e) {
-                    //ignore
+        List<HighlightedPosition> positions;
+        List<Problem> problems;
+        synchronized (session) {
+            try {
+                if (session.closed) {
+                    return null;
+                }
+                ICompilationUnit compilationUnit = session.workingCopy;
+                session.syncWithFile();
+                if (monitor.isCanceled()) {
+                    return null;
                 }
+
+                session.requestor.reset();
+                CompilationUnit unit = compilationUnit.reconcile(AST.JLS8, true, session.owner, monitor);
+                positions = unit == null ? new ArrayList<>() : semanticHighlighting.reconcileSemanticHighlight(unit);
+                problems = convertProblems(session.requestor.problems);
+            } catch (OperationCanceledException e) {
+                return null;
+            } catch (JavaModelException e) {
+                discardSession(key, session);
+                LOG.error("Can't reconcile class: " + fqn + " in project:" + javaProject.getPath().toOSString(), e);
+                throw e;
+            } finally {
+                session.monitor.compareAndSet(monitor, null);
             }
         }
 
         ReconcileResult result = DtoFactory.getInstance().createDto(ReconcileResult.class);
-        result.setProblems(convertProblems(requestor.problems));
+        result.setProblems(problems);
         result.setHighlightedPositions(positions);
         return result;
     }
 
+    /**
+     * Discards the working copy kept for the given type, does nothing if there is no one.
+     *
+     * @param javaProject
+     *         project that contains the type
+     * @param fqn
+     *         fully qualified name of the type
+     */
+    public void closeSession(IJavaProject javaProject, String fqn) {
+        ReconcileSession session;
+        synchronized (sessions) {
+            session = sessions.remove(sessionKey(javaProject, fqn));
+        }
+        if (session != null) {
+            session.close();
+        }
+    }
+
+    /** Removes the session if it is still kept for the key and closes it. */
+    private void discardSession(String key, ReconcileSession session) {
+        synchronized (sessions) {
+            sessions.remove(key, session);
+        }
+        session.close();
+    }
+
+    private ReconcileSession getSession(IJavaProject javaProject, String key, String fqn) throws JavaModelException {
+        synchronized (sessions) {
+            ReconcileSession session = sessions.get(key);
+            if (session != null) {
+                return session;
+            }
+        }
+
+        IType type = javaProject.findType(fqn);
+        if (type == null) {
+            return null;
+        }
+        if (type.isBinary()) {
+            throw new IllegalArgumentException("Can't reconcile binary type: " + fqn);
+        }
+        ReconcileSession created = new ReconcileSession(type.getCompilationUnit());
+
+        ReconcileSession session;
+        List<ReconcileSession> evicted = new ArrayList<>();
+        synchronized (sessions) {
+            session = sessions.get(key);
+            if (session == null) {
+                session = created;
+                sessions.put(key, session);
+                Iterator<ReconcileSession> iterator = sessions.values().iterator();
+                while (sessions.size() > MAX_SESSIONS && iterator.hasNext()) {
+                    evicted.add(iterator.next());
+                    iterator.remove();
+                }
+            } else {
+                evicted.add(created);
+            }
+        }
+        for (ReconcileSession stale : evicted) {
+            stale.close();
+        }
+        return session;
+    }
+
+    private static String sessionKey(IJavaProject javaProject, String fqn) {
+        return javaProject.getPath().toString() + ':' + fqn;
+    }
+
     private List<Problem> convertProblems(List<IProblem> problems) {
         List<Problem> result = new ArrayList<>(problems.size());
         for (IProblem problem : problems) {
@@ -131,6 +226,64 @@ public class JavaReconciler {
         return result;
     }
 
+    /** Keeps the working copy of the compilation unit opened in an editor. */
+    private static class ReconcileSession {
+        private final ProblemRequestor                   requestor = new ProblemRequestor();
+        private final AtomicReference<IProgressMonitor> monitor   = new AtomicReference<>();
+        private final WorkingCopyOwner                   owner;
+        private final ICompilationUnit                   workingCopy;
+
+        private boolean closed;
+
+        ReconcileSession(ICompilationUnit compilationUnit) throws JavaModelException {
+            owner = new WorkingCopyOwner() {
+                public IProblemRequestor getProblemRequestor(ICompilationUnit unit) {
+                    return requestor;
+                }
+
+                @Override
+                public IBuffer createBuffer(ICompilationUnit workingCopy) {
+                    return new org.eclipse.jdt.internal.ui.javaeditor.DocumentAdapter(workingCopy, (IFile)workingCopy.getResource());
+                }
+            };
+            workingCopy = compilationUnit.getWorkingCopy(owner, null);
+        }
+
+        /** Replaces content of the working copy with content of the file if they differ. */
+        void syncWithFile() throws JavaModelException {
+            IFile file = (IFile)workingCopy.getResource();
+            String content;
+            try (InputStream inputStream = file.getContents()) {
+                content = IoUtil.readStream(inputStream);
+            } catch (IOException | CoreException e) {
+                throw new JavaModelException(e, IJavaModelStatusConstants.IO_EXCEPTION);
+            }
+            IBuffer buffer = workingCopy.getBuffer();
+            if (!content.equals(buffer.getContents())) {
+                buffer.setContents(content);
+            }
+        }
+
+        void close() {
+            IProgressMonitor running = monitor.get();
+            if (running != null) {
+                running.setCanceled(true);
+            }
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    workingCopy.getBuffer().close();
+                    workingCopy.discardWorkingCopy();
+                } catch (JavaModelException e) {
+                    //ignore
+                }
+            }
+        }
+    }
+
     private static class ProblemRequestor implements IProblemRequestor {
 
         private List<IProblem> problems = new ArrayList<>();
@@ -55,6 +55,12 @@ public class JavaReconcileClient {
                            });
     }
 
+    /** Releases resources kept on the server for reconciling the given type. */
+    public void closeReconcileSession(String projectPath, String fqn) {
+        String url = appContext.getDevMachine().getWsAgentBaseUrl() + "/java/reconcile/?projectpath=" + projectPath + "&fqn=" + fqn;
+        asyncRequestFactory.createDeleteRequest(url).send();
+    }
+
     public interface ReconcileCallback {
         void onReconcile(ReconcileResult result);
     }
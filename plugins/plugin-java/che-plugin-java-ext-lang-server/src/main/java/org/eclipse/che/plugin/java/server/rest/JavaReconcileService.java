@@ -20,6 +20,7 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.core.JavaModel;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 
+import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
@@ -43,4 +44,18 @@ public class JavaReconcileService {
         IJavaProject javaProject = model.getJavaProject(projectPath);
         return reconciler.reconcile(javaProject, fqn);
     }
+
+    /**
+     * Discards the working copy kept for the type, should be called when the editor is closed.
+     *
+     * @param projectPath
+     *         path to the project
+     * @param fqn
+     *         fully qualified name of the java file
+     */
+    @DELETE
+    public void closeSession(@QueryParam("projectpath") String projectPath, @QueryParam("fqn") String fqn) {
+        IJavaProject javaProject = model.getJavaProject(projectPath);
+        reconciler.closeSession(javaProject, fqn);
+    }
 }
@@ -23,6 +23,7 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.internal.core.DefaultWorkingCopyOwner;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -62,6 +63,11 @@ public class ReconcileTest extends BaseTest {
         this.workingCopy = project.findType("p1.X").getCompilationUnit(); //.getWorkingCopy(this.wcOwner, null);
     }
 
+    @After
+    public void tearDown() throws Exception {
+        reconciler.closeSession(project, "p1.X");
+    }
+
     @Test
     public void testCompilationUnitReconcile() throws Exception {
         setWorkingCopyContents(
@@ -98,6 +104,30 @@ public class ReconcileTest extends BaseTest {
         assertThat(reconcile.getProblems()).onProperty("error").containsSequence(true);
     }
 
+    @Test
+    public void testReconcileKeptWorkingCopyAfterFileIsChanged() throws Exception {
+        setWorkingCopyContents(
+                "package p1;\n" +
+                "public class X {\n" +
+                "  public void foo() {\n" +
+                "  }\n" +
+                "}");
+        ReconcileResult reconcile = reconciler.reconcile(project, "p1.X");
+        assertThat(reconcile.getProblems()).isEmpty();
+
+        setWorkingCopyContents(
+                "package p1;\n" +
+                "public class X {\n" +
+                "  public void foo() {\n" +
+                "  }\n" +
+                "  public void foo() {\n" +
+                "  }\n" +
+                "}");
+        reconcile = reconciler.reconcile(project, "p1.X");
+        assertThat(reconcile.getProblems()).hasSize(2);
+        assertThat(reconcile.getProblems()).onProperty("message").containsSequence("Duplicate method foo() in type X");
+    }
+
 
     @Test
     public void testSemanticHighlight() throws Exception {
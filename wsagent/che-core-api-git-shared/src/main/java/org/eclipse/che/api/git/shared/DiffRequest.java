@@ -115,4 +115,38 @@ public interface DiffRequest extends GitRequest {
     void setCached(boolean isCached);
     
     DiffRequest withCached(boolean isCached);
+
+    /** @return number of changed files to skip before files are shown, used for paging through changed files */
+    int getSkip();
+
+    void setSkip(int skip);
+
+    DiffRequest withSkip(int skip);
+
+    /** @return maximal number of shown changed files, zero or negative value means no limit */
+    int getMaxCount();
+
+    void setMaxCount(int maxCount);
+
+    DiffRequest withMaxCount(int maxCount);
+
+    /**
+     * @return maximal number of bytes of diff output for single file, the rest of file difference is cut off. Zero or negative
+     *         value means no limit. This attribute has sense for {@link DiffType#RAW} only
+     */
+    int getFileDiffLimit();
+
+    void setFileDiffLimit(int fileDiffLimit);
+
+    DiffRequest withFileDiffLimit(int fileDiffLimit);
+
+    /**
+     * @return size of file in bytes, files bigger than this are shown as binary and their content is not read, the same as
+     *         core.bigFileThreshold of C git. Zero or negative value means default threshold of implementation
+     */
+    int getBigFileThreshold();
+
+    void setBigFileThreshold(int bigFileThreshold);
+
+    DiffRequest withBigFileThreshold(int bigFileThreshold);
 }
\ No newline at end of file
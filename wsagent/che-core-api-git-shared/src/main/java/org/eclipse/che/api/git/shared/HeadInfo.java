@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.git.shared;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Describes HEAD of repository: checked out branch, commit and position relative to the tracked remote branch.
+ * Unlike {@link Status} it is computed from refs only and does not require scanning of working tree.
+ */
+@DTO
+public interface HeadInfo {
+    /** @return short name of checked out branch, e.g. 'master', or <code>null</code> if HEAD is detached */
+    String getBranch();
+
+    /** @return id of commit HEAD points to or <code>null</code> if repository has no commits yet */
+    String getCommitId();
+
+    /** @return <code>true</code> if HEAD points to commit directly and not to the branch */
+    boolean isDetached();
+
+    /** @return short name of remote tracking branch, e.g. 'origin/master', or <code>null</code> if branch is not tracked */
+    String getTrackingBranch();
+
+    /** @return number of commits in local branch that are not in the tracking branch */
+    int getAheadCount();
+
+    /** @return number of commits in tracking branch that are not in the local branch */
+    int getBehindCount();
+
+    HeadInfo withBranch(String branch);
+
+    HeadInfo withCommitId(String commitId);
+
+    HeadInfo withDetached(boolean detached);
+
+    HeadInfo withTrackingBranch(String trackingBranch);
+
+    HeadInfo withAheadCount(int aheadCount);
+
+    HeadInfo withBehindCount(int behindCount);
+}
@@ -35,6 +35,35 @@ public interface LogRequest extends GitRequest {
     
     void setRevisionRangeSince(String revisionRangeSince);
     void setRevisionRangeUntil(String revisionRangeUntil);	
+
+    /** @return number of commits to skip before commits are returned, used for paging */
+    int getSkip();
+
+    void setSkip(int skip);
+
+    LogRequest withSkip(int skip);
+
+    /** @return maximal number of returned commits, zero or negative value means no limit */
+    int getMaxCount();
+
+    void setMaxCount(int maxCount);
+
+    LogRequest withMaxCount(int maxCount);
+
+    /** @return return only commits created at this time or later, milliseconds since epoch, zero means no limit */
+    long getSinceTime();
+
+    void setSinceTime(long sinceTime);
+
+    LogRequest withSinceTime(long sinceTime);
+
+    /** @return return only commits created at this time or earlier, milliseconds since epoch, zero means no limit */
+    long getUntilTime();
+
+    void setUntilTime(long untilTime);
+
+    LogRequest withUntilTime(long untilTime);
+
     // private List<String> fileFilter;
     // private boolean noRenames = true;
     // private int renameLimit;
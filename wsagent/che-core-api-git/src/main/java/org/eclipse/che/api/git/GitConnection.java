@@ -25,6 +25,7 @@ import org.eclipse.che.api.git.shared.CommitRequest;
 import org.eclipse.che.api.git.shared.DiffRequest;
 import org.eclipse.che.api.git.shared.FetchRequest;
 import org.eclipse.che.api.git.shared.GitUser;
+import org.eclipse.che.api.git.shared.HeadInfo;
 import org.eclipse.che.api.git.shared.InitRequest;
 import org.eclipse.che.api.git.shared.LogRequest;
 import org.eclipse.che.api.git.shared.LsFilesRequest;
@@ -431,6 +432,27 @@ public interface GitConnection extends Closeable {
      */
     Status status(StatusFormat format) throws GitException;
 
+    /**
+     * Get short name of the checked out branch. Reads HEAD reference only and does not touch working tree, so it is much
+     * cheaper than {@link #status(StatusFormat)} when only branch name is needed.
+     *
+     * @return short name of checked out branch, e.g. 'master', or id of commit if HEAD is detached
+     * @throws GitException
+     *         if any error occurs
+     */
+    String getCurrentBranch() throws GitException;
+
+    /**
+     * Get description of HEAD: checked out branch, commit, tracking branch and number of commits ahead of and behind it.
+     * Computed from refs and commit graph only, working tree is not scanned.
+     *
+     * @return HEAD description
+     * @throws GitException
+     *         if any error occurs
+     * @see HeadInfo
+     */
+    HeadInfo getHeadInfo() throws GitException;
+
     /**
      * Create new tag.
      *
@@ -24,6 +24,7 @@ import org.eclipse.che.api.git.shared.Commiters;
 import org.eclipse.che.api.git.shared.ConfigRequest;
 import org.eclipse.che.api.git.shared.DiffRequest;
 import org.eclipse.che.api.git.shared.FetchRequest;
+import org.eclipse.che.api.git.shared.HeadInfo;
 import org.eclipse.che.api.git.shared.InitRequest;
 import org.eclipse.che.api.git.shared.LogRequest;
 import org.eclipse.che.api.git.shared.MergeRequest;
@@ -349,6 +350,15 @@ public class GitService {
         }
     }
 
+    @Path("head")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public HeadInfo head() throws ApiException {
+        try (GitConnection gitConnection = getGitConnection()) {
+            return gitConnection.getHeadInfo();
+        }
+    }
+
     @Path("tag-create")
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
@@ -41,6 +41,7 @@ import static org.eclipse.che.git.impl.GitTestUtil.addFile;
 import static org.eclipse.che.git.impl.GitTestUtil.cleanupTestRepo;
 import static org.eclipse.che.git.impl.GitTestUtil.connectToInitializedGitRepository;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -339,6 +340,77 @@ public class DiffTest {
         diffPage.writeTo(System.out);
     }
 
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testDiffNameOnlyPage(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        makeCommitInMaster(connection);
+        for (String name : Arrays.asList("bbb", "ccc", "ddd")) {
+            addFile(connection, name, "content\n");
+        }
+        connection.add(newDto(AddRequest.class).withFilepattern(Arrays.asList(".")));
+
+        //when
+        List<String> diff = readDiff(newDto(DiffRequest.class)
+                                             .withType(DiffType.NAME_ONLY)
+                                             .withCached(true)
+                                             .withNoRenames(true)
+                                             .withSkip(1)
+                                             .withMaxCount(2),
+                                     connection);
+
+        //then
+        assertEquals(diff, Arrays.asList("bbb", "ccc"));
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testDiffRawWithFileDiffLimit(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        makeCommitInMaster(connection);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("line ").append(i).append('\n');
+        }
+        addFile(connection, "big", content.toString());
+        addFile(connection, "small", "small\n");
+        connection.add(newDto(AddRequest.class).withFilepattern(Arrays.asList(".")));
+
+        //when
+        List<String> diff = readDiff(newDto(DiffRequest.class)
+                                             .withType(DiffType.RAW)
+                                             .withCached(true)
+                                             .withNoRenames(true)
+                                             .withFileDiffLimit(512),
+                                     connection);
+
+        //then
+        assertTrue(diff.contains("\\ Difference is truncated, it exceeds limit of 512 bytes"));
+        assertFalse(diff.contains("+line 999"));
+        assertTrue(diff.contains("diff --git a/small b/small"));
+        assertTrue(diff.contains("+small"));
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testDiffRawShowsBigFileAsBinary(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        makeCommitInMaster(connection);
+        addFile(connection, "README.txt", "changed content of readme, longer than threshold\n");
+
+        //when
+        List<String> diff = readDiff(newDto(DiffRequest.class)
+                                             .withFileFilter(Arrays.asList("README.txt"))
+                                             .withType(DiffType.RAW)
+                                             .withNoRenames(true)
+                                             .withBigFileThreshold(16),
+                                     connection);
+
+        //then
+        assertEquals(diff, Arrays.asList("diff --git a/README.txt b/README.txt",
+                                         "Binary files a/README.txt and b/README.txt differ"));
+    }
+
     private List<String> readDiff(DiffRequest request, GitConnection connection) throws GitException, IOException {
         DiffPage diffPage = connection.diff(request);
         ByteArrayOutputStream out = new ByteArrayOutputStream();
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl;
+
+import com.google.common.io.Files;
+
+import org.eclipse.che.api.git.GitConnection;
+import org.eclipse.che.api.git.GitConnectionFactory;
+import org.eclipse.che.api.git.shared.AddRequest;
+import org.eclipse.che.api.git.shared.CloneRequest;
+import org.eclipse.che.api.git.shared.CommitRequest;
+import org.eclipse.che.api.git.shared.FetchRequest;
+import org.eclipse.che.api.git.shared.HeadInfo;
+import org.eclipse.che.api.git.shared.LogRequest;
+import org.eclipse.che.api.git.shared.StatusFormat;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.eclipse.che.git.impl.GitTestUtil.addFile;
+import static org.eclipse.che.git.impl.GitTestUtil.cleanupTestRepo;
+import static org.eclipse.che.git.impl.GitTestUtil.connectToGitRepositoryWithContent;
+import static org.eclipse.che.git.impl.GitTestUtil.connectToInitializedGitRepository;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+
+public class HeadInfoTest {
+
+    private File repository;
+    private File cloneRepo;
+
+    @BeforeMethod
+    public void setUp() {
+        repository = Files.createTempDir();
+        cloneRepo = Files.createTempDir();
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        cleanupTestRepo(repository);
+        cleanupTestRepo(cloneRepo);
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testCurrentBranch(GitConnectionFactory connectionFactory) throws Exception {
+        //given
+        GitConnection connection = connectToGitRepositoryWithContent(connectionFactory, repository);
+        //when
+        String branch = connection.getCurrentBranch();
+        //then
+        assertEquals(branch, "master");
+        assertEquals(branch, connection.status(StatusFormat.SHORT).getBranchName());
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testHeadInfoWithoutTrackingBranch(GitConnectionFactory connectionFactory) throws Exception {
+        //given
+        GitConnection connection = connectToGitRepositoryWithContent(connectionFactory, repository);
+        String lastCommit = connection.log(newDto(LogRequest.class)).getCommits().get(0).getId();
+        //when
+        HeadInfo headInfo = connection.getHeadInfo();
+        //then
+        assertEquals(headInfo.getBranch(), "master");
+        assertEquals(headInfo.getCommitId(), lastCommit);
+        assertFalse(headInfo.isDetached());
+        assertNull(headInfo.getTrackingBranch());
+        assertEquals(headInfo.getAheadCount(), 0);
+        assertEquals(headInfo.getBehindCount(), 0);
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testHeadInfoOfEmptyRepository(GitConnectionFactory connectionFactory) throws Exception {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        //when
+        HeadInfo headInfo = connection.getHeadInfo();
+        //then
+        assertEquals(headInfo.getBranch(), "master");
+        assertNull(headInfo.getCommitId());
+        assertNull(headInfo.getTrackingBranch());
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testAheadAndBehindCounts(GitConnectionFactory connectionFactory) throws Exception {
+        //given
+        GitConnection connection = connectToGitRepositoryWithContent(connectionFactory, repository);
+        GitConnection cloneConnection = connectionFactory.getConnection(cloneRepo.getAbsolutePath());
+        cloneConnection.clone(newDto(CloneRequest.class).withRemoteUri(repository.getAbsolutePath())
+                                                        .withWorkingDir(cloneRepo.getAbsolutePath()));
+        for (int i = 0; i < 2; i++) {
+            addFile(cloneConnection, "local" + i, "local content");
+            cloneConnection.add(newDto(AddRequest.class).withFilepattern(singletonList(".")));
+            cloneConnection.commit(newDto(CommitRequest.class).withMessage("local commit " + i));
+        }
+        addFile(connection, "remote", "remote content");
+        connection.add(newDto(AddRequest.class).withFilepattern(singletonList(".")));
+        connection.commit(newDto(CommitRequest.class).withMessage("remote commit"));
+        cloneConnection.fetch(newDto(FetchRequest.class).withRemote("origin"));
+        //when
+        HeadInfo headInfo = cloneConnection.getHeadInfo();
+        //then
+        assertEquals(headInfo.getBranch(), "master");
+        assertEquals(headInfo.getTrackingBranch(), "origin/master");
+        assertEquals(headInfo.getAheadCount(), 2);
+        assertEquals(headInfo.getBehindCount(), 1);
+    }
+}
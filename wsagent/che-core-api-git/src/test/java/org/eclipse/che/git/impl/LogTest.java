@@ -114,4 +114,76 @@ public class LogTest {
         assertEquals(1, newFileCommitCount);
         assertEquals(4, allFilesCommitCount);
     }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = GitConnectionFactoryProvider.class)
+    public void testLogPage(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        for (int i = 0; i < 5; i++) {
+            addFile(connection, "README.txt", "changes " + i);
+            connection.add(newDto(AddRequest.class).withFilepattern(ImmutableList.of("README.txt")));
+            connection.commit(newDto(CommitRequest.class).withMessage("Commit " + i));
+        }
+
+        //when
+        List<Revision> firstPage = connection.log(newDto(LogRequest.class).withMaxCount(2)).getCommits();
+        List<Revision> secondPage = connection.log(newDto(LogRequest.class).withSkip(2).withMaxCount(2)).getCommits();
+        List<Revision> lastPage = connection.log(newDto(LogRequest.class).withSkip(4).withMaxCount(2)).getCommits();
+
+        //then
+        assertEquals(firstPage.size(), 2);
+        assertEquals(firstPage.get(0).getMessage(), "Commit 4");
+        assertEquals(firstPage.get(1).getMessage(), "Commit 3");
+        assertEquals(secondPage.size(), 2);
+        assertEquals(secondPage.get(0).getMessage(), "Commit 2");
+        assertEquals(secondPage.get(1).getMessage(), "Commit 1");
+        assertEquals(lastPage.size(), 1);
+        assertEquals(lastPage.get(0).getMessage(), "Commit 0");
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = GitConnectionFactoryProvider.class)
+    public void testLogPageWithFileFilter(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        for (int i = 0; i < 3; i++) {
+            addFile(connection, "README.txt", "changes " + i);
+            addFile(connection, "file" + i + ".txt", "content");
+            connection.add(newDto(AddRequest.class).withFilepattern(ImmutableList.of(".")));
+            connection.commit(newDto(CommitRequest.class).withMessage("Commit " + i));
+        }
+
+        //when
+        List<Revision> commits = connection.log(newDto(LogRequest.class).withFileFilter(Collections.singletonList("file1.txt"))
+                                                                        .withMaxCount(2)).getCommits();
+        List<Revision> skipped = connection.log(newDto(LogRequest.class).withFileFilter(Collections.singletonList("README.txt"))
+                                                                        .withSkip(1)).getCommits();
+
+        //then
+        assertEquals(commits.size(), 1);
+        assertEquals(commits.get(0).getMessage(), "Commit 1");
+        assertEquals(skipped.size(), 2);
+        assertEquals(skipped.get(0).getMessage(), "Commit 1");
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = GitConnectionFactoryProvider.class)
+    public void testLogWithTimeWindow(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        addFile(connection, "README.txt", "someChanges");
+        connection.add(newDto(AddRequest.class).withFilepattern(ImmutableList.of("README.txt")));
+        connection.commit(newDto(CommitRequest.class).withMessage("Initial add"));
+        long commitTime = connection.log(newDto(LogRequest.class)).getCommits().get(0).getCommitTime();
+        long hour = 60 * 60 * 1000;
+
+        //when
+        int inWindow = connection.log(newDto(LogRequest.class).withSinceTime(commitTime - hour)
+                                                              .withUntilTime(commitTime + hour)).getCommits().size();
+        int beforeSince = connection.log(newDto(LogRequest.class).withSinceTime(commitTime + hour)).getCommits().size();
+        int afterUntil = connection.log(newDto(LogRequest.class).withUntilTime(commitTime - hour)).getCommits().size();
+
+        //then
+        assertEquals(inWindow, 1);
+        assertEquals(beforeSince, 0);
+        assertEquals(afterUntil, 0);
+    }
 }
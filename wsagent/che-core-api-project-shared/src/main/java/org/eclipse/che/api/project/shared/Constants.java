@@ -33,6 +33,9 @@ public class Constants {
 
     public static final String CODENVY_DIR = ".codenvy";
 
+    /** Response header of project search that contains cursor for retrieving the next page, absent if there are no more pages. */
+    public static final String SEARCH_AFTER_HEADER = "X-Search-After";
+
     private Constants() {
     }
 }
@@ -85,4 +85,14 @@ public interface ItemReference extends Hyperlinks {
     ProjectConfigDto getProjectConfig();
 
     void setProjectConfig(ProjectConfigDto config);
+
+    /**
+     * Occurrences of searched text in the file. Provided only for items of search result when occurrences were requested,
+     * in other cases the list is empty.
+     */
+    List<SearchOccurrenceDto> getOccurrences();
+
+    void setOccurrences(List<SearchOccurrenceDto> occurrences);
+
+    ItemReference withOccurrences(List<SearchOccurrenceDto> occurrences);
 }
@@ -64,6 +64,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -80,6 +81,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static java.util.stream.Collectors.toList;
 import static javax.ws.rs.HttpMethod.DELETE;
 import static javax.ws.rs.HttpMethod.GET;
 import static javax.ws.rs.HttpMethod.PUT;
@@ -94,6 +96,7 @@ import static org.eclipse.che.api.project.shared.Constants.LINK_REL_GET_PROJECTS
 import static org.eclipse.che.api.project.shared.Constants.LINK_REL_TREE;
 import static org.eclipse.che.api.project.shared.Constants.LINK_REL_UPDATE_CONTENT;
 import static org.eclipse.che.api.project.shared.Constants.LINK_REL_UPDATE_PROJECT;
+import static org.eclipse.che.api.project.shared.Constants.SEARCH_AFTER_HEADER;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
 /**
@@ -812,7 +815,8 @@ public class ProjectService extends Service {
     @Path("/search/{path:.*}")
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(value = "Search for resources",
-                  notes = "Search for resources applying a number of search filters as query parameters",
+                  notes = "Search for resources applying a number of search filters as query parameters. If there are more results, " +
+                          "response contains header " + SEARCH_AFTER_HEADER + " with cursor for retrieving the next page",
                   response = ItemReference.class,
                   responseContainer = "List")
     @ApiResponses({@ApiResponse(code = 200, message = "OK"),
@@ -820,25 +824,34 @@ public class ProjectService extends Service {
                    @ApiResponse(code = 404, message = "Not found"),
                    @ApiResponse(code = 409, message = "Conflict error"),
                    @ApiResponse(code = 500, message = "Internal Server Error")})
-    public List<ItemReference> search(@ApiParam(value = "Path to resource, i.e. where to search?", required = true)
-                                      @PathParam("path") String path,
-                                      @ApiParam(value = "Resource name")
-                                      @QueryParam("name") String name,
-                                      @ApiParam(value = "Search keywords")
-                                      @QueryParam("text") String text,
-                                      @ApiParam(value = "Maximum items to display. If this parameter is dropped, there are no limits")
-                                      @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
-                                      @ApiParam(value = "Skip count")
-                                      @QueryParam("skipCount") int skipCount) throws NotFoundException,
-                                                                                     ForbiddenException,
-                                                                                     ConflictException,
-                                                                                     ServerException {
+    public Response search(@ApiParam(value = "Path to resource, i.e. where to search?", required = true)
+                           @PathParam("path") String path,
+                           @ApiParam(value = "Resource name")
+                           @QueryParam("name") String name,
+                           @ApiParam(value = "Search keywords")
+                           @QueryParam("text") String text,
+                           @ApiParam(value = "Literal that must be found in content of file")
+                           @QueryParam("substring") String substring,
+                           @ApiParam(value = "Regular expression that must be matched by content of file")
+                           @QueryParam("regex") String regex,
+                           @ApiParam(value = "Maximum items to display. If this parameter is dropped, there are no limits")
+                           @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
+                           @ApiParam(value = "Skip count")
+                           @QueryParam("skipCount") int skipCount,
+                           @ApiParam(value = "Cursor from " + SEARCH_AFTER_HEADER + " header of the previous page, " +
+                                             "skip count is used if cursor is not valid any more")
+                           @QueryParam("searchAfter") String searchAfter,
+                           @ApiParam(value = "Include matched lines, line numbers and offsets of matched text in result")
+                           @QueryParam("includeOccurrences") boolean includeOccurrences) throws NotFoundException,
+                                                                                                ForbiddenException,
+                                                                                                ConflictException,
+                                                                                                ServerException {
         final Searcher searcher;
         try {
             searcher = projectManager.getSearcher();
         } catch (NotFoundException e) {
             LOG.warn(e.getLocalizedMessage());
-            return Collections.emptyList();
+            return Response.ok(new GenericEntity<List<ItemReference>>(Collections.emptyList()) {}).build();
         }
 
         if (skipCount < 0) {
@@ -849,8 +862,12 @@ public class ProjectService extends Service {
                 .setPath(path.startsWith("/") ? path : ('/' + path))
                 .setName(name)
                 .setText(text)
+                .setSubstring(substring)
+                .setRegex(regex)
                 .setMaxItems(maxItems)
-                .setSkipCount(skipCount);
+                .setSkipCount(skipCount)
+                .setSearchAfter(searchAfter)
+                .setIncludeOccurrences(includeOccurrences);
 
         final SearchResult result = searcher.search(expr);
         final List<SearchResultEntry> searchResultEntries = result.getResults();
@@ -861,11 +878,22 @@ public class ProjectService extends Service {
             final VirtualFileEntry child = root.getChild(searchResultEntry.getFilePath());
 
             if (child != null && child.isFile()) {
-                items.add(injectFileLinks(asDto((FileEntry)child)));
+                final ItemReference item = injectFileLinks(asDto((FileEntry)child));
+                if (!searchResultEntry.getOccurrences().isEmpty()) {
+                    item.setOccurrences(searchResultEntry.getOccurrences()
+                                                         .stream()
+                                                         .map(DtoConverter::asDto)
+                                                         .collect(toList()));
+                }
+                items.add(item);
             }
         }
 
-        return items;
+        final Response.ResponseBuilder response = Response.ok(new GenericEntity<List<ItemReference>>(items) {});
+        if (result.getNextPageQueryExpression().isPresent() && result.getNextPageQueryExpression().get().getSearchAfter() != null) {
+            response.header(SEARCH_AFTER_HEADER, result.getNextPageQueryExpression().get().getSearchAfter());
+        }
+        return response.build();
     }
 
     private void logProjectCreatedEvent(@NotNull String projectName, @NotNull String projectType) {
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Cache of hash sums of files. Cached hash sum is valid while last modification date and length of file are not changed. Hash sums of
+ * files modified less than {@link #RACY_INTERVAL_MILLIS} ago are not cached since next modification of such file in the same time
+ * interval might not change its last modification date. Single cache must be used with single hash function.
+ */
+public class HashSumsCache {
+    static final long RACY_INTERVAL_MILLIS = 2000;
+
+    private final Cache<String, CachedHashSum> cache;
+
+    public HashSumsCache(int maximumSize) {
+        cache = CacheBuilder.newBuilder()
+                            .concurrencyLevel(8)
+                            .maximumSize(maximumSize)
+                            .expireAfterAccess(30, MINUTES)
+                            .build();
+    }
+
+    /** Returns cached hash sum of file or {@code null} if there is no valid hash sum in cache. */
+    String get(String path, long lastModified, long length) {
+        final CachedHashSum cached = cache.getIfPresent(path);
+        if (cached != null && cached.lastModified == lastModified && cached.length == length) {
+            return cached.hashSum;
+        }
+        return null;
+    }
+
+    void put(String path, long lastModified, long length, String hashSum) {
+        if (System.currentTimeMillis() - lastModified >= RACY_INTERVAL_MILLIS) {
+            cache.put(path, new CachedHashSum(lastModified, length, hashSum));
+        } else {
+            cache.invalidate(path);
+        }
+    }
+
+    private static class CachedHashSum {
+        final long   lastModified;
+        final long   length;
+        final String hashSum;
+
+        CachedHashSum(long lastModified, long length, String hashSum) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.hashSum = hashSum;
+        }
+    }
+}
@@ -18,27 +18,51 @@ import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.commons.lang.Pair;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.hash.Funnels.asOutputStream;
+import static java.nio.file.StandardOpenOption.READ;
 
 /**
  * Traverses recursively all files in folder given in constructor and calculates hash sum for each file.
  * Algorithm specified by {@code hashFunction} is used for calculating hash sum.
+ * <p>
+ * Files are hashed in parallel in shared {@link ForkJoinPool}. If {@link HashSumsCache} is given then files which are not changed
+ * since previous calculation are not read again.
  */
 public class HashSumsCounter implements VirtualFileVisitor {
-    private final VirtualFile                folder;
-    private final HashFunction               hashFunction;
-    private final List<Pair<String, String>> hashSums;
+    private static final int          BUFFER_SIZE = 64 * 1024;
+    private static final ForkJoinPool POOL        = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
 
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(BUFFER_SIZE));
+
+    private final VirtualFile   folder;
+    private final HashFunction  hashFunction;
+    private final HashSumsCache cache;
+
+    private List<Pair<String, String>> hashSums;
 
     public HashSumsCounter(VirtualFile folder, HashFunction hashFunction) {
+        this(folder, hashFunction, null);
+    }
+
+    /**
+     * @param cache
+     *         cache of hash sums calculated with the same {@code hashFunction}, may be {@code null}
+     */
+    public HashSumsCounter(VirtualFile folder, HashFunction hashFunction, HashSumsCache cache) {
         this.folder = folder;
         this.hashFunction = hashFunction;
-        hashSums = newArrayList();
+        this.cache = cache;
     }
 
     /**
@@ -48,8 +72,10 @@ public class HashSumsCounter implements VirtualFileVisitor {
      *     pair.first // hash-sum of file represented as HEX String
      *     pair.second // Path of file that is relative to folder given in constructor
      * </pre>
+     * Files are hashed in parallel, so order of pairs is not defined.
      */
     public List<Pair<String, String>> countHashSums() throws ServerException {
+        hashSums = newArrayList();
         folder.accept(this);
         return hashSums;
     }
@@ -57,20 +83,102 @@ public class HashSumsCounter implements VirtualFileVisitor {
     @Override
     public void visit(VirtualFile virtualFile) throws ServerException {
         if (virtualFile.isFile()) {
-            try (InputStream in = virtualFile.getContent()) {
-                final Hasher hasher = hashFunction.newHasher();
-                ByteStreams.copy(in, asOutputStream(hasher));
-                final String hexHash = hasher.hash().toString();
-                hashSums.add(Pair.of(hexHash, virtualFile.getPath().subPath(folder.getPath()).toString()));
-            } catch (IOException e) {
-                throw new ServerException(e);
-            } catch (ForbiddenException e) {
-                throw new ServerException(e.getServiceError());
+            final Pair<String, String> hashSum = countHashSum(virtualFile);
+            synchronized (this) {
+                hashSums.add(hashSum);
             }
         } else {
-            for (VirtualFile child : virtualFile.getChildren()) {
-                child.accept(this);
+            final HashTask task = new HashTask(virtualFile);
+            try {
+                if (ForkJoinTask.inForkJoinPool()) {
+                    task.invoke();
+                } else {
+                    POOL.invoke(task);
+                }
+            } catch (HashingException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private Pair<String, String> countHashSum(VirtualFile virtualFile) throws ServerException {
+        final String path = virtualFile.getPath().toString();
+        final long lastModified = virtualFile.getLastModificationDate();
+        final long length = virtualFile.getLength();
+        String hexHash = cache == null ? null : cache.get(path, lastModified, length);
+        if (hexHash == null) {
+            hexHash = hash(virtualFile);
+            if (cache != null) {
+                cache.put(path, lastModified, length, hexHash);
+            }
+        }
+        return Pair.of(hexHash, virtualFile.getPath().subPath(folder.getPath()).toString());
+    }
+
+    private String hash(VirtualFile virtualFile) throws ServerException {
+        final Hasher hasher = hashFunction.newHasher();
+        final File ioFile = virtualFile.toIoFile();
+        try {
+            if (ioFile != null) {
+                try (FileChannel channel = FileChannel.open(ioFile.toPath(), READ)) {
+                    final ByteBuffer buffer = BUFFER.get();
+                    buffer.clear();
+                    while (channel.read(buffer) != -1) {
+                        hasher.putBytes(buffer.array(), 0, buffer.position());
+                        buffer.clear();
+                    }
+                }
+            } else {
+                try (InputStream in = virtualFile.getContent()) {
+                    ByteStreams.copy(in, asOutputStream(hasher));
+                }
             }
+        } catch (IOException e) {
+            throw new ServerException(e);
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        }
+        return hasher.hash().toString();
+    }
+
+    private class HashTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final VirtualFile virtualFile;
+
+        HashTask(VirtualFile virtualFile) {
+            this.virtualFile = virtualFile;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (virtualFile.isFile()) {
+                    visit(virtualFile);
+                } else {
+                    final List<HashTask> tasks = newArrayList();
+                    for (VirtualFile child : virtualFile.getChildren()) {
+                        tasks.add(new HashTask(child));
+                    }
+                    invokeAll(tasks);
+                }
+            } catch (ServerException e) {
+                throw new HashingException(e);
+            }
+        }
+    }
+
+    /** Carries {@link ServerException} through {@link ForkJoinPool}. */
+    private static class HashingException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        HashingException(ServerException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized ServerException getCause() {
+            return (ServerException)super.getCause();
         }
     }
 }
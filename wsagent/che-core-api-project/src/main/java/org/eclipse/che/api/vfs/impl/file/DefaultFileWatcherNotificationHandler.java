@@ -72,6 +72,9 @@ public class DefaultFileWatcherNotificationHandler implements FileWatcherNotific
         try {
             LocalVirtualFileSystem virtualFileSystem = (LocalVirtualFileSystem)virtualFileSystemProvider.getVirtualFileSystem(true);
             Path vfsPath = Path.of(subPath);
+            if (!vfsPath.isRoot()) {
+                virtualFileSystem.invalidateChildrenCache(vfsPath.getParent());
+            }
             VirtualFile virtualFile = virtualFileSystem.getRoot().getChild(vfsPath);
             if (virtualFile == null) {
                 virtualFile = new DeletedLocalVirtualFile(new File(root, subPath), vfsPath, virtualFileSystem, isDir);
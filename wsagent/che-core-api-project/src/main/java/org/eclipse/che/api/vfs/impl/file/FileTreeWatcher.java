@@ -26,6 +26,7 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
@@ -34,18 +35,26 @@ import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 import static java.nio.file.FileVisitResult.CONTINUE;
 import static java.nio.file.Files.getLastModifiedTime;
@@ -59,11 +68,24 @@ import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.DELETED;
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
 
+/**
+ * Watches file tree and notifies {@link FileWatcherNotificationHandler} about created, modified and deleted files.
+ * <p>
+ * Every directory of the tree is registered in {@link WatchService}, on Linux it is inotify based and every directory takes one
+ * inotify watch. Events are collected until no new events arrive during {@link #EVENT_PROCESS_TIMEOUT_SEC} seconds, after that every
+ * changed directory is rescanned once and its content is compared with the snapshot of the directory. If limit of watches is reached
+ * then remaining directories are not registered but polled, i.e. they are rescanned and compared with snapshots periodically. If
+ * watch service overflows then all watched directories are rescanned.
+ * <p>
+ * Directories which are signalled by watch service are kept until their events are fired, so other components can find out which
+ * directories may have changes that are not notified yet, see {@link #getPendingDirectories()}.
+ */
 @Singleton
 public class FileTreeWatcher {
     private static final Logger LOG = LoggerFactory.getLogger(FileTreeWatcher.class);
 
     private static final long EVENT_PROCESS_TIMEOUT_SEC = 2;
+    private static final long POLLING_INTERVAL_MILLIS   = 5000;
 
     private final File                           watchRoot;
     private final Path                           watchRootPath;
@@ -72,6 +94,15 @@ public class FileTreeWatcher {
     private final FileWatcherNotificationHandler fileWatcherNotificationHandler;
     private final ExecutorService                executor;
     private final AtomicBoolean                  running;
+    private final Set<Path>                      polledDirectories;
+    /** Directories which are signalled by watch service but not rescanned yet, mapped to the number of the latest signal. */
+    private final ConcurrentMap<Path, Long>      signalledDirectories;
+    private final AtomicLong                     signals;
+    private final AtomicInteger                  overflows;
+    private final Object                         watchKeysLock;
+    private final int                            watchLimit;
+    private       int                            registeredWatches;
+    private       boolean                        watchLimitReached;
     private       WatchService                   watchService;
     private       WatchEvent.Modifier[]          watchEventModifiers;
 
@@ -79,7 +110,19 @@ public class FileTreeWatcher {
     public FileTreeWatcher(@Named("che.user.workspaces.storage") File watchRoot,
                            @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns,
                            FileWatcherNotificationHandler fileWatcherNotificationHandler) {
+        this(watchRoot, excludePatterns, fileWatcherNotificationHandler, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param watchLimit
+     *         max number of directories that are registered in watch service, other directories are polled
+     */
+    FileTreeWatcher(File watchRoot,
+                    Set<PathMatcher> excludePatterns,
+                    FileWatcherNotificationHandler fileWatcherNotificationHandler,
+                    int watchLimit) {
         watchEventModifiers = new WatchEvent.Modifier[0];
+        this.watchLimit = watchLimit;
         this.watchRoot = toCanonicalFile(watchRoot);
         this.watchRootPath = this.watchRoot.toPath();
         this.excludePatterns = newArrayList(excludePatterns);
@@ -89,6 +132,11 @@ public class FileTreeWatcher {
         executor = Executors.newSingleThreadExecutor(threadFactory);
         running = new AtomicBoolean();
         watchedDirectories = newHashMap();
+        polledDirectories = newConcurrentHashSet();
+        signalledDirectories = new ConcurrentHashMap<>();
+        signals = new AtomicLong();
+        overflows = new AtomicInteger();
+        watchKeysLock = new Object();
     }
 
     private static File toCanonicalFile(File file) {
@@ -217,9 +265,10 @@ public class FileTreeWatcher {
 
     private void setupDirectoryWatcher(Path directory) throws IOException {
         if (watchedDirectories.get(directory) == null) {
-            WatchKey watchKey = directory.register(watchService,
-                                                   new WatchEvent.Kind[]{ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY, OVERFLOW},
-                                                   watchEventModifiers);
+            WatchKey watchKey = registerDirectory(directory);
+            if (watchKey == null) {
+                polledDirectories.add(directory);
+            }
             WatchedDirectory watchedDirectory = new WatchedDirectory(directory, watchKey);
             try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
                 for (Path entry : entries) {
@@ -235,35 +284,119 @@ public class FileTreeWatcher {
         }
     }
 
+    /**
+     * Registers directory in watch service.
+     *
+     * @return watch key or {@code null} if limit of watches is reached and directory should be polled
+     */
+    private WatchKey registerDirectory(Path directory) throws IOException {
+        if (registeredWatches < watchLimit) {
+            try {
+                WatchKey watchKey = directory.register(watchService,
+                                                       new WatchEvent.Kind[]{ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY, OVERFLOW},
+                                                       watchEventModifiers);
+                registeredWatches++;
+                return watchKey;
+            } catch (NoSuchFileException e) {
+                throw e;
+            } catch (IOException e) {
+                // watch service doesn't tell why registration failed, e.g. ENOSPC on Linux when limit of inotify watches is reached,
+                // so directory that exists but can't be registered is polled
+                if (!watchLimitReached) {
+                    LOG.warn("Unable register directory {} in watch service: {}", directory, e.getMessage());
+                }
+            }
+        }
+        if (!watchLimitReached) {
+            watchLimitReached = true;
+            LOG.warn("Limit of file watches is reached after registration of {} directories, directories that are not registered in " +
+                     "watch service are polled every {} ms. Increase limit of watches, e.g. fs.inotify.max_user_watches on Linux.",
+                     registeredWatches, POLLING_INTERVAL_MILLIS);
+        }
+        return null;
+    }
+
     private void cancelDirectoryWatcher(Path path) {
         WatchedDirectory watchedDirectory = watchedDirectories.remove(path);
         if (watchedDirectory != null) {
+            releaseWatch(watchedDirectory);
+        }
+    }
+
+    private void releaseWatch(WatchedDirectory watchedDirectory) {
+        if (watchedDirectory.getWatchKey() != null) {
             watchedDirectory.getWatchKey().cancel();
+            registeredWatches--;
+        } else {
+            polledDirectories.remove(watchedDirectory.getPath());
+        }
+    }
+
+    /** Number of directories which are polled because limit of watches is reached. */
+    int getPolledDirectoriesCount() {
+        return polledDirectories.size();
+    }
+
+    /**
+     * Returns directories which may have changes that are not notified yet, i.e. directories which are signalled by watch service
+     * but not rescanned yet and directories which are polled. Changes which are made just before the call may be not signalled by
+     * watch service yet.
+     *
+     * @return absolute paths of directories or {@code null} if such directories are not known, i.e. when watcher is not running or
+     * watch service overflows
+     */
+    public Set<Path> getPendingDirectories() {
+        if (!running.get()) {
+            return null;
+        }
+        try {
+            takeWatchKeys(watchService.poll());
+        } catch (ClosedWatchServiceException e) {
+            return null;
+        }
+        if (overflows.get() > 0) {
+            return null;
+        }
+        final Set<Path> directories = new HashSet<>(signalledDirectories.keySet());
+        directories.addAll(polledDirectories);
+        return directories;
+    }
+
+    /** Remembers directories of given watch key and of all the other signalled watch keys and resets the keys. */
+    private void takeWatchKeys(WatchKey watchKey) {
+        synchronized (watchKeysLock) {
+            for (; watchKey != null; watchKey = watchService.poll()) {
+                signalledDirectories.put((Path)watchKey.watchable(), signals.incrementAndGet());
+                for (WatchEvent<?> event : watchKey.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        overflows.incrementAndGet();
+                        break;
+                    }
+                }
+                watchKey.reset();
+            }
         }
     }
 
     private class WatchEventTask implements Runnable {
-        final Set<PendingEvent> pendingEvents = newLinkedHashSet();
+        long lastPollingTime;
 
         @Override
         public void run() {
             while (running.get()) {
                 try {
                     WatchKey watchKey;
-                    if (pendingEvents.isEmpty()) {
+                    if (signalledDirectories.isEmpty() && overflows.get() == 0 && polledDirectories.isEmpty()) {
                         watchKey = watchService.take();
+                        takeWatchKeys(watchKey);
                     } else {
                         watchKey = watchService.poll(EVENT_PROCESS_TIMEOUT_SEC, SECONDS);
-                        if (watchKey == null) {
-                            processPendingEvents(pendingEvents);
-                            pendingEvents.clear();
+                        takeWatchKeys(watchKey);
+                        final boolean pollingTime = isPollingTime();
+                        if (watchKey == null || pollingTime) {
+                            processSignalledDirectories(pollingTime);
                         }
                     }
-                    if (watchKey != null) {
-                        pendingEvents.add(new PendingEvent((Path)watchKey.watchable()));
-                        watchKey.pollEvents();
-                        watchKey.reset();
-                    }
                 } catch (InterruptedException | ClosedWatchServiceException e) {
                     running.set(false);
                 } catch (Throwable e) {
@@ -272,12 +405,50 @@ public class FileTreeWatcher {
                 }
             }
         }
+
+        boolean isPollingTime() {
+            return !polledDirectories.isEmpty() && System.currentTimeMillis() - lastPollingTime >= POLLING_INTERVAL_MILLIS;
+        }
+
+        /**
+         * Rescans signalled directories and polled directories if it is time to poll them, or all watched directories if watch
+         * service overflows. Directory stays signalled until its events are fired, unless it is signalled again meanwhile.
+         */
+        void processSignalledDirectories(boolean pollingTime) throws IOException {
+            final Map<Path, Long> directories = new HashMap<>(signalledDirectories);
+            final int overflowCount = overflows.get();
+            final Set<PendingEvent> pendingEvents = newLinkedHashSet();
+            if (overflowCount > 0) {
+                LOG.debug("Watch service overflow, rescan all watched directories");
+                for (Path watchedDirectory : watchedDirectories.keySet()) {
+                    pendingEvents.add(new PendingEvent(watchedDirectory));
+                }
+            } else {
+                for (Path signalledDirectory : directories.keySet()) {
+                    pendingEvents.add(new PendingEvent(signalledDirectory));
+                }
+                if (pollingTime) {
+                    for (Path polledDirectory : polledDirectories) {
+                        pendingEvents.add(new PendingEvent(polledDirectory));
+                    }
+                }
+            }
+            if (pollingTime) {
+                lastPollingTime = System.currentTimeMillis();
+            }
+            processPendingEvents(pendingEvents);
+            directories.forEach(signalledDirectories::remove);
+            overflows.compareAndSet(overflowCount, 0);
+        }
     }
 
     private void processPendingEvents(Collection<PendingEvent> pendingEvents) throws IOException {
         for (PendingEvent pendingEvent : pendingEvents) {
             Path eventDirectoryPath = pendingEvent.getPath();
             WatchedDirectory watchedDirectory = watchedDirectories.get(eventDirectoryPath);
+            if (watchedDirectory == null) {
+                continue;
+            }
             if (Files.exists(eventDirectoryPath)) {
                 final int hitCounter = watchedDirectory.incrementHitCounter();
                 try (DirectoryStream<Path> entries = Files.newDirectoryStream(eventDirectoryPath)) {
@@ -323,6 +494,7 @@ public class FileTreeWatcher {
                     fireWatchEvent(DELETED, eventDirectoryPath.resolve(directoryItem.getName()), directoryItem.isDirectory());
                 }
                 watchedDirectories.remove(eventDirectoryPath);
+                releaseWatch(watchedDirectory);
             }
         }
     }
@@ -368,15 +540,19 @@ public class FileTreeWatcher {
     }
 
     static class WatchedDirectory {
-        final Path                path;
-        final WatchKey            watchKey;
-        final List<DirectoryItem> items;
+        final Path                     path;
+        final WatchKey                 watchKey;
+        final Map<Path, DirectoryItem> items;
         int hitCounter;
 
+        /**
+         * @param watchKey
+         *         watch key or {@code null} if directory is polled
+         */
         WatchedDirectory(Path path, WatchKey watchKey) {
             this.path = path;
             this.watchKey = watchKey;
-            items = newArrayList();
+            items = newLinkedHashMap();
         }
 
         WatchKey getWatchKey() {
@@ -388,21 +564,16 @@ public class FileTreeWatcher {
         }
 
         DirectoryItem getItem(Path name) {
-            for (DirectoryItem item : items) {
-                if (item.getName().equals(name)) {
-                    return item;
-                }
-            }
-            return null;
+            return items.get(name);
         }
 
         void addItem(DirectoryItem item) {
             item.updateHitCounter(this.hitCounter);
-            items.add(item);
+            items.put(item.getName(), item);
         }
 
-        List<DirectoryItem> getItems() {
-            return items;
+        Collection<DirectoryItem> getItems() {
+            return items.values();
         }
 
         int incrementHitCounter() {
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.impl.file;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -25,6 +26,7 @@ import org.eclipse.che.api.core.util.FileCleaner;
 import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.Archiver;
 import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.HashSumsCache;
 import org.eclipse.che.api.vfs.HashSumsCounter;
 import org.eclipse.che.api.vfs.LockedFileFinder;
 import org.eclipse.che.api.vfs.Path;
@@ -52,6 +54,7 @@ import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +65,7 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Lists.newArrayListWithCapacity;
 import static com.google.common.collect.Maps.newLinkedHashMap;
+import static java.nio.file.Files.getLastModifiedTime;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
@@ -82,6 +86,12 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     private static final long WAIT_FOR_FILE_LOCK_TIMEOUT = 60000; // 60 seconds
     private static final int  FILE_LOCK_MAX_THREADS      = 1024;
 
+    private static final int MD5_SUMS_CACHE_SIZE = 100_000;
+
+    private static final int  CHILDREN_CACHE_SIZE                  = 10_000;
+    /** Listing of folder modified less than this time ago is not cached, see {@link #getChildrenNames(LocalVirtualFile)}. */
+    private static final long CHILDREN_CACHE_RACY_INTERVAL_MILLIS = 2000;
+
     private static final String   VFS_SERVICE_DIR        = ".vfs";
     private static final String   FILE_LOCKS_DIR         = VFS_SERVICE_DIR + File.separatorChar + "locks";
     private static final String   LOCK_FILE_SUFFIX       = "_lock";
@@ -136,6 +146,10 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     private final FileMetadataSerializer                  metadataSerializer;
     private final LoadingCache<Path, Map<String, String>> metadataCache;
 
+    private final HashSumsCache md5SumsCache;
+
+    private final Cache<Path, ChildrenNames> childrenNamesCache;
+
     @SuppressWarnings("unchecked")
     public LocalVirtualFileSystem(File ioRoot,
                                   ArchiverFactory archiverFactory,
@@ -162,6 +176,14 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
                                     .maximumSize(256)
                                     .expireAfterAccess(10, MINUTES)
                                     .build(new FilePropertiesCacheLoader());
+
+        md5SumsCache = new HashSumsCache(MD5_SUMS_CACHE_SIZE);
+
+        childrenNamesCache = CacheBuilder.newBuilder()
+                                         .concurrencyLevel(8)
+                                         .maximumSize(CHILDREN_CACHE_SIZE)
+                                         .expireAfterAccess(10, MINUTES)
+                                         .build();
     }
 
     @Override
@@ -243,27 +265,56 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         return newArrayList(path.elements()).contains(".vfs");
     }
 
-    synchronized List<VirtualFile> getChildren(LocalVirtualFile parent, VirtualFileFilter filter) throws ServerException {
+    List<VirtualFile> getChildren(LocalVirtualFile parent, VirtualFileFilter filter) throws ServerException {
         if (parent.isFolder()) {
-            final List<VirtualFile> children = doGetChildren(parent, DOT_VFS_DIR_FILTER, filter);
+            final List<VirtualFile> children = doGetChildren(parent, getChildrenNames(parent), filter);
             Collections.sort(children);
             return children;
         }
         return emptyList();
     }
 
+    /**
+     * Gets names of children of folder. Names are cached while last modification time of folder is not changed. Listing of folder
+     * that was modified recently is not cached since next change of folder in the same time interval might not change its last
+     * modification time. Cached listing is also dropped with {@link #invalidateChildrenCache(Path)} when file watcher detects
+     * creation or deletion of file.
+     */
+    private String[] getChildrenNames(LocalVirtualFile parent) throws ServerException {
+        final File ioFile = parent.toIoFile();
+        FileTime lastModified;
+        try {
+            lastModified = getLastModifiedTime(ioFile.toPath());
+        } catch (IOException e) {
+            lastModified = null;
+        }
 
-    private List<VirtualFile> doGetChildren(LocalVirtualFile parent, FilenameFilter ioFileFilter, VirtualFileFilter vfsFilter)
-            throws ServerException {
-        if (ioFileFilter == null) {
-            ioFileFilter = IoUtil.ANY_FILTER;
+        if (lastModified != null) {
+            final ChildrenNames cached = childrenNamesCache.getIfPresent(parent.getPath());
+            if (cached != null && cached.lastModified.equals(lastModified)) {
+                return cached.names;
+            }
         }
 
-        final String[] names = parent.toIoFile().list(ioFileFilter);
+        final String[] names = ioFile.list(DOT_VFS_DIR_FILTER);
         if (names == null) {
             throw new ServerException(String.format("Unable get children of '%s'", parent.getPath()));
         }
 
+        if (lastModified != null && System.currentTimeMillis() - lastModified.toMillis() >= CHILDREN_CACHE_RACY_INTERVAL_MILLIS) {
+            childrenNamesCache.put(parent.getPath(), new ChildrenNames(lastModified, names));
+        } else {
+            childrenNamesCache.invalidate(parent.getPath());
+        }
+        return names;
+    }
+
+    /** Drops cached listing of folder with specified path. */
+    void invalidateChildrenCache(Path folderPath) {
+        childrenNamesCache.invalidate(folderPath);
+    }
+
+    private List<VirtualFile> doGetChildren(LocalVirtualFile parent, String[] names, VirtualFileFilter vfsFilter) {
         if (vfsFilter == null) {
             vfsFilter = VirtualFileFilter.ACCEPT_ALL;
         }
@@ -908,7 +959,18 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         if (virtualFile.isFile()) {
             return emptyList();
         }
-        return new HashSumsCounter(virtualFile, Hashing.md5()).countHashSums();
+        return new HashSumsCounter(virtualFile, Hashing.md5(), md5SumsCache).countHashSums();
+    }
+
+
+    private static class ChildrenNames {
+        final FileTime lastModified;
+        final String[] names;
+
+        ChildrenNames(FileTime lastModified, String[] names) {
+            this.lastModified = lastModified;
+            this.names = names;
+        }
     }
 
 
@@ -23,7 +23,8 @@ import static java.util.Optional.empty;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
- * Simple holder to benefit from Guice DI routines.
+ * Simple holder to benefit from Guice DI routines. Queue is bounded,
+ * {@link LoEventService} is blocked while queue is full.
  *
  * @author Dmitry Kuleshov
  *
@@ -34,10 +35,16 @@ import static org.slf4j.LoggerFactory.getLogger;
 class EventTreeQueueHolder {
     private static final Logger LOG = getLogger(EventTreeQueueHolder.class);
 
+    static final int CAPACITY = 100;
+
     private final BlockingQueue<EventTreeNode> loVfsEventQueue;
 
     public EventTreeQueueHolder() {
-        this.loVfsEventQueue = new LinkedBlockingQueue<>();
+        this(CAPACITY);
+    }
+
+    EventTreeQueueHolder(int capacity) {
+        this.loVfsEventQueue = new LinkedBlockingQueue<>(capacity);
     }
 
     public void put(EventTreeNode loVfsEventTreeRoot) {
@@ -56,4 +63,9 @@ class EventTreeQueueHolder {
         }
         return empty();
     }
+
+    /** Number of event trees waiting in the queue. */
+    int size() {
+        return loVfsEventQueue.size();
+    }
 }
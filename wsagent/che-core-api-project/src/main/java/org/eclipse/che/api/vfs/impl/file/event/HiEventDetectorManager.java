@@ -11,16 +11,32 @@
 package org.eclipse.che.api.vfs.impl.file.event;
 
 import com.google.common.annotations.Beta;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import org.slf4j.Logger;
+
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import static java.lang.Boolean.TRUE;
+import static java.lang.Math.min;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.stream.Collectors.toList;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
+ * Runs all registered detectors against an event tree. Detectors only read
+ * the tree, so they are run in parallel, detected events are returned in
+ * the order of detectors.
+ *
  * @author Dmitry Kuleshov
  *
  * @since 4.5
@@ -28,19 +44,57 @@ import static java.util.stream.Collectors.toList;
 @Beta
 @Singleton
 class HiEventDetectorManager {
+    private static final Logger LOG = getLogger(HiEventDetectorManager.class);
+
     private final Set<HiEventDetector<?>> hiEventDetectors;
+    private final ExecutorService         executor;
 
     @Inject
     public HiEventDetectorManager(Set<HiEventDetector<?>> hiEventDetectors) {
         this.hiEventDetectors = hiEventDetectors;
+        if (hiEventDetectors.size() > 1) {
+            final int threads = min(hiEventDetectors.size(), Runtime.getRuntime().availableProcessors());
+            this.executor = newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("HiEventDetector-%d")
+                                                                                  .setDaemon(TRUE)
+                                                                                  .build());
+        } else {
+            this.executor = null;
+        }
     }
 
     List<HiEvent> getDetectedEvents(EventTreeNode root) {
-        return hiEventDetectors.stream()
-                               .map(o -> o.detect(root))
-                               .filter(Optional::isPresent)
-                               .map(Optional::get)
-                               .collect(toList());
+        if (executor == null) {
+            return hiEventDetectors.stream()
+                                   .map(o -> o.detect(root))
+                                   .filter(Optional::isPresent)
+                                   .map(Optional::get)
+                                   .collect(toList());
+        }
+
+        final List<Future<? extends Optional<? extends HiEvent>>> futures = new ArrayList<>(hiEventDetectors.size());
+        for (HiEventDetector<?> detector : hiEventDetectors) {
+            futures.add(executor.submit(() -> detector.detect(root)));
+        }
+
+        final List<HiEvent> events = new ArrayList<>(futures.size());
+        for (Future<? extends Optional<? extends HiEvent>> future : futures) {
+            try {
+                future.get().ifPresent(events::add);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                LOG.error("Error trying to detect high level events", e.getCause());
+            }
+        }
+        return events;
     }
 
+    @PreDestroy
+    void preDestroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -17,13 +17,24 @@ import org.slf4j.Logger;
 import javax.inject.Singleton;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static java.lang.System.currentTimeMillis;
 import static java.util.Optional.empty;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
+ * Bounded queue of low level events. Producer is blocked while queue is full.
+ * <p>
+ *     Event is dropped if event of the same type for the same path is already
+ *     in the queue and no other event for this path is queued after it, such
+ *     event doesn't bring anything new to an event tree.
+ * </p>
+ *
  * @author Dmitry Kuleshov
  *
  * @since 4.5
@@ -33,15 +44,34 @@ import static org.slf4j.LoggerFactory.getLogger;
 class LoEventQueueHolder {
     private static final Logger LOG = getLogger(LoEventQueueHolder.class);
 
-    private final BlockingQueue<LoEvent> loEventQueue;
+    static final int CAPACITY = 10_000;
+
+    private final BlockingQueue<LoEvent>         loEventQueue;
+    private final ConcurrentMap<String, LoEvent> lastQueuedEvents;
+    private final AtomicLong                     coalescedEvents;
+
+    private volatile long lagMillis;
 
     public LoEventQueueHolder() {
-        this.loEventQueue = new LinkedBlockingQueue<>();
+        this(CAPACITY);
     }
 
-    void put(LoEvent loEvent) {
+    LoEventQueueHolder(int capacity) {
+        this.loEventQueue = new LinkedBlockingQueue<>(capacity);
+        this.lastQueuedEvents = new ConcurrentHashMap<>();
+        this.coalescedEvents = new AtomicLong();
+    }
+
+    synchronized void put(LoEvent loEvent) {
+        final LoEvent lastQueued = lastQueuedEvents.get(loEvent.getPath());
+        if (lastQueued != null && lastQueued.getEventType() == loEvent.getEventType()) {
+            coalescedEvents.incrementAndGet();
+            LOG.trace("Coalescing event {} with queued event {}", loEvent, lastQueued);
+            return;
+        }
         try {
             loEventQueue.put(loEvent);
+            lastQueuedEvents.put(loEvent.getPath(), loEvent);
         } catch (InterruptedException e) {
             LOG.error("Error trying to put an event to an event queue: {}", loEvent, e);
         }
@@ -49,10 +79,30 @@ class LoEventQueueHolder {
 
     Optional<LoEvent> poll(long timeout) {
         try {
-            return Optional.ofNullable(loEventQueue.poll(timeout, MILLISECONDS));
+            final LoEvent loEvent = loEventQueue.poll(timeout, MILLISECONDS);
+            if (loEvent != null) {
+                lastQueuedEvents.remove(loEvent.getPath(), loEvent);
+                lagMillis = currentTimeMillis() - loEvent.getTime();
+            }
+            return Optional.ofNullable(loEvent);
         } catch (InterruptedException e) {
             LOG.error("Error trying to poll an event out of an event queue", e);
         }
         return empty();
     }
+
+    /** Number of events waiting in the queue. */
+    int size() {
+        return loEventQueue.size();
+    }
+
+    /** Time that the last polled event spent between its occurrence and leaving the queue. */
+    long getLagMillis() {
+        return lagMillis;
+    }
+
+    /** Number of events dropped as duplicates of already queued events. */
+    long getCoalescedEventsCount() {
+        return coalescedEvents.get();
+    }
 }
@@ -106,6 +106,11 @@ public class LoEventService extends VfsEventService {
 
         eventTreeQueueHolder.put(vfsEventTreeRoot);
         LOG.trace("Flushing old event tree {}.", vfsEventTreeRoot);
+        LOG.debug("Event queue size: {}, event lag: {} ms, coalesced events: {}, event tree queue size: {}",
+                  loEventQueueHolder.size(),
+                  loEventQueueHolder.getLagMillis(),
+                  loEventQueueHolder.getCoalescedEventsCount(),
+                  eventTreeQueueHolder.size());
 
         vfsEventTreeRoot = newRootInstance();
         LOG.trace("Starting new event tree {}.", vfsEventTreeRoot);
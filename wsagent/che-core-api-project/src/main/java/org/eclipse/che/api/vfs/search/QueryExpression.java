@@ -12,11 +12,15 @@ package org.eclipse.che.api.vfs.search;
 
 /** Container for parameters of query that executed by Searcher.*/
 public class QueryExpression {
-    private String name;
-    private String path;
-    private String text;
-    private int    skipCount;
-    private int    maxItems;
+    private String  name;
+    private String  path;
+    private String  text;
+    private String  substring;
+    private String  regex;
+    private int     skipCount;
+    private int     maxItems;
+    private boolean includeOccurrences;
+    private String  searchAfter;
 
     /** Optional file path parameter. Only file with the specified path or children are included in result. */
     public String getPath() {
@@ -48,6 +52,29 @@ public class QueryExpression {
         return this;
     }
 
+    /**
+     * Optional literal that must be found in content of file. In contrast to {@link #getText() text} literal is matched as is,
+     * e.g. it might be part of word or contain whitespaces and special characters.
+     */
+    public String getSubstring() {
+        return substring;
+    }
+
+    public QueryExpression setSubstring(String substring) {
+        this.substring = substring;
+        return this;
+    }
+
+    /** Optional regular expression, only files which content contains match of expression are included in result. */
+    public String getRegex() {
+        return regex;
+    }
+
+    public QueryExpression setRegex(String regex) {
+        this.regex = regex;
+        return this;
+    }
+
     /** Number of items in search result that should be skipped. This parameter used for paging through large set of search result. */
     public int getSkipCount() {
         return skipCount;
@@ -68,14 +95,46 @@ public class QueryExpression {
         return this;
     }
 
+    /**
+     * If {@code true} then every entry of search result contains lines of the file that match the {@link #getText() text}, line
+     * numbers and offsets of matched phrases.
+     */
+    public boolean isIncludeOccurrences() {
+        return includeOccurrences;
+    }
+
+    public QueryExpression setIncludeOccurrences(boolean includeOccurrences) {
+        this.includeOccurrences = includeOccurrences;
+        return this;
+    }
+
+    /**
+     * Optional opaque cursor that points to the last item of previous page of search result. Cursor is provided by
+     * {@link SearchResult#getNextPageQueryExpression()} and lets searcher retrieve next page without re-scanning all skipped items.
+     * If cursor is not valid any more, e.g. index was changed since cursor was issued, then cursor is ignored and {@link #getSkipCount()
+     * skip count} is used.
+     */
+    public String getSearchAfter() {
+        return searchAfter;
+    }
+
+    public QueryExpression setSearchAfter(String searchAfter) {
+        this.searchAfter = searchAfter;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "QueryExpression{" +
                "text='" + text + '\'' +
                ", name='" + name + '\'' +
                ", path='" + path + '\'' +
+               ", substring='" + substring + '\'' +
+               ", regex='" + regex + '\'' +
                ", skipCount=" + skipCount +
                ", maxItems=" + maxItems +
+               ", includeOccurrences=" + includeOccurrences +
+               ", searchAfter='" + searchAfter + '\'' +
                '}';
     }
 }
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search;
+
+/**
+ * Single occurrence of searched text in the file.
+ */
+public class SearchOccurrence {
+    private final String phrase;
+    private final String lineContent;
+    private final int    lineNumber;
+    private final int    startOffset;
+    private final int    endOffset;
+
+    public SearchOccurrence(String phrase, String lineContent, int lineNumber, int startOffset, int endOffset) {
+        this.phrase = phrase;
+        this.lineContent = lineContent;
+        this.lineNumber = lineNumber;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /** Text of the file that matches the search criteria. */
+    public String getPhrase() {
+        return phrase;
+    }
+
+    /** Content of the line that contains occurrence. */
+    public String getLineContent() {
+        return lineContent;
+    }
+
+    /** Number of the line that contains occurrence, numbering of lines starts from {@code 1}. */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /** Offset of the first character of occurrence in the line. */
+    public int getStartOffset() {
+        return startOffset;
+    }
+
+    /** Offset after the last character of occurrence in the line. */
+    public int getEndOffset() {
+        return endOffset;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchOccurrence{" +
+               "phrase='" + phrase + '\'' +
+               ", lineNumber=" + lineNumber +
+               ", startOffset=" + startOffset +
+               ", endOffset=" + endOffset +
+               '}';
+    }
+}
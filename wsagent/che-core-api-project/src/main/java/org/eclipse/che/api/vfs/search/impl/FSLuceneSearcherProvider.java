@@ -26,7 +26,9 @@ import static com.google.common.collect.Sets.newHashSet;
 
 @Singleton
 public class FSLuceneSearcherProvider extends AbstractLuceneSearcherProvider {
-    private final File indexRootDirectory;
+    private final File    indexRootDirectory;
+    private final boolean trigramIndexEnabled;
+    private final long    maxStaleMillis;
 
     /**
      * @param indexRootDirectory
@@ -35,16 +37,36 @@ public class FSLuceneSearcherProvider extends AbstractLuceneSearcherProvider {
      *         set filter for files that should not be indexed
      * @see LuceneSearcher
      */
+    public FSLuceneSearcherProvider(File indexRootDirectory, Set<PathMatcher> excludePatterns) throws IOException {
+        this(indexRootDirectory, excludePatterns, false, 0);
+    }
+
+    /**
+     * @param indexRootDirectory
+     *         root directory for creation index
+     * @param excludePatterns
+     *         set filter for files that should not be indexed
+     * @param trigramIndexEnabled
+     *         if {@code true} then content of files is indexed as trigrams to speed up searching by substring and regular expression
+     * @param maxStaleMillis
+     *         max time in milliseconds after which changes of files become visible for search, if {@code 0} then changes are visible
+     *         immediately
+     * @see LuceneSearcher
+     */
     @Inject
     public FSLuceneSearcherProvider(@Named("vfs.local.fs_index_root_dir") File indexRootDirectory,
-                                    @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns) throws IOException {
+                                    @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns,
+                                    @Named("vfs.search.trigram_index") boolean trigramIndexEnabled,
+                                    @Named("vfs.search.max_stale_ms") long maxStaleMillis) throws IOException {
         super(newHashSet(transform(excludePatterns, VirtualFileFilters::wrap)));
         this.indexRootDirectory = indexRootDirectory;
+        this.trigramIndexEnabled = trigramIndexEnabled;
+        this.maxStaleMillis = maxStaleMillis;
         Files.createDirectories(indexRootDirectory.toPath());
     }
 
     @Override
     protected LuceneSearcher createLuceneSearcher(CloseCallback closeCallback) {
-        return new FSLuceneSearcher(indexRootDirectory, fileIndexFilter, closeCallback);
+        return new FSLuceneSearcher(indexRootDirectory, fileIndexFilter, closeCallback, trigramIndexEnabled, maxStaleMillis);
     }
 }
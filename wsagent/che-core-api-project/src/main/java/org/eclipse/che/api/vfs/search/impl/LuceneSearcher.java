@@ -10,23 +10,34 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.search.impl;
 
+import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DocumentStoredFieldVisitor;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
@@ -35,15 +46,18 @@ import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.IOUtils;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileFilters;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.search.MediaTypeFilter;
 import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.api.vfs.search.Searcher;
@@ -54,12 +68,23 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Lucene based searcher.
@@ -69,13 +94,25 @@ import static com.google.common.collect.Lists.newArrayList;
 public abstract class LuceneSearcher implements Searcher {
     private static final Logger LOG = LoggerFactory.getLogger(LuceneSearcher.class);
 
-    private static final int RESULT_LIMIT = 1000;
+    private static final int RESULT_LIMIT     = 1000;
+    private static final int INDEXING_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final String TRIGRAM_INDEX_COMMIT_KEY = "trigramIndex";
 
     private final List<VirtualFileFilter>                      indexFilters;
     private final AbstractLuceneSearcherProvider.CloseCallback closeCallback;
+    private final boolean                                      trigramIndexEnabled;
+    private final long                                         maxStaleMillis;
+    private final LinkedHashMap<String, PendingUpdate>         pendingUpdates;
 
     private IndexWriter     luceneIndexWriter;
     private SearcherManager searcherManager;
+    private ForkJoinPool    walkerPool;
+    private ExecutorService indexingExecutor;
+
+    private ScheduledExecutorService updatesExecutor;
+
+    private volatile VirtualFileSystem virtualFileSystem;
 
     private boolean closed = true;
 
@@ -93,7 +130,31 @@ public abstract class LuceneSearcher implements Searcher {
      *         with {@link VirtualFileFilters#createAndFilter} or {@link VirtualFileFilters#createOrFilter} methods
      */
     protected LuceneSearcher(VirtualFileFilter indexFilter, AbstractLuceneSearcherProvider.CloseCallback closeCallback) {
+        this(indexFilter, closeCallback, false, 0);
+    }
+
+    /**
+     * @param indexFilter
+     *         common filter for files that should not be indexed. If complex excluding rules needed then few filters might be combined
+     *         with {@link VirtualFileFilters#createAndFilter} or {@link VirtualFileFilters#createOrFilter} methods
+     * @param trigramIndexEnabled
+     *         if {@code true} then content of files is indexed as trigrams in addition to words, trigram index speeds up searching by
+     *         {@link QueryExpression#getSubstring() substring} and {@link QueryExpression#getRegex() regular expression} but makes
+     *         index bigger
+     * @param maxStaleMillis
+     *         max time in milliseconds after which changes of files become visible for search. If greater than {@code 0} then changes
+     *         of files are queued, repeated changes of the same file are coalesced, queued changes are written in index in batches and
+     *         searcher is refreshed in background thread, so search requests never wait for refreshing. If {@code 0} then changes are
+     *         written in index immediately and searcher is refreshed before every search request
+     */
+    protected LuceneSearcher(VirtualFileFilter indexFilter,
+                             AbstractLuceneSearcherProvider.CloseCallback closeCallback,
+                             boolean trigramIndexEnabled,
+                             long maxStaleMillis) {
         this.closeCallback = closeCallback;
+        this.trigramIndexEnabled = trigramIndexEnabled;
+        this.maxStaleMillis = maxStaleMillis;
+        this.pendingUpdates = new LinkedHashMap<>();
         indexFilters = new CopyOnWriteArrayList<>();
         indexFilters.add(indexFilter);
     }
@@ -119,10 +180,20 @@ public abstract class LuceneSearcher implements Searcher {
         };
     }
 
+    private Analyzer makeIndexAnalyzer() {
+        if (!trigramIndexEnabled) {
+            return makeAnalyzer();
+        }
+        return new PerFieldAnalyzerWrapper(makeAnalyzer(), singletonMap(TrigramQueryPlanner.TRIGRAM_FIELD,
+                                                                        TrigramQueryPlanner.makeTrigramAnalyzer()));
+    }
+
     protected abstract Directory makeDirectory() throws ServerException;
 
     /**
-     * Init lucene index. Need call this method if index directory is clean. Scan all files in virtual filesystem and add to index.
+     * Init lucene index. If index directory is clean scan all files in virtual filesystem and add to index. If index directory
+     * contains index that was created before, e.g. before restart of the ws-agent, then index is reconciled with virtual filesystem,
+     * only files that were added, changed or deleted since index was committed last time are updated in index.
      *
      * @param virtualFileSystem
      *         VirtualFileSystem
@@ -131,15 +202,17 @@ public abstract class LuceneSearcher implements Searcher {
      */
     public void init(VirtualFileSystem virtualFileSystem) throws ServerException {
         doInit();
-        addTree(virtualFileSystem.getRoot());
+        this.virtualFileSystem = virtualFileSystem;
+        initTree(virtualFileSystem.getRoot());
     }
 
     public void initAsynchronously(ExecutorService executor, VirtualFileSystem virtualFileSystem) throws ServerException {
         doInit();
+        this.virtualFileSystem = virtualFileSystem;
         if (!executor.isShutdown()) {
             executor.execute(() -> {
                 try {
-                    LuceneSearcher.this.addTree(virtualFileSystem.getRoot());
+                    LuceneSearcher.this.initTree(virtualFileSystem.getRoot());
                 } catch (ServerException e) {
                     LOG.error(e.getMessage());
                 }
@@ -147,10 +220,45 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
+    private void initTree(VirtualFile root) throws ServerException {
+        final String trigramIndex = getIndexWriter().getCommitData().get(TRIGRAM_INDEX_COMMIT_KEY);
+        if (getIndexWriter().numDocs() > 0 && !String.valueOf(trigramIndexEnabled).equals(trigramIndex)) {
+            LOG.info("Trigram index was {} since last indexing, rebuild index", trigramIndexEnabled ? "enabled" : "disabled");
+            try {
+                getIndexWriter().deleteAll();
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+        }
+        if (getIndexWriter().numDocs() > 0) {
+            reconcileTree(root);
+        } else {
+            addTree(root);
+        }
+        commit();
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
     protected final synchronized void doInit() throws ServerException {
         try {
-            luceneIndexWriter = new IndexWriter(makeDirectory(), new IndexWriterConfig(makeAnalyzer()));
+            luceneIndexWriter = new IndexWriter(makeDirectory(), new IndexWriterConfig(makeIndexAnalyzer()));
             searcherManager = new SearcherManager(luceneIndexWriter, true, new SearcherFactory());
+            walkerPool = new ForkJoinPool(INDEXING_THREADS);
+            indexingExecutor = Executors.newFixedThreadPool(INDEXING_THREADS, new ThreadFactoryBuilder()
+                                                                                      .setDaemon(true)
+                                                                                      .setNameFormat("LuceneSearcherIndexingThread-%d")
+                                                                                      .build());
+            if (maxStaleMillis > 0) {
+                updatesExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                                                                                     .setDaemon(true)
+                                                                                     .setNameFormat("LuceneSearcherUpdatesThread")
+                                                                                     .build());
+                updatesExecutor.scheduleWithFixedDelay(this::applyPendingUpdatesSafely, maxStaleMillis, maxStaleMillis, MILLISECONDS);
+            }
             closed = false;
         } catch (IOException e) {
             throw new ServerException(e);
@@ -159,6 +267,11 @@ public abstract class LuceneSearcher implements Searcher {
 
     public final synchronized void close() {
         if (!closed) {
+            if (updatesExecutor != null) {
+                updatesExecutor.shutdownNow();
+            }
+            walkerPool.shutdownNow();
+            indexingExecutor.shutdownNow();
             try {
                 IOUtils.close(getIndexWriter(), getIndexWriter().getDirectory(), searcherManager);
                 afterClose();
@@ -189,14 +302,20 @@ public abstract class LuceneSearcher implements Searcher {
         IndexSearcher luceneSearcher = null;
         try {
             final long startTime = System.currentTimeMillis();
-            searcherManager.maybeRefresh();
+            if (maxStaleMillis <= 0) {
+                searcherManager.maybeRefresh();
+            }
             luceneSearcher = searcherManager.acquire();
 
             Query luceneQuery = createLuceneQuery(query);
+            if (query.getSubstring() != null || query.getRegex() != null) {
+                return searchByContentPatterns(luceneSearcher, luceneQuery, query, startTime);
+            }
 
-            ScoreDoc after = null;
+            final long indexVersion = ((DirectoryReader)luceneSearcher.getIndexReader()).getVersion();
             final int numSkipDocs = Math.max(0, query.getSkipCount());
-            if (numSkipDocs > 0) {
+            ScoreDoc after = SearchCursor.parse(query.getSearchAfter(), indexVersion);
+            if (after == null && numSkipDocs > 0) {
                 after = skipScoreDocs(luceneSearcher, luceneQuery, numSkipDocs);
             }
 
@@ -204,19 +323,29 @@ public abstract class LuceneSearcher implements Searcher {
             TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numDocs);
             final int totalHitsNum = topDocs.totalHits;
 
+            final OccurrencesFinder occurrencesFinder = query.isIncludeOccurrences() && query.getText() != null
+                                                        ? new OccurrencesFinder(makeAnalyzer(), "text", parseTextQuery(query.getText()))
+                                                        : null;
             List<SearchResultEntry> results = newArrayList();
             for (int i = 0; i < topDocs.scoreDocs.length; i++) {
                 ScoreDoc scoreDoc = topDocs.scoreDocs[i];
                 String filePath = luceneSearcher.doc(scoreDoc.doc).getField("path").stringValue();
-                results.add(new SearchResultEntry(filePath));
+                if (occurrencesFinder == null) {
+                    results.add(new SearchResultEntry(filePath));
+                } else {
+                    results.add(new SearchResultEntry(filePath, findOccurrences(occurrencesFinder, filePath)));
+                }
             }
 
             final long elapsedTimeMillis = System.currentTimeMillis() - startTime;
 
-            boolean hasMoreToRetrieve = numSkipDocs + topDocs.scoreDocs.length + 1 < totalHitsNum;
+            boolean hasMoreToRetrieve = numSkipDocs + topDocs.scoreDocs.length < totalHitsNum;
             QueryExpression nextPageQueryExpression = null;
             if (hasMoreToRetrieve) {
-                nextPageQueryExpression = createNextPageQuery(query, numSkipDocs + topDocs.scoreDocs.length);
+                final ScoreDoc last = topDocs.scoreDocs.length > 0 ? topDocs.scoreDocs[topDocs.scoreDocs.length - 1] : after;
+                nextPageQueryExpression = createNextPageQuery(query,
+                                                              numSkipDocs + topDocs.scoreDocs.length,
+                                                              last == null ? null : SearchCursor.format(last, indexVersion));
             }
 
             return SearchResult.aSearchResult()
@@ -248,14 +377,163 @@ public abstract class LuceneSearcher implements Searcher {
             luceneQuery.add(new WildcardQuery(new Term("name", name)), BooleanClause.Occur.MUST);
         }
         if (text != null) {
-            QueryParser qParser = new QueryParser("text", makeAnalyzer());
+            luceneQuery.add(parseTextQuery(text), BooleanClause.Occur.MUST);
+        }
+        final String substring = query.getSubstring();
+        final String regex = query.getRegex();
+        if (trigramIndexEnabled) {
+            final BooleanQuery substringQuery = substring == null ? null : TrigramQueryPlanner.planLiteral(substring);
+            if (substringQuery != null) {
+                luceneQuery.add(substringQuery, BooleanClause.Occur.MUST);
+            }
+            final BooleanQuery regexQuery = regex == null ? null : TrigramQueryPlanner.planRegex(regex);
+            if (regexQuery != null) {
+                luceneQuery.add(regexQuery, BooleanClause.Occur.MUST);
+            }
+        }
+        if (luceneQuery.clauses().isEmpty() && (substring != null || regex != null)) {
+            // all files are candidates, every file is verified with patterns
+            return new MatchAllDocsQuery();
+        }
+        return luceneQuery;
+    }
+
+    /**
+     * Searches files which content matches the {@link QueryExpression#getSubstring() substring} or
+     * {@link QueryExpression#getRegex() regular expression}. Lucene query selects candidates, if trigram index is enabled candidates
+     * are narrowed down with trigrams of the literal fragments of the patterns. Content of every candidate is verified with patterns.
+     * <p>
+     * Candidates are read by frames and verified until the page is filled up or there are no more candidates, so page contains less
+     * files than requested only if it is the last one. Next page continues from the last verified candidate with {@link SearchCursor}.
+     * Total hits of result is number of files found until the end of this page.
+     */
+    private SearchResult searchByContentPatterns(IndexSearcher luceneSearcher,
+                                                 Query luceneQuery,
+                                                 QueryExpression query,
+                                                 long startTime) throws IOException, ServerException {
+        final List<Pattern> patterns = compilePatterns(query);
+        final long indexVersion = ((DirectoryReader)luceneSearcher.getIndexReader()).getVersion();
+        final int numSkipDocs = Math.max(0, query.getSkipCount());
+        final int numDocs = query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), RESULT_LIMIT) : RESULT_LIMIT;
+
+        ScoreDoc after = SearchCursor.parse(query.getSearchAfter(), indexVersion);
+        // without valid cursor matched files of the previous pages are found and skipped again
+        int skipMatches = after == null ? numSkipDocs : 0;
+        final List<SearchResultEntry> results = newArrayList();
+        boolean hasMoreCandidates = true;
+        while (hasMoreCandidates && results.size() < numDocs) {
+            final TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, RESULT_LIMIT);
+            int i = 0;
+            for (; i < topDocs.scoreDocs.length && results.size() < numDocs; i++) {
+                final ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                final String filePath = luceneSearcher.doc(scoreDoc.doc).getField("path").stringValue();
+                final List<SearchOccurrence> occurrences = matchContent(filePath, patterns, query.isIncludeOccurrences());
+                if (occurrences != null) {
+                    if (skipMatches > 0) {
+                        skipMatches--;
+                    } else {
+                        results.add(new SearchResultEntry(filePath, occurrences));
+                    }
+                }
+                after = scoreDoc;
+            }
+            hasMoreCandidates = i < topDocs.scoreDocs.length || topDocs.scoreDocs.length == RESULT_LIMIT;
+        }
+
+        QueryExpression nextPageQueryExpression = null;
+        if (hasMoreCandidates && after != null) {
+            nextPageQueryExpression = createNextPageQuery(query, numSkipDocs + results.size(), SearchCursor.format(after, indexVersion));
+        }
+        return SearchResult.aSearchResult()
+                           .withResults(results)
+                           .withTotalHits(numSkipDocs + results.size())
+                           .withNextPageQueryExpression(nextPageQueryExpression)
+                           .withElapsedTimeMillis(System.currentTimeMillis() - startTime)
+                           .build();
+    }
+
+    private List<Pattern> compilePatterns(QueryExpression query) throws ServerException {
+        final List<Pattern> patterns = newArrayList();
+        if (query.getSubstring() != null) {
+            patterns.add(Pattern.compile(query.getSubstring(), Pattern.LITERAL));
+        }
+        if (query.getRegex() != null) {
             try {
-                luceneQuery.add(qParser.parse(text), BooleanClause.Occur.MUST);
-            } catch (ParseException e) {
+                patterns.add(Pattern.compile(query.getRegex()));
+            } catch (PatternSyntaxException e) {
                 throw new ServerException(e.getMessage());
             }
         }
-        return luceneQuery;
+        return patterns;
+    }
+
+    /**
+     * Verifies content of file with patterns.
+     *
+     * @return {@code null} if content of file doesn't match all patterns, otherwise occurrences of patterns in the file if they are
+     * requested or empty list
+     */
+    private List<SearchOccurrence> matchContent(String filePath,
+                                                List<Pattern> patterns,
+                                                boolean includeOccurrences) throws ServerException {
+        final VirtualFileSystem virtualFileSystem = this.virtualFileSystem;
+        if (virtualFileSystem == null) {
+            return null;
+        }
+        final VirtualFile virtualFile = virtualFileSystem.getRoot().getChild(Path.of(filePath));
+        if (virtualFile == null || !virtualFile.isFile() || !shouldIndexContent(virtualFile)) {
+            return null;
+        }
+        final String content;
+        try {
+            content = virtualFile.getContentAsString();
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        }
+        for (Pattern pattern : patterns) {
+            if (!pattern.matcher(content).find()) {
+                return null;
+            }
+        }
+        if (!includeOccurrences) {
+            return emptyList();
+        }
+        final List<SearchOccurrence> occurrences = newArrayList();
+        for (Pattern pattern : patterns) {
+            occurrences.addAll(OccurrencesFinder.find(pattern, content));
+        }
+        return occurrences;
+    }
+
+    private Query parseTextQuery(String text) throws ServerException {
+        QueryParser qParser = new QueryParser("text", makeAnalyzer());
+        try {
+            return qParser.parse(text);
+        } catch (ParseException e) {
+            throw new ServerException(e.getMessage());
+        }
+    }
+
+    /**
+     * Reads content of the file and finds lines that match the text query. Content of files is not stored in index so it is read from
+     * virtual filesystem. Only files from the current page of search result are read.
+     */
+    private List<SearchOccurrence> findOccurrences(OccurrencesFinder occurrencesFinder, String filePath) throws ServerException {
+        final VirtualFileSystem virtualFileSystem = this.virtualFileSystem;
+        if (virtualFileSystem == null || occurrencesFinder.isEmpty()) {
+            return emptyList();
+        }
+        final VirtualFile virtualFile = virtualFileSystem.getRoot().getChild(Path.of(filePath));
+        if (virtualFile == null || !virtualFile.isFile()) {
+            return emptyList();
+        }
+        try {
+            return occurrencesFinder.find(virtualFile.getContentAsString());
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
     }
 
     private ScoreDoc skipScoreDocs(IndexSearcher luceneSearcher, Query luceneQuery, int numSkipDocs) throws IOException {
@@ -279,17 +557,25 @@ public abstract class LuceneSearcher implements Searcher {
         return scoreDoc;
     }
 
-    private QueryExpression createNextPageQuery(QueryExpression originalQuery, int newSkipCount) {
+    private QueryExpression createNextPageQuery(QueryExpression originalQuery, int newSkipCount, String searchAfter) {
         return new QueryExpression().setText(originalQuery.getText())
                                     .setName(originalQuery.getName())
                                     .setPath(originalQuery.getPath())
                                     .setSkipCount(newSkipCount)
-                                    .setMaxItems(originalQuery.getMaxItems());
+                                    .setMaxItems(originalQuery.getMaxItems())
+                                    .setSubstring(originalQuery.getSubstring())
+                                    .setRegex(originalQuery.getRegex())
+                                    .setIncludeOccurrences(originalQuery.isIncludeOccurrences())
+                                    .setSearchAfter(searchAfter);
     }
 
     @Override
     public final void add(VirtualFile virtualFile) throws ServerException {
-        doAdd(virtualFile);
+        if (maxStaleMillis > 0) {
+            enqueueUpdate(new PendingUpdate(UpdateType.ADD, virtualFile.getPath().toString(), virtualFile));
+        } else {
+            doAdd(virtualFile);
+        }
     }
 
     protected void doAdd(VirtualFile virtualFile) throws ServerException {
@@ -300,26 +586,93 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
+    /**
+     * Adds all files from specified tree in index. Folders are walked and files are indexed in parallel, see {@link TreeIndexer}.
+     */
     protected void addTree(VirtualFile tree) throws ServerException {
+        final ForkJoinPool walkerPool;
+        final ExecutorService indexingExecutor;
+        synchronized (this) {
+            walkerPool = this.walkerPool;
+            indexingExecutor = this.indexingExecutor;
+        }
+        new TreeIndexer(walkerPool, indexingExecutor, INDEXING_THREADS, this::addFile).index(tree);
+    }
+
+    /**
+     * Updates index for specified tree comparing path, time of last modification and length of files in the tree with the values
+     * stored in index. New and changed files are re-indexed, files that are not in the tree any more are removed from index.
+     */
+    protected void reconcileTree(VirtualFile tree) throws ServerException {
         final long start = System.currentTimeMillis();
-        final LinkedList<VirtualFile> q = new LinkedList<>();
-        q.add(tree);
-        int indexedFiles = 0;
-        while (!q.isEmpty()) {
-            final VirtualFile folder = q.pop();
-            if (folder.exists()) {
-                for (VirtualFile child : folder.getChildren()) {
-                    if (child.isFolder()) {
-                        q.push(child);
-                    } else {
-                        addFile(child);
-                        indexedFiles++;
+        final Map<String, IndexedFile> indexedFiles = readIndexedFiles(tree.getPath().toString());
+        final AtomicInteger updatedFiles = new AtomicInteger();
+        final ForkJoinPool walkerPool;
+        final ExecutorService indexingExecutor;
+        synchronized (this) {
+            walkerPool = this.walkerPool;
+            indexingExecutor = this.indexingExecutor;
+        }
+        new TreeIndexer(walkerPool, indexingExecutor, INDEXING_THREADS, virtualFile -> {
+            final IndexedFile indexedFile = indexedFiles.remove(virtualFile.getPath().toString());
+            if (indexedFile == null || indexedFile.isModified(virtualFile)) {
+                addFile(virtualFile);
+                updatedFiles.incrementAndGet();
+            }
+        }).index(tree);
+        for (String deletedPath : indexedFiles.keySet()) {
+            doDelete(deletedPath, true);
+        }
+        LOG.debug("Reconciled index of {}, updated {} files, deleted {} files, time: {} ms",
+                  tree.getPath(), updatedFiles.get(), indexedFiles.size(), (System.currentTimeMillis() - start));
+    }
+
+    private Map<String, IndexedFile> readIndexedFiles(String treePath) throws ServerException {
+        final String pathPrefix = "/".equals(treePath) ? treePath : treePath + "/";
+        final Map<String, IndexedFile> indexedFiles = new ConcurrentHashMap<>();
+        IndexSearcher luceneSearcher = null;
+        try {
+            searcherManager.maybeRefresh();
+            luceneSearcher = searcherManager.acquire();
+            for (LeafReaderContext leafContext : luceneSearcher.getIndexReader().leaves()) {
+                final LeafReader leafReader = leafContext.reader();
+                final Bits liveDocs = leafReader.getLiveDocs();
+                for (int i = 0; i < leafReader.maxDoc(); i++) {
+                    if (liveDocs != null && !liveDocs.get(i)) {
+                        continue;
+                    }
+                    final DocumentStoredFieldVisitor visitor = new DocumentStoredFieldVisitor("path", "modified", "length");
+                    leafReader.document(i, visitor);
+                    final Document doc = visitor.getDocument();
+                    final String path = doc.get("path");
+                    if (path != null && path.startsWith(pathPrefix)) {
+                        indexedFiles.put(path, new IndexedFile(doc.getField("modified"), doc.getField("length")));
                     }
                 }
             }
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } finally {
+            try {
+                searcherManager.release(luceneSearcher);
+            } catch (IOException e) {
+                LOG.error(e.getMessage());
+            }
+        }
+        return indexedFiles;
+    }
+
+    /** Commits all pending changes, committed changes survive restart of the searcher. */
+    protected void commit() throws ServerException {
+        try {
+            getIndexWriter().setCommitData(singletonMap(TRIGRAM_INDEX_COMMIT_KEY, String.valueOf(trigramIndexEnabled)));
+            getIndexWriter().commit();
+        } catch (OutOfMemoryError oome) {
+            close();
+            throw oome;
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
         }
-        final long end = System.currentTimeMillis();
-        LOG.debug("Indexed {} files from {}, time: {} ms", indexedFiles, tree.getPath(), (end - start));
     }
 
     protected void addFile(VirtualFile virtualFile) throws ServerException {
@@ -342,6 +695,14 @@ public abstract class LuceneSearcher implements Searcher {
 
     @Override
     public final void delete(String path, boolean isFile) throws ServerException {
+        if (maxStaleMillis > 0) {
+            enqueueUpdate(new PendingUpdate(isFile ? UpdateType.DELETE_FILE : UpdateType.DELETE_TREE, path, null));
+        } else {
+            doDelete(path, isFile);
+        }
+    }
+
+    protected void doDelete(String path, boolean isFile) throws ServerException {
         try {
             if (isFile) {
                 Term term = new Term("path", path);
@@ -360,7 +721,84 @@ public abstract class LuceneSearcher implements Searcher {
 
     @Override
     public final void update(VirtualFile virtualFile) throws ServerException {
-        doUpdate(new Term("path", virtualFile.getPath().toString()), virtualFile);
+        if (maxStaleMillis > 0) {
+            enqueueUpdate(new PendingUpdate(UpdateType.UPDATE, virtualFile.getPath().toString(), virtualFile));
+        } else {
+            doUpdate(new Term("path", virtualFile.getPath().toString()), virtualFile);
+        }
+    }
+
+    /**
+     * Adds change of file in the queue. Previous change of the same path is replaced, deletion of folder replaces all queued changes of
+     * files in this folder. Order of changes of different paths is kept. If replaced change is deletion of folder, e.g. folder is
+     * deleted and created again, then the folder is still deleted from index before the new change is written.
+     */
+    private void enqueueUpdate(PendingUpdate update) {
+        synchronized (pendingUpdates) {
+            if (update.type == UpdateType.DELETE_TREE) {
+                final String prefix = update.path + "/";
+                pendingUpdates.keySet().removeIf(path -> path.startsWith(prefix));
+            }
+            final PendingUpdate previous = pendingUpdates.remove(update.path);
+            if (previous != null && update.type != UpdateType.DELETE_TREE
+                && (previous.type == UpdateType.DELETE_TREE || previous.deleteTreeFirst)) {
+                update = new PendingUpdate(update.type, update.path, update.virtualFile, true);
+            }
+            pendingUpdates.put(update.path, update);
+        }
+    }
+
+    /**
+     * Writes all queued changes of files in index and refreshes searcher. Error of writing single change is logged and doesn't stop
+     * writing of other changes. Searcher is refreshed even if there are no queued changes, so files which are indexed in other way,
+     * e.g. by initial indexing, become visible for search.
+     */
+    void applyPendingUpdates() throws ServerException {
+        final List<PendingUpdate> updates;
+        synchronized (pendingUpdates) {
+            updates = newArrayList(pendingUpdates.values());
+            pendingUpdates.clear();
+        }
+        for (PendingUpdate update : updates) {
+            try {
+                if (update.deleteTreeFirst) {
+                    doDelete(update.path, false);
+                }
+                switch (update.type) {
+                    case ADD:
+                        doAdd(update.virtualFile);
+                        break;
+                    case UPDATE:
+                        if (update.virtualFile.exists()) {
+                            doUpdate(new Term("path", update.path), update.virtualFile);
+                        } else {
+                            doDelete(update.path, true);
+                        }
+                        break;
+                    case DELETE_FILE:
+                        doDelete(update.path, true);
+                        break;
+                    case DELETE_TREE:
+                        doDelete(update.path, false);
+                        break;
+                }
+            } catch (ServerException e) {
+                LOG.error("Unable update index for {}: {}", update.path, e.getMessage());
+            }
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
+    private void applyPendingUpdatesSafely() {
+        try {
+            applyPendingUpdates();
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+        }
     }
 
     protected void doUpdate(Term deleteTerm, VirtualFile virtualFile) throws ServerException {
@@ -382,8 +820,22 @@ public abstract class LuceneSearcher implements Searcher {
         final Document doc = new Document();
         doc.add(new StringField("path", virtualFile.getPath().toString(), Field.Store.YES));
         doc.add(new StringField("name", virtualFile.getName(), Field.Store.YES));
+        doc.add(new StoredField("modified", virtualFile.getLastModificationDate()));
+        doc.add(new StoredField("length", virtualFile.getLength()));
         if (reader != null) {
-            doc.add(new TextField("text", reader));
+            if (trigramIndexEnabled) {
+                // content is read once and used for both fields
+                final String content;
+                try {
+                    content = CharStreams.toString(reader);
+                } catch (IOException e) {
+                    throw new ServerException(e.getMessage(), e);
+                }
+                doc.add(new TextField("text", content, Field.Store.NO));
+                doc.add(new TextField(TrigramQueryPlanner.TRIGRAM_FIELD, content, Field.Store.NO));
+            } else {
+                doc.add(new TextField("text", reader));
+            }
         }
         return doc;
     }
@@ -396,4 +848,79 @@ public abstract class LuceneSearcher implements Searcher {
         }
         return true;
     }
+
+    /** Time of last modification and length of file at the moment when file was indexed. */
+    private static class IndexedFile {
+        final long modified;
+        final long length;
+
+        IndexedFile(IndexableField modified, IndexableField length) {
+            this.modified = modified == null ? -1 : modified.numericValue().longValue();
+            this.length = length == null ? -1 : length.numericValue().longValue();
+        }
+
+        boolean isModified(VirtualFile virtualFile) throws ServerException {
+            return modified == -1
+                   || modified != virtualFile.getLastModificationDate()
+                   || length != virtualFile.getLength();
+        }
+    }
+
+    /**
+     * Cursor for retrieving next page of search result. Cursor contains the last {@link ScoreDoc} of the page and version of index
+     * reader. Cursor is valid only for the same version of index reader, id of documents might be changed after refreshing of reader.
+     */
+    static class SearchCursor {
+        static String format(ScoreDoc scoreDoc, long indexVersion) {
+            return Long.toHexString(indexVersion) + ':'
+                   + Integer.toHexString(scoreDoc.doc) + ':'
+                   + Integer.toHexString(Float.floatToIntBits(scoreDoc.score));
+        }
+
+        /** Returns {@code null} if cursor is not set, malformed or was issued for other version of index reader. */
+        static ScoreDoc parse(String cursor, long indexVersion) {
+            if (cursor == null) {
+                return null;
+            }
+            final String[] parts = cursor.split(":");
+            if (parts.length != 3) {
+                LOG.debug("Ignore malformed search cursor '{}'", cursor);
+                return null;
+            }
+            try {
+                if (Long.parseUnsignedLong(parts[0], 16) != indexVersion) {
+                    LOG.debug("Ignore search cursor '{}', index was refreshed since cursor was issued", cursor);
+                    return null;
+                }
+                return new ScoreDoc(Integer.parseUnsignedInt(parts[1], 16), Float.intBitsToFloat(Integer.parseUnsignedInt(parts[2], 16)));
+            } catch (NumberFormatException e) {
+                LOG.debug("Ignore malformed search cursor '{}'", cursor);
+                return null;
+            }
+        }
+    }
+
+    private enum UpdateType {
+        ADD, UPDATE, DELETE_FILE, DELETE_TREE
+    }
+
+    /** Change of file that is not written in index yet. */
+    private static class PendingUpdate {
+        final UpdateType  type;
+        final String      path;
+        final VirtualFile virtualFile;
+        /** Whether files in folder with the same path must be deleted from index before this change is written. */
+        final boolean     deleteTreeFirst;
+
+        PendingUpdate(UpdateType type, String path, VirtualFile virtualFile) {
+            this(type, path, virtualFile, false);
+        }
+
+        PendingUpdate(UpdateType type, String path, VirtualFile virtualFile, boolean deleteTreeFirst) {
+            this.type = type;
+            this.path = path;
+            this.virtualFile = virtualFile;
+            this.deleteTreeFirst = deleteTreeFirst;
+        }
+    }
 }
@@ -26,6 +26,13 @@ public class MemoryLuceneSearcher extends LuceneSearcher {
         super(filter, closeCallback);
     }
 
+    MemoryLuceneSearcher(VirtualFileFilter filter,
+                         AbstractLuceneSearcherProvider.CloseCallback closeCallback,
+                         boolean trigramIndexEnabled,
+                         long maxStaleMillis) {
+        super(filter, closeCallback, trigramIndexEnabled, maxStaleMillis);
+    }
+
     @Override
     protected Directory makeDirectory() {
         return new RAMDirectory();
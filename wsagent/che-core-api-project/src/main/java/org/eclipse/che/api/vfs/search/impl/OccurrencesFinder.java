@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds occurrences of terms of the text query in content of file. Content is analyzed with the same analyzer that is used for
+ * indexing, so found occurrences are exactly the tokens that matched the query.
+ */
+class OccurrencesFinder {
+    static final int MAX_OCCURRENCES = 100;
+
+    private final Analyzer      analyzer;
+    private final String        field;
+    private final Set<String>   terms;
+    private final List<String>  prefixes;
+    private final List<Pattern> wildcards;
+
+    OccurrencesFinder(Analyzer analyzer, String field, Query query) {
+        this.analyzer = analyzer;
+        this.field = field;
+        this.terms = new HashSet<>();
+        this.prefixes = new ArrayList<>();
+        this.wildcards = new ArrayList<>();
+        collectTerms(query);
+    }
+
+    /** Returns {@code true} if query doesn't contain any term which might be found in content of file. */
+    boolean isEmpty() {
+        return terms.isEmpty() && prefixes.isEmpty() && wildcards.isEmpty();
+    }
+
+    /**
+     * Finds occurrences of query terms in the specified content. Not more than {@link #MAX_OCCURRENCES} occurrences are returned.
+     */
+    List<SearchOccurrence> find(String content) throws IOException {
+        final List<SearchOccurrence> occurrences = new ArrayList<>();
+        if (isEmpty()) {
+            return occurrences;
+        }
+        final int[] lineStarts = lineStarts(content);
+        try (TokenStream tokenStream = analyzer.tokenStream(field, content)) {
+            final CharTermAttribute termAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            final OffsetAttribute offsetAttribute = tokenStream.addAttribute(OffsetAttribute.class);
+            tokenStream.reset();
+            while (occurrences.size() < MAX_OCCURRENCES && tokenStream.incrementToken()) {
+                if (matches(termAttribute.toString())) {
+                    occurrences.add(occurrence(content, lineStarts, offsetAttribute.startOffset(), offsetAttribute.endOffset()));
+                }
+            }
+            tokenStream.end();
+        }
+        return occurrences;
+    }
+
+    /**
+     * Finds matches of regular expression in the specified content. Not more than {@link #MAX_OCCURRENCES} occurrences are returned.
+     */
+    static List<SearchOccurrence> find(Pattern pattern, String content) {
+        final List<SearchOccurrence> occurrences = new ArrayList<>();
+        final int[] lineStarts = lineStarts(content);
+        final Matcher matcher = pattern.matcher(content);
+        while (occurrences.size() < MAX_OCCURRENCES && matcher.find()) {
+            occurrences.add(occurrence(content, lineStarts, matcher.start(), matcher.end()));
+        }
+        return occurrences;
+    }
+
+    private static SearchOccurrence occurrence(String content, int[] lineStarts, int start, int end) {
+        final int line = lineIndex(lineStarts, start);
+        final int lineStart = lineStarts[line];
+        final int lineEnd = line + 1 < lineStarts.length ? lineStarts[line + 1] : content.length();
+        return new SearchOccurrence(content.substring(start, end),
+                                    stripLineSeparator(content.substring(lineStart, lineEnd)),
+                                    line + 1,
+                                    start - lineStart,
+                                    end - lineStart);
+    }
+
+    private boolean matches(String token) {
+        if (terms.contains(token)) {
+            return true;
+        }
+        for (String prefix : prefixes) {
+            if (token.startsWith(prefix)) {
+                return true;
+            }
+        }
+        for (Pattern wildcard : wildcards) {
+            if (wildcard.matcher(token).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void collectTerms(Query query) {
+        if (query instanceof BooleanQuery) {
+            for (BooleanClause clause : ((BooleanQuery)query).clauses()) {
+                if (clause.getOccur() != BooleanClause.Occur.MUST_NOT) {
+                    collectTerms(clause.getQuery());
+                }
+            }
+        } else if (query instanceof TermQuery) {
+            addTerm(((TermQuery)query).getTerm());
+        } else if (query instanceof PhraseQuery) {
+            for (Term term : ((PhraseQuery)query).getTerms()) {
+                addTerm(term);
+            }
+        } else if (query instanceof FuzzyQuery) {
+            addTerm(((FuzzyQuery)query).getTerm());
+        } else if (query instanceof PrefixQuery) {
+            final Term prefix = ((PrefixQuery)query).getPrefix();
+            if (field.equals(prefix.field())) {
+                prefixes.add(prefix.text());
+            }
+        } else if (query instanceof WildcardQuery) {
+            final Term wildcard = ((WildcardQuery)query).getTerm();
+            if (field.equals(wildcard.field())) {
+                wildcards.add(wildcardToPattern(wildcard.text()));
+            }
+        }
+    }
+
+    private void addTerm(Term term) {
+        if (field.equals(term.field())) {
+            terms.add(term.text());
+        }
+    }
+
+    private static Pattern wildcardToPattern(String wildcard) {
+        final StringBuilder regex = new StringBuilder();
+        for (char c : wildcard.toCharArray()) {
+            if (c == WildcardQuery.WILDCARD_STRING) {
+                regex.append(".*");
+            } else if (c == WildcardQuery.WILDCARD_CHAR) {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static int[] lineStarts(String content) {
+        int[] lineStarts = new int[16];
+        int lines = 1;
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '\n') {
+                if (lines == lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+                }
+                lineStarts[lines++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(lineStarts, lines);
+    }
+
+    private static int lineIndex(int[] lineStarts, int offset) {
+        final int index = Arrays.binarySearch(lineStarts, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private static String stripLineSeparator(String line) {
+        int end = line.length();
+        while (end > 0 && (line.charAt(end - 1) == '\n' || line.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return line.substring(0, end);
+    }
+}
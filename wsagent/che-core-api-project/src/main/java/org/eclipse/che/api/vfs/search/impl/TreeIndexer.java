@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Indexes tree of virtual files in parallel.
+ * <p>
+ * Pipeline consists of three stages:
+ * <ul>
+ * <li>folders are walked recursively with {@link ForkJoinPool}, every found file is put in bounded queue, walkers are blocked while
+ * queue is full</li>
+ * <li>pool of indexing threads takes files from the queue in batches</li>
+ * <li>every indexing thread reads and tokenizes content of files and writes documents with {@link FileIndexer}, {@code IndexWriter}
+ * accepts documents from many threads concurrently, so content of different files is analyzed in parallel</li>
+ * </ul>
+ * Progress and throughput of indexing are logged every {@link #PROGRESS_REPORT_STEP} files.
+ */
+class TreeIndexer {
+    private static final Logger LOG = LoggerFactory.getLogger(TreeIndexer.class);
+
+    static final int QUEUE_CAPACITY       = 4096;
+    static final int BATCH_SIZE           = 256;
+    static final int PROGRESS_REPORT_STEP = 10000;
+
+    /** Writes single file in the index. */
+    interface FileIndexer {
+        void index(VirtualFile virtualFile) throws ServerException;
+    }
+
+    private final ForkJoinPool    walkerPool;
+    private final ExecutorService indexingExecutor;
+    private final int             indexingThreads;
+    private final FileIndexer     fileIndexer;
+
+    /**
+     * @param walkerPool
+     *         pool for walking of folders
+     * @param indexingExecutor
+     *         executor for indexing threads, must be able to run at least {@code indexingThreads} tasks simultaneously
+     * @param indexingThreads
+     *         number of threads that read content of files and write it in the index
+     * @param fileIndexer
+     *         writes single file in the index
+     */
+    TreeIndexer(ForkJoinPool walkerPool, ExecutorService indexingExecutor, int indexingThreads, FileIndexer fileIndexer) {
+        this.walkerPool = walkerPool;
+        this.indexingExecutor = indexingExecutor;
+        this.indexingThreads = indexingThreads;
+        this.fileIndexer = fileIndexer;
+    }
+
+    /**
+     * Indexes all files in specified tree. Method is blocked until all files are indexed.
+     *
+     * @return number of indexed files
+     * @throws ServerException
+     *         if any error occurs while walking tree or indexing file, indexing is stopped on the first error
+     */
+    int index(VirtualFile tree) throws ServerException {
+        final IndexingTask task = new IndexingTask(tree);
+        return task.run();
+    }
+
+    private class IndexingTask {
+        final VirtualFile                tree;
+        final BlockingQueue<VirtualFile> queue;
+        final AtomicReference<Throwable> failure;
+        final AtomicInteger              indexedFiles;
+        final long                       startTime;
+        final List<Future<?>>            indexers;
+
+        volatile boolean walkCompleted;
+
+        IndexingTask(VirtualFile tree) {
+            this.tree = tree;
+            this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            this.failure = new AtomicReference<>();
+            this.indexedFiles = new AtomicInteger();
+            this.startTime = System.currentTimeMillis();
+            this.indexers = new ArrayList<>(indexingThreads);
+        }
+
+        int run() throws ServerException {
+            startIndexer();
+            if (failure.get() != null) {
+                throw new ServerException("Unable index " + tree.getPath() + ", searcher is closed");
+            }
+            try {
+                walkerPool.invoke(new FolderWalker(tree));
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                walkCompleted = true;
+            }
+            final List<Future<?>> indexers;
+            synchronized (this) {
+                indexers = new ArrayList<>(this.indexers);
+            }
+            for (Future<?> indexer : indexers) {
+                try {
+                    indexer.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    indexers.forEach(f -> f.cancel(true));
+                    throw new ServerException("Indexing of " + tree.getPath() + " was interrupted");
+                } catch (ExecutionException e) {
+                    failure.compareAndSet(null, e.getCause());
+                }
+            }
+            rethrowFailure();
+            final long elapsed = System.currentTimeMillis() - startTime;
+            LOG.debug("Indexed {} files from {}, time: {} ms, throughput: {} files/s",
+                      indexedFiles.get(), tree.getPath(), elapsed, throughput(indexedFiles.get(), elapsed));
+            return indexedFiles.get();
+        }
+
+        void consume() {
+            final List<VirtualFile> batch = new ArrayList<>(BATCH_SIZE);
+            try {
+                while (failure.get() == null) {
+                    final VirtualFile first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (walkCompleted && queue.isEmpty()) {
+                            return;
+                        }
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    for (VirtualFile file : batch) {
+                        fileIndexer.index(file);
+                        reportProgress(indexedFiles.incrementAndGet());
+                    }
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+            } catch (ServerException | RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        /**
+         * Puts file in the queue, waits while queue is full. Returns {@code false} if indexing is failed and walking of folders
+         * should be stopped.
+         */
+        boolean enqueue(VirtualFile file) throws InterruptedException {
+            while (!queue.offer(file, 100, TimeUnit.MILLISECONDS)) {
+                if (failure.get() != null) {
+                    return false;
+                }
+            }
+            if (queue.size() > BATCH_SIZE) {
+                startIndexer();
+            }
+            return true;
+        }
+
+        /**
+         * Starts one more indexing thread if limit is not reached yet. Only one indexing thread is started at the beginning, others
+         * are added while walkers put files in the queue faster than they are indexed. Small trees are indexed by single thread in
+         * the same order in which files are found.
+         */
+        synchronized void startIndexer() {
+            if (indexers.size() < indexingThreads) {
+                try {
+                    indexers.add(indexingExecutor.submit(this::consume));
+                } catch (RejectedExecutionException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
+
+        void reportProgress(int indexed) {
+            if (indexed % PROGRESS_REPORT_STEP == 0) {
+                final long elapsed = System.currentTimeMillis() - startTime;
+                LOG.info("Indexing of {} in progress, indexed {} files, throughput: {} files/s",
+                         tree.getPath(), indexed, throughput(indexed, elapsed));
+            }
+        }
+
+        void rethrowFailure() throws ServerException {
+            final Throwable error = failure.get();
+            if (error == null) {
+                return;
+            }
+            if (error instanceof ServerException) {
+                throw (ServerException)error;
+            }
+            if (error instanceof Error) {
+                throw (Error)error;
+            }
+            throw new ServerException(error.getMessage(), error);
+        }
+
+        private class FolderWalker extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            final VirtualFile folder;
+
+            FolderWalker(VirtualFile folder) {
+                this.folder = folder;
+            }
+
+            @Override
+            protected void compute() {
+                if (failure.get() != null || !folder.exists()) {
+                    return;
+                }
+                final List<FolderWalker> subFolders = new ArrayList<>();
+                try {
+                    for (VirtualFile child : folder.getChildren()) {
+                        if (child.isFolder()) {
+                            subFolders.add(new FolderWalker(child));
+                        } else if (!enqueue(child)) {
+                            return;
+                        }
+                    }
+                } catch (ServerException e) {
+                    failure.compareAndSet(null, e);
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure.compareAndSet(null, e);
+                    return;
+                }
+                invokeAll(subFolders);
+            }
+        }
+    }
+
+    private static long throughput(int files, long elapsedMillis) {
+        return elapsedMillis > 0 ? files * 1000L / elapsedMillis : files;
+    }
+}
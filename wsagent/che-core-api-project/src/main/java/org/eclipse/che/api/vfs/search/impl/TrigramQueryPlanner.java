@@ -0,0 +1,344 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.LowerCaseFilter;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.TermQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns literal or regular expression into query over trigram index. Documents found with such query are candidates only, content of
+ * them must be verified with the original literal or regular expression.
+ * <p>
+ * Planner extracts from regular expression literal fragments that must be present in every matched text, e.g. for expression
+ * <code>"get(Name|Id)\\(\\)\\s*\\{"</code> fragments are <code>"get"</code>, <code>"()"</code> and <code>"{"</code>. Every
+ * trigram of every fragment must be present in the matched document. Alternations on the top level of the expression, character
+ * classes, optional characters and groups are not converted into trigrams, so planner never excludes document that matches the
+ * expression.
+ */
+class TrigramQueryPlanner {
+    static final String TRIGRAM_FIELD = "trigram";
+
+    private static final int     GRAM_SIZE     = 3;
+    /** Limit number of trigrams in query, query with subset of trigrams still finds all documents that match the expression. */
+    private static final int     MAX_TRIGRAMS  = 64;
+    /** Whitespaces are not literals in expressions with embedded flag {@code x}. */
+    private static final Pattern COMMENTS_FLAG = Pattern.compile("\\(\\?[a-zA-Z-]*x");
+
+    /** Analyzer for the {@link #TRIGRAM_FIELD}, splits content into lower cased trigrams. */
+    static Analyzer makeTrigramAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new NGramTokenizer(GRAM_SIZE, GRAM_SIZE);
+                TokenStream filter = new LowerCaseFilter(tokenizer);
+                return new TokenStreamComponents(tokenizer, filter);
+            }
+        };
+    }
+
+    /**
+     * Creates query for literal.
+     *
+     * @return query over trigram index or {@code null} if literal is too short to be looked up in trigram index
+     */
+    static BooleanQuery planLiteral(String literal) {
+        final List<String> literals = new ArrayList<>(1);
+        literals.add(literal);
+        return toQuery(literals);
+    }
+
+    /**
+     * Creates query for regular expression.
+     *
+     * @return query over trigram index or {@code null} if expression doesn't contain literal fragments that might be looked up in
+     * trigram index
+     */
+    static BooleanQuery planRegex(String regex) {
+        return toQuery(requiredLiterals(regex));
+    }
+
+    static List<String> requiredLiterals(String regex) {
+        final List<String> literals = new ArrayList<>();
+        if (hasTopLevelAlternation(regex) || COMMENTS_FLAG.matcher(regex).find()) {
+            return literals;
+        }
+        final StringBuilder current = new StringBuilder();
+        int i = 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            switch (c) {
+                case '\\':
+                    i = readEscape(regex, i, current, literals);
+                    break;
+                case '[':
+                    flush(current, literals);
+                    i = skipCharacterClass(regex, i);
+                    break;
+                case '(':
+                    flush(current, literals);
+                    i = skipGroup(regex, i);
+                    break;
+                case '?':
+                case '*':
+                case '{':
+                    // previous character is optional
+                    if (current.length() > 0) {
+                        current.setLength(current.offsetByCodePoints(current.length(), -1));
+                    }
+                    flush(current, literals);
+                    i = c == '{' ? skipTo(regex, i, '}') : i + 1;
+                    break;
+                case '+':
+                case '.':
+                case '^':
+                case '$':
+                case ')':
+                case ']':
+                case '}':
+                    flush(current, literals);
+                    i++;
+                    break;
+                default:
+                    current.append(c);
+                    i++;
+            }
+        }
+        flush(current, literals);
+        return literals;
+    }
+
+    /**
+     * Reads escape sequence that starts at {@code start}. Character denoted by escape sequence is appended to the current fragment,
+     * escape sequence that matches anything else than single known character, e.g. predefined or named class, back reference or
+     * boundary, ends the current fragment.
+     *
+     * @return index of the first character after escape sequence
+     */
+    private static int readEscape(String regex, int start, StringBuilder current, List<String> literals) {
+        final int i = start + 1;
+        if (i >= regex.length()) {
+            return i;
+        }
+        final char escaped = regex.charAt(i);
+        switch (escaped) {
+            case 'Q':
+                int end = regex.indexOf("\\E", i + 1);
+                if (end < 0) {
+                    end = regex.length();
+                }
+                current.append(regex, i + 1, end);
+                return end + 2;
+            case 't':
+                current.append('\t');
+                return i + 1;
+            case 'n':
+                current.append('\n');
+                return i + 1;
+            case 'r':
+                current.append('\r');
+                return i + 1;
+            case 'f':
+                current.append('\f');
+                return i + 1;
+            case 'a':
+                current.append('\u0007');
+                return i + 1;
+            case 'e':
+                current.append('\u001B');
+                return i + 1;
+            case 'x':
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '{') {
+                    final int close = regex.indexOf('}', i + 2);
+                    if (close < 0) {
+                        flush(current, literals);
+                        return regex.length();
+                    }
+                    appendCodePoint(regex, i + 2, close, 16, current, literals);
+                    return close + 1;
+                }
+                appendCodePoint(regex, i + 1, i + 3, 16, current, literals);
+                return Math.min(i + 3, regex.length());
+            case 'u':
+                appendCodePoint(regex, i + 1, i + 5, 16, current, literals);
+                return Math.min(i + 5, regex.length());
+            case '0':
+                int octalEnd = i + 1;
+                while (octalEnd < regex.length() && octalEnd < i + 4 && regex.charAt(octalEnd) >= '0' && regex.charAt(octalEnd) <= '7') {
+                    octalEnd++;
+                }
+                // three digits octal value can't be greater than 0377
+                if (octalEnd == i + 4 && regex.charAt(i + 1) > '3') {
+                    octalEnd--;
+                }
+                appendCodePoint(regex, i + 1, octalEnd, 8, current, literals);
+                return octalEnd;
+            case 'c':
+                if (i + 1 >= regex.length()) {
+                    return i + 1;
+                }
+                current.append((char)(regex.charAt(i + 1) ^ 64));
+                return i + 2;
+            case 'k':
+                // named back reference
+                flush(current, literals);
+                return skipTo(regex, i, '>');
+            case 'p':
+            case 'P':
+                // character class by name, either single letter or name in braces
+                flush(current, literals);
+                return i + 1 < regex.length() && regex.charAt(i + 1) == '{' ? skipTo(regex, i, '}') : i + 2;
+            default:
+                if (escaped >= '1' && escaped <= '9') {
+                    // back reference, number of group might have several digits
+                    flush(current, literals);
+                    int next = i + 1;
+                    while (next < regex.length() && Character.isDigit(regex.charAt(next))) {
+                        next++;
+                    }
+                    return next;
+                }
+                if (Character.isLetterOrDigit(escaped)) {
+                    flush(current, literals);
+                } else {
+                    current.append(escaped);
+                }
+                return i + 1;
+        }
+    }
+
+    /** Appends character which code is written in {@code regex} between {@code begin} and {@code end}, malformed code ends the fragment. */
+    private static void appendCodePoint(String regex, int begin, int end, int radix, StringBuilder current, List<String> literals) {
+        try {
+            current.appendCodePoint(Integer.parseInt(regex.substring(begin, end), radix));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            flush(current, literals);
+        }
+    }
+
+    private static BooleanQuery toQuery(List<String> literals) {
+        final Set<String> trigrams = new LinkedHashSet<>();
+        for (String literal : literals) {
+            final String lowerCased = literal.toLowerCase(Locale.ROOT);
+            final int length = lowerCased.codePointCount(0, lowerCased.length());
+            for (int start = 0; start + GRAM_SIZE <= length && trigrams.size() < MAX_TRIGRAMS; start++) {
+                final int begin = lowerCased.offsetByCodePoints(0, start);
+                final int end = lowerCased.offsetByCodePoints(begin, GRAM_SIZE);
+                trigrams.add(lowerCased.substring(begin, end));
+            }
+        }
+        if (trigrams.isEmpty()) {
+            return null;
+        }
+        final BooleanQuery query = new BooleanQuery();
+        for (String trigram : trigrams) {
+            query.add(new TermQuery(new Term(TRIGRAM_FIELD, trigram)), BooleanClause.Occur.MUST);
+        }
+        return query;
+    }
+
+    private static void flush(StringBuilder current, List<String> literals) {
+        if (current.length() > 0) {
+            literals.add(current.toString());
+            current.setLength(0);
+        }
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipCharacterClass(regex, i) - 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns index of the first character after character class that starts at {@code start}. */
+    private static int skipCharacterClass(String regex, int start) {
+        int i = start + 1;
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        int depth = 1;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return regex.length();
+    }
+
+    /** Returns index of the first character after group that starts at {@code start}. */
+    private static int skipGroup(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                i = skipCharacterClass(regex, i);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return regex.length();
+    }
+
+    private static int skipTo(String regex, int start, char c) {
+        final int index = regex.indexOf(c, start);
+        return index < 0 ? regex.length() : index + 1;
+    }
+
+    private TrigramQueryPlanner() {
+    }
+}
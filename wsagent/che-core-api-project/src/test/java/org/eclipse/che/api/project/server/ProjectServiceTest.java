@@ -110,6 +110,7 @@ import static javax.ws.rs.HttpMethod.POST;
 import static javax.ws.rs.HttpMethod.PUT;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+import static org.eclipse.che.api.project.shared.Constants.SEARCH_AFTER_HEADER;
 import static org.eclipse.che.commons.lang.ws.rs.ExtMediaType.APPLICATION_ZIP;
 import static org.everrest.core.ApplicationContext.anApplicationContext;
 import static org.junit.Assert.assertTrue;
@@ -119,6 +120,7 @@ import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertEqualsNoOrder;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 
 /**
  * @author andrew00x
@@ -1840,6 +1842,35 @@ public class ProjectServiceTest {
                             });
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSearchPagesWithCursorFromResponseHeader() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        myProject.getBaseFolder().createFolder("a/b").createFile("test.txt", "test".getBytes());
+        myProject.getBaseFolder().createFolder("x/y").createFile("test.txt", "test".getBytes());
+
+        ContainerResponse response = launcher.service(GET,
+                                                      "http://localhost:8080/api/project/search/my_project?text=test&maxItems=1",
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<ItemReference> firstPage = (List<ItemReference>)response.getEntity();
+        assertEquals(firstPage.size(), 1);
+        String searchAfter = (String)response.getHttpHeaders().getFirst(SEARCH_AFTER_HEADER);
+        assertNotNull(searchAfter);
+
+        response = launcher.service(GET,
+                                    "http://localhost:8080/api/project/search/my_project?text=test&maxItems=1&skipCount=1&searchAfter="
+                                    + searchAfter,
+                                    "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<ItemReference> secondPage = (List<ItemReference>)response.getEntity();
+        assertEquals(secondPage.size(), 1);
+        assertNull(response.getHttpHeaders().getFirst(SEARCH_AFTER_HEADER));
+
+        assertEqualsNoOrder(new String[]{firstPage.get(0).getPath(), secondPage.get(0).getPath()},
+                            new String[]{"/my_project/a/b/test.txt", "/my_project/x/y/test.txt"});
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testSearchFromWSRoot() throws Exception {
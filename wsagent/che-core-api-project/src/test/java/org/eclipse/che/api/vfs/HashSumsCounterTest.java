@@ -27,6 +27,8 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class HashSumsCounterTest {
@@ -45,6 +47,21 @@ public class HashSumsCounterTest {
         assertEquals(expected, hashSums);
     }
 
+    @Test
+    public void doesNotReadFileAgainWhenItsHashSumIsCached() throws Exception {
+        VirtualFile file = mockFile("/a/file", "file1".getBytes());
+        when(file.getLastModificationDate()).thenReturn(1000L);
+        when(file.getLength()).thenReturn(5L);
+        VirtualFile folder = mockFolder("/a", file);
+        HashSumsCache cache = new HashSumsCache(16);
+
+        new HashSumsCounter(folder, Hashing.md5(), cache).countHashSums();
+        Set<Pair<String, String>> hashSums = newHashSet(new HashSumsCounter(folder, Hashing.md5(), cache).countHashSums());
+
+        assertEquals(newHashSet(Pair.of(countMd5Sum("file1".getBytes()), "file")), hashSums);
+        verify(file, times(1)).getContent();
+    }
+
     private String countMd5Sum(byte[] bytes) throws Exception {
         return ByteSource.wrap(bytes).hash(Hashing.md5()).toString();
     }
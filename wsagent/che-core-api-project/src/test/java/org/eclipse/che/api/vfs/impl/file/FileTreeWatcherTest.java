@@ -214,6 +214,30 @@ public class FileTreeWatcherTest {
         assertEquals(deleted, newHashSet(deletedEvents.getAllValues()));
     }
 
+    @Test
+    public void pollsDirectoriesWhenLimitOfWatchesIsReached() throws Exception {
+        fileWatcherTestTree.createDirectory("", "watched");
+        String updatedFile = fileWatcherTestTree.createFile("watched");
+
+        FileWatcherNotificationHandler notificationHandler = aNotificationHandler();
+        fileWatcher = new FileTreeWatcher(testDirectory, newHashSet(), notificationHandler, 1);
+        fileWatcher.startup();
+
+        Thread.sleep(500);
+
+        assertEquals(1, fileWatcher.getPolledDirectoriesCount());
+
+        String createdFile = fileWatcherTestTree.createFile("watched");
+        fileWatcherTestTree.updateFile(updatedFile);
+
+        Thread.sleep(8000);
+
+        verify(notificationHandler, never()).errorOccurred(eq(testDirectory), any(Throwable.class));
+        verify(notificationHandler, never()).handleFileWatcherEvent(eq(DELETED), eq(testDirectory), anyString(), anyBoolean());
+        verify(notificationHandler).handleFileWatcherEvent(eq(CREATED), eq(testDirectory), eq(createdFile), anyBoolean());
+        verify(notificationHandler).handleFileWatcherEvent(eq(MODIFIED), eq(testDirectory), eq(updatedFile), anyBoolean());
+    }
+
     @Test
     public void doesNotWatchExcludedDirectories() throws Exception {
         fileWatcherTestTree.createDirectory("", "excluded");
@@ -356,6 +356,44 @@ public class LocalVirtualFileTest {
         assertEquals(expectedResult, children);
     }
 
+    @Test
+    public void getsChildrenCreatedOutsideOfVirtualFileSystemAfterChildrenWereListed() throws Exception {
+        VirtualFile root = getRoot();
+        VirtualFile folder = root.createFolder(generateFolderName());
+        VirtualFile file1 = folder.createFile(generateFileName(), DEFAULT_CONTENT);
+        long lastModified = System.currentTimeMillis() - 60_000;
+        assertTrue(folder.toIoFile().setLastModified(lastModified));
+
+        assertEquals(newArrayList(file1), folder.getChildren());
+
+        String name = generateFileName();
+        assertTrue(new File(folder.toIoFile(), name).createNewFile());
+
+        List<VirtualFile> expectedResult = newArrayList(file1, folder.getChild(Path.of(name)));
+        Collections.sort(expectedResult);
+        assertEquals(expectedResult, folder.getChildren());
+    }
+
+    @Test
+    public void getsChildrenAfterCachedChildrenWereInvalidated() throws Exception {
+        VirtualFile root = getRoot();
+        VirtualFile folder = root.createFolder(generateFolderName());
+        VirtualFile file1 = folder.createFile(generateFileName(), DEFAULT_CONTENT);
+        long lastModified = System.currentTimeMillis() - 60_000;
+        assertTrue(folder.toIoFile().setLastModified(lastModified));
+
+        assertEquals(newArrayList(file1), folder.getChildren());
+
+        String name = generateFileName();
+        assertTrue(new File(folder.toIoFile(), name).createNewFile());
+        assertTrue(folder.toIoFile().setLastModified(lastModified));
+        fileSystem.invalidateChildrenCache(folder.getPath());
+
+        List<VirtualFile> expectedResult = newArrayList(file1, folder.getChild(Path.of(name)));
+        Collections.sort(expectedResult);
+        assertEquals(expectedResult, folder.getChildren());
+    }
+
     @Test
     public void getsChild() throws Exception {
         VirtualFile root = getRoot();
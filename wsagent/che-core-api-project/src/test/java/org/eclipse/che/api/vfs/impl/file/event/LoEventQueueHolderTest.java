@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file.event;
+
+import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static java.lang.System.currentTimeMillis;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.CREATED;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
+import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.ItemType.FILE;
+import static org.eclipse.che.api.vfs.impl.file.event.LoEvent.newInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test for {@link LoEventQueueHolder}
+ *
+ * @since 4.5
+ */
+public class LoEventQueueHolderTest {
+    private static final String PATH = "/folder/file";
+
+    private LoEventQueueHolder loEventQueueHolder;
+
+    @Before
+    public void setUp() throws Exception {
+        loEventQueueHolder = new LoEventQueueHolder();
+    }
+
+    @Test
+    public void shouldCoalesceDuplicatedEventsWhileTheyAreQueued() throws Exception {
+        final LoEvent first = getLoEvent(PATH, MODIFIED);
+        loEventQueueHolder.put(first);
+        loEventQueueHolder.put(getLoEvent(PATH, MODIFIED));
+        loEventQueueHolder.put(getLoEvent(PATH, MODIFIED));
+
+        assertEquals(1, loEventQueueHolder.size());
+        assertEquals(2, loEventQueueHolder.getCoalescedEventsCount());
+        assertSame(first, loEventQueueHolder.poll(0).get());
+    }
+
+    @Test
+    public void shouldNotCoalesceEventsOfDifferentTypes() throws Exception {
+        final LoEvent created = getLoEvent(PATH, CREATED);
+        final LoEvent modified = getLoEvent(PATH, MODIFIED);
+        loEventQueueHolder.put(created);
+        loEventQueueHolder.put(modified);
+        loEventQueueHolder.put(getLoEvent(PATH, MODIFIED));
+
+        assertEquals(2, loEventQueueHolder.size());
+        assertSame(created, loEventQueueHolder.poll(0).get());
+        assertSame(modified, loEventQueueHolder.poll(0).get());
+    }
+
+    @Test
+    public void shouldNotCoalesceEventWithAlreadyPolledEvent() throws Exception {
+        loEventQueueHolder.put(getLoEvent(PATH, MODIFIED));
+        loEventQueueHolder.poll(0);
+
+        final LoEvent second = getLoEvent(PATH, MODIFIED);
+        loEventQueueHolder.put(second);
+
+        assertSame(second, loEventQueueHolder.poll(0).get());
+        final Optional<LoEvent> empty = loEventQueueHolder.poll(0);
+        assertFalse(empty.isPresent());
+    }
+
+    private LoEvent getLoEvent(String path, FileWatcherEventType type) {
+        return newInstance().withName("file")
+                            .withPath(path)
+                            .withEventType(type)
+                            .withItemType(FILE)
+                            .withTime(currentTimeMillis());
+    }
+}
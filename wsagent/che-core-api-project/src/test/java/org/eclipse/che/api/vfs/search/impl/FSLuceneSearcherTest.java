@@ -84,6 +84,28 @@ public class FSLuceneSearcherTest {
         assertEquals(newArrayList("/folder/zzz.txt"), paths);
     }
 
+    @Test
+    public void reconcilesExistedIndexWithVirtualFileSystemWhenSearcherIsReopened() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        VirtualFile updated = folder.createFile("xxx.txt", TEST_CONTENT[2]);
+        VirtualFile deleted = folder.createFile("yyy.txt", TEST_CONTENT[1]);
+        folder.createFile("zzz.txt", TEST_CONTENT[0]);
+        searcher.init(virtualFileSystem);
+        searcher.close();
+
+        updated.updateContent(TEST_CONTENT[3]);
+        deleted.delete();
+        folder.createFile("www.txt", TEST_CONTENT[2]);
+        searcher = new FSLuceneSearcher(indexDirectory, filter, closeCallback);
+        searcher.init(virtualFileSystem);
+
+        assertEquals(newArrayList("/folder/www.txt"), searcher.search(new QueryExpression().setText("be")).getFilePaths());
+        assertEquals(newArrayList("/folder/xxx.txt"), searcher.search(new QueryExpression().setText("mission")).getFilePaths());
+        assertEquals(newArrayList("/folder/zzz.txt"), searcher.search(new QueryExpression().setText("spaceflight")).getFilePaths());
+        assertTrue(searcher.search(new QueryExpression().setText("think")).getFilePaths().isEmpty());
+    }
+
     @Test
     public void addsSingleFileInIndex() throws Exception {
         VirtualFileSystem virtualFileSystem = virtualFileSystem();
@@ -18,6 +18,7 @@ import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.impl.memory.MemoryVirtualFileSystem;
 import org.eclipse.che.api.vfs.search.QueryExpression;
+import org.eclipse.che.api.vfs.search.SearchOccurrence;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.junit.After;
 import org.junit.Before;
@@ -30,6 +31,7 @@ import java.util.List;
 import static com.google.common.collect.Lists.newArrayList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.argThat;
@@ -74,6 +76,21 @@ public class MemoryLuceneSearcherTest {
         assertEquals(newArrayList("/folder/zzz.txt"), paths);
     }
 
+    @Test
+    public void initializesIndexForLargeTreeInParallel() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 20; i++) {
+            VirtualFile folder = virtualFileSystem.getRoot().createFolder(String.format("folder%02d/sub", i));
+            for (int j = 0; j < 100; j++) {
+                folder.createFile(String.format("file%03d", j), TEST_CONTENT[j % TEST_CONTENT.length]);
+            }
+        }
+        searcher.init(virtualFileSystem);
+
+        assertEquals(500, searcher.search(new QueryExpression().setText("think")).getTotalHits());
+        assertEquals(2000, searcher.search(new QueryExpression().setPath("/folder")).getTotalHits());
+    }
+
     @Test
     public void addsSingleFileInIndex() throws Exception {
         VirtualFileSystem virtualFileSystem = virtualFileSystem();
@@ -194,6 +211,165 @@ public class MemoryLuceneSearcherTest {
         assertEquals(newArrayList("/folder1/a/b/xxx.txt"), paths);
     }
 
+    @Test
+    public void providesMatchedLinesWhenOccurrencesRequested() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[0] + "\n" + TEST_CONTENT[2] + "\n" + TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("be").setIncludeOccurrences(true));
+
+        List<SearchOccurrence> occurrences = result.getResults().get(0).getOccurrences();
+        assertEquals(2, occurrences.size());
+        assertEquals(2, occurrences.get(0).getLineNumber());
+        assertEquals(TEST_CONTENT[2], occurrences.get(0).getLineContent());
+        assertEquals(3, occurrences.get(0).getStartOffset());
+        assertEquals(5, occurrences.get(0).getEndOffset());
+        assertEquals(16, occurrences.get(1).getStartOffset());
+        assertEquals("be", occurrences.get(1).getPhrase());
+    }
+
+    @Test
+    public void doesNotProvideOccurrencesWhenTheyAreNotRequested() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        virtualFileSystem.getRoot().createFolder("folder").createFile("xxx.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setText("be"));
+
+        assertTrue(result.getResults().get(0).getOccurrences().isEmpty());
+    }
+
+    @Test
+    public void searchesBySubstringWithTrigramIndex() throws Exception {
+        searcher = new MemoryLuceneSearcher(filter, closeCallback, true, 0);
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[0]);
+        folder.createFile("yyy.txt", TEST_CONTENT[3]);
+        folder.createFile("zzz.txt", TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = searcher.search(new QueryExpression().setSubstring("ceflight mile")).getFilePaths();
+        assertEquals(newArrayList("/folder/xxx.txt"), paths);
+        paths = searcher.search(new QueryExpression().setSubstring("ink tw")).getFilePaths();
+        assertEquals(newArrayList("/folder/zzz.txt"), paths);
+    }
+
+    @Test
+    public void searchesByRegexWithTrigramIndex() throws Exception {
+        searcher = new MemoryLuceneSearcher(filter, closeCallback, true, 0);
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[0]);
+        folder.createFile("yyy.txt", TEST_CONTENT[3]);
+        folder.createFile("zzz.txt", TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setRegex("In early \\d{4}").setIncludeOccurrences(true));
+
+        assertEquals(newArrayList("/folder/yyy.txt"), result.getFilePaths());
+        assertEquals("In early 1961", result.getResults().get(0).getOccurrences().get(0).getPhrase());
+    }
+
+    @Test
+    public void searchesByRegexWithoutTrigramIndex() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[0]);
+        folder.createFile("yyy.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = searcher.search(new QueryExpression().setRegex("(be|set) or")).getFilePaths();
+        assertEquals(newArrayList("/folder/yyy.txt"), paths);
+    }
+
+    @Test
+    public void pagesThroughRegexSearchResultWithCursor() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[2]);
+        folder.createFile("yyy.txt", TEST_CONTENT[0]);
+        folder.createFile("zzz.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult firstPage = searcher.search(new QueryExpression().setRegex("(be|set) or").setMaxItems(1));
+        assertEquals(1, firstPage.getFilePaths().size());
+        assertNotNull(firstPage.getNextPageQueryExpression().get().getSearchAfter());
+
+        SearchResult secondPage = searcher.search(firstPage.getNextPageQueryExpression().get());
+        assertEquals(1, secondPage.getFilePaths().size());
+
+        List<String> paths = newArrayList(firstPage.getFilePaths());
+        paths.addAll(secondPage.getFilePaths());
+        Collections.sort(paths);
+        assertEquals(newArrayList("/folder/xxx.txt", "/folder/zzz.txt"), paths);
+        if (secondPage.getNextPageQueryExpression().isPresent()) {
+            assertTrue(searcher.search(secondPage.getNextPageQueryExpression().get()).getFilePaths().isEmpty());
+        }
+    }
+
+    @Test
+    public void findsMatchesOfRegexAfterManyCandidatesThatDoNotMatch() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        for (int i = 0; i < 6000; i++) {
+            folder.createFile(String.format("file%04d", i), TEST_CONTENT[1]);
+        }
+        searcher.init(virtualFileSystem);
+        // added after initialization, so they are the last candidates
+        searcher.add(folder.createFile("xxx.txt", TEST_CONTENT[2]));
+        searcher.add(folder.createFile("zzz.txt", TEST_CONTENT[2]));
+
+        SearchResult firstPage = searcher.search(new QueryExpression().setRegex("(be|set) or").setMaxItems(1));
+        assertEquals(newArrayList("/folder/xxx.txt"), firstPage.getFilePaths());
+
+        SearchResult secondPage = searcher.search(firstPage.getNextPageQueryExpression().get());
+        assertEquals(newArrayList("/folder/zzz.txt"), secondPage.getFilePaths());
+        assertFalse(secondPage.getNextPageQueryExpression().isPresent());
+    }
+
+    @Test
+    public void queuesChangesOfFilesAndAppliesThemInBatch() throws Exception {
+        searcher = new MemoryLuceneSearcher(filter, closeCallback, false, 60000);
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile file = virtualFileSystem.getRoot().createFolder("aaa").createFile("aaa.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+
+        file.updateContent(TEST_CONTENT[1]);
+        searcher.update(file);
+        VirtualFile newFile = virtualFileSystem.getRoot().createFolder("bbb").createFile("bbb.txt", TEST_CONTENT[1]);
+        searcher.add(newFile);
+        searcher.delete("/bbb", false);
+
+        assertEquals(newArrayList("/aaa/aaa.txt"), searcher.search(new QueryExpression().setText("be")).getFilePaths());
+        assertTrue(searcher.search(new QueryExpression().setText("should")).getFilePaths().isEmpty());
+
+        searcher.applyPendingUpdates();
+
+        assertTrue(searcher.search(new QueryExpression().setText("be")).getFilePaths().isEmpty());
+        assertEquals(newArrayList("/aaa/aaa.txt"), searcher.search(new QueryExpression().setText("should")).getFilePaths());
+    }
+
+    @Test
+    public void keepsQueuedDeletionOfFolderWhenFolderIsAddedAgain() throws Exception {
+        searcher = new MemoryLuceneSearcher(filter, closeCallback, false, 60000);
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("aaa");
+        folder.createFile("aaa.txt", TEST_CONTENT[1]);
+        VirtualFile deletedFile = folder.createFile("bbb.txt", TEST_CONTENT[2]);
+        searcher.init(virtualFileSystem);
+
+        deletedFile.delete();
+        searcher.delete("/aaa", false);
+        searcher.add(folder);
+        searcher.applyPendingUpdates();
+
+        assertTrue(searcher.search(new QueryExpression().setText("be")).getFilePaths().isEmpty());
+        assertEquals(newArrayList("/aaa/aaa.txt"), searcher.search(new QueryExpression().setText("should")).getFilePaths());
+    }
+
     @Test
     public void closesLuceneIndexWriterWhenSearcherClosed() throws Exception {
         VirtualFileSystem virtualFileSystem = virtualFileSystem();
@@ -284,6 +460,57 @@ public class MemoryLuceneSearcherTest {
         assertTrue(Collections.disjoint(firstPage.getFilePaths(), lastPage.getFilePaths()));
     }
 
+    @Test
+    public void providesNextPageWhenOnlyOneResultIsLeft() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[1]);
+        folder.createFile("zzz.txt", TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+
+        SearchResult firstPage = searcher.search(new QueryExpression().setText("think").setMaxItems(1));
+        assertEquals(1, firstPage.getFilePaths().size());
+
+        SearchResult lastPage = searcher.search(firstPage.getNextPageQueryExpression().get());
+        assertEquals(1, lastPage.getFilePaths().size());
+        assertFalse(lastPage.getNextPageQueryExpression().isPresent());
+        assertTrue(Collections.disjoint(firstPage.getFilePaths(), lastPage.getFilePaths()));
+    }
+
+    @Test
+    public void providesCursorForRetrievingNextPageOfResults() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 100; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), TEST_CONTENT[i % TEST_CONTENT.length]);
+        }
+        searcher.init(virtualFileSystem);
+
+        SearchResult firstPage = searcher.search(new QueryExpression().setText("spaceflight").setMaxItems(8));
+        QueryExpression nextPageQueryExpression = firstPage.getNextPageQueryExpression().get();
+        assertNotNull(nextPageQueryExpression.getSearchAfter());
+
+        SearchResult secondPage = searcher.search(nextPageQueryExpression);
+        SearchResult secondPageWithSkip = searcher.search(nextPageQueryExpression.setSearchAfter(null));
+        assertEquals(secondPageWithSkip.getFilePaths(), secondPage.getFilePaths());
+        assertTrue(Collections.disjoint(firstPage.getFilePaths(), secondPage.getFilePaths()));
+    }
+
+    @Test
+    public void ignoresCursorIssuedBeforeIndexWasChanged() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 100; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), TEST_CONTENT[i % TEST_CONTENT.length]);
+        }
+        searcher.init(virtualFileSystem);
+
+        SearchResult firstPage = searcher.search(new QueryExpression().setText("spaceflight").setMaxItems(8));
+        QueryExpression nextPageQueryExpression = firstPage.getNextPageQueryExpression().get();
+        searcher.delete("/file00", true);
+
+        SearchResult secondPage = searcher.search(nextPageQueryExpression.setMaxItems(100));
+        assertEquals(16, secondPage.getFilePaths().size());
+    }
+
     private VirtualFileSystem virtualFileSystem() throws Exception {
         return new MemoryVirtualFileSystem(mock(ArchiverFactory.class), null);
     }
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import org.junit.Test;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TrigramQueryPlannerTest {
+    @Test
+    public void extractsLiteralFragmentsFromRegex() {
+        assertEquals(newArrayList("get", "()", "{"), TrigramQueryPlanner.requiredLiterals("get(Name|Id)\\(\\)\\s*\\{"));
+    }
+
+    @Test
+    public void excludesOptionalCharactersFromLiteralFragments() {
+        assertEquals(newArrayList("colo", "r"), TrigramQueryPlanner.requiredLiterals("colou?r"));
+        assertEquals(newArrayList("ab", "c"), TrigramQueryPlanner.requiredLiterals("ab+c"));
+        assertEquals(newArrayList("fo", "bar"), TrigramQueryPlanner.requiredLiterals("foo{0,2}bar"));
+    }
+
+    @Test
+    public void skipsCharacterClasses() {
+        assertEquals(newArrayList("item", "Count"), TrigramQueryPlanner.requiredLiterals("item[0-9\\]]Count"));
+    }
+
+    @Test
+    public void keepsQuotedLiterals() {
+        assertEquals(newArrayList("a.b*c"), TrigramQueryPlanner.requiredLiterals("\\Qa.b*c\\E"));
+    }
+
+    @Test
+    public void decodesHexadecimalEscapes() {
+        assertEquals(newArrayList("fooAbar"), TrigramQueryPlanner.requiredLiterals("foo\\x41bar"));
+        assertEquals(newArrayList("fooAbar"), TrigramQueryPlanner.requiredLiterals("foo\\x{41}bar"));
+        assertEquals(newArrayList("foo\uD83D\uDE00bar"), TrigramQueryPlanner.requiredLiterals("foo\\x{1F600}bar"));
+    }
+
+    @Test
+    public void decodesUnicodeEscapes() {
+        assertEquals(newArrayList("fooAbar"), TrigramQueryPlanner.requiredLiterals("foo\\u0041bar"));
+    }
+
+    @Test
+    public void decodesOctalEscapes() {
+        assertEquals(newArrayList("fooAbar"), TrigramQueryPlanner.requiredLiterals("foo\\0101bar"));
+        assertEquals(newArrayList("foo 0bar"), TrigramQueryPlanner.requiredLiterals("foo\\0400bar"));
+        assertEquals(newArrayList("foo\u0007bar"), TrigramQueryPlanner.requiredLiterals("foo\\07bar"));
+    }
+
+    @Test
+    public void decodesControlCharacterEscapes() {
+        assertEquals(newArrayList("foo\nbar"), TrigramQueryPlanner.requiredLiterals("foo\\cJbar"));
+        assertEquals(newArrayList("foo\tbar"), TrigramQueryPlanner.requiredLiterals("foo\\tbar"));
+    }
+
+    @Test
+    public void endsLiteralFragmentAtBackReferences() {
+        assertEquals(newArrayList("def"), TrigramQueryPlanner.requiredLiterals("(?<word>abc)\\k<word>def"));
+        assertEquals(newArrayList("def"), TrigramQueryPlanner.requiredLiterals("(a)(b)(c)(d)(e)(f)(g)(h)(i)(j)\\10def"));
+    }
+
+    @Test
+    public void endsLiteralFragmentAtNamedCharacterClasses() {
+        assertEquals(newArrayList("foo", "bar"), TrigramQueryPlanner.requiredLiterals("foo\\p{Alpha}bar"));
+        assertEquals(newArrayList("foo", "bar"), TrigramQueryPlanner.requiredLiterals("foo\\pLbar"));
+    }
+
+    @Test
+    public void excludesOptionalEscapedCharactersFromLiteralFragments() {
+        assertEquals(newArrayList("colo", "r"), TrigramQueryPlanner.requiredLiterals("colo\\x75?r"));
+        assertEquals(newArrayList("abc", "d"), TrigramQueryPlanner.requiredLiterals("abc\\x{1F600}?d"));
+    }
+
+    @Test
+    public void doesNotExtractLiteralsFromRegexWithTopLevelAlternation() {
+        assertTrue(TrigramQueryPlanner.requiredLiterals("foo|bar").isEmpty());
+    }
+
+    @Test
+    public void doesNotCreateQueryForShortLiterals() {
+        assertNull(TrigramQueryPlanner.planLiteral("ab"));
+        assertNull(TrigramQueryPlanner.planRegex("a.b.c"));
+    }
+
+    @Test
+    public void createsQueryWithAllTrigramsOfLiteral() {
+        assertEquals(3, TrigramQueryPlanner.planLiteral("Hello").clauses().size());
+    }
+}
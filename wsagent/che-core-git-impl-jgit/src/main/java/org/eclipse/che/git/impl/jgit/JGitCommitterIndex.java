@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.git.shared.GitUser;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+
+/**
+ * Index of committers of repositories.
+ *
+ * <p>Committers of all commits reachable from HEAD are collected once and remembered together with the commit HEAD pointed
+ * to. When HEAD moves forward only new commits are walked, the whole history is walked again only when HEAD is moved to
+ * commit which is not a descendant of the indexed one, e.g. after reset or checkout of another branch.
+ */
+@Singleton
+public class JGitCommitterIndex {
+    private static final int DEFAULT_MAX_SIZE = 64;
+
+    private final int              maxSize;
+    private final Map<File, Entry> entries;
+
+    public JGitCommitterIndex() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public JGitCommitterIndex(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns committers of commits reachable from HEAD, the most recent committers go first. Returns empty list when
+     * repository has no commits yet.
+     *
+     * @throws IOException
+     *         if repository can't be read
+     */
+    public List<GitUser> getCommitters(Repository repository) throws IOException {
+        final ObjectId head = repository.resolve(Constants.HEAD);
+        if (head == null) {
+            return new ArrayList<>();
+        }
+        final Entry entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(repository.getDirectory().getAbsoluteFile(), key -> new Entry());
+            if (entries.size() > maxSize) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+        synchronized (entry) {
+            if (!head.equals(entry.tip)) {
+                entry.update(repository, head);
+            }
+            final List<GitUser> gitUsers = new ArrayList<>(entry.committers.size());
+            for (Committer committer : entry.committers) {
+                gitUsers.add(newDto(GitUser.class).withName(committer.name).withEmail(committer.email));
+            }
+            return gitUsers;
+        }
+    }
+
+    private static class Entry {
+        ObjectId       tip;
+        Set<Committer> committers = new LinkedHashSet<>();
+
+        void update(Repository repository, ObjectId head) throws IOException {
+            final boolean incremental = tip != null && isAncestor(repository, tip, head);
+            final Set<Committer> found = new LinkedHashSet<>();
+            try (RevWalk walk = new RevWalk(repository)) {
+                walk.markStart(walk.parseCommit(head));
+                if (incremental) {
+                    walk.markUninteresting(walk.parseCommit(tip));
+                }
+                for (RevCommit commit : walk) {
+                    found.add(new Committer(commit.getCommitterIdent()));
+                }
+            }
+            if (incremental) {
+                found.addAll(committers);
+            }
+            committers = found;
+            tip = head.copy();
+        }
+
+        private static boolean isAncestor(Repository repository, ObjectId ancestor, ObjectId commit) throws IOException {
+            try (RevWalk walk = new RevWalk(repository)) {
+                return walk.isMergedInto(walk.parseCommit(ancestor), walk.parseCommit(commit));
+            } catch (MissingObjectException e) {
+                // indexed commit was pruned
+                return false;
+            }
+        }
+    }
+
+    private static class Committer {
+        final String name;
+        final String email;
+
+        Committer(PersonIdent ident) {
+            this.name = ident.getName();
+            this.email = ident.getEmailAddress();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Committer)) {
+                return false;
+            }
+            final Committer other = (Committer)obj;
+            return Objects.equals(name, other.name) && Objects.equals(email, other.email);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, email);
+        }
+    }
+}
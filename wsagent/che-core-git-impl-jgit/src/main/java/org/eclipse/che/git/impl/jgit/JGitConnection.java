@@ -50,6 +50,7 @@ import org.eclipse.che.api.git.shared.CommitRequest;
 import org.eclipse.che.api.git.shared.DiffRequest;
 import org.eclipse.che.api.git.shared.FetchRequest;
 import org.eclipse.che.api.git.shared.GitUser;
+import org.eclipse.che.api.git.shared.HeadInfo;
 import org.eclipse.che.api.git.shared.InitRequest;
 import org.eclipse.che.api.git.shared.LogRequest;
 import org.eclipse.che.api.git.shared.LsFilesRequest;
@@ -112,6 +113,7 @@ import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.dircache.DirCache;
 import org.eclipse.jgit.lib.BatchingProgressMonitor;
+import org.eclipse.jgit.lib.BranchTrackingStatus;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
@@ -130,6 +132,8 @@ import org.eclipse.jgit.revwalk.RevObject;
 import org.eclipse.jgit.revwalk.RevTag;
 import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.CommitTimeRevFilter;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.transport.FetchResult;
 import org.eclipse.jgit.transport.JschConfigSessionFactory;
 import org.eclipse.jgit.transport.OpenSshConfig;
@@ -247,15 +251,27 @@ class JGitConnection implements GitConnection {
     private JGitConfigImpl      config;
     private LineConsumerFactory lineConsumerFactory;
 
-    private final CredentialsLoader credentialsLoader;
-    private final SshKeyProvider    sshKeyProvider;
-    private final GitUserResolver   userResolver;
-    private final Repository        repository;
+    private final CredentialsLoader  credentialsLoader;
+    private final SshKeyProvider     sshKeyProvider;
+    private final GitUserResolver    userResolver;
+    private final Repository         repository;
+    private final JGitStatusCache    statusCache;
+    private final JGitCommitterIndex committerIndex;
 
+    /**
+     * @param statusCache
+     *         cache that keeps status of working tree between connections, may be {@code null} then working tree is
+     *         scanned on every status request
+     * @param committerIndex
+     *         index of committers shared between connections, may be {@code null} then whole history is walked on every
+     *         request of committers
+     */
     @Inject
     JGitConnection(Repository repository, CredentialsLoader credentialsLoader, SshKeyProvider sshKeyProvider,
-                   GitUserResolver userResolver) {
+                   GitUserResolver userResolver, JGitStatusCache statusCache, JGitCommitterIndex committerIndex) {
         this.repository = repository;
+        this.statusCache = statusCache;
+        this.committerIndex = committerIndex;
         this.credentialsLoader = credentialsLoader;
         this.sshKeyProvider = sshKeyProvider;
         this.userResolver = userResolver;
@@ -608,6 +624,8 @@ class JGitConnection implements GitConnection {
 
     @Override
     public DiffPage diff(DiffRequest request) throws GitException {
+        // diff is written after connection is closed, page holds its own reference to repository
+        repository.incrementOpen();
         return new JGitDiffPage(request, repository);
     }
 
@@ -738,11 +756,23 @@ class JGitConnection implements GitConnection {
 
             request.getFileFilter().forEach(logCommand::addPath);
 
+            RevFilter timeFilter = createTimeFilter(request.getSinceTime(), request.getUntilTime());
+            if (timeFilter != null) {
+                logCommand.setRevFilter(timeFilter);
+            }
+
+            // commits are produced by walk lazily, so walk stops as soon as page is filled
             Iterator<RevCommit> revIterator = logCommand.call().iterator();
             List<Revision> commits = new ArrayList<>();
+            int skip = request.getSkip();
+            int maxCount = request.getMaxCount();
 
-            while (revIterator.hasNext()) {
+            while (revIterator.hasNext() && (maxCount <= 0 || commits.size() < maxCount)) {
                 RevCommit commit = revIterator.next();
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
                 PersonIdent committerIdentity = commit.getCommitterIdent();
 
                 GitUser gitUser = newDto(GitUser.class).withName(committerIdentity.getName())
@@ -776,24 +806,24 @@ class JGitConnection implements GitConnection {
         }
     }
 
+    private static RevFilter createTimeFilter(long sinceTime, long untilTime) {
+        if (sinceTime > 0 && untilTime > 0) {
+            return CommitTimeRevFilter.between(sinceTime, untilTime);
+        } else if (sinceTime > 0) {
+            return CommitTimeRevFilter.after(sinceTime);
+        } else if (untilTime > 0) {
+            return CommitTimeRevFilter.before(untilTime);
+        }
+        return null;
+    }
+
     @Override
     public List<GitUser> getCommiters() throws GitException {
-        List<GitUser> gitUsers = new ArrayList<>();
         try {
-            LogCommand logCommand = getGit().log();
-            for (RevCommit commit : logCommand.call()) {
-                PersonIdent committerIdentity = commit.getCommitterIdent();
-                GitUser gitUser = newDto(GitUser.class).withName(committerIdentity.getName())
-                                                       .withEmail(committerIdentity.getEmailAddress());
-                if (!gitUsers.contains(gitUser)) {
-                    gitUsers.add(gitUser);
-                }
-            }
-        } catch (GitAPIException exception) {
+            return (committerIndex != null ? committerIndex : new JGitCommitterIndex(1)).getCommitters(repository);
+        } catch (IOException exception) {
             throw new GitException(exception.getMessage(), exception);
         }
-
-        return gitUsers;
     }
 
     @Override
@@ -1389,9 +1419,40 @@ class JGitConnection implements GitConnection {
             throw new GitException("Not a git repository");
         }
         String branchName = getCurrentBranch();
+        if (statusCache != null) {
+            return statusCache.getStatus(repository, branchName, format);
+        }
         return new JGitStatusImpl(branchName, getGit().status(), format);
     }
 
+    @Override
+    public HeadInfo getHeadInfo() throws GitException {
+        try {
+            HeadInfo headInfo = newDto(HeadInfo.class);
+            Ref head = repository.exactRef(Constants.HEAD);
+            if (head == null) {
+                return headInfo;
+            }
+            if (head.getObjectId() != null) {
+                headInfo.withCommitId(head.getObjectId().getName());
+            }
+            if (!head.isSymbolic()) {
+                return headInfo.withDetached(true);
+            }
+            String branchName = Repository.shortenRefName(head.getTarget().getName());
+            headInfo.withBranch(branchName);
+            BranchTrackingStatus trackingStatus = BranchTrackingStatus.of(repository, branchName);
+            if (trackingStatus != null) {
+                headInfo.withTrackingBranch(Repository.shortenRefName(trackingStatus.getRemoteTrackingBranch()))
+                        .withAheadCount(trackingStatus.getAheadCount())
+                        .withBehindCount(trackingStatus.getBehindCount());
+            }
+            return headInfo;
+        } catch (IOException exception) {
+            throw new GitException(exception.getMessage(), exception);
+        }
+    }
+
     @Override
     public Tag tagCreate(TagCreateRequest request) throws GitException {
         String commit = request.getCommit();
@@ -1706,7 +1767,8 @@ class JGitConnection implements GitConnection {
         return repository;
     }
 
-    private String getCurrentBranch() throws GitException {
+    @Override
+    public String getCurrentBranch() throws GitException {
         try {
             return Repository.shortenRefName(repository.exactRef(Constants.HEAD).getLeaf().getName());
         } catch (IOException exception) {
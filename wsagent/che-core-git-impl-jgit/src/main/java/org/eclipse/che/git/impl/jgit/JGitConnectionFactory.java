@@ -17,8 +17,6 @@ import org.eclipse.che.api.git.GitConnectionFactory;
 import org.eclipse.che.api.git.exception.GitException;
 import org.eclipse.che.api.git.GitUserResolver;
 import org.eclipse.che.plugin.ssh.key.script.SshKeyProvider;
-import org.eclipse.jgit.internal.storage.file.FileRepository;
-import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.transport.UserAgent;
 
@@ -28,12 +26,13 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import java.io.File;
-import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 
 /**
- * JGit implementation for GitConnectionFactory
+ * JGit implementation for GitConnectionFactory. Connections to the same repository share {@link Repository} instance,
+ * see {@link JGitRepositoryCache}.
+ * Status of working tree is updated incrementally by {@link JGitStatusCache} when factory is created by injector.
  * 
  * @author Tareq Sharafy (tareq.sha@gmail.com)
  */
@@ -41,12 +40,27 @@ public class JGitConnectionFactory extends GitConnectionFactory {
 
     private static final String USER_AGENT = "git/2.1.0";
 
-    private final CredentialsLoader credentialsLoader;
-    private final SshKeyProvider    sshKeyProvider;
-    private final GitUserResolver   userResolver;
+    private final CredentialsLoader   credentialsLoader;
+    private final SshKeyProvider      sshKeyProvider;
+    private final GitUserResolver     userResolver;
+    private final JGitRepositoryCache repositoryCache;
+    private final JGitStatusCache     statusCache;
+    private final JGitCommitterIndex  committerIndex;
 
-    @Inject
     public JGitConnectionFactory(CredentialsLoader credentialsLoader, SshKeyProvider sshKeyProvider, GitUserResolver userResolver) throws GitException {
+        this(credentialsLoader, sshKeyProvider, userResolver, new JGitRepositoryCache(), null, new JGitCommitterIndex());
+    }
+
+    @Inject
+    public JGitConnectionFactory(CredentialsLoader credentialsLoader,
+                                 SshKeyProvider sshKeyProvider,
+                                 GitUserResolver userResolver,
+                                 JGitRepositoryCache repositoryCache,
+                                 JGitStatusCache statusCache,
+                                 JGitCommitterIndex committerIndex) throws GitException {
+        this.repositoryCache = repositoryCache;
+        this.statusCache = statusCache;
+        this.committerIndex = committerIndex;
         this.credentialsLoader = credentialsLoader;
         this.sshKeyProvider = sshKeyProvider;
         this.userResolver = userResolver;
@@ -78,20 +92,13 @@ public class JGitConnectionFactory extends GitConnectionFactory {
 
     @Override
     public JGitConnection getConnection(File workDir, LineConsumerFactory outputPublisherFactory) throws GitException {
-        Repository gitRepo = createRepository(workDir);
-        JGitConnection conn = new JGitConnection(gitRepo, credentialsLoader, sshKeyProvider, userResolver);
+        Repository gitRepo = repositoryCache.acquire(workDir);
+        JGitConnection conn = new JGitConnection(gitRepo, credentialsLoader, sshKeyProvider, userResolver, statusCache,
+                                                 committerIndex);
         conn.setOutputLineConsumerFactory(outputPublisherFactory);
         return conn;
     }
 
-    private static Repository createRepository(File workDir) throws GitException {
-        try {
-            return new FileRepository(new File(workDir, Constants.DOT_GIT));
-        } catch (IOException e) {
-            throw new GitException(e.getMessage(), e);
-        }
-    }
-
     @Override
     public CredentialsLoader getCredentialsLoader() {
         return credentialsLoader;
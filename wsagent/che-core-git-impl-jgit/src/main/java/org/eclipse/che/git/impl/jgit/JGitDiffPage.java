@@ -21,7 +21,9 @@ import org.eclipse.jgit.diff.DiffFormatter;
 import org.eclipse.jgit.diff.RenameDetector;
 import org.eclipse.jgit.dircache.DirCache;
 import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.AbbreviatedObjectId;
 import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectReader;
@@ -36,6 +38,7 @@ import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
@@ -51,9 +54,16 @@ import static java.lang.System.lineSeparator;
  * @author Andrey Parfonov
  */
 class JGitDiffPage extends DiffPage {
+    /** Default size of file which content is not read to show difference. */
+    static final int DEFAULT_BIG_FILE_THRESHOLD = 10 * 1024 * 1024;
+
     private final DiffRequest request;
     private final Repository  repository;
 
+    /**
+     * @param repository
+     *         repository to read difference from, page takes ownership of it and closes it when difference is written
+     */
     JGitDiffPage(DiffRequest request, Repository repository) {
         this.request = request;
         this.repository = repository;
@@ -61,7 +71,9 @@ class JGitDiffPage extends DiffPage {
 
     @Override
     public final void writeTo(OutputStream out) throws IOException {
-        DiffFormatter formatter = new DiffFormatter(new BufferedOutputStream(out));
+        BufferedOutputStream bufferedOut = new BufferedOutputStream(out);
+        LimitedOutputStream fileDiffOut = new LimitedOutputStream(bufferedOut);
+        DiffFormatter formatter = new DiffFormatter(fileDiffOut);
         formatter.setRepository(repository);
         List<String> rawFileFilter = request.getFileFilter();
         TreeFilter pathFilter = (rawFileFilter != null && rawFileFilter.size() > 0)
@@ -84,13 +96,15 @@ class JGitDiffPage extends DiffPage {
                 diff = commitToCommit(commitA, commitB, formatter);
             }
 
+            diff = page(diff);
+
             DiffType type = request.getType();
             if (type == DiffType.NAME_ONLY) {
                 writeNames(diff, out);
             } else if (type == DiffType.NAME_STATUS) {
                 writeNamesAndStatus(diff, out);
             } else {
-                writeRawDiff(diff, formatter);
+                writeRawDiff(diff, formatter, fileDiffOut, bufferedOut);
             }
         } finally {
             formatter.close();
@@ -292,16 +306,79 @@ class JGitDiffPage extends DiffPage {
         return renameDetector;
     }
 
-    private void writeRawDiff(List<DiffEntry> diff, DiffFormatter formatter) throws IOException {
-        formatter.format(diff);
+    /** Selects requested page of changed files. */
+    private List<DiffEntry> page(List<DiffEntry> diff) {
+        int from = Math.min(Math.max(request.getSkip(), 0), diff.size());
+        int to = request.getMaxCount() > 0 ? (int)Math.min((long)from + request.getMaxCount(), diff.size()) : diff.size();
+        return diff.subList(from, to);
+    }
+
+    /**
+     * Writes difference file by file. Output of every file is limited with {@link DiffRequest#getFileDiffLimit()}, big files
+     * are shown as binary without reading of their content.
+     */
+    private void writeRawDiff(List<DiffEntry> diff,
+                              DiffFormatter formatter,
+                              LimitedOutputStream fileDiffOut,
+                              OutputStream out) throws IOException {
+        int bigFileThreshold = request.getBigFileThreshold() > 0 ? request.getBigFileThreshold() : DEFAULT_BIG_FILE_THRESHOLD;
+        try (ObjectReader reader = repository.newObjectReader()) {
+            for (DiffEntry entry : diff) {
+                if (isBigFile(entry, reader, bigFileThreshold)) {
+                    writeBinaryHeader(entry, out);
+                    continue;
+                }
+                fileDiffOut.reset(request.getFileDiffLimit());
+                formatter.format(entry);
+                if (fileDiffOut.isTruncated()) {
+                    if (fileDiffOut.getLastByte() != '\n') {
+                        out.write('\n');
+                    }
+                    out.write(Constants.encode("\\ Difference is truncated, it exceeds limit of " + request.getFileDiffLimit()
+                                               + " bytes\n"));
+                }
+            }
+        }
         formatter.flush();
     }
 
+    private boolean isBigFile(DiffEntry entry, ObjectReader reader, int threshold) throws IOException {
+        if (entry.getChangeType() != ChangeType.ADD
+            && getSize(entry.getOldMode(), entry.getOldId(), entry.getOldPath(), reader) > threshold) {
+            return true;
+        }
+        return entry.getChangeType() != ChangeType.DELETE
+               && getSize(entry.getNewMode(), entry.getNewId(), entry.getNewPath(), reader) > threshold;
+    }
+
+    /** Returns size of blob or working tree file without reading of its content, or {@code -1} if size is unknown. */
+    private long getSize(FileMode mode, AbbreviatedObjectId abbreviatedId, String path, ObjectReader reader) throws IOException {
+        if (mode.getObjectType() != Constants.OBJ_BLOB || !abbreviatedId.isComplete()) {
+            return -1;
+        }
+        ObjectId id = abbreviatedId.toObjectId();
+        if (reader.has(id, Constants.OBJ_BLOB)) {
+            return reader.getObjectSize(id, Constants.OBJ_BLOB);
+        }
+        // content of working tree is not stored in repository
+        return new File(repository.getWorkTree(), path).length();
+    }
+
+    private void writeBinaryHeader(DiffEntry entry, OutputStream out) throws IOException {
+        String oldPath = entry.getChangeType() == ChangeType.ADD ? entry.getNewPath() : entry.getOldPath();
+        String newPath = entry.getChangeType() == ChangeType.DELETE ? entry.getOldPath() : entry.getNewPath();
+        String oldName = entry.getChangeType() == ChangeType.ADD ? DiffEntry.DEV_NULL : "a/" + oldPath;
+        String newName = entry.getChangeType() == ChangeType.DELETE ? DiffEntry.DEV_NULL : "b/" + newPath;
+        out.write(Constants.encode("diff --git a/" + oldPath + " b/" + newPath + '\n'
+                                   + "Binary files " + oldName + " and " + newName + " differ\n"));
+    }
+
     private void writeNames(List<DiffEntry> diff, OutputStream out) throws IOException {
         PrintWriter writer = new PrintWriter(out);
-        for (DiffEntry de : diff) {
+        for (int i = 0; i < diff.size(); i++) {
+            DiffEntry de = diff.get(i);
             writer.print((de.getChangeType() == ChangeType.DELETE ? de.getOldPath() : de.getNewPath()) +
-                         (diff.size() != diff.indexOf(de) + 1 ? lineSeparator() : ""));
+                         (i + 1 != diff.size() ? lineSeparator() : ""));
         }
         writer.flush();
     }
@@ -309,19 +386,66 @@ class JGitDiffPage extends DiffPage {
     private void writeNamesAndStatus(List<DiffEntry> diff, OutputStream out) throws IOException {
         PrintWriter writer = new PrintWriter(out);
         int diffSize = diff.size();
-        for (DiffEntry de : diff) {
+        for (int i = 0; i < diffSize; i++) {
+            DiffEntry de = diff.get(i);
+            String separator = i + 1 != diffSize ? lineSeparator() : "";
             if (de.getChangeType() == ChangeType.ADD) {
-                writer.print("A\t" + de.getNewPath() + (diffSize != diff.indexOf(de) + 1 ? lineSeparator() : ""));
+                writer.print("A\t" + de.getNewPath() + separator);
             } else if (de.getChangeType() == ChangeType.DELETE) {
-                writer.print("D\t" + de.getOldPath() + (diffSize != diff.indexOf(de) + 1 ? lineSeparator() : ""));
+                writer.print("D\t" + de.getOldPath() + separator);
             } else if (de.getChangeType() == ChangeType.MODIFY) {
-                writer.print("M\t" + de.getNewPath() + (diffSize != diff.indexOf(de) + 1 ? lineSeparator() : ""));
+                writer.print("M\t" + de.getNewPath() + separator);
             } else if (de.getChangeType() == ChangeType.COPY) {
-                writer.print("C\t" + de.getOldPath() + '\t' + de.getNewPath() + (diffSize != diff.indexOf(de) + 1 ? lineSeparator() : ""));
+                writer.print("C\t" + de.getOldPath() + '\t' + de.getNewPath() + separator);
             } else if (de.getChangeType() == ChangeType.RENAME) {
-                writer.print("R\t" + de.getOldPath() + '\t' + de.getNewPath() + (diffSize != diff.indexOf(de) + 1 ? lineSeparator() : ""));
+                writer.print("R\t" + de.getOldPath() + '\t' + de.getNewPath() + separator);
             }
         }
         writer.flush();
     }
+
+    /** Output stream which drops everything written after limit is reached. */
+    private static class LimitedOutputStream extends FilterOutputStream {
+        private long limit;
+        private long written;
+        private int  lastByte;
+
+        LimitedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        /** Starts counting from zero, zero or negative limit means no limit. */
+        void reset(long limit) {
+            this.limit = limit > 0 ? limit : Long.MAX_VALUE;
+            this.written = 0;
+        }
+
+        boolean isTruncated() {
+            return written > limit;
+        }
+
+        int getLastByte() {
+            return lastByte;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (written++ < limit) {
+                out.write(b);
+                lastByte = b;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (written < limit) {
+                int allowed = (int)Math.min(len, limit - written);
+                out.write(b, off, allowed);
+                if (allowed > 0) {
+                    lastByte = b[off + allowed - 1];
+                }
+            }
+            written += len;
+        }
+    }
 }
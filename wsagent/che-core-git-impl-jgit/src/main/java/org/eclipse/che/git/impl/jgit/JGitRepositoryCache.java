@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.git.exception.GitException;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.FileSnapshot;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of JGit repositories keyed by path of work tree.
+ *
+ * <p>Connections to the same work tree share {@link Repository} and so share its parsed config, refs, pack indexes and
+ * pack file windows instead of reading them for every connection. Every {@link #acquire(File) acquired} repository must be
+ * released with {@link Repository#close()}, repository keeps its resources while cache or any connection uses it.
+ *
+ * <p>Cached repository is replaced with new one when {@code .git} directory is created, removed or replaced on disk.
+ * Changes inside {@code .git} are picked up by JGit itself. The least recently used repositories are evicted when number
+ * of cached repositories exceeds limit.
+ */
+@Singleton
+public class JGitRepositoryCache {
+    private static final int DEFAULT_MAX_SIZE = 64;
+
+    private final int                    maxSize;
+    private final Map<Path, CachedEntry> entries;
+    private final AtomicLong             hits;
+    private final AtomicLong             misses;
+    private final AtomicLong             invalidations;
+
+    public JGitRepositoryCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public JGitRepositoryCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.invalidations = new AtomicLong();
+    }
+
+    /**
+     * Returns repository of the work tree. Repository may not exist yet, e.g. when it is going to be initialized or cloned.
+     * Caller must close returned repository when it doesn't need it anymore.
+     *
+     * @throws GitException
+     *         if repository can't be opened
+     */
+    public Repository acquire(File workDir) throws GitException {
+        final Path key = workDir.getAbsoluteFile().toPath().normalize();
+        final Path gitDir = key.resolve(Constants.DOT_GIT);
+        final Object state = readState(gitDir);
+        final List<Repository> toClose = new ArrayList<>();
+        try {
+            synchronized (entries) {
+                CachedEntry entry = entries.get(key);
+                if (entry != null && Objects.equals(entry.state, state)) {
+                    hits.incrementAndGet();
+                } else {
+                    if (entry != null) {
+                        invalidations.incrementAndGet();
+                        toClose.add(entry.repository);
+                    }
+                    misses.incrementAndGet();
+                    entry = new CachedEntry(createRepository(gitDir.toFile()), state);
+                    entries.put(key, entry);
+                    evictEldest(toClose);
+                }
+                // one use for the caller, the cache keeps its own one
+                entry.repository.incrementOpen();
+                return entry.repository;
+            }
+        } finally {
+            // repository resources are released when the last user closes it
+            toClose.forEach(Repository::close);
+        }
+    }
+
+    /** Removes repository of the work tree from the cache. */
+    public void invalidate(File workDir) {
+        final CachedEntry entry;
+        synchronized (entries) {
+            entry = entries.remove(workDir.getAbsoluteFile().toPath().normalize());
+        }
+        if (entry != null) {
+            invalidations.incrementAndGet();
+            entry.repository.close();
+        }
+    }
+
+    /** Returns number of requests of repository that was found in the cache. */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** Returns number of requests of repository that wasn't cached or was replaced because of changes on disk. */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** Returns number of repositories removed from the cache because of changes on disk or explicit invalidation. */
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    /** Returns number of cached repositories. */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evictEldest(List<Repository> toClose) {
+        final Iterator<CachedEntry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            toClose.add(iterator.next().repository);
+            iterator.remove();
+        }
+    }
+
+    private static Repository createRepository(File gitDir) throws GitException {
+        try {
+            return new FileRepository(gitDir);
+        } catch (IOException e) {
+            throw new GitException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns state of {@code .git} directory that changes when directory is created, removed or replaced with another one,
+     * {@code null} if directory doesn't exist.
+     *
+     * <p>Times of the directory itself can't be used, on Linux creation time is the time of its last modification, which
+     * happens on every write of index or refs. If file system has no file keys, the snapshot of {@code .git/config} is
+     * used, it is created together with the directory and is rarely written.
+     */
+    private static Object readState(Path gitDir) throws GitException {
+        try {
+            final Object fileKey = Files.readAttributes(gitDir, BasicFileAttributes.class).fileKey();
+            return fileKey != null ? fileKey : FileSnapshot.save(gitDir.resolve(Constants.CONFIG).toFile());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new GitException(e.getMessage(), e);
+        }
+    }
+
+    private static class CachedEntry {
+        final Repository repository;
+        final Object     state;
+
+        CachedEntry(Repository repository, Object state) {
+            this.repository = repository;
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.git.exception.GitException;
+import org.eclipse.che.api.git.shared.StatusFormat;
+import org.eclipse.che.api.vfs.impl.file.FileTreeWatcher;
+import org.eclipse.che.api.vfs.impl.file.event.LoEvent;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.StatusCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.internal.storage.file.FileSnapshot;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.DELETED;
+
+/**
+ * Keeps status of working trees between requests and updates it incrementally.
+ *
+ * <p>Files changed in working tree are collected from file watcher events, next status request scans only these paths and
+ * merges result with cached status. File watcher events come asynchronously, so entries of folders which are signalled to file
+ * watcher but which events are not fired yet are scanned too. Whole working tree is scanned when index or HEAD is changed, when
+ * ignore rules are changed, when too many paths are changed at once, when file watcher is not running or loses events and when
+ * cached status becomes older than {@code git.status.cache.max_age_ms}. The last one covers changes that file watcher doesn't
+ * see, e.g. changes in excluded folders or of global ignore rules.
+ */
+@Singleton
+public class JGitStatusCache implements EventSubscriber<LoEvent> {
+    /** Scan of many separate paths is slower than single walk over the whole working tree. */
+    private static final int MAX_DIRTY_PATHS = 512;
+
+    private final EventService                   eventService;
+    private final FileTreeWatcher                fileTreeWatcher;
+    private final Path                           watchRoot;
+    private final long                           maxAgeMillis;
+    private final ConcurrentHashMap<Path, Entry> entries;
+    private final AtomicLong                     fullScans;
+    private final AtomicLong                     partialScans;
+
+    @Inject
+    public JGitStatusCache(EventService eventService,
+                           FileTreeWatcher fileTreeWatcher,
+                           @Named("che.user.workspaces.storage") File watchRoot,
+                           @Named("git.status.cache.max_age_ms") long maxAgeMillis) {
+        this.eventService = eventService;
+        this.fileTreeWatcher = fileTreeWatcher;
+        this.watchRoot = toPath(watchRoot);
+        this.maxAgeMillis = maxAgeMillis;
+        this.entries = new ConcurrentHashMap<>();
+        this.fullScans = new AtomicLong();
+        this.partialScans = new AtomicLong();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        eventService.subscribe(this);
+    }
+
+    @PreDestroy
+    void unsubscribe() {
+        eventService.unsubscribe(this);
+    }
+
+    @Override
+    public void onEvent(LoEvent event) {
+        final String eventPath = event.getPath();
+        if (eventPath == null) {
+            return;
+        }
+        final Path file = watchRoot.resolve(eventPath.startsWith("/") ? eventPath.substring(1) : eventPath).normalize();
+        for (Map.Entry<Path, Entry> mapEntry : entries.entrySet()) {
+            final Path workTree = mapEntry.getKey();
+            if (!file.startsWith(workTree)) {
+                continue;
+            }
+            final Path relative = workTree.relativize(file);
+            if (relative.toString().isEmpty()) {
+                if (event.getEventType() == DELETED) {
+                    entries.remove(workTree);
+                } else {
+                    mapEntry.getValue().requireFullScan();
+                }
+            } else if (!Constants.DOT_GIT.equals(relative.getName(0).toString())) {
+                // changes of index and HEAD are detected when status is requested
+                mapEntry.getValue().markDirty(relative.toString().replace(File.separatorChar, '/'));
+            }
+        }
+    }
+
+    /**
+     * Returns status of the working tree of given repository.
+     *
+     * @param repository
+     *         non-bare repository
+     * @param branchName
+     *         current branch name, see {@link JGitStatusImpl}
+     * @param format
+     *         the output format for the status
+     * @throws GitException
+     *         when any error occurs
+     */
+    public JGitStatusImpl getStatus(Repository repository, String branchName, StatusFormat format) throws GitException {
+        final Path workTree = toPath(repository.getWorkTree());
+        final Entry entry = entries.computeIfAbsent(workTree, key -> new Entry());
+        synchronized (entry) {
+            try {
+                entry.refresh(repository, workTree);
+            } catch (GitAPIException | IOException exception) {
+                entry.requireFullScan();
+                throw new GitException(exception.getMessage(), exception);
+            }
+            final JGitStatusImpl status = new JGitStatusImpl(branchName, format);
+            entry.copyTo(status);
+            return status;
+        }
+    }
+
+    /** Returns number of scans of whole working tree. */
+    public long getFullScanCount() {
+        return fullScans.get();
+    }
+
+    /** Returns number of scans limited to the changed paths. */
+    public long getPartialScanCount() {
+        return partialScans.get();
+    }
+
+    /** File watcher reports paths relative to canonical root, so keys must be canonical too. */
+    private static Path toPath(File file) {
+        try {
+            return file.getCanonicalFile().toPath();
+        } catch (IOException e) {
+            return file.getAbsoluteFile().toPath().normalize();
+        }
+    }
+
+    private static String readHead(Repository repository) throws IOException {
+        final Ref head = repository.exactRef(Constants.HEAD);
+        if (head == null) {
+            return "";
+        }
+        final ObjectId headId = head.getObjectId();
+        return head.getTarget().getName() + ' ' + (headId == null ? "" : headId.getName());
+    }
+
+    private static boolean isCovered(String path, Set<String> scope) {
+        for (String current = path; ; ) {
+            if (scope.contains(current)) {
+                return true;
+            }
+            final int separator = current.lastIndexOf('/');
+            if (separator < 0) {
+                return false;
+            }
+            current = current.substring(0, separator);
+        }
+    }
+
+    private static boolean isAncestor(String folder, String path) {
+        return path.length() > folder.length() && path.startsWith(folder) && path.charAt(folder.length()) == '/';
+    }
+
+    private static String parentOf(String path) {
+        final int separator = path.lastIndexOf('/');
+        return separator < 0 ? "" : path.substring(0, separator);
+    }
+
+    private class Entry {
+        private final Set<String> dirtyPaths = new HashSet<>();
+        private boolean           fullScanRequired;
+
+        // guarded by this
+        private FileSnapshot indexSnapshot;
+        private String       head;
+        private long         scanTime;
+        /** Names of tracked files and folders by folder, root of working tree is an empty string. */
+        private Map<String, Set<String>> trackedChildren = new HashMap<>();
+        private Set<String>  added            = new HashSet<>();
+        private Set<String>  changed          = new HashSet<>();
+        private Set<String>  removed          = new HashSet<>();
+        private Set<String>  missing          = new HashSet<>();
+        private Set<String>  modified         = new HashSet<>();
+        private Set<String>  untracked        = new HashSet<>();
+        private Set<String>  untrackedFolders = new HashSet<>();
+        private Set<String>  conflicting      = new HashSet<>();
+
+        void markDirty(String path) {
+            synchronized (dirtyPaths) {
+                if (fullScanRequired) {
+                    return;
+                }
+                if (dirtyPaths.size() >= MAX_DIRTY_PATHS || path.endsWith(Constants.DOT_GIT_IGNORE)) {
+                    fullScanRequired = true;
+                    dirtyPaths.clear();
+                } else {
+                    dirtyPaths.add(path);
+                }
+            }
+        }
+
+        void requireFullScan() {
+            synchronized (dirtyPaths) {
+                fullScanRequired = true;
+                dirtyPaths.clear();
+            }
+        }
+
+        void refresh(Repository repository, Path workTree) throws GitAPIException, IOException {
+            final File indexFile = repository.getIndexFile();
+            final FileSnapshot newIndexSnapshot = FileSnapshot.save(indexFile);
+            final String newHead = readHead(repository);
+            final long now = System.currentTimeMillis();
+            // must be read before dirty paths, file watcher forgets folder only after its events are received here
+            final Set<Path> pendingFolders = fileTreeWatcher.getPendingDirectories();
+
+            Set<String> paths;
+            synchronized (dirtyPaths) {
+                final boolean full = fullScanRequired
+                                     || pendingFolders == null
+                                     || indexSnapshot == null
+                                     || indexSnapshot.isModified(indexFile)
+                                     || !newHead.equals(head)
+                                     || now - scanTime > maxAgeMillis;
+                paths = full ? null : new HashSet<>(dirtyPaths);
+                fullScanRequired = false;
+                dirtyPaths.clear();
+            }
+            if (paths != null) {
+                paths = addPendingPaths(workTree, pendingFolders, paths);
+            }
+
+            if (paths == null) {
+                scanTime = now;
+                readTrackedPaths(repository);
+                replace(new Git(repository).status().call());
+                fullScans.incrementAndGet();
+            } else if (!paths.isEmpty()) {
+                scanPaths(repository, paths);
+                partialScans.incrementAndGet();
+            }
+            indexSnapshot = newIndexSnapshot;
+            head = newHead;
+        }
+
+        void copyTo(JGitStatusImpl status) {
+            status.setAdded(new ArrayList<>(added));
+            status.setChanged(new ArrayList<>(changed));
+            status.setRemoved(new ArrayList<>(removed));
+            status.setMissing(new ArrayList<>(missing));
+            status.setModified(new ArrayList<>(modified));
+            status.setUntracked(new ArrayList<>(untracked));
+            status.setUntrackedFolders(new ArrayList<>(untrackedFolders));
+            status.setConflicting(new ArrayList<>(conflicting));
+            status.setClean(added.isEmpty() && changed.isEmpty() && removed.isEmpty() && missing.isEmpty()
+                            && modified.isEmpty() && untracked.isEmpty() && conflicting.isEmpty());
+        }
+
+        /**
+         * Adds entries of folders which events are not received yet. Folders with tracked files are not scanned as a whole since
+         * file watcher signals them separately, they are added only when they are created or removed. Returns {@code null} if
+         * whole working tree must be scanned.
+         */
+        private Set<String> addPendingPaths(Path workTree, Set<Path> pendingFolders, Set<String> paths) {
+            for (Path pendingFolder : pendingFolders) {
+                if (!pendingFolder.startsWith(workTree)) {
+                    continue;
+                }
+                final Path relative = workTree.relativize(pendingFolder);
+                final String folder = relative.toString().replace(File.separatorChar, '/');
+                if (!folder.isEmpty() && Constants.DOT_GIT.equals(relative.getName(0).toString())) {
+                    // changes of index and HEAD are detected when status is requested
+                    continue;
+                }
+                addEntries(pendingFolder.toFile(), folder, paths);
+                if (paths.size() > MAX_DIRTY_PATHS) {
+                    return null;
+                }
+            }
+            return paths;
+        }
+
+        private void addEntries(File file, String folder, Set<String> paths) {
+            final String prefix = folder.isEmpty() ? "" : folder + '/';
+            final String[] names = file.list();
+            final Set<String> existing = names == null ? emptySet() : new HashSet<>(asList(names));
+            for (String name : existing) {
+                final String path = prefix + name;
+                if (!(folder.isEmpty() && Constants.DOT_GIT.equals(name)) && !trackedChildren.containsKey(path)) {
+                    paths.add(path);
+                }
+            }
+            // removed entries are not listed
+            for (String name : trackedChildren.getOrDefault(folder, emptySet())) {
+                if (!existing.contains(name)) {
+                    paths.add(prefix + name);
+                }
+            }
+            for (Set<String> files : asList(untracked, untrackedFolders)) {
+                files.stream().filter(path -> parentOf(path).equals(folder)).forEach(paths::add);
+            }
+        }
+
+        private void readTrackedPaths(Repository repository) throws IOException {
+            final DirCache index = repository.readDirCache();
+            final Map<String, Set<String>> children = new HashMap<>();
+            for (int i = 0; i < index.getEntryCount(); i++) {
+                String path = index.getEntry(i).getPathString();
+                while (true) {
+                    final String folder = parentOf(path);
+                    final boolean added = children.computeIfAbsent(folder, key -> new HashSet<>())
+                                                  .add(folder.isEmpty() ? path : path.substring(folder.length() + 1));
+                    // the rest of parents are added with the previous entries
+                    if (!added || folder.isEmpty()) {
+                        break;
+                    }
+                    path = folder;
+                }
+            }
+            trackedChildren = children;
+        }
+
+        private void scanPaths(Repository repository, Set<String> paths) throws GitAPIException {
+            final Set<String> scope = new HashSet<>(paths);
+            // untracked folder is reported as a single entry, so it is rescanned as a whole
+            for (String folder : untrackedFolders) {
+                for (String path : paths) {
+                    if (isAncestor(folder, path)) {
+                        scope.add(folder);
+                        break;
+                    }
+                }
+            }
+            for (Set<String> files : all()) {
+                files.removeIf(file -> isCovered(file, scope));
+            }
+
+            final StatusCommand statusCommand = new Git(repository).status();
+            scope.forEach(statusCommand::addPath);
+            final org.eclipse.jgit.api.Status gitStatus = statusCommand.call();
+            added.addAll(gitStatus.getAdded());
+            changed.addAll(gitStatus.getChanged());
+            removed.addAll(gitStatus.getRemoved());
+            missing.addAll(gitStatus.getMissing());
+            modified.addAll(gitStatus.getModified());
+            untracked.addAll(gitStatus.getUntracked());
+            untrackedFolders.addAll(gitStatus.getUntrackedFolders());
+            conflicting.addAll(gitStatus.getConflicting());
+        }
+
+        private void replace(org.eclipse.jgit.api.Status gitStatus) {
+            added = new HashSet<>(gitStatus.getAdded());
+            changed = new HashSet<>(gitStatus.getChanged());
+            removed = new HashSet<>(gitStatus.getRemoved());
+            missing = new HashSet<>(gitStatus.getMissing());
+            modified = new HashSet<>(gitStatus.getModified());
+            untracked = new HashSet<>(gitStatus.getUntracked());
+            untrackedFolders = new HashSet<>(gitStatus.getUntrackedFolders());
+            conflicting = new HashSet<>(gitStatus.getConflicting());
+        }
+
+        private List<Set<String>> all() {
+            return asList(added, changed, removed, missing, modified, untracked, untrackedFolders, conflicting);
+        }
+    }
+}
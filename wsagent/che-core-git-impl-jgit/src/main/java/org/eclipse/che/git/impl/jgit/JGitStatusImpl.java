@@ -77,6 +77,28 @@ public class JGitStatusImpl implements Status, InfoPage {
         conflicting = new ArrayList<>(gitStatus.getConflicting());
     }
 
+    /**
+     * Creates status without files, lists of files are expected to be set by caller, see {@link JGitStatusCache}.
+     *
+     * @param branchName
+     *         current repository branch name
+     * @param format
+     *         the output format for the status
+     */
+    JGitStatusImpl(String branchName, StatusFormat format) {
+        this.branchName = branchName;
+        this.format = format;
+        this.clean = true;
+        added = new ArrayList<>();
+        changed = new ArrayList<>();
+        removed = new ArrayList<>();
+        missing = new ArrayList<>();
+        modified = new ArrayList<>();
+        untracked = new ArrayList<>();
+        untrackedFolders = new ArrayList<>();
+        conflicting = new ArrayList<>();
+    }
+
     @Override
     public void writeTo(OutputStream out) throws IOException {
         StringBuilder status = new StringBuilder();
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.git.shared.GitUser;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link JGitCommitterIndex}
+ */
+public class JGitCommitterIndexTest {
+
+    private File               workDir;
+    private Git                git;
+    private JGitCommitterIndex index;
+    private int                commits;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("repository").toFile();
+        git = Git.init().setDirectory(workDir).call();
+        index = new JGitCommitterIndex();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        git.close();
+        IoUtil.deleteRecursive(workDir);
+    }
+
+    @Test
+    public void shouldReturnEmptyListWhenRepositoryHasNoCommits() throws Exception {
+        assertTrue(index.getCommitters(git.getRepository()).isEmpty());
+    }
+
+    @Test
+    public void shouldReturnEachCommitterOnceMostRecentFirst() throws Exception {
+        commit("alice");
+        commit("bob");
+        commit("alice");
+
+        assertEquals(names(index.getCommitters(git.getRepository())), asList("alice", "bob"));
+    }
+
+    @Test
+    public void shouldAddCommittersOfNewCommits() throws Exception {
+        commit("alice");
+        commit("bob");
+        index.getCommitters(git.getRepository());
+
+        commit("carol");
+        commit("bob");
+
+        assertEquals(names(index.getCommitters(git.getRepository())), asList("bob", "carol", "alice"));
+    }
+
+    @Test
+    public void shouldReindexWhenHeadIsMovedBack() throws Exception {
+        RevCommit first = commit("alice");
+        commit("bob");
+        index.getCommitters(git.getRepository());
+
+        git.reset().setMode(ResetCommand.ResetType.HARD).setRef(first.getName()).call();
+
+        assertEquals(names(index.getCommitters(git.getRepository())), asList("alice"));
+    }
+
+    private RevCommit commit(String committer) throws Exception {
+        Files.write(new File(workDir, "README").toPath(), ("changed by " + committer + ' ' + ++commits).getBytes());
+        git.add().addFilepattern("README").call();
+        return git.commit().setMessage("commit by " + committer).setCommitter(committer, committer + "@email").call();
+    }
+
+    private static List<String> names(List<GitUser> users) {
+        return users.stream().map(GitUser::getName).collect(Collectors.toList());
+    }
+}
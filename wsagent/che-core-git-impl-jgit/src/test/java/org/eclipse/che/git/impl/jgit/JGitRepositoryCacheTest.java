@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.git.GitConnection;
+import org.eclipse.che.api.git.shared.BranchListRequest;
+import org.eclipse.che.api.git.shared.LogRequest;
+import org.eclipse.che.api.git.shared.StatusFormat;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Test class for {@link JGitRepositoryCache}
+ */
+public class JGitRepositoryCacheTest {
+    private static final Logger LOG = LoggerFactory.getLogger(JGitRepositoryCacheTest.class);
+
+    private File                workDir;
+    private JGitRepositoryCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("repository").toFile();
+        cache = new JGitRepositoryCache();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(workDir);
+    }
+
+    @Test
+    public void shouldShareRepositoryBetweenConnectionsToSameWorkTree() throws Exception {
+        Git.init().setDirectory(workDir).call().close();
+
+        Repository first = cache.acquire(workDir);
+        Repository second = cache.acquire(new File(workDir, "."));
+        first.close();
+        second.close();
+
+        assertSame(first, second);
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getHitCount(), 1);
+    }
+
+    @Test
+    public void shouldReplaceRepositoryWhenGitDirectoryIsCreated() throws Exception {
+        Repository beforeInit = cache.acquire(workDir);
+        beforeInit.close();
+        Git.init().setDirectory(workDir).call().close();
+
+        Repository afterInit = cache.acquire(workDir);
+        afterInit.close();
+
+        assertNotSame(beforeInit, afterInit);
+        assertEquals(cache.getMissCount(), 2);
+        assertEquals(cache.getInvalidationCount(), 1);
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void shouldKeepRepositoryWhenCommitIsMade() throws Exception {
+        Git.init().setDirectory(workDir).call().close();
+        Repository beforeCommit = cache.acquire(workDir);
+        beforeCommit.close();
+        try (Git git = Git.open(workDir)) {
+            Files.write(new File(workDir, "file").toPath(), "content".getBytes());
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("commit").call();
+        }
+
+        Repository afterCommit = cache.acquire(workDir);
+        afterCommit.close();
+
+        assertSame(beforeCommit, afterCommit);
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getInvalidationCount(), 0);
+    }
+
+    @Test
+    public void shouldReplaceRepositoryWhenGitDirectoryIsRemoved() throws Exception {
+        Git.init().setDirectory(workDir).call().close();
+        Repository initialized = cache.acquire(workDir);
+        initialized.close();
+        IoUtil.deleteRecursive(new File(workDir, Constants.DOT_GIT));
+
+        Repository removed = cache.acquire(workDir);
+        removed.close();
+
+        assertNotSame(initialized, removed);
+        assertEquals(cache.getInvalidationCount(), 1);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedRepository() throws Exception {
+        cache = new JGitRepositoryCache(1);
+        File otherWorkDir = new File(workDir, "other");
+
+        cache.acquire(workDir).close();
+        cache.acquire(otherWorkDir).close();
+        cache.acquire(workDir).close();
+
+        assertEquals(cache.size(), 1);
+        assertEquals(cache.getMissCount(), 3);
+    }
+
+    @Test
+    public void shouldKeepInvalidatedRepositoryUsableUntilItIsClosed() throws Exception {
+        Git.init().setDirectory(workDir).call().close();
+        Repository repository = cache.acquire(workDir);
+
+        cache.invalidate(workDir);
+
+        assertEquals(repository.resolve(Constants.HEAD), null);
+        assertEquals(repository.getBranch(), "master");
+        repository.close();
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void shouldReportThroughputOfCachedAndNotCachedConnections() throws Exception {
+        try (Git git = Git.init().setDirectory(workDir).call()) {
+            for (int i = 0; i < 100; i++) {
+                Files.write(new File(workDir, "file" + i % 10).toPath(), ("content " + i).getBytes());
+                git.add().addFilepattern(".").call();
+                git.commit().setMessage("commit " + i).call();
+            }
+        }
+        final int requests = 200;
+
+        for (String operation : new String[] {"status", "log", "branch list"}) {
+            final double cached = measure(requests, () -> {
+                try (GitConnection connection = new JGitConnection(cache.acquire(workDir), null, null, null, null, null)) {
+                    return execute(operation, connection);
+                }
+            });
+            final double notCached = measure(requests, () -> {
+                try (GitConnection connection = new JGitConnection(new FileRepository(new File(workDir, Constants.DOT_GIT)),
+                                                                   null,
+                                                                   null,
+                                                                   null,
+                                                                   null,
+                                                                   null)) {
+                    return execute(operation, connection);
+                }
+            });
+            LOG.info("{}: {} requests per second with cached repository, {} requests per second with new repository",
+                     operation, (int)cached, (int)notCached);
+        }
+        assertEquals(cache.getMissCount(), 1);
+    }
+
+    private static Object execute(String operation, GitConnection connection) throws Exception {
+        switch (operation) {
+            case "status":
+                return connection.status(StatusFormat.SHORT);
+            case "log":
+                return connection.log(newDto(LogRequest.class)).getCommits().size();
+            default:
+                return connection.branchList(newDto(BranchListRequest.class));
+        }
+    }
+
+    private static double measure(int requests, Callable<?> request) throws Exception {
+        // warm up
+        for (int i = 0; i < requests; i++) {
+            request.call();
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            request.call();
+        }
+        return requests * 1_000_000_000d / (System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.git.shared.Status;
+import org.eclipse.che.api.git.shared.StatusFormat;
+import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
+import org.eclipse.che.api.vfs.impl.file.FileTreeWatcher;
+import org.eclipse.che.api.vfs.impl.file.FileWatcherNotificationHandler;
+import org.eclipse.che.api.vfs.impl.file.event.LoEvent;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.CREATED;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.DELETED;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for {@link JGitStatusCache}
+ */
+public class JGitStatusCacheTest {
+    private static final String PROJECT = "project";
+
+    private File            root;
+    private File            workDir;
+    private Git             git;
+    private FileTreeWatcher watcher;
+    private JGitStatusCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("workspace").toFile();
+        workDir = new File(root, PROJECT);
+        git = Git.init().setDirectory(workDir).call();
+        write("README", "readme");
+        write("src/Main.java", "class Main {}");
+        write("src/Util.java", "class Util {}");
+        git.add().addFilepattern(".").call();
+        git.commit().setMessage("Initial commit").call();
+        // index written just now is racily clean and would be rescanned on every request
+        new File(git.getRepository().getDirectory(), "index").setLastModified(System.currentTimeMillis() - 10_000);
+        // events are not delivered by watcher, tests deliver them if needed
+        watcher = new FileTreeWatcher(root, new HashSet<>(), mock(FileWatcherNotificationHandler.class));
+        watcher.startup();
+        cache = new JGitStatusCache(new EventService(), watcher, root, TimeUnit.MINUTES.toMillis(10));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        watcher.shutdown();
+        git.close();
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void shouldScanOnlyChangedPaths() throws Exception {
+        getStatus();
+
+        write("src/Main.java", "class Main { }");
+        notify("src/Main.java", MODIFIED);
+        write("NEW", "new");
+        notify("NEW", CREATED);
+        Status status = getStatus();
+
+        assertEquals(status.getModified(), singletonList("src/Main.java"));
+        assertEquals(status.getUntracked(), singletonList("NEW"));
+        assertFalse(status.isClean());
+        assertEquals(cache.getFullScanCount(), 1);
+        assertEquals(cache.getPartialScanCount(), 1);
+    }
+
+    @Test
+    public void shouldNotScanWhenNothingChanged() throws Exception {
+        getStatus();
+        getStatus();
+
+        assertEquals(cache.getFullScanCount(), 1);
+        assertEquals(cache.getPartialScanCount(), 0);
+    }
+
+    @Test
+    public void shouldReturnSameStatusAsFullScan() throws Exception {
+        getStatus();
+
+        write("src/Main.java", "class Main { }");
+        notify("src/Main.java", MODIFIED);
+        Files.delete(new File(workDir, "README").toPath());
+        notify("README", DELETED);
+        write("docs/guide/index.txt", "guide");
+        notify("docs", CREATED);
+        notify("docs/guide", CREATED);
+        notify("docs/guide/index.txt", CREATED);
+        assertSameAsFullScan(getStatus());
+
+        write("docs/guide/other.txt", "other");
+        notify("docs/guide/other.txt", CREATED);
+        assertSameAsFullScan(getStatus());
+
+        IoUtil.deleteRecursive(new File(workDir, "src"));
+        notify("src", DELETED);
+        write("src/Main.java", "class Main {}");
+        notify("src", CREATED);
+        notify("src/Main.java", CREATED);
+        assertSameAsFullScan(getStatus());
+
+        assertEquals(cache.getFullScanCount(), 1);
+        assertEquals(cache.getPartialScanCount(), 3);
+    }
+
+    @Test
+    public void shouldScanWholeWorkTreeWhenIndexIsChanged() throws Exception {
+        write("NEW", "new");
+        getStatus();
+
+        git.add().addFilepattern("NEW").call();
+        Status status = getStatus();
+
+        assertEquals(status.getAdded(), singletonList("NEW"));
+        assertTrue(status.getUntracked().isEmpty());
+        assertEquals(cache.getFullScanCount(), 2);
+    }
+
+    @Test
+    public void shouldScanWholeWorkTreeWhenIgnoreRulesAreChanged() throws Exception {
+        write("build/out.txt", "out");
+        getStatus();
+
+        write(".gitignore", "build/\n");
+        notify(".gitignore", CREATED);
+        assertSameAsFullScan(getStatus());
+
+        assertEquals(cache.getFullScanCount(), 2);
+    }
+
+    @Test
+    public void shouldScanChangedFoldersWhenFileWatcherEventsAreNotReceivedYet() throws Exception {
+        getStatus();
+
+        write("src/Util.java", "class Util { }");
+        write("src/New.java", "class New {}");
+        Files.delete(new File(workDir, "README").toPath());
+        waitUntilPending("src");
+        waitUntilPending("");
+        Status status = getStatus();
+
+        assertEquals(status.getModified(), singletonList("src/Util.java"));
+        assertEquals(status.getUntracked(), singletonList("src/New.java"));
+        assertEquals(status.getMissing(), singletonList("README"));
+        assertEquals(cache.getFullScanCount(), 1);
+        assertEquals(cache.getPartialScanCount(), 1);
+    }
+
+    @Test
+    public void shouldScanWholeWorkTreeWhenFileWatcherIsNotRunning() throws Exception {
+        watcher.shutdown();
+        getStatus();
+
+        write("src/Util.java", "class Util { }");
+        Status status = getStatus();
+
+        assertEquals(status.getModified(), singletonList("src/Util.java"));
+        assertEquals(cache.getFullScanCount(), 2);
+    }
+
+    @Test
+    public void shouldScanWholeWorkTreeWhenStatusIsOutdated() throws Exception {
+        cache = new JGitStatusCache(new EventService(), watcher, root, 0);
+        getStatus();
+
+        // outdated status is rescanned as a whole even if nothing is known to be changed
+        write("src/Util.java", "class Util { }");
+        Thread.sleep(5);
+
+        assertEquals(getStatus().getModified(), singletonList("src/Util.java"));
+        assertEquals(cache.getFullScanCount(), 2);
+    }
+
+    private Status getStatus() throws Exception {
+        return cache.getStatus(git.getRepository(), "master", StatusFormat.SHORT);
+    }
+
+    private void assertSameAsFullScan(Status status) throws Exception {
+        org.eclipse.jgit.api.Status expected = git.status().call();
+        assertEquals(new HashSet<>(status.getAdded()), expected.getAdded());
+        assertEquals(new HashSet<>(status.getChanged()), expected.getChanged());
+        assertEquals(new HashSet<>(status.getRemoved()), expected.getRemoved());
+        assertEquals(new HashSet<>(status.getMissing()), expected.getMissing());
+        assertEquals(new HashSet<>(status.getModified()), expected.getModified());
+        assertEquals(new HashSet<>(status.getUntracked()), expected.getUntracked());
+        assertEquals(new HashSet<>(status.getUntrackedFolders()), expected.getUntrackedFolders());
+        assertEquals(new HashSet<>(status.getConflicting()), expected.getConflicting());
+        assertEquals(status.isClean(), expected.isClean());
+    }
+
+    private void waitUntilPending(String folder) throws Exception {
+        final Path path = new File(workDir, folder).getCanonicalFile().toPath();
+        for (int i = 0; i < 100 && !watcher.getPendingDirectories().contains(path); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void notify(String path, FileWatcherEventType type) {
+        cache.onEvent(LoEvent.newInstance().withPath('/' + PROJECT + '/' + path).withEventType(type));
+    }
+
+    private void write(String path, String content) throws Exception {
+        File file = new File(workDir, path);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+    }
+}
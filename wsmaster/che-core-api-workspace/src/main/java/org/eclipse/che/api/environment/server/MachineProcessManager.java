@@ -19,10 +19,7 @@ import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.model.machine.Command;
 import org.eclipse.che.api.core.notification.EventService;
-import org.eclipse.che.api.core.util.CompositeLineConsumer;
-import org.eclipse.che.api.core.util.FileLineConsumer;
 import org.eclipse.che.api.core.util.LineConsumer;
-import org.eclipse.che.api.core.util.WebsocketLineConsumer;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.spi.Instance;
 import org.eclipse.che.api.machine.server.spi.InstanceProcess;
@@ -34,13 +31,9 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
-import javax.inject.Named;
 import javax.inject.Singleton;
-import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -59,7 +52,7 @@ import static org.eclipse.che.dto.server.DtoFactory.newDto;
 public class MachineProcessManager {
     private static final Logger LOG = LoggerFactory.getLogger(MachineProcessManager.class);
 
-    private final File                 machineLogsDir;
+    private final ProcessLogStore      logStore;
     private final CheEnvironmentEngine environmentEngine;
     private final EventService         eventService;
 
@@ -67,11 +60,11 @@ public class MachineProcessManager {
     final ExecutorService executor;
 
     @Inject
-    public MachineProcessManager(@Named("machine.logs.location") String machineLogsDir,
+    public MachineProcessManager(ProcessLogStore logStore,
                                  EventService eventService,
                                  CheEnvironmentEngine environmentEngine) {
         this.eventService = eventService;
-        this.machineLogsDir = new File(machineLogsDir);
+        this.logStore = logStore;
         this.environmentEngine = environmentEngine;
 
         executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("MachineProcessManager-%d")
@@ -204,41 +197,58 @@ public class MachineProcessManager {
      *         if other error occur
      */
     public Reader getProcessLogReader(String machineId, int pid) throws NotFoundException, MachineException {
-        final File processLogsFile = getProcessLogsFile(machineId, pid);
-        if (processLogsFile.isFile()) {
-            try {
-                return Files.newBufferedReader(processLogsFile.toPath(), Charset.defaultCharset());
-            } catch (IOException e) {
-                throw new MachineException(
-                        String.format("Unable read log file for process '%s' of machine '%s'. %s", pid, machineId, e.getMessage()));
-            }
-        }
-        throw new NotFoundException(String.format("Logs for process '%s' of machine '%s' are not available", pid, machineId));
+        return logStore.getLogReader(machineId, pid);
     }
 
-    private File getProcessLogsFile(String machineId, int pid) {
-        return new File(new File(machineLogsDir, machineId), Integer.toString(pid));
+    /**
+     * Gets the last lines of output of the process.
+     *
+     * @param machineId
+     *         machine id
+     * @param pid
+     *         process id
+     * @param lines
+     *         number of lines
+     * @throws NotFoundException
+     *         if logs of the process not found
+     * @throws MachineException
+     *         if other error occur
+     */
+    public ProcessLogStore.LogChunk getProcessLogTail(String machineId, int pid, int lines) throws NotFoundException, MachineException {
+        return logStore.tail(machineId, pid, lines);
     }
 
-    private FileLineConsumer getProcessFileLogger(String machineId, int pid) throws MachineException {
-        try {
-            return new FileLineConsumer(getProcessLogsFile(machineId, pid));
-        } catch (IOException e) {
-            throw new MachineException(
-                    String.format("Unable create log file for process '%s' of machine '%s'. %s", pid, machineId, e.getMessage()));
-        }
+    /**
+     * Gets lines of output of the process with numbers in range {@code [from, to)}.
+     *
+     * @throws NotFoundException
+     *         if logs of the process not found
+     * @throws MachineException
+     *         if other error occur
+     * @see ProcessLogStore#readLines(String, int, long, long)
+     */
+    public ProcessLogStore.LogChunk getProcessLogLines(String machineId, int pid, long from, long to) throws NotFoundException,
+                                                                                                           MachineException {
+        return logStore.readLines(machineId, pid, from, to);
     }
 
-    @VisibleForTesting
-    LineConsumer getProcessLogger(String machineId, int pid, String outputChannel) throws MachineException {
-        return getLogger(getProcessFileLogger(machineId, pid), outputChannel);
+    /**
+     * Gets output of the process written after the offset.
+     *
+     * @throws NotFoundException
+     *         if logs of the process not found
+     * @throws MachineException
+     *         if other error occur
+     * @see ProcessLogStore#readSince(String, int, long)
+     */
+    public ProcessLogStore.LogChunk getProcessLogSince(String machineId, int pid, long offset) throws NotFoundException,
+                                                                                                     MachineException {
+        return logStore.readSince(machineId, pid, offset);
     }
 
-    private LineConsumer getLogger(LineConsumer fileLogger, String outputChannel) throws MachineException {
-        if (outputChannel != null) {
-            return new CompositeLineConsumer(fileLogger, new WebsocketLineConsumer(outputChannel));
-        }
-        return fileLogger;
+    @VisibleForTesting
+    LineConsumer getProcessLogger(String machineId, int pid, String outputChannel) throws MachineException {
+        return logStore.createLogger(machineId, pid, outputChannel);
     }
 
     /**
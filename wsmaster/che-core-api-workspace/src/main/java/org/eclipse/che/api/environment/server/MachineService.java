@@ -60,6 +60,11 @@ import java.util.stream.Collectors;
 @Api(value = "/machine", description = "Machine REST API")
 @Path("/workspace/{workspaceId}/machine")
 public class MachineService extends Service {
+    /** Header of response to the request of part of process log, contains number of the first line of the response. */
+    public static final String FIRST_LINE_HEADER  = "X-First-Line";
+    /** Header of response to the request of part of process log, contains offset of output that follows the response. */
+    public static final String NEXT_OFFSET_HEADER = "X-Next-Offset";
+
     private final MachineProcessManager       machineProcessManager;
     private final MachineServiceLinksInjector linksInjector;
     private final WorkspaceManager            workspaceManager;
@@ -264,8 +269,12 @@ public class MachineService extends Service {
     @GET
     @Path("/{machineId}/process/{pid}/logs")
     @Produces(MediaType.TEXT_PLAIN)
-    @ApiOperation(value = "Get logs of machine process")
+    @ApiOperation(value = "Get logs of machine process",
+                  notes = "Returns whole log if none of query parameters is set. Response to the request of part of log contains " +
+                          "headers " + FIRST_LINE_HEADER + " and " + NEXT_OFFSET_HEADER + ", the value of the latter may be " +
+                          "used as 'offset' to get output written after the response")
     @ApiResponses({@ApiResponse(code = 200, message = "The response contains logs"),
+                   @ApiResponse(code = 400, message = "Parameters of different kinds of requests are combined"),
                    @ApiResponse(code = 404, message = "Machine or process with specified ID does not exist"),
                    @ApiResponse(code = 500, message = "Internal server error occurred")})
     public void getProcessLogs(@ApiParam(value = "Workspace ID")
@@ -277,14 +286,50 @@ public class MachineService extends Service {
                                @ApiParam(value = "Process ID")
                                @PathParam("pid")
                                int pid,
+                               @ApiParam(value = "Number of the last lines of log to get")
+                               @QueryParam("tail")
+                               Integer tail,
+                               @ApiParam(value = "Number of the first line to get, lines are numbered from 0")
+                               @QueryParam("from")
+                               Long from,
+                               @ApiParam(value = "Number of the line after the last line to get")
+                               @QueryParam("to")
+                               Long to,
+                               @ApiParam(value = "Offset in bytes, output written after this offset is returned")
+                               @QueryParam("offset")
+                               Long offset,
                                @Context
                                HttpServletResponse httpServletResponse)
             throws NotFoundException,
                    ForbiddenException,
                    ServerException,
+                   BadRequestException,
                    IOException {
 
-        addLogsToResponse(machineProcessManager.getProcessLogReader(machineId, pid), httpServletResponse);
+        final boolean range = from != null || to != null;
+        if ((tail != null ? 1 : 0) + (range ? 1 : 0) + (offset != null ? 1 : 0) > 1) {
+            throw new BadRequestException("Only one of 'tail', 'from'/'to' or 'offset' parameters may be used");
+        }
+        requiredNotNegative("tail", tail);
+        requiredNotNegative("from", from);
+        requiredNotNegative("to", to);
+        requiredNotNegative("offset", offset);
+        final ProcessLogStore.LogChunk chunk;
+        if (tail != null) {
+            chunk = machineProcessManager.getProcessLogTail(machineId, pid, tail);
+        } else if (range) {
+            chunk = machineProcessManager.getProcessLogLines(machineId, pid, from == null ? 0 : from, to == null ? Long.MAX_VALUE : to);
+        } else if (offset != null) {
+            chunk = machineProcessManager.getProcessLogSince(machineId, pid, offset);
+        } else {
+            addLogsToResponse(machineProcessManager.getProcessLogReader(machineId, pid), httpServletResponse);
+            return;
+        }
+        httpServletResponse.setHeader(FIRST_LINE_HEADER, Long.toString(chunk.getFirstLine()));
+        httpServletResponse.setHeader(NEXT_OFFSET_HEADER, Long.toString(chunk.getNextOffset()));
+        httpServletResponse.setContentType("text/plain");
+        httpServletResponse.getWriter().write(chunk.getText());
+        httpServletResponse.getWriter().flush();
     }
 
     /**
@@ -330,4 +375,20 @@ public class MachineService extends Service {
             throw new BadRequestException(subject + " required");
         }
     }
+
+    /**
+     * Checks number is {@code null} or not negative
+     *
+     * @param parameter
+     *         name of query parameter used in exception message
+     * @param value
+     *         number to check
+     * @throws BadRequestException
+     *         when number is negative
+     */
+    private void requiredNotNegative(String parameter, Number value) throws BadRequestException {
+        if (value != null && value.longValue() < 0) {
+            throw new BadRequestException("Parameter '" + parameter + "' must not be negative");
+        }
+    }
 }
@@ -0,0 +1,707 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.environment.server;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.api.core.util.RateExceedDetector;
+import org.eclipse.che.api.core.util.WebsocketLineConsumer;
+import org.eclipse.che.api.machine.server.exception.MachineException;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Stores output of machine processes in files {@code <machine.logs.location>/<machineId>/<pid>}.
+ *
+ * <p>Lines written to the {@link #createLogger(String, int, String) process logger} are put in the ring buffer of the logger
+ * and the caller returns immediately. Single flusher thread drains buffers of all loggers every {@code flush_period_ms}
+ * or as soon as buffer is half full, so file is flushed once for many lines instead of once per line. If the buffer is
+ * full writer waits for the flusher, output of the process is never lost.
+ *
+ * <p>Drained lines are sent to the websocket channel of the process by the flusher after they are written to the file,
+ * one message per line as consumers of the channel print every message as separate line. If process produces more
+ * lines per second than {@code websocket_lines_per_second} lines that exceed the rate are written to the file only
+ * and the channel gets the number of skipped lines at the end of the drain.
+ *
+ * <p>When log file reaches {@code max_file_size_bytes} it is renamed to {@code <pid>.1} and new file is started,
+ * at most {@code max_files} files are kept for each process.
+ */
+@Singleton
+public class ProcessLogStore {
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessLogStore.class);
+
+    /** Every log file has sparse index, it contains number and offset of every {@code INDEX_INTERVAL}th line of the file. */
+    private static final int    INDEX_INTERVAL   = 1000;
+    private static final String INDEX_SUFFIX     = ".idx";
+    private static final int    READ_BUFFER_SIZE = 8192;
+    /** Reading of range of lines stops when chunk reaches this size, the rest may be read with the next offset of chunk. */
+    private static final int    MAX_CHUNK_SIZE   = 4 * 1024 * 1024;
+
+    private final File                     machineLogsDir;
+    private final int                      bufferLines;
+    private final int                      flushSizeBytes;
+    private final double                   websocketLinesPerSecond;
+    private final long                     maxFileSizeBytes;
+    private final int                      maxFiles;
+    private final Set<ProcessLogger>       loggers;
+    private final ScheduledExecutorService flusher;
+
+    @Inject
+    public ProcessLogStore(@Named("machine.logs.location") String machineLogsDir,
+                           @Named("machine.process.logs.buffer_lines") int bufferLines,
+                           @Named("machine.process.logs.flush_period_ms") long flushPeriodMillis,
+                           @Named("machine.process.logs.flush_size_bytes") int flushSizeBytes,
+                           @Named("machine.process.logs.websocket_lines_per_second") double websocketLinesPerSecond,
+                           @Named("machine.process.logs.max_file_size_bytes") long maxFileSizeBytes,
+                           @Named("machine.process.logs.max_files") int maxFiles) {
+        this.machineLogsDir = new File(machineLogsDir);
+        this.bufferLines = bufferLines;
+        this.flushSizeBytes = flushSizeBytes;
+        this.websocketLinesPerSecond = websocketLinesPerSecond;
+        this.maxFileSizeBytes = maxFileSizeBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.loggers = ConcurrentHashMap.newKeySet();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("ProcessLogFlusher")
+                                                                                            .setDaemon(true)
+                                                                                            .build());
+        flusher.scheduleWithFixedDelay(this::drainAll, flushPeriodMillis, flushPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates logger for the process. Logger must be used by one thread at a time and must be closed when process is finished.
+     *
+     * @param outputChannel
+     *         websocket channel for the output of the process, may be {@code null} then output is written to the file only
+     * @throws MachineException
+     *         if log file can't be created
+     */
+    public LineConsumer createLogger(String machineId, int pid, @Nullable String outputChannel) throws MachineException {
+        return newLogger(machineId, pid, outputChannel == null ? null : new WebsocketLineConsumer(outputChannel));
+    }
+
+    LineConsumer newLogger(String machineId, int pid, @Nullable LineConsumer websocket) throws MachineException {
+        try {
+            final ProcessLogger logger = new ProcessLogger(machineId, pid, websocket);
+            loggers.add(logger);
+            return logger;
+        } catch (IOException e) {
+            throw new MachineException(format("Unable create log file for process '%s' of machine '%s'. %s",
+                                              pid, machineId, e.getMessage()));
+        }
+    }
+
+    /**
+     * Returns reader of the whole stored output of the process, including rotated files.
+     *
+     * @throws NotFoundException
+     *         if there are no logs for the process
+     * @throws MachineException
+     *         if logs can't be read
+     */
+    public Reader getLogReader(String machineId, int pid) throws NotFoundException, MachineException {
+        final List<File> files = getLogFiles(machineId, pid);
+        if (files.isEmpty()) {
+            throw new NotFoundException(format("Logs for process '%s' of machine '%s' are not available", pid, machineId));
+        }
+        final List<InputStream> streams = new ArrayList<>(files.size());
+        try {
+            for (File file : files) {
+                streams.add(new FileInputStream(file));
+            }
+        } catch (IOException e) {
+            for (InputStream stream : streams) {
+                try {
+                    stream.close();
+                } catch (IOException ignored) {
+                }
+            }
+            throw new MachineException(format("Unable read log file for process '%s' of machine '%s'. %s", pid, machineId, e.getMessage()));
+        }
+        return new InputStreamReader(new SequenceInputStream(Collections.enumeration(streams)), Charset.defaultCharset());
+    }
+
+    /**
+     * Returns the last lines of the output of the process.
+     *
+     * @param lines
+     *         number of lines
+     * @throws NotFoundException
+     *         if there are no logs for the process
+     * @throws MachineException
+     *         if logs can't be read
+     */
+    public LogChunk tail(String machineId, int pid, int lines) throws NotFoundException, MachineException {
+        final List<Segment> segments = getSegments(machineId, pid);
+        final Segment last = segments.get(segments.size() - 1);
+        // at least the given number of lines follows the last index entry minus that number,
+        // so the output is read once from there keeping only the last lines
+        final long fromLine = Math.max(0, last.lines[last.lines.length - 1] - lines);
+        return scan(machineId, pid, segments, fromLine, Long.MAX_VALUE, new TailBuilder(lines));
+    }
+
+    /**
+     * Returns lines of the output of the process, lines are numbered from 0 since start of the process.
+     *
+     * @param from
+     *         number of the first line, inclusive
+     * @param to
+     *         number of the last line, exclusive
+     * @throws NotFoundException
+     *         if there are no logs for the process
+     * @throws MachineException
+     *         if logs can't be read
+     */
+    public LogChunk readLines(String machineId, int pid, long from, long to) throws NotFoundException, MachineException {
+        return scan(machineId, pid, getSegments(machineId, pid), from, Long.MAX_VALUE, new ChunkBuilder(from, 0, to));
+    }
+
+    /**
+     * Returns output of the process written after the offset. Offset is counted in bytes from the start of the process,
+     * {@link LogChunk#getNextOffset() next offset} of the chunk may be used for reading of the subsequent output.
+     *
+     * @throws NotFoundException
+     *         if there are no logs for the process
+     * @throws MachineException
+     *         if logs can't be read
+     */
+    public LogChunk readSince(String machineId, int pid, long offset) throws NotFoundException, MachineException {
+        return scan(machineId, pid, getSegments(machineId, pid), Long.MAX_VALUE, offset, new ChunkBuilder(0, offset, Long.MAX_VALUE));
+    }
+
+    /**
+     * Passes lines to the builder starting from the last entry of the index which doesn't go after both {@code line}
+     * and {@code offset}, so only lines after that entry are scanned. {@link Long#MAX_VALUE} is used for the bound
+     * which must not restrict the lookup.
+     */
+    private LogChunk scan(String machineId, int pid, List<Segment> segments, long line, long offset, LineSink sink)
+            throws MachineException {
+        int segment = findSegment(segments, line, offset);
+        try {
+            for (int entry = segments.get(segment).findEntry(line, offset); segment < segments.size() && !sink.done; segment++) {
+                final Segment current = segments.get(segment);
+                sink.line = current.lines[entry];
+                try (FileChannel channel = FileChannel.open(current.file.toPath(), READ)) {
+                    scanLines(channel,
+                              current.offsets[entry] - current.firstOffset(),
+                              (lineOffset, content) -> sink.accept(current.firstOffset() + lineOffset, content));
+                }
+                entry = 0;
+            }
+        } catch (IOException e) {
+            throw new MachineException(format("Unable read log file for process '%s' of machine '%s'. %s", pid, machineId, e.getMessage()));
+        }
+        return sink.build();
+    }
+
+    /** Returns index of the last segment which doesn't start after the line and the offset. */
+    static int findSegment(List<Segment> segments, long line, long offset) {
+        int segment = 0;
+        while (segment + 1 < segments.size()
+               && segments.get(segment + 1).firstLine() <= line
+               && segments.get(segment + 1).firstOffset() <= offset) {
+            segment++;
+        }
+        return segment;
+    }
+
+    List<Segment> getSegments(String machineId, int pid) throws NotFoundException, MachineException {
+        final List<File> files = getLogFiles(machineId, pid);
+        if (files.isEmpty()) {
+            throw new NotFoundException(format("Logs for process '%s' of machine '%s' are not available", pid, machineId));
+        }
+        final List<Segment> segments = new ArrayList<>(files.size());
+        for (File file : files) {
+            final File indexFile = getIndexFile(file);
+            try {
+                final ByteBuffer index = ByteBuffer.wrap(indexFile.isFile() ? Files.readAllBytes(indexFile.toPath()) : new byte[0]);
+                final int entries = index.remaining() / 16;
+                if (entries == 0) {
+                    // log written without index
+                    segments.add(new Segment(file, new long[] {0}, new long[] {0}));
+                    continue;
+                }
+                final long[] lines = new long[entries];
+                final long[] offsets = new long[entries];
+                for (int i = 0; i < entries; i++) {
+                    lines[i] = index.getLong();
+                    offsets[i] = index.getLong();
+                }
+                segments.add(new Segment(file, lines, offsets));
+            } catch (IOException e) {
+                throw new MachineException(format("Unable read log file for process '%s' of machine '%s'. %s",
+                                                  pid, machineId, e.getMessage()));
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Reads complete lines of the file starting from the position with positional reads. Visitor gets offset of line
+     * in the file and content of line without line separator and returns {@code false} to stop reading.
+     */
+    private static void scanLines(FileChannel channel, long position, LineVisitor visitor) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        long lineOffset = position;
+        long readPosition = position;
+        int read;
+        while ((read = channel.read(buffer, readPosition)) > 0) {
+            final byte[] bytes = buffer.array();
+            int start = 0;
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    line.write(bytes, start, i - start);
+                    if (!visitor.visit(lineOffset, line)) {
+                        return;
+                    }
+                    line.reset();
+                    start = i + 1;
+                    lineOffset = readPosition + start;
+                }
+            }
+            // incomplete line is completed with the next read or ignored at the end of file
+            line.write(bytes, start, read - start);
+            readPosition += read;
+            buffer.clear();
+        }
+    }
+
+    /** Returns existing log files of the process, the oldest first. */
+    List<File> getLogFiles(String machineId, int pid) {
+        final List<File> files = new ArrayList<>(maxFiles);
+        for (int i = maxFiles - 1; i >= 0; i--) {
+            final File file = getLogFile(machineId, pid, i);
+            if (file.isFile()) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private File getLogFile(String machineId, int pid, int generation) {
+        final String name = generation == 0 ? Integer.toString(pid) : pid + "." + generation;
+        return new File(new File(machineLogsDir, machineId), name);
+    }
+
+    private static File getIndexFile(File logFile) {
+        return new File(logFile.getParentFile(), logFile.getName() + INDEX_SUFFIX);
+    }
+
+    private void drainAll() {
+        for (ProcessLogger logger : loggers) {
+            logger.drain();
+        }
+    }
+
+    @PreDestroy
+    private void cleanup() {
+        flusher.shutdown();
+        for (ProcessLogger logger : loggers) {
+            try {
+                logger.close();
+            } catch (IOException e) {
+                LOG.warn("Unable close process log {}. {}", logger.file, e.getMessage());
+            }
+        }
+    }
+
+    /** Part of the output of the process. */
+    public static class LogChunk {
+        private final String text;
+        private final long   firstLine;
+        private final long   nextOffset;
+
+        LogChunk(String text, long firstLine, long nextOffset) {
+            this.text = text;
+            this.firstLine = firstLine;
+            this.nextOffset = nextOffset;
+        }
+
+        /** Returns lines of the chunk, every line ends with line separator. */
+        public String getText() {
+            return text;
+        }
+
+        /** Returns number of the first line of the chunk. */
+        public long getFirstLine() {
+            return firstLine;
+        }
+
+        /** Returns offset in bytes of the output which follows this chunk. */
+        public long getNextOffset() {
+            return nextOffset;
+        }
+    }
+
+    private interface LineVisitor {
+        boolean visit(long offset, ByteArrayOutputStream line) throws IOException;
+    }
+
+    /** Log file and its index. */
+    static class Segment {
+        final File   file;
+        final long[] lines;
+        final long[] offsets;
+
+        Segment(File file, long[] lines, long[] offsets) {
+            this.file = file;
+            this.lines = lines;
+            this.offsets = offsets;
+        }
+
+        long firstLine() {
+            return lines[0];
+        }
+
+        long firstOffset() {
+            return offsets[0];
+        }
+
+        /** Returns the last entry of index which doesn't go after the line and the offset. */
+        int findEntry(long line, long offset) {
+            int low = 0;
+            int high = lines.length - 1;
+            while (low < high) {
+                final int middle = (low + high + 1) >>> 1;
+                if (lines[middle] <= line && offsets[middle] <= offset) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    /** Receives lines which are read from the log and builds the chunk of them. */
+    private abstract static class LineSink {
+        long    line;
+        long    nextOffset;
+        boolean done;
+
+        abstract boolean accept(long offset, ByteArrayOutputStream content) throws IOException;
+
+        abstract LogChunk build();
+    }
+
+    private static class ChunkBuilder extends LineSink {
+        final long                  fromLine;
+        final long                  toLine;
+        final ByteArrayOutputStream text;
+
+        long firstLine;
+
+        ChunkBuilder(long fromLine, long fromOffset, long toLine) {
+            this.fromLine = fromLine;
+            this.toLine = toLine;
+            this.nextOffset = fromOffset;
+            this.firstLine = -1;
+            this.text = new ByteArrayOutputStream();
+        }
+
+        @Override
+        boolean accept(long offset, ByteArrayOutputStream content) throws IOException {
+            if (line >= toLine || text.size() >= MAX_CHUNK_SIZE) {
+                done = true;
+                return false;
+            }
+            if (line >= fromLine && offset >= nextOffset) {
+                if (firstLine < 0) {
+                    firstLine = line;
+                }
+                content.writeTo(text);
+                text.write('\n');
+            }
+            nextOffset = Math.max(nextOffset, offset + content.size() + 1);
+            line++;
+            return true;
+        }
+
+        @Override
+        LogChunk build() {
+            return new LogChunk(new String(text.toByteArray(), Charset.defaultCharset()), firstLine < 0 ? line : firstLine, nextOffset);
+        }
+    }
+
+    /** Keeps the last lines up to the end of the log, the oldest lines are dropped if the chunk gets too big. */
+    private static class TailBuilder extends LineSink {
+        final int           lines;
+        final Deque<byte[]> tail;
+
+        long size;
+
+        TailBuilder(int lines) {
+            this.lines = lines;
+            this.tail = new ArrayDeque<>();
+        }
+
+        @Override
+        boolean accept(long offset, ByteArrayOutputStream content) {
+            tail.addLast(content.toByteArray());
+            size += content.size() + 1;
+            while (tail.size() > lines || size > MAX_CHUNK_SIZE && tail.size() > 1) {
+                size -= tail.removeFirst().length + 1;
+            }
+            nextOffset = offset + content.size() + 1;
+            line++;
+            return true;
+        }
+
+        @Override
+        LogChunk build() {
+            final ByteArrayOutputStream text = new ByteArrayOutputStream((int)size);
+            for (byte[] content : tail) {
+                text.write(content, 0, content.length);
+                text.write('\n');
+            }
+            return new LogChunk(new String(text.toByteArray(), Charset.defaultCharset()), line - tail.size(), nextOffset);
+        }
+    }
+
+    /**
+     * Process logger. Writing thread is the only producer of the ring buffer, drain is the only consumer of it and is serialized
+     * by <i>this</i> instance.
+     */
+    private class ProcessLogger implements LineConsumer {
+        private final String             machineId;
+        private final int                pid;
+        private final File               file;
+        private final LineConsumer       websocket;
+        private final RateExceedDetector websocketRate;
+        private final String[]           ring;
+        private final boolean[]          forward;
+        private final AtomicLong         head;
+        private final AtomicLong         tail;
+        private final AtomicBoolean      drainScheduled;
+        private final List<String>       websocketLines;
+
+        private OutputStream     out;
+        private DataOutputStream indexOut;
+        private long             lineNumber;
+        private long             offset;
+        private long             segmentOffset;
+        private int              linesSinceIndexEntry;
+        private int              skippedLines;
+        private volatile boolean closed;
+
+        ProcessLogger(String machineId, int pid, LineConsumer websocket) throws IOException {
+            this.machineId = machineId;
+            this.pid = pid;
+            this.file = getLogFile(machineId, pid, 0);
+            this.websocket = websocket;
+            this.websocketRate = new RateExceedDetector(websocketLinesPerSecond);
+            this.ring = new String[bufferLines];
+            this.forward = new boolean[bufferLines];
+            this.head = new AtomicLong();
+            this.tail = new AtomicLong();
+            this.drainScheduled = new AtomicBoolean();
+            this.websocketLines = new ArrayList<>();
+            final File parent = file.getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Unable create directory " + parent);
+            }
+            // drop rotated files left by the previous process with the same pid
+            for (int i = 1; i < maxFiles; i++) {
+                deleteLogFile(getLogFile(machineId, pid, i));
+            }
+            openWriter();
+        }
+
+        @Override
+        public void writeLine(String line) throws IOException {
+            if (closed) {
+                throw new IOException("Logger is closed");
+            }
+            final long t = tail.get();
+            while (t - head.get() >= ring.length) {
+                // buffer is full, wait for the flusher
+                scheduleDrain();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                if (closed) {
+                    throw new IOException("Logger is closed");
+                }
+            }
+            final int index = (int)(t % ring.length);
+            ring[index] = line == null ? "" : line;
+            // the same as RateExceedDetector doc suggests, check average rate when interval between lines is too short
+            forward[index] = websocket != null && !(websocketRate.updateAndCheckRate() && websocketRate.getRate() > websocketLinesPerSecond);
+            tail.set(t + 1);
+            if (t + 1 - head.get() >= ring.length / 2) {
+                scheduleDrain();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            loggers.remove(this);
+            synchronized (this) {
+                drain();
+                out.close();
+                indexOut.close();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (drainScheduled.compareAndSet(false, true)) {
+                try {
+                    flusher.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // flusher is stopped
+                    drainScheduled.set(false);
+                }
+            }
+        }
+
+        synchronized void drain() {
+            drainScheduled.set(false);
+            final long t = tail.get();
+            long h = head.get();
+            if (h == t) {
+                return;
+            }
+            try {
+                for (; h < t; h++) {
+                    final int index = (int)(h % ring.length);
+                    final String line = ring[index];
+                    ring[index] = null;
+                    writeLineToFile(line);
+                    if (forward[index]) {
+                        forwardToWebsocket(line);
+                    } else if (websocket != null) {
+                        skippedLines++;
+                    }
+                }
+                // group commit, all drained lines are flushed at once, index is flushed after the data it points to
+                out.flush();
+                indexOut.flush();
+                if (offset - segmentOffset >= maxFileSizeBytes) {
+                    rotate();
+                }
+            } catch (IOException e) {
+                LOG.error(format("Unable write log of process to %s. %s", file, e.getMessage()));
+            } finally {
+                head.set(h);
+            }
+            reportSkippedLines();
+            sendToWebsocket();
+        }
+
+        private void forwardToWebsocket(String line) {
+            reportSkippedLines();
+            websocketLines.add(line);
+        }
+
+        private void reportSkippedLines() {
+            if (skippedLines > 0) {
+                websocketLines.add(format("[%d lines are skipped, see process logs for the full output]", skippedLines));
+                skippedLines = 0;
+            }
+        }
+
+        private void sendToWebsocket() {
+            try {
+                for (String line : websocketLines) {
+                    websocket.writeLine(line);
+                }
+            } catch (IOException e) {
+                LOG.error(e.getMessage(), e);
+            }
+            websocketLines.clear();
+        }
+
+        private void writeLineToFile(String line) throws IOException {
+            if (linesSinceIndexEntry == INDEX_INTERVAL) {
+                writeIndexEntry();
+            }
+            final byte[] bytes = line.getBytes(Charset.defaultCharset());
+            out.write(bytes);
+            out.write('\n');
+            offset += bytes.length + 1;
+            lineNumber++;
+            linesSinceIndexEntry++;
+        }
+
+        private void writeIndexEntry() throws IOException {
+            indexOut.writeLong(lineNumber);
+            indexOut.writeLong(offset);
+            linesSinceIndexEntry = 0;
+        }
+
+        private void rotate() throws IOException {
+            out.close();
+            indexOut.close();
+            deleteLogFile(getLogFile(machineId, pid, maxFiles - 1));
+            for (int i = maxFiles - 2; i >= 0; i--) {
+                final File source = getLogFile(machineId, pid, i);
+                final File target = getLogFile(machineId, pid, i + 1);
+                if (source.exists() && !(source.renameTo(target) && getIndexFile(source).renameTo(getIndexFile(target)))) {
+                    LOG.warn("Unable rotate process log {}", source);
+                }
+            }
+            openWriter();
+        }
+
+        private void openWriter() throws IOException {
+            out = new BufferedOutputStream(new FileOutputStream(file), flushSizeBytes);
+            indexOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getIndexFile(file))));
+            segmentOffset = offset;
+            // every file starts with entry, it binds numbers of lines and offsets in the file to the whole output of the process
+            writeIndexEntry();
+        }
+
+        private void deleteLogFile(File logFile) {
+            if ((logFile.exists() && !logFile.delete()) || (getIndexFile(logFile).exists() && !getIndexFile(logFile).delete())) {
+                LOG.warn("Unable delete old process log {}", logFile);
+            }
+        }
+    }
+}
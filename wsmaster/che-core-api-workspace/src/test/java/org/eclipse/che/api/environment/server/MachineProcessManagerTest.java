@@ -72,7 +72,7 @@ public class MachineProcessManagerTest {
         final EventService eventService = mock(EventService.class);
         final String machineLogsDir = targetDir().resolve("logs-dir").toString();
         IoUtil.deleteRecursive(new File(machineLogsDir));
-        manager = spy(new MachineProcessManager(machineLogsDir,
+        manager = spy(new MachineProcessManager(new ProcessLogStore(machineLogsDir, 1024, 200, 8192, 100, 1024 * 1024, 2),
                                                 eventService,
                                                 environmentEngine));
 
@@ -36,6 +36,7 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.testng.Assert.assertEquals;
 
 /**
@@ -139,4 +140,27 @@ public class MachineServiceTest {
         // then
         assertEquals(response.getStatusCode(), 204);
     }
+
+    @Test(dataProvider = "negativeLogQueryProvider")
+    public void shouldReturnErrorOnGetProcessLogsIfQueryParameterIsNegative(String query) throws Exception {
+        // when
+        final Response response = given().auth()
+                                         .basic(ADMIN_USER_NAME, ADMIN_USER_PASSWORD)
+                                         .when()
+                                         .get(SECURE_PATH + "/workspace/wsId/machine/mcId/process/1/logs?" + query);
+
+        // then
+        assertEquals(response.getStatusCode(), 400);
+        verifyZeroInteractions(machineProcessManager);
+    }
+
+    @DataProvider(name = "negativeLogQueryProvider")
+    public static Object[][] negativeLogQueryProvider() {
+        return new Object[][] {
+                {"tail=-1"},
+                {"from=-1"},
+                {"from=0&to=-1"},
+                {"offset=-1"}
+        };
+    }
 }
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.environment.server;
+
+import com.google.common.io.CharStreams;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.util.AbstractLineConsumer;
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link ProcessLogStore}.
+ */
+public class ProcessLogStoreTest {
+
+    private static final String MACHINE_ID = "machineId";
+
+    private String          machineLogsDir;
+    private ProcessLogStore logStore;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        assertNotNull(url);
+        machineLogsDir = Paths.get(url.toURI()).getParent().resolve("process-logs").toString();
+        IoUtil.deleteRecursive(new File(machineLogsDir));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(new File(machineLogsDir));
+    }
+
+    @Test
+    public void shouldWriteAllLinesWhenBufferIsFull() throws Exception {
+        logStore = new ProcessLogStore(machineLogsDir, 16, 1000, 1024, 100, 1024 * 1024, 2);
+        final List<String> lines = new ArrayList<>();
+        try (LineConsumer logger = logStore.createLogger(MACHINE_ID, 1, null)) {
+            for (int i = 0; i < 10000; i++) {
+                final String line = "line " + i;
+                lines.add(line);
+                logger.writeLine(line);
+            }
+        }
+
+        assertEquals(readLines(1), lines);
+    }
+
+    @Test
+    public void shouldRotateLogFileWhenItReachesMaxSize() throws Exception {
+        logStore = new ProcessLogStore(machineLogsDir, 4, 1000, 16, 100, 100, 3);
+        final List<String> lines = new ArrayList<>();
+        try (LineConsumer logger = logStore.createLogger(MACHINE_ID, 2, null)) {
+            for (int i = 0; i < 1000; i++) {
+                final String line = "line " + i;
+                lines.add(line);
+                logger.writeLine(line);
+            }
+        }
+
+        assertEquals(logStore.getLogFiles(MACHINE_ID, 2).size(), 3);
+        final List<String> stored = readLines(2);
+        assertTrue(stored.size() < lines.size());
+        assertEquals(stored, lines.subList(lines.size() - stored.size(), lines.size()));
+    }
+
+    @Test(expectedExceptions = NotFoundException.class)
+    public void shouldThrowNotFoundExceptionWhenThereAreNoLogsOfProcess() throws Exception {
+        logStore = new ProcessLogStore(machineLogsDir, 16, 1000, 1024, 100, 1024 * 1024, 2);
+
+        logStore.getLogReader(MACHINE_ID, 3);
+    }
+
+    @Test
+    public void shouldReturnLastLinesOfLog() throws Exception {
+        logStore = new ProcessLogStore(machineLogsDir, 1024, 1000, 1024, 100, 1024 * 1024, 2);
+        writeLines(4, 0, 2500);
+
+        final ProcessLogStore.LogChunk chunk = logStore.tail(MACHINE_ID, 4, 3);
+
+        assertEquals(chunk.getText(), "line 2497\nline 2498\nline 2499\n");
+        assertEquals(chunk.getFirstLine(), 2497);
+    }
+
+    @Test
+    public void shouldReturnRangeOfLinesFromRotatedLogs() throws Exception {
+        logStore = new ProcessLogStore(machineLogsDir, 1024, 1000, 1024, 100, 16 * 1024, 3);
+        writeLines(5, 0, 10000);
+        final long firstStored = Long.parseLong(readLines(5).get(0).substring("line ".length()));
+
+        final ProcessLogStore.LogChunk chunk = logStore.readLines(MACHINE_ID, 5, 8999, 9002);
+        final ProcessLogStore.LogChunk truncated = logStore.readLines(MACHINE_ID, 5, 0, firstStored + 1);
+
+        assertEquals(chunk.getText(), "line 8999\nline 9000\nline 9001\n");
+        assertEquals(chunk.getFirstLine(), 8999);
+        assertEquals(truncated.getText(), "line " + firstStored + "\n");
+        assertEquals(truncated.getFirstLine(), firstStored);
+    }
+
+    @Test
+    public void shouldReturnOnlyNewOutputWhenFollowIsResumedFromNextOffset() throws Exception {
+        logStore = new ProcessLogStore(machineLogsDir, 1024, 1000, 1024, 100, 16 * 1024, 3);
+        final ProcessLogStore.LogChunk first;
+        try (LineConsumer logger = logStore.createLogger(MACHINE_ID, 6, null)) {
+            for (int i = 0; i < 3000; i++) {
+                logger.writeLine("line " + i);
+            }
+            while (!logStore.tail(MACHINE_ID, 6, 1).getText().equals("line 2999\n")) {
+                Thread.sleep(10);
+            }
+            first = logStore.readSince(MACHINE_ID, 6, 0);
+            logger.writeLine("line 3000");
+            logger.writeLine("line 3001");
+        }
+
+        final ProcessLogStore.LogChunk next = logStore.readSince(MACHINE_ID, 6, first.getNextOffset());
+
+        assertEquals(next.getText(), "line 3000\nline 3001\n");
+        assertEquals(next.getFirstLine(), 3000);
+        assertEquals(logStore.readSince(MACHINE_ID, 6, next.getNextOffset()).getText(), "");
+    }
+
+    @Test
+    public void shouldStartReadingNearTheEndFromTheLastIndexEntryOfTheLastFile() throws Exception {
+        // the first file is rotated before 75KB, so the last one keeps more than two thousand lines
+        logStore = new ProcessLogStore(machineLogsDir, 1024, 1000, 1024, 100, 64 * 1024, 3);
+        writeLines(7, 0, 10000);
+        final List<ProcessLogStore.Segment> segments = logStore.getSegments(MACHINE_ID, 7);
+        final ProcessLogStore.Segment last = segments.get(segments.size() - 1);
+        final long nextOffset = logStore.tail(MACHINE_ID, 7, 1).getNextOffset();
+
+        final int byLine = ProcessLogStore.findSegment(segments, 9998, Long.MAX_VALUE);
+        final int byOffset = ProcessLogStore.findSegment(segments, Long.MAX_VALUE, nextOffset - 1);
+
+        assertTrue(segments.size() > 1);
+        assertTrue(last.lines.length > 1);
+        assertEquals(byLine, segments.size() - 1);
+        assertEquals(byOffset, segments.size() - 1);
+        assertEquals(last.findEntry(9998, Long.MAX_VALUE), last.lines.length - 1);
+        assertEquals(last.findEntry(Long.MAX_VALUE, nextOffset - 1), last.lines.length - 1);
+        assertEquals(logStore.readLines(MACHINE_ID, 7, 9998, 10000).getText(), "line 9998\nline 9999\n");
+        assertEquals(logStore.readSince(MACHINE_ID, 7, nextOffset - "line 9999\n".length()).getText(), "line 9999\n");
+    }
+
+    @Test
+    public void shouldSendLineByLineToWebsocketAndReportSkippedLinesWhenLoggerIsClosed() throws Exception {
+        logStore = new ProcessLogStore(machineLogsDir, 1024, 1000, 1024, 100, 1024 * 1024, 2);
+        final List<String> messages = new ArrayList<>();
+        final LineConsumer websocket = new AbstractLineConsumer() {
+            @Override
+            public void writeLine(String line) {
+                messages.add(line);
+            }
+        };
+        // rate of lines is known after a second, lines written faster than the limit after that are skipped
+        final long end = System.currentTimeMillis() + 1500;
+        int written = 0;
+        try (LineConsumer logger = logStore.newLogger(MACHINE_ID, 8, websocket)) {
+            while (System.currentTimeMillis() < end) {
+                logger.writeLine("line " + written++);
+            }
+        }
+
+        final Pattern skipped = Pattern.compile("\\[(\\d+) lines are skipped, see process logs for the full output\\]");
+        long received = 0;
+        for (String message : messages) {
+            assertFalse(message.contains("\n"));
+            final Matcher matcher = skipped.matcher(message);
+            received += matcher.matches() ? Long.parseLong(matcher.group(1)) : 1;
+        }
+        assertTrue(skipped.matcher(messages.get(messages.size() - 1)).matches());
+        assertEquals(received, written);
+    }
+
+    private void writeLines(int pid, int from, int to) throws Exception {
+        try (LineConsumer logger = logStore.createLogger(MACHINE_ID, pid, null)) {
+            for (int i = from; i < to; i++) {
+                logger.writeLine("line " + i);
+            }
+        }
+    }
+
+    private List<String> readLines(int pid) throws Exception {
+        try (Reader reader = logStore.getLogReader(MACHINE_ID, pid)) {
+            return CharStreams.readLines(reader);
+        }
+    }
+}
@@ -11,7 +11,6 @@
 package org.eclipse.che.api.local;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.common.reflect.TypeToken;
 
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -19,7 +18,7 @@ import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.machine.Recipe;
 import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
-import org.eclipse.che.api.local.storage.LocalStorage;
+import org.eclipse.che.api.local.storage.LocalJournalStorage;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.machine.server.recipe.adapters.RecipeTypeAdapter;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
@@ -30,11 +29,10 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
@@ -42,10 +40,14 @@ import static java.util.stream.Collectors.toList;
 /**
  * In memory based implementation of {@link WorkspaceDao}.
  *
- * <p>{@link #loadWorkspaces() Loads} & {@link #saveWorkspaces() stores} in memory workspaces
- * to/from filesystem, when component starts/stops.
+ * <p>{@link #loadWorkspaces() Loads} in memory workspaces from filesystem when component starts,
+ * each modification is written to the journal of {@link LocalJournalStorage} and
+ * {@link #saveWorkspaces() compacted} to the snapshot when component stops.
  *
- * @implNote it is thread-safe, guarded by <i>this</i> instance
+ * <p>Workspaces are indexed by id and by namespace and name, so lookups don't scan all the workspaces.
+ * Stored workspaces are never exposed, every returned workspace is a copy.
+ *
+ * @implNote it is thread-safe, modifications are guarded by <i>this</i> instance, reads don't lock
  *
  * @author Eugene Voevodin
  * @author Dmitry Shnurenko
@@ -54,28 +56,34 @@ import static java.util.stream.Collectors.toList;
 @Singleton
 public class LocalWorkspaceDaoImpl implements WorkspaceDao {
 
-    private final Map<String, WorkspaceImpl> workspaces;
-    private final LocalStorage               localStorage;
+    private final LocalJournalStorage<WorkspaceImpl>      workspaces;
+    /** Namespace -> workspace name -> workspace. */
+    private final Map<String, Map<String, WorkspaceImpl>> namespaces;
 
     @Inject
     public LocalWorkspaceDaoImpl(LocalStorageFactory factory) throws IOException {
         final Map<Class<?>, Object> adapters = ImmutableMap.of(Recipe.class, new RecipeTypeAdapter(),
                                                                ProjectConfig.class, new ProjectConfigAdapter());
-        this.localStorage = factory.create("workspaces.json", adapters);
-        this.workspaces = new HashMap<>();
+        this.workspaces = factory.createJournal("workspaces.json", WorkspaceImpl.class, adapters);
+        this.namespaces = new ConcurrentHashMap<>();
     }
 
     @PostConstruct
-    public synchronized void loadWorkspaces() {
-        workspaces.putAll(localStorage.loadMap(new TypeToken<Map<String, WorkspaceImpl>>() {}));
-        for (WorkspaceImpl workspace : workspaces.values()) {
+    public synchronized void loadWorkspaces() throws IOException {
+        namespaces.clear();
+        for (WorkspaceImpl workspace : workspaces.load().values()) {
             workspace.setRuntime(null);
+            index(workspace);
         }
     }
 
     @PreDestroy
     public synchronized void saveWorkspaces() throws IOException {
-        localStorage.store(workspaces);
+        try {
+            workspaces.snapshot();
+        } finally {
+            workspaces.close();
+        }
     }
 
     @Override
@@ -83,14 +91,14 @@ public class LocalWorkspaceDaoImpl implements WorkspaceDao {
         if (workspaces.containsKey(workspace.getId())) {
             throw new ConflictException("Workspace with id " + workspace.getId() + " already exists");
         }
-        if (find(workspace.getConfig().getName(), workspace.getNamespace()).isPresent()) {
+        if (find(workspace.getConfig().getName(), workspace.getNamespace()) != null) {
             throw new ConflictException(format("Workspace with name %s and owner %s already exists",
                                                workspace.getConfig().getName(),
                                                workspace.getNamespace()));
         }
         workspace.setRuntime(null);
         workspace.setStatus(WorkspaceStatus.STOPPED);
-        workspaces.put(workspace.getId(), new WorkspaceImpl(workspace));
+        store(new WorkspaceImpl(workspace));
         return workspace;
     }
 
@@ -100,19 +108,33 @@ public class LocalWorkspaceDaoImpl implements WorkspaceDao {
         if (!workspaces.containsKey(workspace.getId())) {
             throw new NotFoundException("Workspace with id " + workspace.getId() + " was not found");
         }
+        final WorkspaceImpl sameName = find(workspace.getConfig().getName(), workspace.getNamespace());
+        if (sameName != null && !sameName.getId().equals(workspace.getId())) {
+            throw new ConflictException(format("Workspace with name %s and owner %s already exists",
+                                               workspace.getConfig().getName(),
+                                               workspace.getNamespace()));
+        }
         workspace.setStatus(null);
         workspace.setRuntime(null);
-        workspaces.put(workspace.getId(), new WorkspaceImpl(workspace));
+        store(new WorkspaceImpl(workspace));
         return workspace;
     }
 
     @Override
     public synchronized void remove(String id) throws ConflictException, ServerException {
-        workspaces.remove(id);
+        final WorkspaceImpl removed;
+        try {
+            removed = workspaces.remove(id);
+        } catch (IOException x) {
+            throw new ServerException(x.getLocalizedMessage(), x);
+        }
+        if (removed != null) {
+            unindex(removed);
+        }
     }
 
     @Override
-    public synchronized WorkspaceImpl get(String id) throws NotFoundException, ServerException {
+    public WorkspaceImpl get(String id) throws NotFoundException, ServerException {
         final WorkspaceImpl workspace = workspaces.get(id);
         if (workspace == null) {
             throw new NotFoundException("Workspace with id " + id + " was not found");
@@ -121,32 +143,63 @@ public class LocalWorkspaceDaoImpl implements WorkspaceDao {
     }
 
     @Override
-    public synchronized WorkspaceImpl get(String name, String namespace) throws NotFoundException, ServerException {
-        final Optional<WorkspaceImpl> wsOpt = find(name, namespace);
-        if (!wsOpt.isPresent()) {
+    public WorkspaceImpl get(String name, String namespace) throws NotFoundException, ServerException {
+        final WorkspaceImpl workspace = find(name, namespace);
+        if (workspace == null) {
             throw new NotFoundException(format("Workspace with name %s and owner %s was not found", name, namespace));
         }
-        return new WorkspaceImpl(wsOpt.get());
+        return new WorkspaceImpl(workspace);
     }
 
     @Override
-    public synchronized List<WorkspaceImpl> getByNamespace(String namespace) throws ServerException {
-        return workspaces.values()
+    public List<WorkspaceImpl> getByNamespace(String namespace) throws ServerException {
+        return namespaces.getOrDefault(namespace, Collections.emptyMap())
+                         .values()
                          .stream()
-                         .filter(ws -> ws.getNamespace().equals(namespace))
                          .map(WorkspaceImpl::new)
                          .collect(toList());
     }
 
     @Override
     public List<WorkspaceImpl> getWorkspaces(String userId) throws ServerException {
-        return new ArrayList<>(workspaces.values());
-    }
-
-    private Optional<WorkspaceImpl> find(String name, String owner) {
         return workspaces.values()
                          .stream()
-                         .filter(ws -> ws.getConfig().getName().equals(name) && ws.getNamespace().equals(owner))
-                         .findFirst();
+                         .map(WorkspaceImpl::new)
+                         .collect(toList());
+    }
+
+    private void store(WorkspaceImpl workspace) throws ServerException {
+        final WorkspaceImpl previous = workspaces.get(workspace.getId());
+        try {
+            workspaces.put(workspace.getId(), workspace);
+        } catch (IOException x) {
+            throw new ServerException(x.getLocalizedMessage(), x);
+        }
+        // index new state before removing the old one, so concurrent reads always find the workspace
+        index(workspace);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    private WorkspaceImpl find(String name, String owner) {
+        final Map<String, WorkspaceImpl> byName = namespaces.get(owner);
+        return byName == null ? null : byName.get(name);
+    }
+
+    private void index(WorkspaceImpl workspace) {
+        namespaces.computeIfAbsent(workspace.getNamespace(), namespace -> new ConcurrentHashMap<>())
+                  .put(workspace.getConfig().getName(), workspace);
+    }
+
+    private void unindex(WorkspaceImpl workspace) {
+        final Map<String, WorkspaceImpl> byName = namespaces.get(workspace.getNamespace());
+        if (byName != null) {
+            // name might be already taken by the new state of the same workspace
+            byName.computeIfPresent(workspace.getConfig().getName(), (name, indexed) -> indexed == workspace ? null : indexed);
+            if (byName.isEmpty()) {
+                namespaces.remove(workspace.getNamespace());
+            }
+        }
     }
 }
@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local.storage;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Crash-safe file system storage for map of model objects.
+ *
+ * <p>Storage keeps the whole map in memory and persists it in two files:
+ * <ul>
+ * <li>snapshot - pretty-printed JSON object, the same format as {@link LocalStorage} uses, so existing files are read as is;</li>
+ * <li>journal - file with suffix {@code .journal}, every {@link #put(String, Object) put} and {@link #remove(String) remove} appends
+ * single line JSON record to it.</li>
+ * </ul>
+ * Every mutation is written to the journal before it becomes visible, so it costs one short append instead of rewriting the whole
+ * file. When journal contains {@code snapshotThreshold} records it is renamed to the previous journal (suffix {@code .journal.prev})
+ * and new mutations go to the new journal, while background task writes snapshot to temporary file, atomically moves it over the
+ * old one and deletes the previous journal. So mutations never wait for the snapshot to be written. On {@link #load() load} the
+ * previous journal and then the journal are replayed over the snapshot. Records contain whole values and replay is idempotent, so
+ * it doesn't matter that snapshot may already contain some records of the journal, or that crash happens between moving snapshot and
+ * deleting the previous journal. Incomplete last record, left by crash in the middle of append, is dropped.
+ *
+ * <p>How often journal is forced to the disk is defined by {@link SyncPolicy}. Each record is written to the file before method
+ * returns, so even with {@link SyncPolicy#NEVER} crash of the process doesn't lose data, only crash of the operating system does.
+ *
+ * @implNote reads are served from concurrent map and never block, mutations are serialized by <i>this</i> instance,
+ * snapshots are written by single background thread shared by all storages
+ */
+public class LocalJournalStorage<V> implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalJournalStorage.class);
+
+    private static final String JOURNAL_SUFFIX          = ".journal";
+    private static final String PREVIOUS_JOURNAL_SUFFIX = ".journal.prev";
+    private static final String SNAPSHOT_SUFFIX         = ".tmp";
+    private static final String PUT                     = "put";
+    private static final String REMOVE                  = "remove";
+
+    /** Forces journals with {@link SyncPolicy#INTERVAL} policy at the end of sync period, shared by all storages. */
+    private static final ScheduledExecutorService SYNC_EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("LocalJournalStorageSync")
+                                                                                 .setDaemon(true)
+                                                                                 .build());
+
+    /** Writes snapshots of storages which journals reached the threshold, shared by all storages. */
+    private static final ExecutorService SNAPSHOT_EXECUTOR =
+            Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("LocalJournalStorageSnapshot")
+                                                                        .setDaemon(true)
+                                                                        .build());
+
+    /** Defines when journal is forced to the storage device. */
+    public enum SyncPolicy {
+        /** Force journal after every record. */
+        ALWAYS,
+        /**
+         * Force journal at most once per sync period, see {@link LocalStorageFactory}. Record that is appended before the period
+         * is elapsed is forced by background task at the end of the period, so it is never left unforced.
+         */
+        INTERVAL,
+        /** Never force journal, rely on the operating system. */
+        NEVER
+    }
+
+    private final Path           snapshotFile;
+    private final Path           journalFile;
+    private final Path           previousJournalFile;
+    private final Type           valueType;
+    private final Gson           gson;
+    private final SyncPolicy     syncPolicy;
+    private final long           syncPeriodMillis;
+    private final int            snapshotThreshold;
+    private final Map<String, V> data;
+    private final Map<String, V> readOnlyData;
+    /** Serializes writing of snapshots, acquired before <i>this</i> instance. */
+    private final Object         snapshotLock;
+
+    private FileChannel        journal;
+    private int                journalRecords;
+    private long               lastSync;
+    private boolean            unsynced;
+    private ScheduledFuture<?> scheduledSync;
+    private Future<?>          scheduledSnapshot;
+
+    public LocalJournalStorage(Path snapshotFile,
+                               Type valueType,
+                               Map<Class<?>, Object> typeAdapters,
+                               SyncPolicy syncPolicy,
+                               long syncPeriodMillis,
+                               int snapshotThreshold) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + JOURNAL_SUFFIX);
+        this.previousJournalFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + PREVIOUS_JOURNAL_SUFFIX);
+        this.valueType = valueType;
+        this.syncPolicy = syncPolicy;
+        this.syncPeriodMillis = syncPeriodMillis;
+        this.snapshotThreshold = snapshotThreshold;
+        final GsonBuilder builder = new GsonBuilder();
+        for (Map.Entry<Class<?>, Object> adapter : typeAdapters.entrySet()) {
+            builder.registerTypeAdapter(adapter.getKey(), adapter.getValue());
+        }
+        this.gson = builder.create();
+        this.data = new ConcurrentHashMap<>();
+        this.readOnlyData = Collections.unmodifiableMap(data);
+        this.snapshotLock = new Object();
+    }
+
+    /**
+     * Reads snapshot and replays previous journal and journal over it. All data which is already in memory is replaced.
+     *
+     * @return unmodifiable view of stored map, the same as {@link #asMap()} returns
+     * @throws IOException
+     *         when snapshot or journal can't be read
+     */
+    public synchronized Map<String, V> load() throws IOException {
+        data.clear();
+        if (Files.exists(snapshotFile)) {
+            try {
+                final JsonElement snapshot = new JsonParser().parse(new String(Files.readAllBytes(snapshotFile), UTF_8));
+                if (snapshot.isJsonObject()) {
+                    for (Map.Entry<String, JsonElement> entry : snapshot.getAsJsonObject().entrySet()) {
+                        data.put(entry.getKey(), gson.fromJson(entry.getValue(), valueType));
+                    }
+                }
+            } catch (JsonParseException x) {
+                LOG.warn("{} contains invalid JSON content", snapshotFile.getFileName());
+            }
+        }
+        journalRecords = 0;
+        if (Files.exists(previousJournalFile)) {
+            replayJournal(previousJournalFile);
+        }
+        if (Files.exists(journalFile)) {
+            replayJournal(journalFile);
+        }
+        return readOnlyData;
+    }
+
+    /** Returns value mapped to the key or {@code null} if there is no such value. */
+    public V get(String key) {
+        return data.get(key);
+    }
+
+    /** Returns {@code true} if there is value mapped to the key. */
+    public boolean containsKey(String key) {
+        return data.containsKey(key);
+    }
+
+    /** Returns unmodifiable view of stored values. */
+    public Collection<V> values() {
+        return readOnlyData.values();
+    }
+
+    /** Returns unmodifiable view of stored map. */
+    public Map<String, V> asMap() {
+        return readOnlyData;
+    }
+
+    /**
+     * Appends record to the journal and maps the value to the key. Value must not be modified after it is stored.
+     *
+     * @throws IOException
+     *         when record can't be written, in this case value isn't stored
+     */
+    public synchronized void put(String key, V value) throws IOException {
+        final JsonObject record = new JsonObject();
+        record.addProperty(PUT, key);
+        record.add("value", gson.toJsonTree(value, valueType));
+        append(record);
+        data.put(key, value);
+        scheduleSnapshotIfNeeded();
+    }
+
+    /**
+     * Appends record to the journal and removes the value mapped to the key.
+     *
+     * @return removed value or {@code null} if there was no value mapped to the key
+     * @throws IOException
+     *         when record can't be written, in this case value isn't removed
+     */
+    public synchronized V remove(String key) throws IOException {
+        if (!data.containsKey(key)) {
+            return null;
+        }
+        final JsonObject record = new JsonObject();
+        record.addProperty(REMOVE, key);
+        append(record);
+        final V removed = data.remove(key);
+        scheduleSnapshotIfNeeded();
+        return removed;
+    }
+
+    /**
+     * Writes the whole map to the snapshot file and truncates journal. Mutations are not blocked while snapshot is written, they go
+     * to the new journal.
+     *
+     * @throws IOException
+     *         when snapshot can't be written, in this case journal records are kept in the previous journal
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            synchronized (this) {
+                rotateJournal();
+            }
+            final Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + SNAPSHOT_SUFFIX);
+            try (FileChannel channel = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                final JsonWriter writer = new JsonWriter(new OutputStreamWriter(Channels.newOutputStream(channel), UTF_8));
+                // the same output as pretty printing gson produces for the whole map
+                writer.setIndent("  ");
+                writer.setHtmlSafe(true);
+                writer.beginObject();
+                // stored values are never modified, concurrent mutation is either in the snapshot or replayed from the new journal
+                for (Map.Entry<String, V> entry : data.entrySet()) {
+                    writer.name(entry.getKey());
+                    gson.toJson(entry.getValue(), valueType, writer);
+                }
+                writer.endObject();
+                writer.flush();
+                channel.force(true);
+            }
+            Files.move(tmp, snapshotFile, ATOMIC_MOVE, REPLACE_EXISTING);
+            Files.deleteIfExists(previousJournalFile);
+        }
+    }
+
+    /** Waits for the scheduled snapshot and closes journal, next mutation opens it again. */
+    @Override
+    public void close() throws IOException {
+        final Future<?> snapshot;
+        synchronized (this) {
+            snapshot = scheduledSnapshot;
+        }
+        if (snapshot != null) {
+            try {
+                snapshot.get();
+            } catch (InterruptedException x) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException x) {
+                LOG.error("Failed to write snapshot " + snapshotFile.getFileName(), x.getCause());
+            }
+        }
+        closeJournal();
+    }
+
+    private synchronized void closeJournal() throws IOException {
+        if (scheduledSync != null) {
+            scheduledSync.cancel(false);
+            scheduledSync = null;
+        }
+        if (journal != null) {
+            try {
+                journal.force(true);
+                unsynced = false;
+            } finally {
+                journal.close();
+                journal = null;
+            }
+        }
+    }
+
+    private void append(JsonObject record) throws IOException {
+        if (journal == null) {
+            journal = FileChannel.open(journalFile, CREATE, WRITE, APPEND);
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap((gson.toJson(record) + '\n').getBytes(UTF_8));
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        journalRecords++;
+        if (syncPolicy == SyncPolicy.ALWAYS) {
+            journal.force(false);
+        } else if (syncPolicy == SyncPolicy.INTERVAL) {
+            final long now = System.currentTimeMillis();
+            final long sinceLastSync = now - lastSync;
+            if (sinceLastSync >= syncPeriodMillis) {
+                journal.force(false);
+                lastSync = now;
+                unsynced = false;
+            } else {
+                unsynced = true;
+                if (scheduledSync == null) {
+                    scheduledSync = SYNC_EXECUTOR.schedule(this::syncScheduled, syncPeriodMillis - sinceLastSync, MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    private synchronized void syncScheduled() {
+        scheduledSync = null;
+        if (journal != null && unsynced) {
+            try {
+                journal.force(false);
+                lastSync = System.currentTimeMillis();
+                unsynced = false;
+            } catch (IOException x) {
+                LOG.error("Failed to force journal " + journalFile.getFileName(), x);
+            }
+        }
+    }
+
+    private void scheduleSnapshotIfNeeded() {
+        if (journalRecords >= snapshotThreshold && scheduledSnapshot == null) {
+            scheduledSnapshot = SNAPSHOT_EXECUTOR.submit(this::snapshotScheduled);
+        }
+    }
+
+    private void snapshotScheduled() {
+        try {
+            snapshot();
+        } catch (IOException x) {
+            // records are kept in the previous journal, snapshot is written again after the next threshold
+            LOG.error("Failed to write snapshot " + snapshotFile.getFileName(), x);
+        } finally {
+            synchronized (this) {
+                scheduledSnapshot = null;
+            }
+        }
+    }
+
+    /** Renames journal to the previous journal, or appends it to the previous journal left by failed snapshot, and opens new one. */
+    private void rotateJournal() throws IOException {
+        closeJournal();
+        if (Files.exists(journalFile)) {
+            if (Files.exists(previousJournalFile)) {
+                try (FileChannel previous = FileChannel.open(previousJournalFile, WRITE, APPEND);
+                     FileChannel current = FileChannel.open(journalFile, READ)) {
+                    long position = 0;
+                    final long size = current.size();
+                    while (position < size) {
+                        position += current.transferTo(position, size - position, previous);
+                    }
+                    previous.force(true);
+                }
+            } else {
+                Files.move(journalFile, previousJournalFile, ATOMIC_MOVE);
+            }
+        }
+        journal = FileChannel.open(journalFile, CREATE, WRITE, TRUNCATE_EXISTING);
+        journal.force(true);
+        journalRecords = 0;
+    }
+
+    private void replayJournal(Path file) throws IOException {
+        final byte[] content = Files.readAllBytes(file);
+        final JsonParser parser = new JsonParser();
+        int start = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            final String line = new String(content, start, i - start, UTF_8);
+            start = i + 1;
+            try {
+                final JsonObject record = parser.parse(line).getAsJsonObject();
+                if (record.has(PUT)) {
+                    data.put(record.get(PUT).getAsString(), gson.fromJson(record.get("value"), valueType));
+                } else if (record.has(REMOVE)) {
+                    data.remove(record.get(REMOVE).getAsString());
+                }
+                journalRecords++;
+            } catch (JsonParseException | IllegalStateException x) {
+                LOG.warn("Skipped invalid record in {}: {}", file.getFileName(), line);
+            }
+        }
+        if (start < content.length) {
+            // the last record wasn't completely written
+            LOG.warn("Dropped incomplete record at the end of {}", file.getFileName());
+            try (FileChannel channel = FileChannel.open(file, WRITE)) {
+                channel.truncate(start);
+                channel.force(true);
+            }
+        }
+    }
+}
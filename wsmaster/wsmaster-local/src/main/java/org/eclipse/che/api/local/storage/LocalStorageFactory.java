@@ -11,10 +11,15 @@
 package org.eclipse.che.api.local.storage;
 
 
+import org.eclipse.che.api.local.storage.LocalJournalStorage.SyncPolicy;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Paths;
 import java.util.Map;
 
 /**
@@ -25,12 +30,39 @@ import java.util.Map;
 @Singleton
 public class LocalStorageFactory {
 
+    private static final SyncPolicy DEFAULT_SYNC_POLICY        = SyncPolicy.INTERVAL;
+    private static final long       DEFAULT_SYNC_PERIOD_MILLIS = 1000;
+    private static final int        DEFAULT_SNAPSHOT_THRESHOLD = 1000;
+
     /** Path to storage root folder. */
-    private final String pathToStorage;
+    private final String     pathToStorage;
+    private final SyncPolicy syncPolicy;
+    private final long       syncPeriodMillis;
+    private final int        snapshotThreshold;
+
+    public LocalStorageFactory(String pathToStorage) {
+        this(pathToStorage, DEFAULT_SYNC_POLICY.name(), DEFAULT_SYNC_PERIOD_MILLIS, DEFAULT_SNAPSHOT_THRESHOLD);
+    }
 
+    /**
+     * @param pathToStorage
+     *         path to storage root folder
+     * @param syncPolicy
+     *         name of {@link SyncPolicy} for journals, case insensitive
+     * @param syncPeriodMillis
+     *         minimal period between forcing journal to the disk when policy is {@link SyncPolicy#INTERVAL}
+     * @param snapshotThreshold
+     *         number of records in journal after which new snapshot is written and journal is truncated
+     */
     @Inject
-    public LocalStorageFactory(@Named("che.conf.storage") String pathToStorage) {
+    public LocalStorageFactory(@Named("che.conf.storage") String pathToStorage,
+                               @Named("che.conf.storage.journal.sync") String syncPolicy,
+                               @Named("che.conf.storage.journal.sync_period_ms") long syncPeriodMillis,
+                               @Named("che.conf.storage.journal.snapshot_threshold") int snapshotThreshold) {
         this.pathToStorage = pathToStorage;
+        this.syncPolicy = SyncPolicy.valueOf(syncPolicy.toUpperCase());
+        this.syncPeriodMillis = syncPeriodMillis;
+        this.snapshotThreshold = snapshotThreshold;
     }
 
     /**
@@ -56,4 +88,29 @@ public class LocalStorageFactory {
     public LocalStorage create(String fileName, Map<Class<?>, Object> typeAdapters) throws IOException {
         return new LocalStorage(pathToStorage, fileName, typeAdapters);
     }
-}
\ No newline at end of file
+
+    /**
+     * @param fileName
+     *         name of snapshot file in local storage, journal is stored next to it.
+     * @param valueType
+     *         type of stored values.
+     * @param typeAdapters
+     *         types and object adapters when need a special deserialization.
+     * @return instance of LocalJournalStorage, data must be {@link LocalJournalStorage#load() loaded} before usage.
+     * @throws IOException
+     *         occurs when cannot create root storage directory.
+     */
+    public <V> LocalJournalStorage<V> createJournal(String fileName, Type valueType, Map<Class<?>, Object> typeAdapters)
+            throws IOException {
+        final File rootDir = new File(pathToStorage);
+        if (!rootDir.exists() && !rootDir.mkdirs()) {
+            throw new IOException("Impossible to create root folder for local storage");
+        }
+        return new LocalJournalStorage<>(Paths.get(pathToStorage, fileName),
+                                         valueType,
+                                         typeAdapters,
+                                         syncPolicy,
+                                         syncPeriodMillis,
+                                         snapshotThreshold);
+    }
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.reflect.TypeToken;
+import com.google.gson.GsonBuilder;
+
+import org.eclipse.che.api.local.storage.LocalJournalStorage;
+import org.eclipse.che.api.local.storage.LocalJournalStorage.SyncPolicy;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for {@link LocalJournalStorage}.
+ */
+public class LocalJournalStorageTest {
+
+    private static final Type VALUE_TYPE = new TypeToken<Map<String, String>>() {}.getType();
+
+    private Path snapshotFile;
+    private Path journalFile;
+    private Path previousJournalFile;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        assertNotNull(url);
+        final Path storageRoot = Paths.get(url.toURI()).getParent().resolve("journal_storage");
+        Files.createDirectories(storageRoot);
+        snapshotFile = storageRoot.resolve("items.json");
+        journalFile = storageRoot.resolve("items.json.journal");
+        previousJournalFile = storageRoot.resolve("items.json.journal.prev");
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(previousJournalFile);
+    }
+
+    @Test
+    public void shouldRestoreModificationsFromJournal() throws Exception {
+        final LocalJournalStorage<Map<String, String>> storage = createStorage(100);
+        storage.load();
+        storage.put("a", ImmutableMap.of("name", "first"));
+        storage.put("b", ImmutableMap.of("name", "second"));
+        storage.put("a", ImmutableMap.of("name", "updated"));
+        storage.remove("b");
+        storage.close();
+
+        assertFalse(Files.exists(snapshotFile));
+
+        final Map<String, Map<String, String>> restored = createStorage(100).load();
+
+        assertEquals(restored, ImmutableMap.of("a", ImmutableMap.of("name", "updated")));
+    }
+
+    @Test
+    public void shouldReplayJournalOverSnapshot() throws Exception {
+        Files.write(snapshotFile, "{\"a\":{\"name\":\"first\"},\"b\":{\"name\":\"second\"}}".getBytes(UTF_8));
+        final LocalJournalStorage<Map<String, String>> storage = createStorage(100);
+        storage.load();
+        storage.remove("a");
+        storage.put("c", ImmutableMap.of("name", "third"));
+        storage.close();
+
+        final Map<String, Map<String, String>> restored = createStorage(100).load();
+
+        assertEquals(restored, ImmutableMap.of("b", ImmutableMap.of("name", "second"),
+                                               "c", ImmutableMap.of("name", "third")));
+    }
+
+    @Test
+    public void shouldDropIncompleteRecordAtTheEndOfJournal() throws Exception {
+        final LocalJournalStorage<Map<String, String>> storage = createStorage(100);
+        storage.load();
+        storage.put("a", ImmutableMap.of("name", "first"));
+        storage.close();
+        Files.write(journalFile, "{\"put\":\"b\",\"val".getBytes(UTF_8), APPEND);
+        final long journalSize = Files.size(journalFile);
+
+        final Map<String, Map<String, String>> restored = createStorage(100).load();
+
+        assertEquals(restored, ImmutableMap.of("a", ImmutableMap.of("name", "first")));
+        assertTrue(Files.size(journalFile) < journalSize);
+    }
+
+    @Test
+    public void shouldWriteSnapshotInTheSameFormatAsGsonAndTruncateJournal() throws Exception {
+        final LocalJournalStorage<Map<String, String>> storage = createStorage(100);
+        storage.load();
+        storage.put("a", ImmutableMap.of("name", "<first>"));
+        storage.snapshot();
+        storage.close();
+
+        assertEquals(new String(Files.readAllBytes(snapshotFile), UTF_8),
+                     new GsonBuilder().setPrettyPrinting().create().toJson(ImmutableMap.of("a", ImmutableMap.of("name", "<first>"))));
+        assertEquals(Files.size(journalFile), 0);
+    }
+
+    @Test
+    public void shouldWriteSnapshotWhenJournalReachesThreshold() throws Exception {
+        final LocalJournalStorage<Map<String, String>> storage = createStorage(3);
+        storage.load();
+        storage.put("a", ImmutableMap.of("name", "first"));
+        storage.put("b", ImmutableMap.of("name", "second"));
+        storage.put("c", ImmutableMap.of("name", "third"));
+        storage.put("d", ImmutableMap.of("name", "fourth"));
+        storage.close();
+
+        assertTrue(Files.exists(snapshotFile));
+        assertFalse(Files.exists(previousJournalFile));
+        // the last record goes either to the snapshot or to the new journal, depending on when background snapshot starts
+        assertTrue(Files.readAllLines(journalFile).size() <= 1);
+        assertEquals(createStorage(3).load().keySet(), ImmutableMap.of("a", "", "b", "", "c", "", "d", "").keySet());
+    }
+
+    @Test
+    public void shouldReplayPreviousJournalWhenSnapshotWasNotWritten() throws Exception {
+        Files.write(snapshotFile, "{\"a\":{\"name\":\"first\"}}".getBytes(UTF_8));
+        Files.write(previousJournalFile, ("{\"put\":\"b\",\"value\":{\"name\":\"second\"}}\n" +
+                                          "{\"put\":\"a\",\"value\":{\"name\":\"updated\"}}\n").getBytes(UTF_8));
+        Files.write(journalFile, "{\"remove\":\"b\"}\n".getBytes(UTF_8));
+
+        final LocalJournalStorage<Map<String, String>> storage = createStorage(100);
+        final Map<String, Map<String, String>> restored = storage.load();
+
+        assertEquals(restored, ImmutableMap.of("a", ImmutableMap.of("name", "updated")));
+
+        storage.put("c", ImmutableMap.of("name", "third"));
+        storage.snapshot();
+        storage.close();
+
+        assertFalse(Files.exists(previousJournalFile));
+        assertEquals(Files.size(journalFile), 0);
+        assertEquals(createStorage(100).load(), ImmutableMap.of("a", ImmutableMap.of("name", "updated"),
+                                                                 "c", ImmutableMap.of("name", "third")));
+    }
+
+    @Test
+    public void shouldAcceptModificationsWhileSnapshotIsWritten() throws Exception {
+        final LocalJournalStorage<Map<String, String>> storage = createStorage(10);
+        storage.load();
+        for (int i = 0; i < 1000; i++) {
+            storage.put("key" + i % 50, ImmutableMap.of("name", "value" + i));
+            if (i % 7 == 0) {
+                storage.remove("key" + i % 13);
+            }
+        }
+        final Map<String, Map<String, String>> expected = ImmutableMap.copyOf(storage.asMap());
+        storage.close();
+
+        assertEquals(createStorage(10).load(), expected);
+    }
+
+    private LocalJournalStorage<Map<String, String>> createStorage(int snapshotThreshold) throws IOException {
+        return new LocalJournalStorage<>(snapshotFile, VALUE_TYPE, Collections.emptyMap(), SyncPolicy.ALWAYS, 0, snapshotThreshold);
+    }
+}
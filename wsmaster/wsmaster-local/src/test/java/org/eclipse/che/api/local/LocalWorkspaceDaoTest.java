@@ -13,6 +13,9 @@ package org.eclipse.che.api.local;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.machine.server.model.impl.CommandImpl;
 import org.eclipse.che.api.machine.server.model.impl.LimitsImpl;
@@ -38,6 +41,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static java.nio.file.Files.deleteIfExists;
 import static java.nio.file.Files.readAllBytes;
 import static java.nio.file.Files.write;
 import static java.util.Arrays.asList;
@@ -46,6 +50,7 @@ import static java.util.Collections.singletonMap;
 import static org.eclipse.che.commons.lang.NameGenerator.generate;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.fail;
 
 /**
  * @author Eugene Voevodin
@@ -64,6 +69,8 @@ public class LocalWorkspaceDaoTest {
         final Path targetDir = Paths.get(url.toURI()).getParent();
         final Path storageRoot = targetDir.resolve("workspaces");
         workspacesPath = storageRoot.resolve("workspaces.json");
+        deleteIfExists(storageRoot.resolve("workspaces.json.journal"));
+        deleteIfExists(storageRoot.resolve("workspaces.json.journal.prev"));
         workspaceDao = new LocalWorkspaceDaoImpl(new LocalStorageFactory(storageRoot.toString()));
     }
 
@@ -88,6 +95,78 @@ public class LocalWorkspaceDaoTest {
         assertEquals(result, workspace);
     }
 
+    @Test
+    public void shouldFindWorkspaceByNewNameAfterUpdate() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace();
+        workspaceDao.create(workspace);
+
+        workspace.getConfig().setName("new-name");
+        workspaceDao.update(workspace);
+
+        assertEquals(workspaceDao.get("new-name", workspace.getNamespace()).getId(), workspace.getId());
+        try {
+            workspaceDao.get("test-workspace-name", workspace.getNamespace());
+            fail("Workspace must not be found by old name");
+        } catch (NotFoundException ignored) {
+        }
+    }
+
+    @Test
+    public void shouldNotRenameWorkspaceToNameOfOtherWorkspaceInTheSameNamespace() throws Exception {
+        final WorkspaceImpl workspace1 = createWorkspace();
+        final WorkspaceImpl workspace2 = createWorkspace();
+        workspace2.getConfig().setName("test-workspace-name-2");
+        workspaceDao.create(workspace1);
+        workspaceDao.create(workspace2);
+
+        workspace2.getConfig().setName(workspace1.getConfig().getName());
+        try {
+            workspaceDao.update(workspace2);
+            fail("Workspace must not be renamed to the name of other workspace");
+        } catch (ConflictException ignored) {
+        }
+
+        assertEquals(workspaceDao.get("test-workspace-name", "user123").getId(), workspace1.getId());
+        assertEquals(workspaceDao.get("test-workspace-name-2", "user123").getId(), workspace2.getId());
+        assertEquals(workspaceDao.getByNamespace("user123").size(), 2);
+    }
+
+    @Test
+    public void shouldGetWorkspacesByNamespace() throws Exception {
+        final WorkspaceImpl workspace1 = createWorkspace();
+        final WorkspaceImpl workspace2 = createWorkspace();
+        workspace2.getConfig().setName("test-workspace-name-2");
+        final WorkspaceImpl workspace3 = WorkspaceImpl.builder()
+                                                      .setId(generate("workspace", 16))
+                                                      .setConfig(createWorkspace().getConfig())
+                                                      .setNamespace("other-user")
+                                                      .build();
+        workspaceDao.create(workspace1);
+        workspaceDao.create(workspace2);
+        workspaceDao.create(workspace3);
+        workspaceDao.remove(workspace1.getId());
+
+        final List<WorkspaceImpl> result = workspaceDao.getByNamespace("user123");
+
+        assertEquals(result.size(), 1);
+        assertEquals(result.get(0).getId(), workspace2.getId());
+    }
+
+    @Test
+    public void shouldNotExposeStoredWorkspacesWhenAllWorkspacesAreRequested() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace();
+        workspaceDao.create(workspace);
+
+        for (WorkspaceImpl returned : workspaceDao.getWorkspaces("user123")) {
+            returned.setStatus(WorkspaceStatus.RUNNING);
+        }
+
+        assertEquals(workspaceDao.get(workspace.getId()).getStatus(), WorkspaceStatus.STOPPED);
+        for (WorkspaceImpl returned : workspaceDao.getWorkspaces("user123")) {
+            assertEquals(returned.getStatus(), WorkspaceStatus.STOPPED);
+        }
+    }
+
     private static WorkspaceImpl createWorkspace() {
         // environments
         final RecipeImpl recipe = new RecipeImpl();